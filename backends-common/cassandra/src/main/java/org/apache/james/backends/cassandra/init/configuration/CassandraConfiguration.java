@@ -60,6 +60,7 @@ public class CassandraConfiguration {
     public static final boolean DEFAULT_STRONG_CONSISTENCY = true;
     public static final boolean DEFAULT_OPTIMISTIC_CONSISTENCY_LEVEL = false;
     public static final boolean DEFAULT_MAIL_REPOSITORY_STRONG_CONSISTENCY = true;
+    public static final boolean DEFAULT_UID_MODSEQ_SINGLE_LIGHTWEIGHT_TRANSACTION = false;
 
     private static final String MAILBOX_READ_REPAIR = "mailbox.read.repair.chance";
     private static final String MAILBOX_MAX_COUNTERS_READ_REPAIR = "mailbox.counters.read.repair.chance.max";
@@ -82,6 +83,7 @@ public class CassandraConfiguration {
     private static final String CONSISTENCY_LEVEL_LIGHTWEIGHT_TRANSACTION = "cassandra.consistency_level.lightweight_transaction";
     private static final String OPTIMISTIC_CONSISTENCY_LEVEL = "optimistic.consistency.level.enabled";
     private static final String MAIL_REPOSITORY_STRONG_CONSISTENCY = "mailrepository.strong.consistency";
+    private static final String UID_MODSEQ_SINGLE_LIGHTWEIGHT_TRANSACTION = "mailbox.uid.modseq.single.lwt.enabled";
 
     public static final CassandraConfiguration DEFAULT_CONFIGURATION = builder().build();
 
@@ -107,6 +109,7 @@ public class CassandraConfiguration {
         private Optional<Boolean> messageWriteStrongConsistency = Optional.empty();
         private Optional<Boolean> optimisticConsistencyLevel = Optional.empty();
         private Optional<Boolean> mailRepositoryStrongConsistency = Optional.empty();
+        private Optional<Boolean> uidModSeqSingleLightweightTransaction = Optional.empty();
 
         public Builder mailboxReadStrongConsistency(boolean value) {
             this.mailboxReadStrongConsistency = Optional.of(value);
@@ -334,6 +337,16 @@ public class CassandraConfiguration {
             return this;
         }
 
+        public Builder uidModSeqSingleLightweightTransaction(boolean value) {
+            this.uidModSeqSingleLightweightTransaction = Optional.of(value);
+            return this;
+        }
+
+        public Builder uidModSeqSingleLightweightTransaction(Optional<Boolean> value) {
+            this.uidModSeqSingleLightweightTransaction = value;
+            return this;
+        }
+
         public CassandraConfiguration build() {
             String consistencyLevelRegular = this.consistencyLevelRegular.orElse(DEFAULT_CONSISTENCY_LEVEL_REGULAR);
             String consistencyLevelLightweightTransaction = this.consistencyLevelLightweightTransaction.orElse(DEFAULT_CONSISTENCY_LEVEL_LIGHTWEIGHT_TRANSACTION);
@@ -363,7 +376,8 @@ public class CassandraConfiguration {
                 messageReadStrongConsistency.orElse(DEFAULT_STRONG_CONSISTENCY),
                 messageWriteStrongConsistency.orElse(DEFAULT_STRONG_CONSISTENCY),
                 optimisticConsistencyLevel.orElse(DEFAULT_OPTIMISTIC_CONSISTENCY_LEVEL),
-                mailRepositoryStrongConsistency.orElse(DEFAULT_MAIL_REPOSITORY_STRONG_CONSISTENCY));
+                mailRepositoryStrongConsistency.orElse(DEFAULT_MAIL_REPOSITORY_STRONG_CONSISTENCY),
+                uidModSeqSingleLightweightTransaction.orElse(DEFAULT_UID_MODSEQ_SINGLE_LIGHTWEIGHT_TRANSACTION));
         }
     }
 
@@ -415,6 +429,8 @@ public class CassandraConfiguration {
                 propertiesConfiguration.getBoolean(OPTIMISTIC_CONSISTENCY_LEVEL, null)))
             .mailRepositoryStrongConsistency(Optional.ofNullable(
                 propertiesConfiguration.getBoolean(MAIL_REPOSITORY_STRONG_CONSISTENCY, null)))
+            .uidModSeqSingleLightweightTransaction(Optional.ofNullable(
+                propertiesConfiguration.getBoolean(UID_MODSEQ_SINGLE_LIGHTWEIGHT_TRANSACTION, null)))
             .build();
     }
 
@@ -439,6 +455,7 @@ public class CassandraConfiguration {
     private final boolean messageWriteStrongConsistency;
     private final boolean optimisticConsistencyLevel;
     private final boolean mailRepositoryStrongConsistency;
+    private final boolean uidModSeqSingleLightweightTransaction;
 
     @VisibleForTesting
     CassandraConfiguration(int aclMaxRetry, int messageReadChunkSize, int expungeChunkSize,
@@ -449,7 +466,8 @@ public class CassandraConfiguration {
                            float mailboxReadRepair, float mailboxCountersReadRepairChanceMax,
                            float mailboxCountersReadRepairChanceOneHundred, boolean mailboxReadStrongConsistency,
                            boolean messageReadStrongConsistency, boolean messageWriteStrongConsistency,
-                           boolean optimisticConsistencyLevel, boolean mailRepositoryStrongConsistency) {
+                           boolean optimisticConsistencyLevel, boolean mailRepositoryStrongConsistency,
+                           boolean uidModSeqSingleLightweightTransaction) {
         this.aclMaxRetry = aclMaxRetry;
         this.messageReadChunkSize = messageReadChunkSize;
         this.expungeChunkSize = expungeChunkSize;
@@ -471,6 +489,7 @@ public class CassandraConfiguration {
         this.messageWriteStrongConsistency = messageWriteStrongConsistency;
         this.optimisticConsistencyLevel = optimisticConsistencyLevel;
         this.mailRepositoryStrongConsistency = mailRepositoryStrongConsistency;
+        this.uidModSeqSingleLightweightTransaction = uidModSeqSingleLightweightTransaction;
     }
 
     public boolean isMailboxReadStrongConsistency() {
@@ -557,6 +576,10 @@ public class CassandraConfiguration {
         return mailRepositoryStrongConsistency;
     }
 
+    public boolean isUidModSeqSingleLightweightTransaction() {
+        return uidModSeqSingleLightweightTransaction;
+    }
+
     @Override
     public final boolean equals(Object o) {
         if (o instanceof CassandraConfiguration) {
@@ -582,7 +605,8 @@ public class CassandraConfiguration {
                 && Objects.equals(this.consistencyLevelRegular, that.consistencyLevelRegular)
                 && Objects.equals(this.consistencyLevelLightweightTransaction, that.consistencyLevelLightweightTransaction)
                 && Objects.equals(this.optimisticConsistencyLevel, that.optimisticConsistencyLevel)
-                && Objects.equals(this.mailRepositoryStrongConsistency, that.mailRepositoryStrongConsistency);
+                && Objects.equals(this.mailRepositoryStrongConsistency, that.mailRepositoryStrongConsistency)
+                && Objects.equals(this.uidModSeqSingleLightweightTransaction, that.uidModSeqSingleLightweightTransaction);
 
         }
         return false;
@@ -596,7 +620,7 @@ public class CassandraConfiguration {
             blobPartSize, attachmentV2MigrationReadTimeout, messageAttachmentIdsReadTimeout,
             consistencyLevelRegular, consistencyLevelLightweightTransaction, mailboxReadRepair,
             messageReadStrongConsistency, mailboxReadStrongConsistency, messageWriteStrongConsistency,
-            optimisticConsistencyLevel, mailRepositoryStrongConsistency);
+            optimisticConsistencyLevel, mailRepositoryStrongConsistency, uidModSeqSingleLightweightTransaction);
     }
 
     @Override
@@ -623,6 +647,7 @@ public class CassandraConfiguration {
             .add("consistencyLevelLightweightTransaction", consistencyLevelLightweightTransaction)
             .add("optimisticConsistencyLevel", optimisticConsistencyLevel)
             .add("mailRepositoryStrongConsistency", mailRepositoryStrongConsistency)
+            .add("uidModSeqSingleLightweightTransaction", uidModSeqSingleLightweightTransaction)
             .toString();
     }
 }
@@ -226,6 +226,7 @@ class CassandraConfigurationTest {
             .messageAttachmentIdsReadTimeout(messageAttachmentIdReadTimeout)
             .consistencyLevelRegular(consistencyLevelRegular)
             .consistencyLevelLightweightTransaction(consistencyLevelLightweightTransaction)
+            .uidModSeqSingleLightweightTransaction(true)
             .build();
 
         SoftAssertions.assertSoftly(softly -> {
@@ -242,6 +243,7 @@ class CassandraConfigurationTest {
             softly.assertThat(configuration.getMessageAttachmentIdsReadTimeout()).isEqualTo(messageAttachmentIdReadTimeout);
             softly.assertThat(configuration.getConsistencyLevelRegular()).isEqualTo(consistencyLevelRegular);
             softly.assertThat(configuration.getConsistencyLevelLightweightTransaction()).isEqualTo(consistencyLevelLightweightTransaction);
+            softly.assertThat(configuration.isUidModSeqSingleLightweightTransaction()).isTrue();
         });
     }
 
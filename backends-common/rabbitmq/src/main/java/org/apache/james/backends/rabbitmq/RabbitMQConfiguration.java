@@ -306,6 +306,7 @@ public class RabbitMQConfiguration {
     private static final String QUEUE_TTL = "notification.queue.ttl";
     private static final String EVENT_BUS_NOTIFICATION_DURABILITY_ENABLED = "event.bus.notification.durability.enabled";
     private static final String EVENT_BUS_PUBLISH_CONFIRM_ENABLED = "event.bus.publish.confirm.enabled";
+    private static final String EVENT_BUS_BINARY_SERIALIZATION_ENABLED = "event.bus.binary.serialization.enabled";
 
     public static class ManagementCredentials {
 
@@ -402,6 +403,7 @@ public class RabbitMQConfiguration {
         private Optional<Long> queueTTL;
         private Optional<Boolean> eventBusPublishConfirmEnabled;
         private Optional<Boolean> eventBusNotificationDurabilityEnabled;
+        private Optional<Boolean> eventBusBinarySerializationEnabled;
 
         private Builder(URI amqpUri, URI managementUri, ManagementCredentials managementCredentials) {
             this.amqpUri = amqpUri;
@@ -423,6 +425,7 @@ public class RabbitMQConfiguration {
             this.queueTTL = Optional.empty();
             this.eventBusPublishConfirmEnabled = Optional.empty();
             this.eventBusNotificationDurabilityEnabled = Optional.empty();
+            this.eventBusBinarySerializationEnabled = Optional.empty();
         }
 
         public Builder maxRetries(int maxRetries) {
@@ -487,6 +490,11 @@ public class RabbitMQConfiguration {
             return this;
         }
 
+        public Builder eventBusBinarySerializationEnabled(Boolean eventBusBinarySerializationEnabled) {
+            this.eventBusBinarySerializationEnabled = Optional.ofNullable(eventBusBinarySerializationEnabled);
+            return this;
+        }
+
         public Builder useQuorumQueues(Boolean useQuorumQueues) {
             this.useQuorumQueues = Optional.ofNullable(useQuorumQueues);
             return this;
@@ -535,7 +543,8 @@ public class RabbitMQConfiguration {
                     hostsDefaultingToUri(),
                     queueTTL,
                     eventBusPublishConfirmEnabled.orElse(true),
-                    eventBusNotificationDurabilityEnabled.orElse(true));
+                    eventBusNotificationDurabilityEnabled.orElse(true),
+                    eventBusBinarySerializationEnabled.orElse(false));
         }
 
         private List<Host> hostsDefaultingToUri() {
@@ -598,6 +607,7 @@ public class RabbitMQConfiguration {
             .queueTTL(queueTTL)
             .eventBusNotificationDurabilityEnabled(configuration.getBoolean(EVENT_BUS_NOTIFICATION_DURABILITY_ENABLED, null))
             .eventBusPublishConfirmEnabled(configuration.getBoolean(EVENT_BUS_PUBLISH_CONFIRM_ENABLED, null))
+            .eventBusBinarySerializationEnabled(configuration.getBoolean(EVENT_BUS_BINARY_SERIALIZATION_ENABLED, null))
             .build();
     }
 
@@ -668,12 +678,14 @@ public class RabbitMQConfiguration {
     private final Optional<Long> queueTTL;
     private final boolean eventBusPublishConfirmEnabled;
     private final boolean eventBusNotificationDurabilityEnabled;
+    private final boolean eventBusBinarySerializationEnabled;
 
     private RabbitMQConfiguration(URI uri, URI managementUri, ManagementCredentials managementCredentials, int maxRetries, int minDelayInMs,
                                   int connectionTimeoutInMs, int channelRpcTimeoutInMs, int handshakeTimeoutInMs, int shutdownTimeoutInMs,
                                   int networkRecoveryIntervalInMs, Boolean useSsl, Boolean useSslManagement, SSLConfiguration sslConfiguration,
                                   boolean useQuorumQueues, int quorumQueueReplicationFactor, List<Host> hosts, Optional<Long> queueTTL,
-                                  boolean eventBusPublishConfirmEnabled, boolean eventBusNotificationDurabilityEnabled) {
+                                  boolean eventBusPublishConfirmEnabled, boolean eventBusNotificationDurabilityEnabled,
+                                  boolean eventBusBinarySerializationEnabled) {
         this.uri = uri;
         this.managementUri = managementUri;
         this.managementCredentials = managementCredentials;
@@ -693,6 +705,7 @@ public class RabbitMQConfiguration {
         this.queueTTL = queueTTL;
         this.eventBusPublishConfirmEnabled = eventBusPublishConfirmEnabled;
         this.eventBusNotificationDurabilityEnabled = eventBusNotificationDurabilityEnabled;
+        this.eventBusBinarySerializationEnabled = eventBusBinarySerializationEnabled;
     }
 
     public URI getUri() {
@@ -772,6 +785,10 @@ public class RabbitMQConfiguration {
         return eventBusNotificationDurabilityEnabled;
     }
 
+    public boolean isEventBusBinarySerializationEnabled() {
+        return eventBusBinarySerializationEnabled;
+    }
+
     @Override
     public final boolean equals(Object o) {
         if (o instanceof RabbitMQConfiguration) {
@@ -795,7 +812,8 @@ public class RabbitMQConfiguration {
                 && Objects.equals(this.hosts, that.hosts)
                 && Objects.equals(this.queueTTL, that.queueTTL)
                 && Objects.equals(this.eventBusPublishConfirmEnabled, that.eventBusPublishConfirmEnabled)
-                && Objects.equals(this.eventBusNotificationDurabilityEnabled, that.eventBusNotificationDurabilityEnabled);
+                && Objects.equals(this.eventBusNotificationDurabilityEnabled, that.eventBusNotificationDurabilityEnabled)
+                && Objects.equals(this.eventBusBinarySerializationEnabled, that.eventBusBinarySerializationEnabled);
         }
         return false;
     }
@@ -804,6 +822,6 @@ public class RabbitMQConfiguration {
     public final int hashCode() {
         return Objects.hash(uri, managementUri, maxRetries, minDelayInMs, connectionTimeoutInMs, quorumQueueReplicationFactor, useQuorumQueues, hosts,
             channelRpcTimeoutInMs, handshakeTimeoutInMs, shutdownTimeoutInMs, networkRecoveryIntervalInMs, managementCredentials, useSsl, useSslManagement,
-            sslConfiguration, queueTTL, eventBusPublishConfirmEnabled, eventBusNotificationDurabilityEnabled);
+            sslConfiguration, queueTTL, eventBusPublishConfirmEnabled, eventBusNotificationDurabilityEnabled, eventBusBinarySerializationEnabled);
     }
 }
@@ -19,6 +19,7 @@
 
 package org.apache.james.events;
 
+import java.util.List;
 import java.util.Objects;
 
 import org.reactivestreams.Publisher;
@@ -54,6 +55,30 @@ public interface EventListener {
         }
     }
 
+    /**
+     * Opt-in contract for group listeners that benefit from handling several events at once, for instance
+     * to issue a single bulk request to a search index.
+     *
+     * The event bus accumulates events according to {@link #getBatchConfiguration()} then calls
+     * {@link #reactiveEvents(List)}. Should a batch fail, each of its events is then delivered on its own
+     * through {@link #reactiveEvent(Event)}, so that retries and dead-lettering keep operating per event.
+     */
+    interface ReactiveBatchGroupEventListener extends ReactiveGroupEventListener {
+        default BatchConfiguration getBatchConfiguration() {
+            return BatchConfiguration.DEFAULT;
+        }
+
+        /**
+         * @param events not empty, only contains events this listener is handling
+         */
+        Publisher<Void> reactiveEvents(List<Event> events);
+
+        @Override
+        default Publisher<Void> reactiveEvent(Event event) {
+            return reactiveEvents(List.of(event));
+        }
+    }
+
     class ReactiveWrapper<T extends EventListener> implements ReactiveEventListener {
         protected final T delegate;
 
@@ -0,0 +1,242 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.events;
+
+import static org.apache.james.events.EventBusTestFixture.EVENT;
+import static org.apache.james.events.EventBusTestFixture.EVENT_2;
+import static org.apache.james.events.EventBusTestFixture.EVENT_UNSUPPORTED_BY_LISTENER;
+import static org.apache.james.events.EventBusTestFixture.GROUP_A;
+import static org.apache.james.events.EventBusTestFixture.NO_KEYS;
+import static org.apache.james.events.EventBusTestFixture.USERNAME;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+
+import org.apache.james.events.EventBusTestFixture.TestEvent;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface BatchGroupContract {
+
+    class BatchCollector implements EventListener.ReactiveBatchGroupEventListener {
+        private final BatchConfiguration batchConfiguration;
+        private final ConcurrentLinkedQueue<List<Event>> batches;
+        private final ConcurrentLinkedQueue<Event> events;
+
+        BatchCollector(BatchConfiguration batchConfiguration) {
+            this.batchConfiguration = batchConfiguration;
+            this.batches = new ConcurrentLinkedQueue<>();
+            this.events = new ConcurrentLinkedQueue<>();
+        }
+
+        @Override
+        public Group getDefaultGroup() {
+            return GROUP_A;
+        }
+
+        @Override
+        public BatchConfiguration getBatchConfiguration() {
+            return batchConfiguration;
+        }
+
+        @Override
+        public boolean isHandling(Event event) {
+            return event instanceof TestEvent;
+        }
+
+        @Override
+        public Publisher<Void> reactiveEvents(List<Event> batch) {
+            return Mono.fromRunnable(() -> {
+                batches.add(ImmutableList.copyOf(batch));
+                events.addAll(batch);
+            });
+        }
+
+        List<List<Event>> getBatches() {
+            return ImmutableList.copyOf(batches);
+        }
+
+        List<Event> getEvents() {
+            return ImmutableList.copyOf(events);
+        }
+    }
+
+    interface SingleEventBusBatchGroupContract extends EventBusContract {
+        BatchConfiguration BATCH_CONFIGURATION = BatchConfiguration.of(10, Duration.ofMillis(500));
+
+        EventDeadLetters deadLetter();
+
+        private void dispatchConcurrently(List<Event> events) {
+            Flux.fromIterable(events)
+                .flatMap(event -> eventBus().dispatch(event, NO_KEYS), events.size())
+                .then()
+                .block();
+        }
+
+        private List<Event> distinctEvents(int count) {
+            return IntStream.range(0, count)
+                .mapToObj(i -> (Event) new TestEvent(Event.EventId.random(), USERNAME))
+                .collect(ImmutableList.toImmutableList());
+        }
+
+        @Test
+        default void batchListenerShouldReceiveEventsByBatches() {
+            BatchCollector listener = new BatchCollector(BATCH_CONFIGURATION);
+            eventBus().register(listener, GROUP_A);
+            List<Event> events = distinctEvents(10);
+
+            dispatchConcurrently(events);
+
+            getSpeedProfile().longWaitCondition()
+                .untilAsserted(() -> assertThat(listener.getEvents()).containsExactlyInAnyOrderElementsOf(events));
+            assertThat(listener.getBatches()).hasSizeLessThan(events.size());
+        }
+
+        @Test
+        default void batchesShouldNotExceedMaxSize() {
+            BatchCollector listener = new BatchCollector(BatchConfiguration.of(3, Duration.ofMillis(500)));
+            eventBus().register(listener, GROUP_A);
+            List<Event> events = distinctEvents(10);
+
+            dispatchConcurrently(events);
+
+            getSpeedProfile().longWaitCondition()
+                .untilAsserted(() -> assertThat(listener.getEvents()).hasSize(events.size()));
+            assertThat(listener.getBatches()).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(3));
+        }
+
+        @Test
+        default void incompleteBatchShouldBeDeliveredAfterMaxDelay() {
+            BatchCollector listener = new BatchCollector(BATCH_CONFIGURATION);
+            eventBus().register(listener, GROUP_A);
+
+            eventBus().dispatch(EVENT, NO_KEYS).block();
+
+            getSpeedProfile().longWaitCondition()
+                .untilAsserted(() -> assertThat(listener.getBatches()).containsExactly(ImmutableList.of(EVENT)));
+        }
+
+        @Test
+        default void slowBatchesShouldNotStopDelivery() {
+            BatchCollector listener = new BatchCollector(BatchConfiguration.of(10, Duration.ofMillis(10))) {
+                @Override
+                public ExecutionMode getExecutionMode() {
+                    return ExecutionMode.ASYNCHRONOUS;
+                }
+
+                @Override
+                public Publisher<Void> reactiveEvents(List<Event> batch) {
+                    return Mono.delay(Duration.ofMillis(500))
+                        .then(Mono.from(super.reactiveEvents(batch)));
+                }
+            };
+            eventBus().register(listener, GROUP_A);
+            List<Event> events = distinctEvents(EventBus.EXECUTION_RATE * 3);
+
+            // Each event ends up in its own batch, so that slow batches exhaust the demand before the next timeout
+            Flux.fromIterable(events)
+                .delayElements(Duration.ofMillis(20))
+                .concatMap(event -> eventBus().dispatch(event, NO_KEYS))
+                .then()
+                .block();
+            getSpeedProfile().longWaitCondition()
+                .untilAsserted(() -> assertThat(listener.getEvents()).containsExactlyInAnyOrderElementsOf(events));
+
+            eventBus().dispatch(EVENT, NO_KEYS).block();
+            getSpeedProfile().longWaitCondition()
+                .untilAsserted(() -> assertThat(listener.getEvents()).contains(EVENT));
+        }
+
+        @Test
+        default void batchesShouldNotContainEventsUnsupportedByTheListener() {
+            BatchCollector listener = new BatchCollector(BATCH_CONFIGURATION);
+            eventBus().register(listener, GROUP_A);
+
+            dispatchConcurrently(ImmutableList.of(EVENT, EVENT_UNSUPPORTED_BY_LISTENER));
+
+            getSpeedProfile().longWaitCondition()
+                .untilAsserted(() -> assertThat(listener.getEvents()).containsExactly(EVENT));
+        }
+
+        @Test
+        default void failingBatchShouldBeDeliveredEventByEvent() {
+            BatchCollector listener = new BatchCollector(BATCH_CONFIGURATION) {
+                @Override
+                public Publisher<Void> reactiveEvents(List<Event> batch) {
+                    if (batch.size() > 1) {
+                        return Mono.error(new RuntimeException("bulk failure"));
+                    }
+                    return super.reactiveEvents(batch);
+                }
+            };
+            eventBus().register(listener, GROUP_A);
+            List<Event> events = distinctEvents(5);
+
+            dispatchConcurrently(events);
+
+            getSpeedProfile().longWaitCondition()
+                .untilAsserted(() -> assertThat(listener.getEvents()).containsExactlyInAnyOrderElementsOf(events));
+            assertThat(deadLetter().groupsWithFailedEvents().collectList().block()).isEmpty();
+        }
+
+        @Test
+        default void eventsFailingOnTheirOwnShouldBeStoredInDeadLetters() {
+            BatchCollector listener = new BatchCollector(BATCH_CONFIGURATION) {
+                @Override
+                public Publisher<Void> reactiveEvents(List<Event> batch) {
+                    if (batch.contains(EVENT_2)) {
+                        return Mono.error(new RuntimeException("EVENT_2 can not be handled"));
+                    }
+                    return super.reactiveEvents(batch);
+                }
+            };
+            eventBus().register(listener, GROUP_A);
+
+            dispatchConcurrently(ImmutableList.of(EVENT, EVENT_2));
+
+            getSpeedProfile().longWaitCondition()
+                .untilAsserted(() -> assertThat(deadLetter().failedIds(GROUP_A)
+                        .flatMap(insertionId -> deadLetter().failedEvent(GROUP_A, insertionId))
+                        .collectList()
+                        .block())
+                    .containsOnly(EVENT_2));
+            assertThat(listener.getEvents()).containsOnly(EVENT);
+        }
+
+        @Test
+        default void reDeliverShouldDeliverASingleEventBatch() {
+            BatchCollector listener = new BatchCollector(BATCH_CONFIGURATION);
+            eventBus().register(listener, GROUP_A);
+
+            eventBus().reDeliver(GROUP_A, EVENT).block();
+
+            getSpeedProfile().longWaitCondition()
+                .untilAsserted(() -> assertThat(listener.getBatches()).containsExactly(ImmutableList.of(EVENT)));
+        }
+    }
+}
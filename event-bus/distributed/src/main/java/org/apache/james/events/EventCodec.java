@@ -0,0 +1,74 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.events;
+
+import static com.rabbitmq.client.MessageProperties.PERSISTENT_TEXT_PLAIN;
+
+import java.util.Optional;
+
+import org.apache.james.backends.rabbitmq.RabbitMQConfiguration;
+
+import com.rabbitmq.client.AMQP;
+
+/**
+ * Encodes events published on RabbitMQ, and decodes them according to the content type of the received message.
+ *
+ * Events are published in binary only when enabled in the configuration and the {@link EventSerializer} is a
+ * {@link BinaryEventSerializer}, and as JSON otherwise. Every node decodes both formats, so binary publication can be turned on once all nodes
+ * of the cluster are upgraded, without breaking consumers still reading JSON.
+ */
+class EventCodec {
+    private static final String JSON_CONTENT_TYPE = PERSISTENT_TEXT_PLAIN.getContentType();
+
+    private final EventSerializer eventSerializer;
+    private final Optional<BinaryEventSerializer> binaryEventSerializer;
+    private final boolean publishBinary;
+
+    EventCodec(EventSerializer eventSerializer, RabbitMQConfiguration configuration) {
+        this.eventSerializer = eventSerializer;
+        this.binaryEventSerializer = Optional.of(eventSerializer)
+            .filter(BinaryEventSerializer.class::isInstance)
+            .map(BinaryEventSerializer.class::cast);
+        this.publishBinary = configuration.isEventBusBinarySerializationEnabled() && binaryEventSerializer.isPresent();
+    }
+
+    String contentType() {
+        if (publishBinary) {
+            return BinaryEventSerializer.BINARY_CONTENT_TYPE;
+        }
+        return JSON_CONTENT_TYPE;
+    }
+
+    byte[] encode(Event event) {
+        if (publishBinary) {
+            return binaryEventSerializer.get().toBinary(event);
+        }
+        return eventSerializer.toJsonBytes(event);
+    }
+
+    Event decode(AMQP.BasicProperties properties, byte[] payload) {
+        if (BinaryEventSerializer.BINARY_CONTENT_TYPE.equals(properties.getContentType())) {
+            return binaryEventSerializer
+                .orElseThrow(() -> new IllegalStateException(eventSerializer.getClass().getName() + " can not decode binary events"))
+                .fromBinary(payload);
+        }
+        return eventSerializer.fromBytes(payload);
+    }
+}
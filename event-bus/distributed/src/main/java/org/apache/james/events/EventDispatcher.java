@@ -62,7 +62,7 @@ public class EventDispatcher {
     private static final Logger LOGGER = LoggerFactory.getLogger(EventDispatcher.class);
 
     private final NamingStrategy namingStrategy;
-    private final EventSerializer eventSerializer;
+    private final EventCodec eventCodec;
     private final Sender sender;
     private final LocalListenerRegistry localListenerRegistry;
     private final AMQP.BasicProperties basicProperties;
@@ -70,19 +70,19 @@ public class EventDispatcher {
     private final EventDeadLetters deadLetters;
     private final RabbitMQConfiguration configuration;
 
-    EventDispatcher(NamingStrategy namingStrategy, EventBusId eventBusId, EventSerializer eventSerializer, Sender sender,
+    EventDispatcher(NamingStrategy namingStrategy, EventBusId eventBusId, EventCodec eventCodec, Sender sender,
                     LocalListenerRegistry localListenerRegistry,
                     ListenerExecutor listenerExecutor,
                     EventDeadLetters deadLetters, RabbitMQConfiguration configuration) {
         this.namingStrategy = namingStrategy;
-        this.eventSerializer = eventSerializer;
+        this.eventCodec = eventCodec;
         this.sender = sender;
         this.localListenerRegistry = localListenerRegistry;
         this.basicProperties = new AMQP.BasicProperties.Builder()
             .headers(ImmutableMap.of(EVENT_BUS_ID, eventBusId.asString()))
             .deliveryMode(PERSISTENT_TEXT_PLAIN.getDeliveryMode())
             .priority(PERSISTENT_TEXT_PLAIN.getPriority())
-            .contentType(PERSISTENT_TEXT_PLAIN.getContentType())
+            .contentType(eventCodec.contentType())
             .build();
         this.listenerExecutor = listenerExecutor;
         this.deadLetters = deadLetters;
@@ -203,6 +203,6 @@ public class EventDispatcher {
     }
 
     private byte[] serializeEvent(Event event) {
-        return eventSerializer.toJsonBytes(event);
+        return eventCodec.encode(event);
     }
 }
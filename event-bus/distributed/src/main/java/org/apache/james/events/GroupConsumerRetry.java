@@ -62,16 +62,16 @@ class GroupConsumerRetry {
     private final RetryBackoffConfiguration retryBackoff;
     private final EventDeadLetters eventDeadLetters;
     private final Group group;
-    private final EventSerializer eventSerializer;
+    private final EventCodec eventCodec;
 
     GroupConsumerRetry(NamingStrategy namingStrategy, Sender sender, Group group, RetryBackoffConfiguration retryBackoff,
-                       EventDeadLetters eventDeadLetters, EventSerializer eventSerializer) {
+                       EventDeadLetters eventDeadLetters, EventCodec eventCodec) {
         this.sender = sender;
         this.retryExchangeName = namingStrategy.retryExchange(group);
         this.retryBackoff = retryBackoff;
         this.eventDeadLetters = eventDeadLetters;
         this.group = group;
-        this.eventSerializer = eventSerializer;
+        this.eventCodec = eventCodec;
     }
 
     Mono<Void> createRetryExchange(GroupRegistration.WorkQueueName queueName) {
@@ -100,7 +100,7 @@ class GroupConsumerRetry {
     }
 
     private Mono<Void> sendRetryMessage(Event event, int currentRetryCount) {
-        byte[] eventAsBytes = eventSerializer.toJsonBytes(event);
+        byte[] eventAsBytes = eventCodec.encode(event);
 
         Mono<OutboundMessage> retryMessage = Mono.just(new OutboundMessage(
             retryExchangeName.asString(),
@@ -109,7 +109,7 @@ class GroupConsumerRetry {
                 .headers(ImmutableMap.of(RETRY_COUNT, currentRetryCount + 1))
                 .deliveryMode(PERSISTENT_TEXT_PLAIN.getDeliveryMode())
                 .priority(PERSISTENT_TEXT_PLAIN.getPriority())
-                .contentType(PERSISTENT_TEXT_PLAIN.getContentType())
+                .contentType(eventCodec.contentType())
                 .build(),
             eventAsBytes));
 
@@ -24,6 +24,7 @@ import static org.apache.james.backends.rabbitmq.Constants.DURABLE;
 import static org.apache.james.backends.rabbitmq.Constants.EXCLUSIVE;
 import static org.apache.james.backends.rabbitmq.Constants.REQUEUE;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Predicate;
@@ -36,6 +37,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 
 import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
@@ -46,6 +48,8 @@ import reactor.rabbitmq.ConsumeOptions;
 import reactor.rabbitmq.QueueSpecification;
 import reactor.rabbitmq.Receiver;
 import reactor.rabbitmq.Sender;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 import reactor.util.retry.Retry;
 
 class GroupRegistration implements Registration {
@@ -74,7 +78,7 @@ class GroupRegistration implements Registration {
     private final EventListener.ReactiveEventListener listener;
     private final WorkQueueName queueName;
     private final Runnable unregisterGroup;
-    private final EventSerializer eventSerializer;
+    private final EventCodec eventCodec;
     private final GroupConsumerRetry retryHandler;
     private final WaitDelayGenerator delayGenerator;
     private final Group group;
@@ -84,13 +88,13 @@ class GroupRegistration implements Registration {
     private Optional<Disposable> receiverSubscriber;
     private final ReceiverProvider receiverProvider;
 
-    GroupRegistration(NamingStrategy namingStrategy, ReactorRabbitMQChannelPool channelPool, Sender sender, ReceiverProvider receiverProvider, EventSerializer eventSerializer,
+    GroupRegistration(NamingStrategy namingStrategy, ReactorRabbitMQChannelPool channelPool, Sender sender, ReceiverProvider receiverProvider, EventCodec eventCodec,
                       EventListener.ReactiveEventListener listener, Group group, RetryBackoffConfiguration retryBackoff,
                       EventDeadLetters eventDeadLetters,
                       Runnable unregisterGroup, ListenerExecutor listenerExecutor, RabbitMQConfiguration configuration) {
         this.namingStrategy = namingStrategy;
         this.channelPool = channelPool;
-        this.eventSerializer = eventSerializer;
+        this.eventCodec = eventCodec;
         this.listener = listener;
         this.configuration = configuration;
         this.queueName = namingStrategy.workQueue(group);
@@ -99,7 +103,7 @@ class GroupRegistration implements Registration {
         this.listenerExecutor = listenerExecutor;
         this.receiverSubscriber = Optional.empty();
         this.unregisterGroup = unregisterGroup;
-        this.retryHandler = new GroupConsumerRetry(namingStrategy, sender, group, retryBackoff, eventDeadLetters, eventSerializer);
+        this.retryHandler = new GroupConsumerRetry(namingStrategy, sender, group, retryBackoff, eventDeadLetters, eventCodec);
         this.delayGenerator = WaitDelayGenerator.of(retryBackoff);
         this.group = group;
     }
@@ -136,26 +140,109 @@ class GroupRegistration implements Registration {
     private Disposable consumeWorkQueue() {
         return Flux.using(
                 receiverProvider::createReceiver,
-                receiver -> receiver.consumeManualAck(queueName.asString(), new ConsumeOptions().qos(EventBus.EXECUTION_RATE)),
+                receiver -> receiver.consumeManualAck(queueName.asString(), new ConsumeOptions().qos(prefetchCount())),
                 Receiver::close)
             .publishOn(Schedulers.parallel())
             .filter(delivery -> Objects.nonNull(delivery.getBody()))
-            .flatMap(this::deliver, EventBus.EXECUTION_RATE)
+            // Delivery tags are scoped to the channel of each subscription
+            .transformDeferred(deliveries -> deliverAll(deliveries, new OutstandingDeliveries()))
+            .doOnError(e -> LOGGER.error("Error while consuming the work queue of group {}, resubscribing", group, e))
+            .retryWhen(Retry.backoff(Long.MAX_VALUE, retryBackoff.getFirstBackoff())
+                .jitter(retryBackoff.getJitterFactor())
+                .transientErrors(true)
+                .scheduler(Schedulers.elastic()))
             .subscribeOn(Schedulers.elastic())
             .subscribe();
     }
 
-    private Mono<Void> deliver(AcknowledgableDelivery acknowledgableDelivery) {
-        byte[] eventAsBytes = acknowledgableDelivery.getBody();
+    private Optional<EventListener.ReactiveBatchGroupEventListener> batchListener() {
+        return Optional.of(listener)
+            .filter(EventListener.ReactiveBatchGroupEventListener.class::isInstance)
+            .map(EventListener.ReactiveBatchGroupEventListener.class::cast);
+    }
+
+    private int prefetchCount() {
+        return batchListener()
+            .map(batchListener -> Math.max(EventBus.EXECUTION_RATE, batchListener.getBatchConfiguration().getMaxSize()))
+            .orElse(EventBus.EXECUTION_RATE);
+    }
+
+    private Flux<Void> deliverAll(Flux<AcknowledgableDelivery> deliveries, OutstandingDeliveries outstandingDeliveries) {
+        Flux<AcknowledgableDelivery> registeredDeliveries = deliveries.doOnNext(outstandingDeliveries::register);
+        return batchListener()
+            .map(batchListener -> registeredDeliveries
+                .bufferTimeout(batchListener.getBatchConfiguration().getMaxSize(), batchListener.getBatchConfiguration().getMaxDelay(), Schedulers.parallel())
+                // A batch timing out while all delivery slots are busy would otherwise fail with an overflow. Pending
+                // batches are bounded by the prefetch count.
+                .onBackpressureBuffer()
+                .flatMap(batch -> deliverBatch(batchListener, batch, outstandingDeliveries), EventBus.EXECUTION_RATE))
+            .orElseGet(() -> registeredDeliveries.flatMap(delivery -> deliver(delivery, outstandingDeliveries), EventBus.EXECUTION_RATE));
+    }
+
+    /**
+     * Deliveries being retried go through the single event path so that their retry delay is honored.
+     */
+    private Mono<Void> deliverBatch(EventListener.ReactiveBatchGroupEventListener batchListener, List<AcknowledgableDelivery> deliveries,
+                                    OutstandingDeliveries outstandingDeliveries) {
+        Mono<Void> retriedDeliveries = Flux.fromIterable(deliveries)
+            .filter(delivery -> getRetryCount(delivery) != DEFAULT_RETRY_COUNT)
+            .flatMap(delivery -> deliver(delivery, outstandingDeliveries))
+            .then();
+
+        Mono<Void> firstDeliveries = Flux.fromIterable(deliveries)
+            .filter(delivery -> getRetryCount(delivery) == DEFAULT_RETRY_COUNT)
+            .concatMap(delivery -> deserializeEvent(delivery)
+                .map(event -> Tuples.of(delivery, event))
+                .onErrorResume(e -> {
+                    LOGGER.error("Unable to process delivery for group {}", group, e);
+                    return Mono.fromRunnable(() -> outstandingDeliveries.nack(delivery, !REQUEUE))
+                        .subscribeOn(Schedulers.elastic())
+                        .then(Mono.empty());
+                }))
+            .collectList()
+            .filter(Predicate.not(List::isEmpty))
+            .flatMap(deserializedDeliveries -> runBatchListenerReliably(batchListener, deserializedDeliveries, outstandingDeliveries));
+
+        return Flux.merge(retriedDeliveries, firstDeliveries).then();
+    }
+
+    private Mono<Void> runBatchListenerReliably(EventListener.ReactiveBatchGroupEventListener batchListener,
+                                                List<Tuple2<AcknowledgableDelivery, Event>> deliveries,
+                                                OutstandingDeliveries outstandingDeliveries) {
+        List<Event> events = deliveries.stream()
+            .map(Tuple2::getT2)
+            .collect(ImmutableList.toImmutableList());
+        List<AcknowledgableDelivery> acknowledgableDeliveries = deliveries.stream()
+            .map(Tuple2::getT1)
+            .collect(ImmutableList.toImmutableList());
+
+        return listenerExecutor.executeBatch(batchListener, groupMDC(), events)
+            .then(Mono.<Void>fromRunnable(() -> outstandingDeliveries.ackAll(acknowledgableDeliveries)).subscribeOn(Schedulers.elastic()))
+            .onErrorResume(e -> {
+                LOGGER.warn("Unable to process a batch of {} events for group {}, delivering them one by one", events.size(), group, e);
+                return Flux.fromIterable(deliveries)
+                    .concatMap(delivery -> runListenerReliably(DEFAULT_RETRY_COUNT, delivery.getT2())
+                        .then(Mono.<Void>fromRunnable(() -> outstandingDeliveries.ack(delivery.getT1())).subscribeOn(Schedulers.elastic()))
+                        .onErrorResume(error -> {
+                            LOGGER.error("Unable to process delivery for group {}", group, error);
+                            return Mono.fromRunnable(() -> outstandingDeliveries.nack(delivery.getT1(), !REQUEUE))
+                                .subscribeOn(Schedulers.elastic())
+                                .then();
+                        }))
+                    .then();
+            });
+    }
+
+    private Mono<Void> deliver(AcknowledgableDelivery acknowledgableDelivery, OutstandingDeliveries outstandingDeliveries) {
         int currentRetryCount = getRetryCount(acknowledgableDelivery);
 
-        return deserializeEvent(eventAsBytes)
+        return deserializeEvent(acknowledgableDelivery)
             .flatMap(event -> delayGenerator.delayIfHaveTo(currentRetryCount)
                 .flatMap(any -> runListenerReliably(currentRetryCount, event))
-                .then(Mono.<Void>fromRunnable(acknowledgableDelivery::ack).subscribeOn(Schedulers.elastic())))
+                .then(Mono.<Void>fromRunnable(() -> outstandingDeliveries.ack(acknowledgableDelivery)).subscribeOn(Schedulers.elastic())))
             .onErrorResume(e -> {
                 LOGGER.error("Unable to process delivery for group {}", group, e);
-                return Mono.fromRunnable(() -> acknowledgableDelivery.nack(!REQUEUE))
+                return Mono.fromRunnable(() -> outstandingDeliveries.nack(acknowledgableDelivery, !REQUEUE))
                     .subscribeOn(Schedulers.elastic())
                     .then();
             });
@@ -166,8 +253,8 @@ class GroupRegistration implements Registration {
             .onErrorResume(throwable -> retryHandler.handleRetry(event, currentRetryCount, throwable));
     }
 
-    private Mono<Event> deserializeEvent(byte[] eventAsBytes) {
-        return Mono.fromCallable(() -> eventSerializer.fromBytes(eventAsBytes))
+    private Mono<Event> deserializeEvent(AcknowledgableDelivery acknowledgableDelivery) {
+        return Mono.fromCallable(() -> eventCodec.decode(acknowledgableDelivery.getProperties(), acknowledgableDelivery.getBody()))
             .subscribeOn(Schedulers.parallel());
     }
 
@@ -176,11 +263,12 @@ class GroupRegistration implements Registration {
     }
 
     private Mono<Void> runListener(Event event) {
-        return listenerExecutor.execute(
-            listener,
-            MDCBuilder.create()
-                .addToContext(EventBus.StructuredLoggingFields.GROUP, group.asString()),
-            event);
+        return listenerExecutor.execute(listener, groupMDC(), event);
+    }
+
+    private MDCBuilder groupMDC() {
+        return MDCBuilder.create()
+            .addToContext(EventBus.StructuredLoggingFields.GROUP, group.asString());
     }
 
     private int getRetryCount(AcknowledgableDelivery acknowledgableDelivery) {
@@ -67,7 +67,7 @@ class GroupRegistrationHandler {
 
     private final NamingStrategy namingStrategy;
     private final Map<Group, GroupRegistration> groupRegistrations;
-    private final EventSerializer eventSerializer;
+    private final EventCodec eventCodec;
     private final ReactorRabbitMQChannelPool channelPool;
     private final Sender sender;
     private final ReceiverProvider receiverProvider;
@@ -77,11 +77,11 @@ class GroupRegistrationHandler {
     private final RabbitMQConfiguration configuration;
     private Optional<Disposable> consumer;
 
-    GroupRegistrationHandler(NamingStrategy namingStrategy, EventSerializer eventSerializer, ReactorRabbitMQChannelPool channelPool, Sender sender, ReceiverProvider receiverProvider,
+    GroupRegistrationHandler(NamingStrategy namingStrategy, EventCodec eventCodec, ReactorRabbitMQChannelPool channelPool, Sender sender, ReceiverProvider receiverProvider,
                              RetryBackoffConfiguration retryBackoff,
                              EventDeadLetters eventDeadLetters, ListenerExecutor listenerExecutor, EventBusId eventBusId, RabbitMQConfiguration configuration) {
         this.namingStrategy = namingStrategy;
-        this.eventSerializer = eventSerializer;
+        this.eventCodec = eventCodec;
         this.channelPool = channelPool;
         this.sender = sender;
         this.receiverProvider = receiverProvider;
@@ -130,9 +130,7 @@ class GroupRegistrationHandler {
     }
 
     private Mono<Void> deliver(AcknowledgableDelivery acknowledgableDelivery) {
-        byte[] eventAsBytes = acknowledgableDelivery.getBody();
-
-        return deserializeEvent(eventAsBytes)
+        return deserializeEvent(acknowledgableDelivery)
             .flatMapIterable(aa -> groupRegistrations.values()
                 .stream()
                 .map(group -> Pair.of(group, aa))
@@ -148,8 +146,8 @@ class GroupRegistrationHandler {
             });
     }
 
-    private Mono<Event> deserializeEvent(byte[] eventAsBytes) {
-        return Mono.fromCallable(() -> eventSerializer.fromBytes(eventAsBytes));
+    private Mono<Event> deserializeEvent(AcknowledgableDelivery acknowledgableDelivery) {
+        return Mono.fromCallable(() -> eventCodec.decode(acknowledgableDelivery.getProperties(), acknowledgableDelivery.getBody()));
     }
 
     void stop() {
@@ -186,7 +184,7 @@ class GroupRegistrationHandler {
         return new GroupRegistration(
             namingStrategy, channelPool, sender,
             receiverProvider,
-            eventSerializer,
+            eventCodec,
             listener,
             group,
             retryBackoff,
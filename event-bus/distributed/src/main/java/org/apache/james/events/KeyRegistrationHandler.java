@@ -60,7 +60,7 @@ class KeyRegistrationHandler {
 
     private final EventBusId eventBusId;
     private final LocalListenerRegistry localListenerRegistry;
-    private final EventSerializer eventSerializer;
+    private final EventCodec eventCodec;
     private final Sender sender;
     private final RoutingKeyConverter routingKeyConverter;
     private final RegistrationQueueName registrationQueue;
@@ -73,12 +73,12 @@ class KeyRegistrationHandler {
     private final MetricFactory metricFactory;
     private Disposable newSubscription;
 
-    KeyRegistrationHandler(NamingStrategy namingStrategy, EventBusId eventBusId, EventSerializer eventSerializer,
+    KeyRegistrationHandler(NamingStrategy namingStrategy, EventBusId eventBusId, EventCodec eventCodec,
                            Sender sender, ReceiverProvider receiverProvider,
                            RoutingKeyConverter routingKeyConverter, LocalListenerRegistry localListenerRegistry,
                            ListenerExecutor listenerExecutor, RetryBackoffConfiguration retryBackoff, RabbitMQConfiguration configuration, MetricFactory metricFactory) {
         this.eventBusId = eventBusId;
-        this.eventSerializer = eventSerializer;
+        this.eventCodec = eventCodec;
         this.sender = sender;
         this.routingKeyConverter = routingKeyConverter;
         this.localListenerRegistry = localListenerRegistry;
@@ -197,7 +197,7 @@ class KeyRegistrationHandler {
     }
 
     private Event toEvent(Delivery delivery) {
-        return eventSerializer.fromBytes(delivery.getBody());
+        return eventCodec.decode(delivery.getProperties(), delivery.getBody());
     }
 
     private StructuredLogger structuredLogger(Event event, RegistrationKey key) {
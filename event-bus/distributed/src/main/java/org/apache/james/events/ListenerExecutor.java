@@ -21,10 +21,14 @@ package org.apache.james.events;
 
 import static org.apache.james.events.EventBus.Metrics.timerName;
 
+import java.util.List;
+
 import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.util.MDCBuilder;
 import org.apache.james.util.ReactorUtils;
 
+import com.google.common.collect.ImmutableList;
+
 import reactor.core.publisher.Mono;
 
 class ListenerExecutor {
@@ -43,6 +47,19 @@ class ListenerExecutor {
         return Mono.empty();
     }
 
+    Mono<Void> executeBatch(EventListener.ReactiveBatchGroupEventListener listener, MDCBuilder mdcBuilder, List<Event> events) {
+        List<Event> handledEvents = events.stream()
+            .filter(listener::isHandling)
+            .collect(ImmutableList.toImmutableList());
+        if (handledEvents.isEmpty()) {
+            return Mono.empty();
+        }
+        return Mono.from(metricFactory.decoratePublisherWithTimerMetric(timerName(listener),
+            Mono.from(listener.reactiveEvents(handledEvents))
+                .contextWrite(ReactorUtils.context("ListenerExecutor", mdcBuilder
+                    .addToContext(EventBus.StructuredLoggingFields.LISTENER_CLASS, listener.getClass().getCanonicalName())))));
+    }
+
     private MDCBuilder mdc(EventListener listener, MDCBuilder mdcBuilder, Event event) {
         return mdcBuilder
             .addToContext(EventBus.StructuredLoggingFields.EVENT_ID, event.getEventId().getId().toString())
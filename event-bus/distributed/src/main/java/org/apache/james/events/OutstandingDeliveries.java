@@ -0,0 +1,80 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.events;
+
+import java.util.Collection;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import com.google.common.collect.ImmutableSortedSet;
+
+import reactor.rabbitmq.AcknowledgableDelivery;
+
+/**
+ * Tracks the deliveries consumed from a channel which were not yet acknowledged nor rejected.
+ *
+ * An ack with the <code>multiple</code> flag acknowledges all the deliveries of the channel up to its tag. A batch is
+ * thus acknowledged at once only when it holds every outstanding delivery up to its last one, its deliveries are
+ * acknowledged one by one otherwise. Deliveries are only forgotten once settled, so that a concurrent batch never
+ * acknowledges them.
+ */
+class OutstandingDeliveries {
+    private final NavigableSet<Long> deliveryTags;
+
+    OutstandingDeliveries() {
+        this.deliveryTags = new ConcurrentSkipListSet<>();
+    }
+
+    void register(AcknowledgableDelivery delivery) {
+        deliveryTags.add(deliveryTag(delivery));
+    }
+
+    void ack(AcknowledgableDelivery delivery) {
+        delivery.ack();
+        deliveryTags.remove(deliveryTag(delivery));
+    }
+
+    void nack(AcknowledgableDelivery delivery, boolean requeue) {
+        delivery.nack(requeue);
+        deliveryTags.remove(deliveryTag(delivery));
+    }
+
+    void ackAll(Collection<AcknowledgableDelivery> deliveries) {
+        ImmutableSortedSet<Long> batchTags = deliveries.stream()
+            .map(OutstandingDeliveries::deliveryTag)
+            .collect(ImmutableSortedSet.toImmutableSortedSet(Long::compare));
+        if (batchTags.isEmpty()) {
+            return;
+        }
+        if (deliveryTags.headSet(batchTags.last(), true).equals(batchTags)) {
+            deliveries.stream()
+                .filter(delivery -> deliveryTag(delivery) == batchTags.last())
+                .findFirst()
+                .ifPresent(lastDelivery -> lastDelivery.ack(true));
+            deliveryTags.removeAll(batchTags);
+        } else {
+            deliveries.forEach(this::ack);
+        }
+    }
+
+    private static long deliveryTag(AcknowledgableDelivery delivery) {
+        return delivery.getEnvelope().getDeliveryTag();
+    }
+}
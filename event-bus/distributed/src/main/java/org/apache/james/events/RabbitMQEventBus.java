@@ -44,7 +44,7 @@ public class RabbitMQEventBus implements EventBus, Startable {
     static final String EVENT_BUS_ID = "eventBusId";
 
     private final NamingStrategy namingStrategy;
-    private final EventSerializer eventSerializer;
+    private final EventCodec eventCodec;
     private final RoutingKeyConverter routingKeyConverter;
     private final RetryBackoffConfiguration retryBackoff;
     private final EventBusId eventBusId;
@@ -74,7 +74,7 @@ public class RabbitMQEventBus implements EventBus, Startable {
         this.listenerExecutor = new ListenerExecutor(metricFactory);
         this.channelPool = channelPool;
         this.eventBusId = eventBusId;
-        this.eventSerializer = eventSerializer;
+        this.eventCodec = new EventCodec(eventSerializer, configuration);
         this.routingKeyConverter = routingKeyConverter;
         this.retryBackoff = retryBackoff;
         this.eventDeadLetters = eventDeadLetters;
@@ -88,9 +88,9 @@ public class RabbitMQEventBus implements EventBus, Startable {
         if (!isRunning && !isStopping) {
 
             LocalListenerRegistry localListenerRegistry = new LocalListenerRegistry();
-            keyRegistrationHandler = new KeyRegistrationHandler(namingStrategy, eventBusId, eventSerializer, sender, receiverProvider, routingKeyConverter, localListenerRegistry, listenerExecutor, retryBackoff, configuration, metricFactory);
-            groupRegistrationHandler = new GroupRegistrationHandler(namingStrategy, eventSerializer, channelPool, sender, receiverProvider, retryBackoff, eventDeadLetters, listenerExecutor, eventBusId, configuration);
-            eventDispatcher = new EventDispatcher(namingStrategy, eventBusId, eventSerializer, sender, localListenerRegistry, listenerExecutor, eventDeadLetters, configuration);
+            keyRegistrationHandler = new KeyRegistrationHandler(namingStrategy, eventBusId, eventCodec, sender, receiverProvider, routingKeyConverter, localListenerRegistry, listenerExecutor, retryBackoff, configuration, metricFactory);
+            groupRegistrationHandler = new GroupRegistrationHandler(namingStrategy, eventCodec, channelPool, sender, receiverProvider, retryBackoff, eventDeadLetters, listenerExecutor, eventBusId, configuration);
+            eventDispatcher = new EventDispatcher(namingStrategy, eventBusId, eventCodec, sender, localListenerRegistry, listenerExecutor, eventDeadLetters, configuration);
 
             eventDispatcher.start();
             keyRegistrationHandler.start();
@@ -108,9 +108,9 @@ public class RabbitMQEventBus implements EventBus, Startable {
         if (!isRunning && !isStopping) {
 
             LocalListenerRegistry localListenerRegistry = new LocalListenerRegistry();
-            keyRegistrationHandler = new KeyRegistrationHandler(namingStrategy, eventBusId, eventSerializer, sender, receiverProvider, routingKeyConverter, localListenerRegistry, listenerExecutor, retryBackoff, configuration, metricFactory);
-            groupRegistrationHandler = new GroupRegistrationHandler(namingStrategy, eventSerializer, channelPool, sender, receiverProvider, retryBackoff, eventDeadLetters, listenerExecutor, eventBusId, configuration);
-            eventDispatcher = new EventDispatcher(namingStrategy, eventBusId, eventSerializer, sender, localListenerRegistry, listenerExecutor, eventDeadLetters, configuration);
+            keyRegistrationHandler = new KeyRegistrationHandler(namingStrategy, eventBusId, eventCodec, sender, receiverProvider, routingKeyConverter, localListenerRegistry, listenerExecutor, retryBackoff, configuration, metricFactory);
+            groupRegistrationHandler = new GroupRegistrationHandler(namingStrategy, eventCodec, channelPool, sender, receiverProvider, retryBackoff, eventDeadLetters, listenerExecutor, eventBusId, configuration);
+            eventDispatcher = new EventDispatcher(namingStrategy, eventBusId, eventCodec, sender, localListenerRegistry, listenerExecutor, eventDeadLetters, configuration);
 
             keyRegistrationHandler.declareQueue();
 
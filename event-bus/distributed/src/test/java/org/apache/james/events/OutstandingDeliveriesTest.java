@@ -0,0 +1,95 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.events;
+
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.rabbitmq.client.Envelope;
+
+import reactor.rabbitmq.AcknowledgableDelivery;
+
+class OutstandingDeliveriesTest {
+    private OutstandingDeliveries testee;
+    private AcknowledgableDelivery delivery1;
+    private AcknowledgableDelivery delivery2;
+    private AcknowledgableDelivery delivery3;
+
+    @BeforeEach
+    void setUp() {
+        testee = new OutstandingDeliveries();
+        delivery1 = delivery(1);
+        delivery2 = delivery(2);
+        delivery3 = delivery(3);
+        testee.register(delivery1);
+        testee.register(delivery2);
+        testee.register(delivery3);
+    }
+
+    private AcknowledgableDelivery delivery(long deliveryTag) {
+        AcknowledgableDelivery delivery = mock(AcknowledgableDelivery.class);
+        when(delivery.getEnvelope()).thenReturn(new Envelope(deliveryTag, false, "exchange", "routingKey"));
+        return delivery;
+    }
+
+    @Test
+    void ackAllShouldAcknowledgeAtOnceWhenHoldingAllOutstandingDeliveries() {
+        testee.ackAll(ImmutableList.of(delivery2, delivery1, delivery3));
+
+        verify(delivery3).ack(true);
+        verify(delivery1, never()).ack();
+        verify(delivery2, never()).ack();
+    }
+
+    @Test
+    void ackAllShouldAcknowledgeOneByOneWhenAPrecedingDeliveryIsOutstanding() {
+        testee.ackAll(ImmutableList.of(delivery2, delivery3));
+
+        verify(delivery2).ack();
+        verify(delivery3).ack();
+        verify(delivery3, never()).ack(anyBoolean());
+    }
+
+    @Test
+    void ackAllShouldAcknowledgeOneByOneWhenAnInterleavedDeliveryIsOutstanding() {
+        testee.ackAll(ImmutableList.of(delivery1, delivery3));
+
+        verify(delivery1).ack();
+        verify(delivery3).ack();
+        verify(delivery3, never()).ack(anyBoolean());
+    }
+
+    @Test
+    void ackAllShouldAcknowledgeAtOnceOncePrecedingDeliveriesAreSettled() {
+        testee.nack(delivery1, false);
+
+        testee.ackAll(ImmutableList.of(delivery2, delivery3));
+
+        verify(delivery3).ack(true);
+        verify(delivery2, never()).ack();
+    }
+}
@@ -94,7 +94,7 @@ import reactor.rabbitmq.Sender;
 
 class RabbitMQEventBusTest implements GroupContract.SingleEventBusGroupContract, GroupContract.MultipleEventBusGroupContract,
     KeyContract.SingleEventBusKeyContract, KeyContract.MultipleEventBusKeyContract,
-    ErrorHandlingContract {
+    ErrorHandlingContract, BatchGroupContract.SingleEventBusBatchGroupContract {
     static NamingStrategy TEST_NAMING_STRATEGY = new NamingStrategy("test");
 
     @RegisterExtension
@@ -19,7 +19,10 @@
 
 package org.apache.james.events;
 
+import static reactor.core.publisher.Sinks.EmitFailureHandler.FAIL_FAST;
+
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -29,17 +32,76 @@ import javax.inject.Inject;
 import org.apache.james.events.delivery.EventDelivery;
 
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
 
 public class InVMEventBus implements EventBus {
 
+    private static class PendingEvent {
+        private final Event event;
+        private final Sinks.Empty<Void> delivered;
+
+        private PendingEvent(Event event) {
+            this.event = event;
+            this.delivered = Sinks.empty();
+        }
+    }
+
+    /**
+     * Accumulates the events of a {@link EventListener.ReactiveBatchGroupEventListener} and delivers them by batches.
+     */
+    private class BatchedGroupDelivery {
+        private final EventListener.ReactiveBatchGroupEventListener listener;
+        private final Sinks.Many<PendingEvent> pendingEvents;
+
+        private BatchedGroupDelivery(EventListener.ReactiveBatchGroupEventListener listener, Group group) {
+            this.listener = listener;
+            this.pendingEvents = Sinks.many().unicast().onBackpressureBuffer();
+
+            BatchConfiguration batchConfiguration = listener.getBatchConfiguration();
+            pendingEvents.asFlux()
+                .bufferTimeout(batchConfiguration.getMaxSize(), batchConfiguration.getMaxDelay(), Schedulers.parallel())
+                // A batch timing out while all delivery slots are busy would otherwise fail with an overflow
+                .onBackpressureBuffer()
+                .flatMap(batch -> eventDelivery.deliverBatch(listener, events(batch), deliveryOption(listener, group))
+                    .doFinally(any -> batch.forEach(pendingEvent -> pendingEvent.delivered.tryEmitEmpty())), EventBus.EXECUTION_RATE)
+                .subscribe();
+        }
+
+        private Mono<Void> deliver(Event event) {
+            PendingEvent pendingEvent = new PendingEvent(event);
+            synchronized (pendingEvents) {
+                pendingEvents.emitNext(pendingEvent, FAIL_FAST);
+            }
+            if (listener.getExecutionMode().equals(EventListener.ExecutionMode.SYNCHRONOUS)) {
+                return pendingEvent.delivered.asMono();
+            }
+            return Mono.empty();
+        }
+
+        private List<Event> events(List<PendingEvent> batch) {
+            return batch.stream()
+                .map(pendingEvent -> pendingEvent.event)
+                .collect(ImmutableList.toImmutableList());
+        }
+
+        private void complete() {
+            synchronized (pendingEvents) {
+                pendingEvents.tryEmitComplete();
+            }
+        }
+    }
+
     private final Multimap<RegistrationKey, EventListener.ReactiveEventListener> registrations;
     private final ConcurrentHashMap<Group, EventListener.ReactiveEventListener> groups;
+    private final ConcurrentHashMap<Group, BatchedGroupDelivery> batchedGroups;
     private final EventDelivery eventDelivery;
     private final RetryBackoffConfiguration retryBackoff;
     private final EventDeadLetters eventDeadLetters;
@@ -51,6 +113,7 @@ public class InVMEventBus implements EventBus {
         this.eventDeadLetters = eventDeadLetters;
         this.registrations = Multimaps.synchronizedSetMultimap(HashMultimap.create());
         this.groups = new ConcurrentHashMap<>();
+        this.batchedGroups = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -63,7 +126,14 @@ public class InVMEventBus implements EventBus {
     public Registration register(EventListener.ReactiveEventListener listener, Group group) {
         EventListener previous = groups.putIfAbsent(group, listener);
         if (previous == null) {
-            return () -> Mono.fromRunnable(() -> groups.remove(group, listener));
+            if (listener instanceof EventListener.ReactiveBatchGroupEventListener) {
+                batchedGroups.put(group, new BatchedGroupDelivery((EventListener.ReactiveBatchGroupEventListener) listener, group));
+            }
+            return () -> Mono.fromRunnable(() -> {
+                groups.remove(group, listener);
+                Optional.ofNullable(batchedGroups.remove(group))
+                    .ifPresent(BatchedGroupDelivery::complete);
+            });
         }
         throw new GroupAlreadyRegistered(group);
     }
@@ -104,17 +174,24 @@ public class InVMEventBus implements EventBus {
 
     private Mono<Void> groupDeliveries(Event event) {
         return Flux.fromIterable(groups.entrySet())
-            .flatMap(entry -> groupDelivery(event, entry.getValue(), entry.getKey()), EventBus.EXECUTION_RATE)
+            .flatMap(entry -> batchedOrSingleGroupDelivery(event, entry.getValue(), entry.getKey()), EventBus.EXECUTION_RATE)
             .then();
     }
 
     private Mono<Void> groupDelivery(Event event, EventListener.ReactiveEventListener listener, Group group) {
-        return eventDelivery.deliver(
-            listener,
-            event,
-            EventDelivery.DeliveryOption.of(
-                EventDelivery.Retryer.BackoffRetryer.of(retryBackoff, listener),
-                EventDelivery.PermanentFailureHandler.StoreToDeadLetters.of(group, eventDeadLetters)));
+        return eventDelivery.deliver(listener, event, deliveryOption(listener, group));
+    }
+
+    private Mono<Void> batchedOrSingleGroupDelivery(Event event, EventListener.ReactiveEventListener listener, Group group) {
+        return Optional.ofNullable(batchedGroups.get(group))
+            .map(batchedGroupDelivery -> batchedGroupDelivery.deliver(event))
+            .orElseGet(() -> groupDelivery(event, listener, group));
+    }
+
+    private EventDelivery.DeliveryOption deliveryOption(EventListener listener, Group group) {
+        return EventDelivery.DeliveryOption.of(
+            EventDelivery.Retryer.BackoffRetryer.of(retryBackoff, listener),
+            EventDelivery.PermanentFailureHandler.StoreToDeadLetters.of(group, eventDeadLetters));
     }
 
     public Set<Group> registeredGroups() {
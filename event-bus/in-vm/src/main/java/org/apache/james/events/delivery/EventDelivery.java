@@ -22,6 +22,8 @@ package org.apache.james.events.delivery;
 import static org.apache.james.events.delivery.EventDelivery.PermanentFailureHandler.NO_HANDLER;
 import static org.apache.james.events.delivery.EventDelivery.Retryer.NO_RETRYER;
 
+import java.util.List;
+
 import org.apache.james.events.Event;
 import org.apache.james.events.EventDeadLetters;
 import org.apache.james.events.EventListener;
@@ -128,6 +130,12 @@ public interface EventDelivery {
 
     Mono<Void> deliver(EventListener.ReactiveEventListener listener, Event event, DeliveryOption option);
 
+    /**
+     * Delivers the given events at once. Upon failure, each event handled by the listener is delivered on its own,
+     * applying the {@link DeliveryOption} to it. The execution mode of the listener is not taken into account.
+     */
+    Mono<Void> deliverBatch(EventListener.ReactiveBatchGroupEventListener listener, List<Event> events, DeliveryOption option);
+
     default Mono<Void> deliver(EventListener listener, Event event, DeliveryOption option) {
         return deliver(EventListener.wrapReactive(listener), event, option);
     }
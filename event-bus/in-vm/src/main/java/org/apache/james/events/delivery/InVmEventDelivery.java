@@ -22,6 +22,8 @@ package org.apache.james.events.delivery;
 import static org.apache.james.events.EventBus.Metrics.timerName;
 import static org.apache.james.util.ReactorUtils.context;
 
+import java.util.List;
+
 import javax.inject.Inject;
 
 import org.apache.james.events.Event;
@@ -35,6 +37,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -57,6 +60,28 @@ public class InVmEventDelivery implements EventDelivery {
         return waitForResultIfNeeded(listener.getExecutionMode(), executionResult);
     }
 
+    @Override
+    public Mono<Void> deliverBatch(EventListener.ReactiveBatchGroupEventListener listener, List<Event> events, DeliveryOption option) {
+        List<Event> handledEvents = events.stream()
+            .filter(listener::isHandling)
+            .collect(ImmutableList.toImmutableList());
+        if (handledEvents.isEmpty()) {
+            return Mono.empty();
+        }
+
+        return Mono.defer(() -> Mono.from(metricFactory.decoratePublisherWithTimerMetric(timerName(listener),
+                listener.reactiveEvents(handledEvents))))
+            .contextWrite(context("deliverBatch", buildMDC(listener)))
+            .then()
+            .onErrorResume(throwable -> {
+                LOGGER.warn("Error while processing a batch of {} events with listener {}, delivering them one by one",
+                    handledEvents.size(), listener.getClass().getCanonicalName(), throwable);
+                return Flux.fromIterable(handledEvents)
+                    .concatMap(event -> deliverByOption(listener, event, option))
+                    .then();
+            });
+    }
+
     private Mono<Void> waitForResultIfNeeded(EventListener.ExecutionMode executionMode, Mono<Void> executionResult) {
         if (executionMode.equals(EventListener.ExecutionMode.SYNCHRONOUS)) {
             return executionResult;
@@ -86,6 +111,11 @@ public class InVmEventDelivery implements EventDelivery {
         return Mono.empty();
     }
 
+    private MDCBuilder buildMDC(EventListener listener) {
+        return MDCBuilder.create()
+            .addToContext(EventBus.StructuredLoggingFields.LISTENER_CLASS, listener.getClass().getCanonicalName());
+    }
+
     private MDCBuilder buildMDC(EventListener listener, Event event) {
         return MDCBuilder.create()
             .addToContext(EventBus.StructuredLoggingFields.EVENT_ID, event.getEventId().toString())
@@ -24,7 +24,7 @@ import org.apache.james.metrics.tests.RecordingMetricFactory;
 import org.junit.jupiter.api.BeforeEach;
 
 public class InVMEventBusTest implements KeyContract.SingleEventBusKeyContract, GroupContract.SingleEventBusGroupContract,
-    ErrorHandlingContract {
+    ErrorHandlingContract, BatchGroupContract.SingleEventBusBatchGroupContract {
 
     private InVMEventBus eventBus;
     private MemoryEventDeadLetters deadLetters;
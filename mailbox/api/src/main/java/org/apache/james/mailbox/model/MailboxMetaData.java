@@ -21,6 +21,7 @@ package org.apache.james.mailbox.model;
 
 import java.util.Comparator;
 import java.util.Objects;
+import java.util.Optional;
 
 import com.google.common.base.MoreObjects;
 
@@ -70,9 +71,13 @@ public class MailboxMetaData implements Comparable<MailboxMetaData> {
     private final Selectability selectability;
     private final MailboxId mailboxId;
     private final MailboxACL resolvedAcls;
-    private final MailboxCounters counters;
+    private final Optional<MailboxCounters> counters;
 
     public MailboxMetaData(MailboxPath path, MailboxId mailboxId, char delimiter, Children inferiors, Selectability selectability, MailboxACL resolvedAcls, MailboxCounters counters) {
+        this(path, mailboxId, delimiter, inferiors, selectability, resolvedAcls, Optional.of(counters));
+    }
+
+    public MailboxMetaData(MailboxPath path, MailboxId mailboxId, char delimiter, Children inferiors, Selectability selectability, MailboxACL resolvedAcls, Optional<MailboxCounters> counters) {
         this.path = path;
         this.mailboxId = mailboxId;
         this.delimiter = delimiter;
@@ -82,7 +87,18 @@ public class MailboxMetaData implements Comparable<MailboxMetaData> {
         this.counters = counters;
     }
 
+    /**
+     * @return the counters of this mailbox, empty counters when they are unknown.
+     */
     public MailboxCounters getCounters() {
+        return counters.orElse(MailboxCounters.empty(mailboxId));
+    }
+
+    /**
+     * @return the counters of this mailbox if known: they are not when the counters were not fetched, or when
+     * the user can not read the mailbox.
+     */
+    public Optional<MailboxCounters> getKnownCounters() {
         return counters;
     }
 
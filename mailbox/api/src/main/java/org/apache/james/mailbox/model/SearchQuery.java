@@ -188,6 +188,14 @@ public class SearchQuery {
         public int hashCode() {
             return Objects.hashCode(sortClause, order);
         }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                .add("sortClause", sortClause)
+                .add("order", order)
+                .toString();
+        }
     }
 
     /**
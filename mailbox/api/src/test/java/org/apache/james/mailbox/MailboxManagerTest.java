@@ -1542,6 +1542,64 @@ public abstract class MailboxManagerTest<T extends MailboxManager> {
                 .isEqualTo(MailboxCounters.empty(mailboxIdInbox1.get()));
         }
 
+        @Test
+        void searchWithCountersShouldNotReturnCountersOfMailboxesWithoutReadRight() throws Exception {
+            assumeTrue(mailboxManager.hasCapability(MailboxCapabilities.ACL));
+            MailboxSession session1 = mailboxManager.createSystemSession(USER_1);
+            MailboxSession session2 = mailboxManager.createSystemSession(USER_2);
+            MailboxPath inbox1 = MailboxPath.inbox(session1);
+            mailboxManager.createMailbox(inbox1, session1);
+            mailboxManager.setRights(inbox1,
+                MailboxACL.EMPTY.apply(MailboxACL.command()
+                    .forUser(USER_2)
+                    .rights(MailboxACL.Right.Lookup)
+                    .asAddition()),
+                session1);
+            mailboxManager.getMailbox(inbox1, session1).appendMessage(AppendCommand.from(message), session1);
+
+            MailboxQuery mailboxQuery = MailboxQuery.builder()
+                .matchesAllMailboxNames()
+                .build();
+
+            List<MailboxMetaData> metaData = mailboxManager.search(mailboxQuery, MailboxManager.MailboxSearchFetchType.Counters, session2)
+                .collectList()
+                .block();
+
+            assertThat(metaData).hasSize(1);
+            assertThat(metaData.get(0).getKnownCounters()).isEmpty();
+        }
+
+        @Test
+        void searchWithCountersShouldReturnCountersOfMailboxesWithReadRight() throws Exception {
+            assumeTrue(mailboxManager.hasCapability(MailboxCapabilities.ACL));
+            MailboxSession session1 = mailboxManager.createSystemSession(USER_1);
+            MailboxSession session2 = mailboxManager.createSystemSession(USER_2);
+            MailboxPath inbox1 = MailboxPath.inbox(session1);
+            Optional<MailboxId> mailboxIdInbox1 = mailboxManager.createMailbox(inbox1, session1);
+            mailboxManager.setRights(inbox1,
+                MailboxACL.EMPTY.apply(MailboxACL.command()
+                    .forUser(USER_2)
+                    .rights(MailboxACL.Right.Lookup, MailboxACL.Right.Read)
+                    .asAddition()),
+                session1);
+            mailboxManager.getMailbox(inbox1, session1).appendMessage(AppendCommand.from(message), session1);
+
+            MailboxQuery mailboxQuery = MailboxQuery.builder()
+                .matchesAllMailboxNames()
+                .build();
+
+            List<MailboxMetaData> metaData = mailboxManager.search(mailboxQuery, MailboxManager.MailboxSearchFetchType.Counters, session2)
+                .collectList()
+                .block();
+
+            assertThat(metaData).hasSize(1);
+            assertThat(metaData.get(0).getKnownCounters()).contains(MailboxCounters.builder()
+                .mailboxId(mailboxIdInbox1.get())
+                .count(1)
+                .unseen(1)
+                .build());
+        }
+
         @Test
         void getMailboxCountersShouldReturnStoredValueWhenReadRight() throws Exception {
             assumeTrue(mailboxManager.hasCapability(MailboxCapabilities.ACL));
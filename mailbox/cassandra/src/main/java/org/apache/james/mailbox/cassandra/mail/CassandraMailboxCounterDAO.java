@@ -22,6 +22,7 @@ package org.apache.james.mailbox.cassandra.mail;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.bindMarker;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.decr;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.eq;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.in;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.incr;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.select;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.update;
@@ -30,6 +31,10 @@ import static org.apache.james.mailbox.cassandra.table.CassandraMailboxCountersT
 import static org.apache.james.mailbox.cassandra.table.CassandraMailboxCountersTable.TABLE_NAME;
 import static org.apache.james.mailbox.cassandra.table.CassandraMailboxCountersTable.UNSEEN;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
 import javax.inject.Inject;
 
 import org.apache.james.backends.cassandra.utils.CassandraAsyncExecutor;
@@ -42,13 +47,19 @@ import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.core.querybuilder.Assignment;
 import com.datastax.driver.core.querybuilder.QueryBuilder;
+import com.google.common.collect.ImmutableList;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public class CassandraMailboxCounterDAO {
+    // Bounds the partitions read by a single coordinator
+    private static final int MAX_MAILBOXES_PER_READ = 100;
+    private static final int CONCURRENT_READS = 4;
 
     private final CassandraAsyncExecutor cassandraAsyncExecutor;
     private final PreparedStatement readStatement;
+    private final PreparedStatement readManyStatement;
     private final PreparedStatement incrementUnseenCountStatement;
     private final PreparedStatement incrementMessageCountStatement;
     private final PreparedStatement addToCounters;
@@ -63,6 +74,7 @@ public class CassandraMailboxCounterDAO {
     public CassandraMailboxCounterDAO(Session session) {
         cassandraAsyncExecutor = new CassandraAsyncExecutor(session);
         readStatement = createReadStatement(session);
+        readManyStatement = createReadManyStatement(session);
         incrementMessageCountStatement = updateMailboxStatement(session, incr(COUNT));
         incrementUnseenCountStatement = updateMailboxStatement(session, incr(UNSEEN));
         addToCounters = session.prepare(update(TABLE_NAME)
@@ -94,6 +106,13 @@ public class CassandraMailboxCounterDAO {
                 .where(eq(MAILBOX_ID, bindMarker(MAILBOX_ID))));
     }
 
+    private PreparedStatement createReadManyStatement(Session session) {
+        return session.prepare(
+            select(MAILBOX_ID, UNSEEN, COUNT)
+                .from(TABLE_NAME)
+                .where(in(MAILBOX_ID, bindMarker(MAILBOX_ID))));
+    }
+
     private PreparedStatement updateMailboxStatement(Session session, Assignment operation) {
         return session.prepare(
             update(TABLE_NAME)
@@ -114,6 +133,29 @@ public class CassandraMailboxCounterDAO {
                 .build());
     }
 
+    /**
+     * Mailboxes without stored counters are not part of the result.
+     */
+    public Flux<MailboxCounters> retrieveMailboxCounters(Collection<CassandraId> mailboxIds) {
+        return Flux.fromIterable(mailboxIds)
+            .buffer(MAX_MAILBOXES_PER_READ)
+            .flatMap(this::readMany, CONCURRENT_READS);
+    }
+
+    private Flux<MailboxCounters> readMany(List<CassandraId> mailboxIds) {
+        List<UUID> uuids = mailboxIds.stream()
+            .map(CassandraId::asUuid)
+            .collect(ImmutableList.toImmutableList());
+
+        return cassandraAsyncExecutor.executeRows(readManyStatement.bind()
+                .setList(MAILBOX_ID, uuids, UUID.class))
+            .map(row -> MailboxCounters.builder()
+                .mailboxId(CassandraId.of(row.getUUID(MAILBOX_ID)))
+                .count(row.getLong(COUNT))
+                .unseen(row.getLong(UNSEEN))
+                .build());
+    }
+
     public Mono<Void> resetCounters(MailboxCounters counters) {
         CassandraId mailboxId = (CassandraId) counters.getMailboxId();
 
@@ -91,6 +91,7 @@ public class CassandraMessageMapper implements MessageMapper {
 
     private final ModSeqProvider modSeqProvider;
     private final UidProvider uidProvider;
+    private final Optional<CassandraUidAndModSeqProvider> uidAndModSeqProvider;
     private final CassandraMessageDAO messageDAO;
     private final CassandraMessageDAOV3 messageDAOV3;
     private final CassandraMessageIdDAO messageIdDAO;
@@ -117,6 +118,9 @@ public class CassandraMessageMapper implements MessageMapper {
                                   RecomputeMailboxCountersService recomputeMailboxCountersService) {
         this.uidProvider = uidProvider;
         this.modSeqProvider = modSeqProvider;
+        this.uidAndModSeqProvider = Optional.of(uidProvider)
+            .filter(CassandraUidAndModSeqProvider.class::isInstance)
+            .map(CassandraUidAndModSeqProvider.class::cast);
         this.messageDAO = messageDAO;
         this.messageDAOV3 = messageDAOV3;
         this.messageIdDAO = messageIdDAO;
@@ -154,14 +158,31 @@ public class CassandraMessageMapper implements MessageMapper {
     public Mono<MailboxCounters> getMailboxCountersReactive(Mailbox mailbox) {
         CassandraId mailboxId = (CassandraId) mailbox.getMailboxId();
         return readMailboxCounters(mailboxId)
-            .flatMap(counters -> {
-                if (!counters.isValid()) {
-                    return fixCounters(mailbox)
-                        .then(readMailboxCounters(mailboxId));
-                }
-                return Mono.just(counters);
-            })
-            .doOnNext(counters -> readRepair(mailbox, counters));
+            .flatMap(counters -> repairIfNeeded(mailbox, counters));
+    }
+
+    @Override
+    public Flux<MailboxCounters> getMailboxCountersReactive(Collection<Mailbox> mailboxes) {
+        List<CassandraId> mailboxIds = mailboxes.stream()
+            .map(mailbox -> (CassandraId) mailbox.getMailboxId())
+            .collect(ImmutableList.toImmutableList());
+
+        return mailboxCounterDAO.retrieveMailboxCounters(mailboxIds)
+            .collectMap(MailboxCounters::getMailboxId)
+            .flatMapMany(countersById -> Flux.fromIterable(mailboxes)
+                .concatMap(mailbox -> repairIfNeeded(mailbox, countersById.getOrDefault(mailbox.getMailboxId(),
+                    MailboxCounters.empty(mailbox.getMailboxId())))));
+    }
+
+    private Mono<MailboxCounters> repairIfNeeded(Mailbox mailbox, MailboxCounters counters) {
+        CassandraId mailboxId = (CassandraId) mailbox.getMailboxId();
+        if (!counters.isValid()) {
+            return fixCounters(mailbox)
+                .then(readMailboxCounters(mailboxId))
+                .doOnNext(fixedCounters -> readRepair(mailbox, fixedCounters));
+        }
+        readRepair(mailbox, counters);
+        return Mono.just(counters);
     }
 
     public Mono<MailboxCounters> readMailboxCounters(CassandraId mailboxId) {
@@ -396,6 +417,21 @@ public class CassandraMessageMapper implements MessageMapper {
     }
 
     private Mono<MailboxMessage> addUidAndModseq(MailboxMessage message, CassandraId mailboxId) {
+        return nextUidAndModSeq(message, mailboxId)
+                .doOnNext(pair -> {
+                    message.setUid(pair.getKey());
+                    message.setModSeq(pair.getValue());
+                })
+                .thenReturn(message);
+    }
+
+    private Mono<Pair<MessageUid, ModSeq>> nextUidAndModSeq(MailboxMessage message, CassandraId mailboxId) {
+        if (uidAndModSeqProvider.isPresent()) {
+            return uidAndModSeqProvider.get().nextUidsAndModSeq(mailboxId, 1)
+                .map(uidsAndModSeq -> Pair.of(uidsAndModSeq.getUids().get(0), uidsAndModSeq.getModSeq()))
+                .switchIfEmpty(Mono.error(() -> new MailboxException("Can not find a UID and a MODSEQ to save " + message.getMessageId() + " in " + mailboxId)));
+        }
+
         Mono<MessageUid> messageUidMono = uidProvider
             .nextUidReactive(mailboxId)
             .switchIfEmpty(Mono.error(() -> new MailboxException("Can not find a UID to save " + message.getMessageId() + " in " + mailboxId)));
@@ -403,12 +439,19 @@ public class CassandraMessageMapper implements MessageMapper {
         Mono<ModSeq> nextModSeqMono = modSeqProvider.nextModSeqReactive(mailboxId)
             .switchIfEmpty(Mono.error(() -> new MailboxException("Can not find a MODSEQ to save " + message.getMessageId() + " in " + mailboxId)));
 
-        return Mono.zip(messageUidMono, nextModSeqMono)
-                .doOnNext(tuple -> {
-                    message.setUid(tuple.getT1());
-                    message.setModSeq(tuple.getT2());
-                })
-                .thenReturn(message);
+        return Mono.zip(messageUidMono, nextModSeqMono, Pair::of);
+    }
+
+    private Mono<Pair<List<MessageUid>, ModSeq>> nextUidsAndModSeq(CassandraId mailboxId, int count) {
+        if (uidAndModSeqProvider.isPresent()) {
+            return uidAndModSeqProvider.get().nextUidsAndModSeq(mailboxId, count)
+                .map(uidsAndModSeq -> Pair.of(uidsAndModSeq.getUids(), uidsAndModSeq.getModSeq()));
+        }
+
+        Mono<List<MessageUid>> uids = uidProvider.nextUids(mailboxId, count);
+        Mono<ModSeq> nextModSeq = modSeqProvider.nextModSeqReactive(mailboxId);
+
+        return nextModSeq.flatMap(modSeq -> uids.map(uidList -> Pair.of(uidList, modSeq)));
     }
 
     private <T> T block(Mono<T> mono) throws MailboxException {
@@ -570,10 +613,7 @@ public class CassandraMessageMapper implements MessageMapper {
     private List<MessageMetaData> setInMailbox(Mailbox mailbox, List<MailboxMessage> messages) throws MailboxException {
         CassandraId mailboxId = (CassandraId) mailbox.getMailboxId();
 
-        Mono<List<MessageUid>> uids = uidProvider.nextUids(mailboxId, messages.size());
-        Mono<ModSeq> nextModSeq = modSeqProvider.nextModSeqReactive(mailboxId);
-
-        Mono<List<MailboxMessage>> messagesWithUidAndModSeq = nextModSeq.flatMap(modSeq -> uids.map(uidList -> Pair.of(uidList, modSeq)))
+        Mono<List<MailboxMessage>> messagesWithUidAndModSeq = nextUidsAndModSeq(mailboxId, messages.size())
             .map(pair -> pair.getKey().stream()
                 .map(uid -> Pair.of(uid, pair.getRight())))
             .map(uidsAndModSeq -> Streams.zip(uidsAndModSeq, messages.stream(),
@@ -0,0 +1,374 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.cassandra.mail;
+
+import static com.datastax.driver.core.querybuilder.QueryBuilder.bindMarker;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.eq;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.insertInto;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.select;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.set;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.update;
+import static org.apache.james.mailbox.cassandra.table.CassandraUidAndModSeqTable.MAILBOX_ID;
+import static org.apache.james.mailbox.cassandra.table.CassandraUidAndModSeqTable.NEXT_MODSEQ;
+import static org.apache.james.mailbox.cassandra.table.CassandraUidAndModSeqTable.NEXT_UID;
+import static org.apache.james.mailbox.cassandra.table.CassandraUidAndModSeqTable.TABLE_NAME;
+import static org.apache.james.util.ReactorUtils.publishIfPresent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import javax.inject.Inject;
+
+import org.apache.james.backends.cassandra.init.configuration.CassandraConfiguration;
+import org.apache.james.backends.cassandra.init.configuration.CassandraConsistenciesConfiguration;
+import org.apache.james.backends.cassandra.utils.CassandraAsyncExecutor;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.ModSeq;
+import org.apache.james.mailbox.cassandra.ids.CassandraId;
+import org.apache.james.mailbox.cassandra.table.CassandraMessageModseqTable;
+import org.apache.james.mailbox.cassandra.table.CassandraMessageUidTable;
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.model.Mailbox;
+import org.apache.james.mailbox.model.MailboxId;
+import org.apache.james.mailbox.store.mail.ModSeqProvider;
+import org.apache.james.mailbox.store.mail.UidProvider;
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Session;
+import com.google.common.base.MoreObjects;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+import reactor.util.retry.RetryBackoffSpec;
+
+/**
+ * Allocates UIDs and MODSEQs of a mailbox with a single lightweight transaction, both being stored in the same row.
+ *
+ * Upon first use for a given mailbox, values are initialized from the tables used by {@link CassandraUidProvider} and
+ * {@link CassandraModSeqProvider}. These tables are no longer updated afterward, thus the former providers must not be
+ * used again once this one has been, see {@link #isInUse()}.
+ */
+public class CassandraUidAndModSeqProvider implements UidProvider, ModSeqProvider {
+    public static class UidsAndModSeq {
+        private final List<MessageUid> uids;
+        private final ModSeq modSeq;
+
+        UidsAndModSeq(List<MessageUid> uids, ModSeq modSeq) {
+            this.uids = uids;
+            this.modSeq = modSeq;
+        }
+
+        public List<MessageUid> getUids() {
+            return uids;
+        }
+
+        public ModSeq getModSeq() {
+            return modSeq;
+        }
+
+        @Override
+        public final boolean equals(Object o) {
+            if (o instanceof UidsAndModSeq) {
+                UidsAndModSeq that = (UidsAndModSeq) o;
+
+                return Objects.equals(this.uids, that.uids)
+                    && Objects.equals(this.modSeq, that.modSeq);
+            }
+            return false;
+        }
+
+        @Override
+        public final int hashCode() {
+            return Objects.hash(uids, modSeq);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                .add("uids", uids)
+                .add("modSeq", modSeq)
+                .toString();
+        }
+    }
+
+    static class Counters {
+        final long nextUid;
+        final long nextModSeq;
+
+        Counters(long nextUid, long nextModSeq) {
+            this.nextUid = nextUid;
+            this.nextModSeq = nextModSeq;
+        }
+    }
+
+    public static final String CONTENTION_METRIC_NAME = "cassandra.uidAndModSeq.contention";
+    public static final String ALLOCATION_METRIC_NAME = "cassandra.uidAndModSeq.allocation";
+    public static final String COALESCED_METRIC_NAME = "cassandra.uidAndModSeq.coalesced";
+    private static final Logger LOGGER = LoggerFactory.getLogger(CassandraUidAndModSeqProvider.class);
+    private static final String UID_CONDITION = "uidCondition";
+    private static final String MOD_SEQ_CONDITION = "modSeqCondition";
+    private static final long NO_UID = 0L;
+
+    private final CassandraAsyncExecutor executor;
+    private final PreparedStatement select;
+    private final PreparedStatement update;
+    private final PreparedStatement insert;
+    private final PreparedStatement selectAny;
+    private final PreparedStatement selectLegacyUid;
+    private final PreparedStatement selectLegacyModSeq;
+    private final ConsistencyLevel consistencyLevel;
+    private final RetryBackoffSpec retrySpec;
+    private final MetricFactory metricFactory;
+    private final Metric contention;
+    private final UidAndModSeqCoalescer coalescer;
+
+    @Inject
+    public CassandraUidAndModSeqProvider(Session session, CassandraConfiguration cassandraConfiguration,
+                                         CassandraConsistenciesConfiguration consistenciesConfiguration,
+                                         MetricFactory metricFactory) {
+        this.executor = new CassandraAsyncExecutor(session);
+        this.consistencyLevel = consistenciesConfiguration.getLightweightTransaction();
+        this.metricFactory = metricFactory;
+        this.contention = metricFactory.generate(CONTENTION_METRIC_NAME);
+        this.coalescer = new UidAndModSeqCoalescer(this::reserve, metricFactory.generate(COALESCED_METRIC_NAME));
+        this.select = prepareSelect(session);
+        this.update = prepareUpdate(session);
+        this.insert = prepareInsert(session);
+        this.selectAny = session.prepare(select(MAILBOX_ID)
+            .from(TABLE_NAME)
+            .limit(1));
+        this.selectLegacyUid = session.prepare(select(CassandraMessageUidTable.NEXT_UID)
+            .from(CassandraMessageUidTable.TABLE_NAME)
+            .where(eq(CassandraMessageUidTable.MAILBOX_ID, bindMarker(CassandraMessageUidTable.MAILBOX_ID))));
+        this.selectLegacyModSeq = session.prepare(select(CassandraMessageModseqTable.NEXT_MODSEQ)
+            .from(CassandraMessageModseqTable.TABLE_NAME)
+            .where(eq(CassandraMessageModseqTable.MAILBOX_ID, bindMarker(CassandraMessageModseqTable.MAILBOX_ID))));
+        Duration firstBackoff = Duration.ofMillis(10);
+        this.retrySpec = Retry.backoff(Math.max(cassandraConfiguration.getUidMaxRetry(), cassandraConfiguration.getModSeqMaxRetry()), firstBackoff)
+            .scheduler(Schedulers.elastic());
+    }
+
+    private PreparedStatement prepareSelect(Session session) {
+        return session.prepare(select(NEXT_UID, NEXT_MODSEQ)
+            .from(TABLE_NAME)
+            .where(eq(MAILBOX_ID, bindMarker(MAILBOX_ID))));
+    }
+
+    private PreparedStatement prepareUpdate(Session session) {
+        return session.prepare(update(TABLE_NAME)
+            .onlyIf(eq(NEXT_UID, bindMarker(UID_CONDITION)))
+            .and(eq(NEXT_MODSEQ, bindMarker(MOD_SEQ_CONDITION)))
+            .with(set(NEXT_UID, bindMarker(NEXT_UID)))
+            .and(set(NEXT_MODSEQ, bindMarker(NEXT_MODSEQ)))
+            .where(eq(MAILBOX_ID, bindMarker(MAILBOX_ID))));
+    }
+
+    private PreparedStatement prepareInsert(Session session) {
+        return session.prepare(insertInto(TABLE_NAME)
+            .value(MAILBOX_ID, bindMarker(MAILBOX_ID))
+            .value(NEXT_UID, bindMarker(NEXT_UID))
+            .value(NEXT_MODSEQ, bindMarker(NEXT_MODSEQ))
+            .ifNotExists());
+    }
+
+    /**
+     * @return true once UIDs or MODSEQs have been allocated by this provider, the values stored in the former tables
+     * being outdated from then on.
+     */
+    public Mono<Boolean> isInUse() {
+        return executor.executeReturnExists(selectAny.bind());
+    }
+
+    /**
+     * Reserves {@code uidCount} consecutive UIDs along with a MODSEQ.
+     *
+     * Concurrent reservations for the same mailbox on this James server are coalesced into a single lightweight
+     * transaction, see {@link UidAndModSeqCoalescer}.
+     *
+     * @param uidCount can be 0 in order to only allocate a MODSEQ
+     */
+    public Mono<UidsAndModSeq> nextUidsAndModSeq(MailboxId mailboxId, int uidCount) {
+        return coalescer.allocate((CassandraId) mailboxId, uidCount);
+    }
+
+    /**
+     * @return the counters prior to the reservation
+     */
+    private Mono<Counters> reserve(CassandraId mailboxId, int uidCount, int modSeqCount) {
+        return Mono.from(metricFactory.decoratePublisherWithTimerMetric(ALLOCATION_METRIC_NAME,
+            findCounters(mailboxId)
+                .map(Optional::of)
+                .switchIfEmpty(Mono.just(Optional.empty()))
+                .flatMap(maybeCounters -> maybeCounters
+                    .map(counters -> tryUpdate(mailboxId, counters, uidCount, modSeqCount))
+                    .orElseGet(() -> readLegacyCounters(mailboxId)
+                        .flatMap(counters -> tryInsert(mailboxId, counters, uidCount, modSeqCount))))
+                .single()
+                .retryWhen(retrySpec)));
+    }
+
+    @Override
+    public MessageUid nextUid(Mailbox mailbox) throws MailboxException {
+        return nextUid(mailbox.getMailboxId());
+    }
+
+    @Override
+    public MessageUid nextUid(MailboxId mailboxId) throws MailboxException {
+        return nextUidReactive(mailboxId)
+            .blockOptional()
+            .orElseThrow(() -> new MailboxException("Error during Uid update"));
+    }
+
+    @Override
+    public Mono<MessageUid> nextUidReactive(MailboxId mailboxId) {
+        return nextUidsAndModSeq(mailboxId, 1)
+            .map(uidsAndModSeq -> uidsAndModSeq.getUids().get(0));
+    }
+
+    @Override
+    public Mono<List<MessageUid>> nextUids(MailboxId mailboxId, int count) {
+        return nextUidsAndModSeq(mailboxId, count)
+            .map(UidsAndModSeq::getUids);
+    }
+
+    @Override
+    public Optional<MessageUid> lastUid(Mailbox mailbox) {
+        return lastUidReactive(mailbox).block();
+    }
+
+    @Override
+    public Mono<Optional<MessageUid>> lastUidReactive(Mailbox mailbox) {
+        return currentCounters((CassandraId) mailbox.getMailboxId())
+            .map(counters -> Optional.of(counters.nextUid)
+                .filter(uid -> uid != NO_UID)
+                .map(MessageUid::of));
+    }
+
+    @Override
+    public ModSeq nextModSeq(Mailbox mailbox) throws MailboxException {
+        return nextModSeq(mailbox.getMailboxId());
+    }
+
+    @Override
+    public ModSeq nextModSeq(MailboxId mailboxId) throws MailboxException {
+        return nextModSeqReactive(mailboxId)
+            .blockOptional()
+            .orElseThrow(() -> new MailboxException("Can not retrieve modseq for " + mailboxId));
+    }
+
+    @Override
+    public Mono<ModSeq> nextModSeqReactive(MailboxId mailboxId) {
+        return nextUidsAndModSeq(mailboxId, 0)
+            .map(UidsAndModSeq::getModSeq);
+    }
+
+    @Override
+    public ModSeq highestModSeq(Mailbox mailbox) {
+        return highestModSeqReactive(mailbox).block();
+    }
+
+    @Override
+    public ModSeq highestModSeq(MailboxId mailboxId) {
+        return highestModSeq((CassandraId) mailboxId).block();
+    }
+
+    @Override
+    public Mono<ModSeq> highestModSeqReactive(Mailbox mailbox) {
+        return highestModSeq((CassandraId) mailbox.getMailboxId());
+    }
+
+    private Mono<ModSeq> highestModSeq(CassandraId mailboxId) {
+        return currentCounters(mailboxId)
+            .map(counters -> ModSeq.of(counters.nextModSeq));
+    }
+
+    private Mono<Counters> currentCounters(CassandraId mailboxId) {
+        return findCounters(mailboxId)
+            .switchIfEmpty(readLegacyCounters(mailboxId));
+    }
+
+    private Mono<Counters> findCounters(CassandraId mailboxId) {
+        return executor.executeSingleRow(
+                select.bind()
+                    .setUUID(MAILBOX_ID, mailboxId.asUuid())
+                    .setConsistencyLevel(consistencyLevel))
+            .map(row -> new Counters(row.getLong(NEXT_UID), row.getLong(NEXT_MODSEQ)));
+    }
+
+    private Mono<Counters> readLegacyCounters(CassandraId mailboxId) {
+        Mono<Long> legacyUid = executor.executeSingleRowOptional(
+                selectLegacyUid.bind()
+                    .setUUID(CassandraMessageUidTable.MAILBOX_ID, mailboxId.asUuid())
+                    .setConsistencyLevel(consistencyLevel))
+            .map(maybeRow -> maybeRow.map(row -> row.getLong(CassandraMessageUidTable.NEXT_UID)).orElse(NO_UID));
+        Mono<Long> legacyModSeq = executor.executeSingleRowOptional(
+                selectLegacyModSeq.bind()
+                    .setUUID(CassandraMessageModseqTable.MAILBOX_ID, mailboxId.asUuid())
+                    .setConsistencyLevel(consistencyLevel))
+            .map(maybeRow -> maybeRow.map(row -> row.getLong(CassandraMessageModseqTable.NEXT_MODSEQ)).orElse(ModSeq.first().asLong()));
+
+        return Mono.zip(legacyUid, legacyModSeq, Counters::new);
+    }
+
+    private Mono<Counters> tryUpdate(CassandraId mailboxId, Counters counters, int uidCount, int modSeqCount) {
+        Counters next = next(counters, uidCount, modSeqCount);
+        return executor.executeReturnApplied(
+                update.bind()
+                    .setUUID(MAILBOX_ID, mailboxId.asUuid())
+                    .setLong(UID_CONDITION, counters.nextUid)
+                    .setLong(MOD_SEQ_CONDITION, counters.nextModSeq)
+                    .setLong(NEXT_UID, next.nextUid)
+                    .setLong(NEXT_MODSEQ, next.nextModSeq))
+            .map(applied -> reservation(mailboxId, counters, applied))
+            .handle(publishIfPresent());
+    }
+
+    private Mono<Counters> tryInsert(CassandraId mailboxId, Counters counters, int uidCount, int modSeqCount) {
+        Counters next = next(counters, uidCount, modSeqCount);
+        return executor.executeReturnApplied(
+                insert.bind()
+                    .setUUID(MAILBOX_ID, mailboxId.asUuid())
+                    .setLong(NEXT_UID, next.nextUid)
+                    .setLong(NEXT_MODSEQ, next.nextModSeq))
+            .map(applied -> reservation(mailboxId, counters, applied))
+            .handle(publishIfPresent());
+    }
+
+    private Counters next(Counters counters, int uidCount, int modSeqCount) {
+        return new Counters(Math.addExact(counters.nextUid, uidCount), Math.addExact(counters.nextModSeq, modSeqCount));
+    }
+
+    private Optional<Counters> reservation(CassandraId mailboxId, Counters previous, boolean applied) {
+        if (applied) {
+            return Optional.of(previous);
+        }
+        contention.increment();
+        LOGGER.debug("Concurrent UID and MODSEQ allocation in mailbox {}, retrying", mailboxId.serialize());
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,149 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.cassandra.mail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.LongStream;
+
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.ModSeq;
+import org.apache.james.mailbox.cassandra.ids.CassandraId;
+import org.apache.james.mailbox.cassandra.mail.CassandraUidAndModSeqProvider.Counters;
+import org.apache.james.mailbox.cassandra.mail.CassandraUidAndModSeqProvider.UidsAndModSeq;
+import org.apache.james.metrics.api.Metric;
+
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Ensures at most one UID and MODSEQ reservation is in flight per mailbox on this James server.
+ *
+ * Allocations requested while a reservation is in flight are queued, then served together by the next reservation:
+ * it reserves the sum of the requested UIDs and one MODSEQ per request, which are then split in request order. Hence
+ * concurrent deliveries to a same mailbox share a single lightweight transaction instead of contending with each
+ * other, while UIDs and MODSEQs stay strictly increasing.
+ */
+class UidAndModSeqCoalescer {
+    @FunctionalInterface
+    interface Reserver {
+        /**
+         * @return the counters prior to the reservation
+         */
+        Mono<Counters> reserve(CassandraId mailboxId, int uidCount, int modSeqCount);
+    }
+
+    private static class PendingAllocation {
+        private final int uidCount;
+        private final Sinks.One<UidsAndModSeq> sink;
+
+        private PendingAllocation(int uidCount) {
+            this.uidCount = uidCount;
+            this.sink = Sinks.one();
+        }
+    }
+
+    private class MailboxAllocations {
+        private final CassandraId mailboxId;
+        private final List<PendingAllocation> pending;
+        private boolean inFlight;
+
+        private MailboxAllocations(CassandraId mailboxId) {
+            this.mailboxId = mailboxId;
+            this.pending = new ArrayList<>();
+            this.inFlight = false;
+        }
+
+        /**
+         * @return false if these allocations were retired, in which case the caller needs to retry with a fresh instance
+         */
+        private boolean submit(PendingAllocation allocation) {
+            synchronized (this) {
+                if (!inFlight && pending.isEmpty() && allocationsByMailbox.get(mailboxId) != this) {
+                    return false;
+                }
+                pending.add(allocation);
+                if (inFlight) {
+                    return true;
+                }
+                inFlight = true;
+            }
+            drain();
+            return true;
+        }
+
+        private void drain() {
+            List<PendingAllocation> batch;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    inFlight = false;
+                    allocationsByMailbox.remove(mailboxId, this);
+                    return;
+                }
+                batch = ImmutableList.copyOf(pending);
+                pending.clear();
+            }
+
+            int uidCount = batch.stream().mapToInt(allocation -> allocation.uidCount).sum();
+            coalesced.add(batch.size() - 1);
+            reserver.reserve(mailboxId, uidCount, batch.size())
+                .doFinally(any -> drain())
+                .subscribe(
+                    previous -> dispatch(previous, batch),
+                    e -> batch.forEach(allocation -> allocation.sink.tryEmitError(e)));
+        }
+
+        private void dispatch(Counters previous, List<PendingAllocation> batch) {
+            long nextUid = previous.nextUid;
+            ModSeq modSeq = ModSeq.of(previous.nextModSeq);
+            for (PendingAllocation allocation : batch) {
+                List<MessageUid> uids = LongStream.range(nextUid + 1, nextUid + 1 + allocation.uidCount)
+                    .mapToObj(MessageUid::of)
+                    .collect(ImmutableList.toImmutableList());
+                nextUid += allocation.uidCount;
+                modSeq = modSeq.next();
+                allocation.sink.tryEmitValue(new UidsAndModSeq(uids, modSeq));
+            }
+        }
+    }
+
+    private final Reserver reserver;
+    private final Metric coalesced;
+    private final ConcurrentHashMap<CassandraId, MailboxAllocations> allocationsByMailbox;
+
+    UidAndModSeqCoalescer(Reserver reserver, Metric coalesced) {
+        this.reserver = reserver;
+        this.coalesced = coalesced;
+        this.allocationsByMailbox = new ConcurrentHashMap<>();
+    }
+
+    Mono<UidsAndModSeq> allocate(CassandraId mailboxId, int uidCount) {
+        return Mono.defer(() -> {
+            PendingAllocation allocation = new PendingAllocation(uidCount);
+            while (!allocationsByMailbox.computeIfAbsent(mailboxId, MailboxAllocations::new).submit(allocation)) {
+                // retired concurrently, a fresh instance will be created
+            }
+            return allocation.sink.asMono();
+        });
+    }
+}
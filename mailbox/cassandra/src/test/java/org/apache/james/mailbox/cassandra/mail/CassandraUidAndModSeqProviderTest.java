@@ -0,0 +1,230 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.cassandra.mail;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.LongStream;
+
+import org.apache.james.backends.cassandra.CassandraCluster;
+import org.apache.james.backends.cassandra.CassandraClusterExtension;
+import org.apache.james.backends.cassandra.components.CassandraModule;
+import org.apache.james.backends.cassandra.init.configuration.CassandraConfiguration;
+import org.apache.james.core.Username;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.ModSeq;
+import org.apache.james.mailbox.cassandra.ids.CassandraId;
+import org.apache.james.mailbox.cassandra.modules.CassandraModSeqModule;
+import org.apache.james.mailbox.cassandra.modules.CassandraUidAndModSeqModule;
+import org.apache.james.mailbox.cassandra.modules.CassandraUidModule;
+import org.apache.james.mailbox.model.Mailbox;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.UidValidity;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.apache.james.util.concurrency.ConcurrentTestRunner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.github.fge.lambdas.Throwing;
+
+class CassandraUidAndModSeqProviderTest {
+    private static final CassandraId CASSANDRA_ID = new CassandraId.Factory().fromString("e22b3ac0-a80b-11e7-bb00-777268d65503");
+
+    @RegisterExtension
+    static CassandraClusterExtension cassandraCluster = new CassandraClusterExtension(CassandraModule.aggregateModules(
+        CassandraUidModule.MODULE,
+        CassandraModSeqModule.MODULE,
+        CassandraUidAndModSeqModule.MODULE));
+
+    private CassandraUidAndModSeqProvider testee;
+    private CassandraUidProvider legacyUidProvider;
+    private CassandraModSeqProvider legacyModSeqProvider;
+    private RecordingMetricFactory metricFactory;
+    private Mailbox mailbox;
+
+    @BeforeEach
+    void setUp(CassandraCluster cassandra) {
+        metricFactory = new RecordingMetricFactory();
+        testee = new CassandraUidAndModSeqProvider(
+            cassandra.getConf(),
+            CassandraConfiguration.DEFAULT_CONFIGURATION,
+            cassandraCluster.getCassandraConsistenciesConfiguration(),
+            metricFactory);
+        legacyUidProvider = new CassandraUidProvider(
+            cassandra.getConf(),
+            CassandraConfiguration.DEFAULT_CONFIGURATION,
+            cassandraCluster.getCassandraConsistenciesConfiguration());
+        legacyModSeqProvider = new CassandraModSeqProvider(
+            cassandra.getConf(),
+            CassandraConfiguration.DEFAULT_CONFIGURATION,
+            cassandraCluster.getCassandraConsistenciesConfiguration());
+        MailboxPath path = new MailboxPath("gsoc", Username.of("ieugen"), "Trash");
+        mailbox = new Mailbox(path, UidValidity.of(1234), CASSANDRA_ID);
+    }
+
+    @Test
+    void isInUseShouldReturnFalseByDefault() {
+        assertThat(testee.isInUse().block()).isFalse();
+    }
+
+    @Test
+    void isInUseShouldReturnFalseWhenOnlyFormerTablesWereUsed() throws Exception {
+        legacyUidProvider.nextUid(mailbox);
+        legacyModSeqProvider.nextModSeq(mailbox);
+
+        assertThat(testee.isInUse().block()).isFalse();
+    }
+
+    @Test
+    void isInUseShouldReturnTrueOnceValuesWereAllocated() throws Exception {
+        testee.nextUid(mailbox);
+
+        assertThat(testee.isInUse().block()).isTrue();
+    }
+
+    @Test
+    void lastUidShouldBeEmptyByDefault() throws Exception {
+        assertThat(testee.lastUid(mailbox)).isEmpty();
+    }
+
+    @Test
+    void highestModSeqShouldBeFirstByDefault() throws Exception {
+        assertThat(testee.highestModSeq(mailbox)).isEqualTo(ModSeq.first());
+    }
+
+    @Test
+    void nextUidShouldIncrementValueByOne() {
+        LongStream.range(1, 100)
+            .forEach(Throwing.longConsumer(value -> {
+                MessageUid result = testee.nextUid(mailbox);
+                assertThat(result.asLong()).isEqualTo(value);
+                assertThat(testee.lastUid(mailbox)).contains(result);
+            }));
+    }
+
+    @Test
+    void nextModSeqShouldIncrementValueByOne() {
+        LongStream.range(1, 100)
+            .forEach(Throwing.longConsumer(value -> {
+                ModSeq result = testee.nextModSeq(mailbox);
+                assertThat(result.asLong()).isEqualTo(value);
+                assertThat(testee.highestModSeq(mailbox)).isEqualTo(result);
+            }));
+    }
+
+    @Test
+    void nextUidsAndModSeqShouldReserveARangeAlongWithASingleModSeq() {
+        testee.nextUidsAndModSeq(CASSANDRA_ID, 2).block();
+
+        CassandraUidAndModSeqProvider.UidsAndModSeq result = testee.nextUidsAndModSeq(CASSANDRA_ID, 3).block();
+
+        assertThat(result.getUids()).containsExactly(MessageUid.of(3), MessageUid.of(4), MessageUid.of(5));
+        assertThat(result.getModSeq()).isEqualTo(ModSeq.of(2));
+    }
+
+    @Test
+    void nextModSeqShouldNotAllocateUids() throws Exception {
+        testee.nextUid(mailbox);
+
+        testee.nextModSeq(mailbox);
+
+        assertThat(testee.nextUid(mailbox)).isEqualTo(MessageUid.of(2));
+    }
+
+    @Test
+    void valuesShouldBeInitializedFromFormerTables() throws Exception {
+        LongStream.range(0, 10).forEach(Throwing.longConsumer(any -> legacyUidProvider.nextUid(mailbox)));
+        LongStream.range(0, 5).forEach(Throwing.longConsumer(any -> legacyModSeqProvider.nextModSeq(mailbox)));
+
+        assertThat(testee.lastUid(mailbox)).contains(MessageUid.of(10));
+        assertThat(testee.highestModSeq(mailbox)).isEqualTo(ModSeq.of(5));
+        assertThat(testee.nextUidsAndModSeq(CASSANDRA_ID, 1).block().getUids()).containsExactly(MessageUid.of(11));
+        assertThat(testee.highestModSeq(mailbox)).isEqualTo(ModSeq.of(6));
+    }
+
+    @Test
+    void lastUidShouldBeEmptyWhenOnlyModSeqWereAllocated() throws Exception {
+        testee.nextModSeq(mailbox);
+
+        assertThat(testee.lastUid(mailbox)).isEqualTo(Optional.empty());
+    }
+
+    @Test
+    void nextUidsAndModSeqShouldGenerateUniqueValuesWhenParallelCalls() throws ExecutionException, InterruptedException {
+        int threadCount = 10;
+        int nbOperations = 100;
+
+        ConcurrentSkipListSet<MessageUid> messageUids = new ConcurrentSkipListSet<>();
+        ConcurrentSkipListSet<ModSeq> modSeqs = new ConcurrentSkipListSet<>();
+        ConcurrentTestRunner.builder()
+            .operation((threadNumber, step) -> {
+                CassandraUidAndModSeqProvider.UidsAndModSeq result = testee.nextUidsAndModSeq(CASSANDRA_ID, 10).block();
+                messageUids.addAll(result.getUids());
+                modSeqs.add(result.getModSeq());
+            })
+            .threadCount(threadCount)
+            .operationCount(nbOperations / threadCount)
+            .runSuccessfullyWithin(Duration.ofMinutes(1));
+
+        assertThat(messageUids).hasSize(nbOperations * 10);
+        assertThat(modSeqs).hasSize(nbOperations);
+    }
+
+    @Test
+    void concurrentAllocationsShouldBeCoalesced() throws ExecutionException, InterruptedException {
+        ConcurrentTestRunner.builder()
+            .operation((threadNumber, step) -> testee.nextUid(mailbox))
+            .threadCount(10)
+            .operationCount(10)
+            .runSuccessfullyWithin(Duration.ofMinutes(1));
+
+        assertThat(metricFactory.countFor(CassandraUidAndModSeqProvider.COALESCED_METRIC_NAME)).isPositive();
+        assertThat(testee.lastUid(mailbox)).contains(MessageUid.of(100));
+    }
+
+    @Test
+    void contentionShouldBeRecordedWhenSeveralServersAllocate(CassandraCluster cassandra) throws ExecutionException, InterruptedException {
+        CassandraUidAndModSeqProvider otherServer = new CassandraUidAndModSeqProvider(
+            cassandra.getConf(),
+            CassandraConfiguration.DEFAULT_CONFIGURATION,
+            cassandraCluster.getCassandraConsistenciesConfiguration(),
+            metricFactory);
+
+        ConcurrentTestRunner.builder()
+            .operation((threadNumber, step) -> {
+                if (threadNumber % 2 == 0) {
+                    testee.nextUid(mailbox);
+                } else {
+                    otherServer.nextUid(mailbox);
+                }
+            })
+            .threadCount(10)
+            .operationCount(10)
+            .runSuccessfullyWithin(Duration.ofMinutes(1));
+
+        assertThat(metricFactory.countFor(CassandraUidAndModSeqProvider.CONTENTION_METRIC_NAME)).isPositive();
+        assertThat(testee.lastUid(mailbox)).contains(MessageUid.of(100));
+    }
+}
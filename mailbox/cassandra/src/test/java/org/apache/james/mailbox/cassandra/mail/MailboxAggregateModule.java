@@ -37,6 +37,7 @@ import org.apache.james.mailbox.cassandra.modules.CassandraModSeqModule;
 import org.apache.james.mailbox.cassandra.modules.CassandraQuotaModule;
 import org.apache.james.mailbox.cassandra.modules.CassandraSubscriptionModule;
 import org.apache.james.mailbox.cassandra.modules.CassandraThreadModule;
+import org.apache.james.mailbox.cassandra.modules.CassandraUidAndModSeqModule;
 import org.apache.james.mailbox.cassandra.modules.CassandraUidModule;
 
 public interface MailboxAggregateModule {
@@ -57,6 +58,7 @@ public interface MailboxAggregateModule {
         CassandraSchemaVersionModule.MODULE,
         CassandraSubscriptionModule.MODULE,
         CassandraUidModule.MODULE,
+        CassandraUidAndModSeqModule.MODULE,
         CassandraThreadModule.MODULE);
 
     CassandraModule MODULE_WITH_QUOTA = CassandraModule.aggregateModules(CassandraQuotaModule.MODULE, MODULE);
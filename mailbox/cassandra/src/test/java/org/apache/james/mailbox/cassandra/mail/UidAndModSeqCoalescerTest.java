@@ -0,0 +1,143 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.cassandra.mail;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.ModSeq;
+import org.apache.james.mailbox.cassandra.ids.CassandraId;
+import org.apache.james.mailbox.cassandra.mail.CassandraUidAndModSeqProvider.Counters;
+import org.apache.james.mailbox.cassandra.mail.CassandraUidAndModSeqProvider.UidsAndModSeq;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class UidAndModSeqCoalescerTest {
+    private static final CassandraId MAILBOX_ID = CassandraId.timeBased();
+    private static final CassandraId OTHER_MAILBOX_ID = CassandraId.timeBased();
+
+    private ConcurrentLinkedQueue<Sinks.One<Counters>> pendingReservations;
+    private AtomicInteger reservationCount;
+    private RecordingMetricFactory metricFactory;
+    private UidAndModSeqCoalescer testee;
+
+    @BeforeEach
+    void setUp() {
+        pendingReservations = new ConcurrentLinkedQueue<>();
+        reservationCount = new AtomicInteger();
+        metricFactory = new RecordingMetricFactory();
+        testee = new UidAndModSeqCoalescer((mailboxId, uidCount, modSeqCount) -> {
+            reservationCount.incrementAndGet();
+            Sinks.One<Counters> sink = Sinks.one();
+            pendingReservations.add(sink);
+            return sink.asMono();
+        }, metricFactory.generate(CassandraUidAndModSeqProvider.COALESCED_METRIC_NAME));
+    }
+
+    private void completeNextReservation(long previousUid, long previousModSeq) {
+        pendingReservations.remove().tryEmitValue(new Counters(previousUid, previousModSeq));
+    }
+
+    @Test
+    void allocateShouldReturnValuesFollowingPreviousCounters() {
+        Mono<UidsAndModSeq> allocation = testee.allocate(MAILBOX_ID, 2).cache();
+        allocation.subscribe();
+
+        completeNextReservation(5, 8);
+
+        assertThat(allocation.block(Duration.ofSeconds(1)))
+            .isEqualTo(new UidsAndModSeq(ImmutableList.of(MessageUid.of(6), MessageUid.of(7)), ModSeq.of(9)));
+    }
+
+    @Test
+    void allocationsRequestedWhileAReservationIsInFlightShouldBeServedByASingleReservation() {
+        Mono<UidsAndModSeq> first = testee.allocate(MAILBOX_ID, 1).cache();
+        first.subscribe();
+        Mono<List<UidsAndModSeq>> next = Flux.merge(
+                testee.allocate(MAILBOX_ID, 2),
+                testee.allocate(MAILBOX_ID, 0),
+                testee.allocate(MAILBOX_ID, 1))
+            .collectList()
+            .cache();
+        next.subscribe();
+
+        completeNextReservation(0, 0);
+        completeNextReservation(1, 1);
+
+        assertThat(first.block(Duration.ofSeconds(1)))
+            .isEqualTo(new UidsAndModSeq(ImmutableList.of(MessageUid.of(1)), ModSeq.of(1)));
+        assertThat(next.block(Duration.ofSeconds(1))).containsExactlyInAnyOrder(
+            new UidsAndModSeq(ImmutableList.of(MessageUid.of(2), MessageUid.of(3)), ModSeq.of(2)),
+            new UidsAndModSeq(ImmutableList.of(), ModSeq.of(3)),
+            new UidsAndModSeq(ImmutableList.of(MessageUid.of(4)), ModSeq.of(4)));
+        assertThat(reservationCount.get()).isEqualTo(2);
+        assertThat(metricFactory.countFor(CassandraUidAndModSeqProvider.COALESCED_METRIC_NAME)).isEqualTo(2);
+    }
+
+    @Test
+    void allocationsOfDistinctMailboxesShouldNotBeCoalesced() {
+        testee.allocate(MAILBOX_ID, 1).subscribe();
+        testee.allocate(OTHER_MAILBOX_ID, 1).subscribe();
+
+        assertThat(reservationCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    void failuresShouldBePropagatedToAllCoalescedAllocations() {
+        testee.allocate(MAILBOX_ID, 1).subscribe();
+        Mono<UidsAndModSeq> second = testee.allocate(MAILBOX_ID, 1).cache();
+        second.subscribe(any -> { }, any -> { });
+        Mono<UidsAndModSeq> third = testee.allocate(MAILBOX_ID, 1).cache();
+        third.subscribe(any -> { }, any -> { });
+
+        completeNextReservation(0, 0);
+        pendingReservations.remove().tryEmitError(new RuntimeException("boom"));
+
+        assertThatThrownBy(() -> second.block(Duration.ofSeconds(1))).hasMessage("boom");
+        assertThatThrownBy(() -> third.block(Duration.ofSeconds(1))).hasMessage("boom");
+    }
+
+    @Test
+    void allocationsShouldSucceedAfterAFailure() {
+        Mono<UidsAndModSeq> failed = testee.allocate(MAILBOX_ID, 1).cache();
+        failed.subscribe(any -> { }, any -> { });
+        pendingReservations.remove().tryEmitError(new RuntimeException("boom"));
+
+        Mono<UidsAndModSeq> allocation = testee.allocate(MAILBOX_ID, 1).cache();
+        allocation.subscribe();
+        completeNextReservation(0, 0);
+
+        assertThat(allocation.block(Duration.ofSeconds(1)))
+            .isEqualTo(new UidsAndModSeq(ImmutableList.of(MessageUid.of(1)), ModSeq.of(1)));
+    }
+}
@@ -0,0 +1,535 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.event.json;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import javax.mail.Flags;
+
+import org.apache.james.core.Username;
+import org.apache.james.events.Event;
+import org.apache.james.events.EventSerializer;
+import org.apache.james.mailbox.FlagsBuilder;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.ModSeq;
+import org.apache.james.mailbox.events.MailboxEvents.Added;
+import org.apache.james.mailbox.events.MailboxEvents.Expunged;
+import org.apache.james.mailbox.events.MailboxEvents.FlagsUpdated;
+import org.apache.james.mailbox.events.MailboxEvents.MailboxEvent;
+import org.apache.james.mailbox.model.MailboxId;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.MessageId;
+import org.apache.james.mailbox.model.MessageMetaData;
+import org.apache.james.mailbox.model.ThreadId;
+import org.apache.james.mailbox.model.UpdatedFlags;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Compact binary representation of the mailbox events carrying per-message data ({@link Added}, {@link Expunged}
+ * and {@link FlagsUpdated}). Other events are wrapped as JSON.
+ *
+ * A payload starts with the format version then the event type, both as varints. Events are then encoded as a
+ * sequence of fields, each field being prefixed by a tag combining its number and its wire type: either a varint,
+ * or a length delimited value (strings and nested structures). Readers skip the fields they do not know, thus new
+ * optional fields can be added without bumping the format version.
+ */
+public class MailboxEventBinaryCodec {
+    @VisibleForTesting
+    static final int FORMAT_VERSION = 1;
+
+    private static final int JSON_EVENT = 0;
+    private static final int ADDED_EVENT = 1;
+    private static final int EXPUNGED_EVENT = 2;
+    private static final int FLAGS_UPDATED_EVENT = 3;
+
+    private static final int VARINT = 0;
+    private static final int LENGTH_DELIMITED = 2;
+
+    // Fields shared by all mailbox events
+    private static final int EVENT_ID = 1;
+    private static final int SESSION_ID = 2;
+    private static final int USERNAME = 3;
+    private static final int PATH_NAMESPACE = 4;
+    private static final int PATH_USER = 5;
+    private static final int PATH_NAME = 6;
+    private static final int MAILBOX_ID = 7;
+    private static final int MESSAGE = 8;
+
+    // MessageMetaData fields
+    private static final int METADATA_UID = 1;
+    private static final int METADATA_MODSEQ = 2;
+    private static final int METADATA_SIZE = 3;
+    private static final int METADATA_INTERNAL_DATE = 4;
+    private static final int METADATA_MESSAGE_ID = 5;
+    private static final int METADATA_THREAD_ID = 6;
+    private static final int METADATA_SYSTEM_FLAGS = 7;
+    private static final int METADATA_USER_FLAG = 8;
+
+    // UpdatedFlags fields
+    private static final int UPDATED_UID = 1;
+    private static final int UPDATED_MODSEQ = 2;
+    private static final int UPDATED_MESSAGE_ID = 3;
+    private static final int UPDATED_OLD_SYSTEM_FLAGS = 4;
+    private static final int UPDATED_OLD_USER_FLAG = 5;
+    private static final int UPDATED_NEW_SYSTEM_FLAGS = 6;
+    private static final int UPDATED_NEW_USER_FLAG = 7;
+
+    private static final List<Flags.Flag> SYSTEM_FLAGS = ImmutableList.of(
+        Flags.Flag.ANSWERED,
+        Flags.Flag.DELETED,
+        Flags.Flag.DRAFT,
+        Flags.Flag.FLAGGED,
+        Flags.Flag.RECENT,
+        Flags.Flag.SEEN);
+
+    private static class Writer {
+        private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        Writer varint(long value) {
+            long remaining = value;
+            while ((remaining & ~0x7FL) != 0) {
+                output.write((int) ((remaining & 0x7F) | 0x80));
+                remaining >>>= 7;
+            }
+            output.write((int) remaining);
+            return this;
+        }
+
+        Writer varintField(int field, long value) {
+            return varint(tag(field, VARINT)).varint(value);
+        }
+
+        Writer bytesField(int field, byte[] value) {
+            varint(tag(field, LENGTH_DELIMITED)).varint(value.length);
+            output.writeBytes(value);
+            return this;
+        }
+
+        Writer stringField(int field, String value) {
+            return bytesField(field, value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        Writer raw(byte[] value) {
+            output.writeBytes(value);
+            return this;
+        }
+
+        byte[] toBytes() {
+            return output.toByteArray();
+        }
+
+        private static long tag(int field, int wireType) {
+            return ((long) field << 3) | wireType;
+        }
+    }
+
+    private static class Reader {
+        private final byte[] input;
+        private final int limit;
+        private int position;
+        private int field;
+        private int wireType;
+
+        Reader(byte[] input) {
+            this(input, 0, input.length);
+        }
+
+        private Reader(byte[] input, int position, int limit) {
+            this.input = input;
+            this.position = position;
+            this.limit = limit;
+        }
+
+        long varint() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= limit) {
+                    throw new IllegalArgumentException("Truncated varint");
+                }
+                byte b = input[position++];
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        /**
+         * Positions the reader on the next field.
+         *
+         * @return false when all the fields had been read
+         */
+        boolean nextField() {
+            if (position >= limit) {
+                return false;
+            }
+            long tag = varint();
+            field = (int) (tag >>> 3);
+            wireType = (int) (tag & 0x07);
+            return true;
+        }
+
+        int field() {
+            return field;
+        }
+
+        byte[] bytes() {
+            int length = Math.toIntExact(varint());
+            if (length < 0 || position + length > limit) {
+                throw new IllegalArgumentException("Truncated value");
+            }
+            byte[] result = Arrays.copyOfRange(input, position, position + length);
+            position += length;
+            return result;
+        }
+
+        String string() {
+            return new String(bytes(), StandardCharsets.UTF_8);
+        }
+
+        Reader nested() {
+            int length = Math.toIntExact(varint());
+            if (length < 0 || position + length > limit) {
+                throw new IllegalArgumentException("Truncated value");
+            }
+            Reader nested = new Reader(input, position, position + length);
+            position += length;
+            return nested;
+        }
+
+        byte[] remaining() {
+            byte[] result = Arrays.copyOfRange(input, position, limit);
+            position = limit;
+            return result;
+        }
+
+        void skip() {
+            switch (wireType) {
+                case VARINT:
+                    varint();
+                    return;
+                case LENGTH_DELIMITED:
+                    bytes();
+                    return;
+                default:
+                    throw new IllegalArgumentException("Unknown wire type " + wireType);
+            }
+        }
+    }
+
+    private static class MailboxEventHeader {
+        private Event.EventId eventId;
+        private MailboxSession.SessionId sessionId;
+        private Username username;
+        private String pathNamespace;
+        private Optional<Username> pathUser = Optional.empty();
+        private String pathName;
+        private MailboxId mailboxId;
+
+        MailboxPath path() {
+            return new MailboxPath(pathNamespace, pathUser.orElse(null), pathName);
+        }
+    }
+
+    private final MailboxId.Factory mailboxIdFactory;
+    private final MessageId.Factory messageIdFactory;
+    private final EventSerializer jsonSerializer;
+
+    public MailboxEventBinaryCodec(MailboxId.Factory mailboxIdFactory, MessageId.Factory messageIdFactory, EventSerializer jsonSerializer) {
+        this.mailboxIdFactory = mailboxIdFactory;
+        this.messageIdFactory = messageIdFactory;
+        this.jsonSerializer = jsonSerializer;
+    }
+
+    public byte[] encode(Event event) {
+        Writer writer = new Writer().varint(FORMAT_VERSION);
+        if (event instanceof Added) {
+            Added added = (Added) event;
+            writeHeader(writer.varint(ADDED_EVENT), added);
+            added.getAdded().values().forEach(metaData -> writer.bytesField(MESSAGE, encode(metaData)));
+        } else if (event instanceof Expunged) {
+            Expunged expunged = (Expunged) event;
+            writeHeader(writer.varint(EXPUNGED_EVENT), expunged);
+            expunged.getExpunged().values().forEach(metaData -> writer.bytesField(MESSAGE, encode(metaData)));
+        } else if (event instanceof FlagsUpdated) {
+            FlagsUpdated flagsUpdated = (FlagsUpdated) event;
+            writeHeader(writer.varint(FLAGS_UPDATED_EVENT), flagsUpdated);
+            flagsUpdated.getUpdatedFlags().forEach(updatedFlags -> writer.bytesField(MESSAGE, encode(updatedFlags)));
+        } else {
+            writer.varint(JSON_EVENT).raw(jsonSerializer.toJsonBytes(event));
+        }
+        return writer.toBytes();
+    }
+
+    public Event decode(byte[] serialized) {
+        Reader reader = new Reader(serialized);
+        long version = reader.varint();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported binary event format version " + version);
+        }
+        int eventType = Math.toIntExact(reader.varint());
+        switch (eventType) {
+            case JSON_EVENT:
+                return jsonSerializer.fromBytes(reader.remaining());
+            case ADDED_EVENT:
+                return decodeAdded(reader);
+            case EXPUNGED_EVENT:
+                return decodeExpunged(reader);
+            case FLAGS_UPDATED_EVENT:
+                return decodeFlagsUpdated(reader);
+            default:
+                throw new IllegalArgumentException("Unknown binary event type " + eventType);
+        }
+    }
+
+    private void writeHeader(Writer writer, MailboxEvent event) {
+        UUID eventId = event.getEventId().getId();
+        writer.bytesField(EVENT_ID, ByteBuffer.allocate(2 * Long.BYTES)
+                .putLong(eventId.getMostSignificantBits())
+                .putLong(eventId.getLeastSignificantBits())
+                .array())
+            .varintField(SESSION_ID, event.getSessionId().getValue())
+            .stringField(USERNAME, event.getUsername().asString())
+            .stringField(PATH_NAMESPACE, event.getMailboxPath().getNamespace());
+        Optional.ofNullable(event.getMailboxPath().getUser())
+            .ifPresent(user -> writer.stringField(PATH_USER, user.asString()));
+        writer.stringField(PATH_NAME, event.getMailboxPath().getName())
+            .stringField(MAILBOX_ID, event.getMailboxId().serialize());
+    }
+
+    private boolean readHeaderField(Reader reader, MailboxEventHeader header) {
+        switch (reader.field()) {
+            case EVENT_ID:
+                ByteBuffer uuid = ByteBuffer.wrap(reader.bytes());
+                header.eventId = Event.EventId.of(new UUID(uuid.getLong(), uuid.getLong()));
+                return true;
+            case SESSION_ID:
+                header.sessionId = MailboxSession.SessionId.of(reader.varint());
+                return true;
+            case USERNAME:
+                header.username = Username.of(reader.string());
+                return true;
+            case PATH_NAMESPACE:
+                header.pathNamespace = reader.string();
+                return true;
+            case PATH_USER:
+                header.pathUser = Optional.of(Username.of(reader.string()));
+                return true;
+            case PATH_NAME:
+                header.pathName = reader.string();
+                return true;
+            case MAILBOX_ID:
+                header.mailboxId = mailboxIdFactory.fromString(reader.string());
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private Added decodeAdded(Reader reader) {
+        MailboxEventHeader header = new MailboxEventHeader();
+        TreeMap<MessageUid, MessageMetaData> added = new TreeMap<>();
+        while (reader.nextField()) {
+            if (reader.field() == MESSAGE) {
+                MessageMetaData metaData = decodeMetaData(reader.nested());
+                added.put(metaData.getUid(), metaData);
+            } else if (!readHeaderField(reader, header)) {
+                reader.skip();
+            }
+        }
+        return new Added(header.sessionId, header.username, header.path(), header.mailboxId, added, header.eventId);
+    }
+
+    private Expunged decodeExpunged(Reader reader) {
+        MailboxEventHeader header = new MailboxEventHeader();
+        ImmutableMap.Builder<MessageUid, MessageMetaData> expunged = ImmutableMap.builder();
+        while (reader.nextField()) {
+            if (reader.field() == MESSAGE) {
+                MessageMetaData metaData = decodeMetaData(reader.nested());
+                expunged.put(metaData.getUid(), metaData);
+            } else if (!readHeaderField(reader, header)) {
+                reader.skip();
+            }
+        }
+        return new Expunged(header.sessionId, header.username, header.path(), header.mailboxId, expunged.build(), header.eventId);
+    }
+
+    private FlagsUpdated decodeFlagsUpdated(Reader reader) {
+        MailboxEventHeader header = new MailboxEventHeader();
+        ImmutableList.Builder<UpdatedFlags> updatedFlags = ImmutableList.builder();
+        while (reader.nextField()) {
+            if (reader.field() == MESSAGE) {
+                updatedFlags.add(decodeUpdatedFlags(reader.nested()));
+            } else if (!readHeaderField(reader, header)) {
+                reader.skip();
+            }
+        }
+        return new FlagsUpdated(header.sessionId, header.username, header.path(), header.mailboxId, updatedFlags.build(), header.eventId);
+    }
+
+    private byte[] encode(MessageMetaData metaData) {
+        Writer writer = new Writer()
+            .varintField(METADATA_UID, metaData.getUid().asLong())
+            .varintField(METADATA_MODSEQ, metaData.getModSeq().asLong())
+            .varintField(METADATA_SIZE, metaData.getSize())
+            .varintField(METADATA_INTERNAL_DATE, zigZag(metaData.getInternalDate().getTime()))
+            .stringField(METADATA_MESSAGE_ID, metaData.getMessageId().serialize());
+        Optional.ofNullable(metaData.getThreadId())
+            .ifPresent(threadId -> writer.stringField(METADATA_THREAD_ID, threadId.serialize()));
+        writeFlags(writer, metaData.getFlags(), METADATA_SYSTEM_FLAGS, METADATA_USER_FLAG);
+        return writer.toBytes();
+    }
+
+    private MessageMetaData decodeMetaData(Reader reader) {
+        MessageUid uid = null;
+        ModSeq modSeq = null;
+        long size = 0;
+        Date internalDate = null;
+        MessageId messageId = null;
+        Optional<ThreadId> threadId = Optional.empty();
+        FlagsBuilder flags = new FlagsBuilder();
+        while (reader.nextField()) {
+            switch (reader.field()) {
+                case METADATA_UID:
+                    uid = MessageUid.of(reader.varint());
+                    break;
+                case METADATA_MODSEQ:
+                    modSeq = ModSeq.of(reader.varint());
+                    break;
+                case METADATA_SIZE:
+                    size = reader.varint();
+                    break;
+                case METADATA_INTERNAL_DATE:
+                    internalDate = new Date(unZigZag(reader.varint()));
+                    break;
+                case METADATA_MESSAGE_ID:
+                    messageId = messageIdFactory.fromString(reader.string());
+                    break;
+                case METADATA_THREAD_ID:
+                    threadId = Optional.of(ThreadId.fromBaseMessageId(messageIdFactory.fromString(reader.string())));
+                    break;
+                case METADATA_SYSTEM_FLAGS:
+                    flags.add(toSystemFlags(reader.varint()));
+                    break;
+                case METADATA_USER_FLAG:
+                    flags.add(reader.string());
+                    break;
+                default:
+                    reader.skip();
+            }
+        }
+        MessageId finalMessageId = messageId;
+        return new MessageMetaData(uid, modSeq, flags.build(), size, internalDate, messageId,
+            threadId.orElseGet(() -> ThreadId.fromBaseMessageId(finalMessageId)));
+    }
+
+    private byte[] encode(UpdatedFlags updatedFlags) {
+        Writer writer = new Writer()
+            .varintField(UPDATED_UID, updatedFlags.getUid().asLong())
+            .varintField(UPDATED_MODSEQ, updatedFlags.getModSeq().asLong());
+        updatedFlags.getMessageId()
+            .ifPresent(messageId -> writer.stringField(UPDATED_MESSAGE_ID, messageId.serialize()));
+        writeFlags(writer, updatedFlags.getOldFlags(), UPDATED_OLD_SYSTEM_FLAGS, UPDATED_OLD_USER_FLAG);
+        writeFlags(writer, updatedFlags.getNewFlags(), UPDATED_NEW_SYSTEM_FLAGS, UPDATED_NEW_USER_FLAG);
+        return writer.toBytes();
+    }
+
+    private UpdatedFlags decodeUpdatedFlags(Reader reader) {
+        UpdatedFlags.Builder builder = UpdatedFlags.builder();
+        FlagsBuilder oldFlags = new FlagsBuilder();
+        FlagsBuilder newFlags = new FlagsBuilder();
+        while (reader.nextField()) {
+            switch (reader.field()) {
+                case UPDATED_UID:
+                    builder.uid(MessageUid.of(reader.varint()));
+                    break;
+                case UPDATED_MODSEQ:
+                    builder.modSeq(ModSeq.of(reader.varint()));
+                    break;
+                case UPDATED_MESSAGE_ID:
+                    builder.messageId(messageIdFactory.fromString(reader.string()));
+                    break;
+                case UPDATED_OLD_SYSTEM_FLAGS:
+                    oldFlags.add(toSystemFlags(reader.varint()));
+                    break;
+                case UPDATED_OLD_USER_FLAG:
+                    oldFlags.add(reader.string());
+                    break;
+                case UPDATED_NEW_SYSTEM_FLAGS:
+                    newFlags.add(toSystemFlags(reader.varint()));
+                    break;
+                case UPDATED_NEW_USER_FLAG:
+                    newFlags.add(reader.string());
+                    break;
+                default:
+                    reader.skip();
+            }
+        }
+        return builder.oldFlags(oldFlags.build())
+            .newFlags(newFlags.build())
+            .build();
+    }
+
+    private void writeFlags(Writer writer, Flags flags, int systemFlagsField, int userFlagField) {
+        long systemFlags = 0;
+        for (int i = 0; i < SYSTEM_FLAGS.size(); i++) {
+            if (flags.contains(SYSTEM_FLAGS.get(i))) {
+                systemFlags |= 1L << i;
+            }
+        }
+        if (systemFlags != 0) {
+            writer.varintField(systemFlagsField, systemFlags);
+        }
+        for (String userFlag : flags.getUserFlags()) {
+            writer.stringField(userFlagField, userFlag);
+        }
+    }
+
+    private Flags.Flag[] toSystemFlags(long bitmask) {
+        ImmutableList.Builder<Flags.Flag> flags = ImmutableList.builder();
+        for (int i = 0; i < SYSTEM_FLAGS.size(); i++) {
+            if ((bitmask & (1L << i)) != 0) {
+                flags.add(SYSTEM_FLAGS.get(i));
+            }
+        }
+        return flags.build().toArray(Flags.Flag[]::new);
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
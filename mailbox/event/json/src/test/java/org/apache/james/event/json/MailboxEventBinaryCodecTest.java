@@ -0,0 +1,195 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.event.json;
+
+import static org.apache.james.event.json.SerializerFixture.EVENT_ID;
+import static org.apache.james.event.json.SerializerFixture.EVENT_SERIALIZER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+import javax.mail.Flags;
+
+import org.apache.james.core.Username;
+import org.apache.james.events.Event;
+import org.apache.james.mailbox.FlagsBuilder;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.ModSeq;
+import org.apache.james.mailbox.events.MailboxEvents.Added;
+import org.apache.james.mailbox.events.MailboxEvents.Expunged;
+import org.apache.james.mailbox.events.MailboxEvents.FlagsUpdated;
+import org.apache.james.mailbox.events.MailboxEvents.MailboxAdded;
+import org.apache.james.mailbox.model.MailboxConstants;
+import org.apache.james.mailbox.model.MailboxId;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.MessageMetaData;
+import org.apache.james.mailbox.model.TestId;
+import org.apache.james.mailbox.model.TestMessageId;
+import org.apache.james.mailbox.model.ThreadId;
+import org.apache.james.mailbox.model.UpdatedFlags;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.Bytes;
+
+class MailboxEventBinaryCodecTest {
+    private static final Username USERNAME = Username.of("user");
+    private static final MailboxSession.SessionId SESSION_ID = MailboxSession.SessionId.of(42);
+    private static final MailboxId MAILBOX_ID = TestId.of(18);
+    private static final MailboxPath MAILBOX_PATH = new MailboxPath(MailboxConstants.USER_NAMESPACE, USERNAME, "mailboxName");
+    private static final Flags FLAGS = FlagsBuilder.builder()
+        .add(Flags.Flag.ANSWERED, Flags.Flag.DRAFT)
+        .add("User flag")
+        .build();
+    private static final MessageMetaData MESSAGE_META_DATA = new MessageMetaData(MessageUid.of(123456), ModSeq.of(35), FLAGS,
+        12345, Date.from(Instant.parse("2018-12-14T09:41:51.541Z")), TestMessageId.of(42), ThreadId.fromBaseMessageId(TestMessageId.of(43)));
+    private static final UpdatedFlags UPDATED_FLAGS = UpdatedFlags.builder()
+        .uid(MessageUid.of(123456))
+        .modSeq(ModSeq.of(36))
+        .messageId(TestMessageId.of(42))
+        .oldFlags(new Flags(Flags.Flag.SEEN))
+        .newFlags(FLAGS)
+        .build();
+
+    private final MailboxEventBinaryCodec testee = new MailboxEventBinaryCodec(new TestId.Factory(), new TestMessageId.Factory(), EVENT_SERIALIZER);
+
+    private static SortedMap<MessageUid, MessageMetaData> metaDataMap(MessageMetaData metaData) {
+        return new TreeMap<>(ImmutableMap.of(metaData.getUid(), metaData));
+    }
+
+    @Test
+    void addedShouldBeWellDecoded() {
+        Added added = new Added(SESSION_ID, USERNAME, MAILBOX_PATH, MAILBOX_ID, metaDataMap(MESSAGE_META_DATA), EVENT_ID);
+
+        assertThat(testee.decode(testee.encode(added)))
+            .usingRecursiveComparison()
+            .isEqualTo(added);
+    }
+
+    @Test
+    void expungedShouldBeWellDecoded() {
+        Expunged expunged = new Expunged(SESSION_ID, USERNAME, MAILBOX_PATH, MAILBOX_ID, metaDataMap(MESSAGE_META_DATA), EVENT_ID);
+
+        assertThat(testee.decode(testee.encode(expunged)))
+            .usingRecursiveComparison()
+            .isEqualTo(expunged);
+    }
+
+    @Test
+    void flagsUpdatedShouldBeWellDecoded() {
+        FlagsUpdated flagsUpdated = new FlagsUpdated(SESSION_ID, USERNAME, MAILBOX_PATH, MAILBOX_ID, ImmutableList.of(UPDATED_FLAGS), EVENT_ID);
+
+        assertThat(testee.decode(testee.encode(flagsUpdated)))
+            .isEqualTo(flagsUpdated);
+    }
+
+    @Test
+    void flagsUpdatedWithoutMessageIdShouldBeWellDecoded() {
+        UpdatedFlags updatedFlags = UpdatedFlags.builder()
+            .uid(MessageUid.of(123456))
+            .modSeq(ModSeq.of(36))
+            .oldFlags(new Flags())
+            .newFlags(new Flags("custom"))
+            .build();
+        FlagsUpdated flagsUpdated = new FlagsUpdated(SESSION_ID, USERNAME, MAILBOX_PATH, MAILBOX_ID, ImmutableList.of(updatedFlags), EVENT_ID);
+
+        assertThat(testee.decode(testee.encode(flagsUpdated)))
+            .isEqualTo(flagsUpdated);
+    }
+
+    @Test
+    void pathWithoutUserShouldBeWellDecoded() {
+        MailboxPath path = new MailboxPath(MailboxConstants.USER_NAMESPACE, null, "shared");
+        FlagsUpdated flagsUpdated = new FlagsUpdated(SESSION_ID, USERNAME, path, MAILBOX_ID, ImmutableList.of(UPDATED_FLAGS), EVENT_ID);
+
+        assertThat(testee.decode(testee.encode(flagsUpdated)))
+            .isEqualTo(flagsUpdated);
+    }
+
+    @Test
+    void otherEventsShouldFallbackToJson() {
+        MailboxAdded mailboxAdded = new MailboxAdded(SESSION_ID, USERNAME, MAILBOX_PATH, MAILBOX_ID, EVENT_ID);
+
+        assertThat(testee.decode(testee.encode(mailboxAdded)))
+            .isEqualTo(mailboxAdded);
+    }
+
+    @Test
+    void decodeShouldIgnoreUnknownFields() {
+        FlagsUpdated flagsUpdated = new FlagsUpdated(SESSION_ID, USERNAME, MAILBOX_PATH, MAILBOX_ID, ImmutableList.of(UPDATED_FLAGS), EVENT_ID);
+        byte[] unknownVarintField = {(byte) (14 << 3), 0x7F};
+        byte[] unknownStringField = {(byte) (15 << 3 | 2), 0x02, 'a', 'b'};
+
+        byte[] serialized = Bytes.concat(testee.encode(flagsUpdated), unknownVarintField, unknownStringField);
+
+        assertThat(testee.decode(serialized))
+            .isEqualTo(flagsUpdated);
+    }
+
+    @Test
+    void decodeShouldRejectUnknownFormatVersion() {
+        byte[] serialized = {(byte) (MailboxEventBinaryCodec.FORMAT_VERSION + 1), 0x01};
+
+        assertThatThrownBy(() -> testee.decode(serialized))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void decodeShouldRejectTruncatedPayloads() {
+        Added added = new Added(SESSION_ID, USERNAME, MAILBOX_PATH, MAILBOX_ID, metaDataMap(MESSAGE_META_DATA), EVENT_ID);
+        byte[] serialized = testee.encode(added);
+
+        assertThatThrownBy(() -> testee.decode(Arrays.copyOf(serialized, serialized.length - 3)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void binaryPayloadShouldBeSmallerThanJson() {
+        ImmutableList<UpdatedFlags> updatedFlags = IntStream.range(1, 1000)
+            .mapToObj(uid -> UpdatedFlags.builder()
+                .uid(MessageUid.of(uid))
+                .modSeq(ModSeq.of(1000 + uid))
+                .messageId(TestMessageId.of(uid))
+                .oldFlags(new Flags())
+                .newFlags(new Flags(Flags.Flag.SEEN))
+                .build())
+            .collect(ImmutableList.toImmutableList());
+        Event event = new FlagsUpdated(SESSION_ID, USERNAME, MAILBOX_PATH, MAILBOX_ID, updatedFlags, EVENT_ID);
+
+        assertThat(testee.encode(event).length)
+            .isLessThan(EVENT_SERIALIZER.toJsonBytes(event).length / 4);
+    }
+
+    @Test
+    void mailboxEventSerializerShouldSupportBinary() {
+        Added added = new Added(SESSION_ID, USERNAME, MAILBOX_PATH, MAILBOX_ID, metaDataMap(MESSAGE_META_DATA), EVENT_ID);
+
+        assertThat(EVENT_SERIALIZER.fromBinary(EVENT_SERIALIZER.toBinary(added)))
+            .isEqualTo(added);
+    }
+}
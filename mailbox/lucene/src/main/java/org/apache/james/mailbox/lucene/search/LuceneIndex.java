@@ -0,0 +1,171 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.lucene.search;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.store.Directory;
+
+/**
+ * A Lucene index: its {@link IndexWriter} and a {@link SearcherManager} sharing near-real-time
+ * {@link IndexSearcher} across queries.
+ *
+ * Every write bumps a generation. Searchers are only reopened when a write happened since the last refresh,
+ * either before handing over a searcher needing to see the latest writes, or by a periodic {@link #refresh()}.
+ *
+ * An index that might be closed concurrently needs to be retained while being used: {@link #close()} waits for
+ * the index to be relinquished.
+ */
+class LuceneIndex implements Closeable {
+    @FunctionalInterface
+    interface SearcherFunction<T> {
+        T apply(IndexSearcher searcher) throws IOException, MailboxException;
+    }
+
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final AtomicLong writeGeneration;
+    private volatile long refreshedGeneration;
+    private final ReadWriteLock lifecycle;
+    private boolean closed;
+
+    LuceneIndex(Directory directory, IndexWriterConfig config) throws IOException {
+        this.directory = directory;
+        this.writer = new IndexWriter(directory, config);
+        this.searcherManager = new SearcherManager(writer, true, null);
+        this.writeGeneration = new AtomicLong();
+        this.refreshedGeneration = 0;
+        this.lifecycle = new ReentrantReadWriteLock();
+        this.closed = false;
+    }
+
+    /**
+     * Prevents this index from being closed until the calling thread {@link #relinquish()} it.
+     *
+     * @return false if this index is already closed, in which case it is not retained.
+     */
+    boolean retain() {
+        lifecycle.readLock().lock();
+        if (closed) {
+            lifecycle.readLock().unlock();
+            return false;
+        }
+        return true;
+    }
+
+    void relinquish() {
+        lifecycle.readLock().unlock();
+    }
+
+    void addDocuments(Document... documents) throws IOException {
+        for (Document document : documents) {
+            writer.addDocument(document);
+        }
+        writeGeneration.incrementAndGet();
+    }
+
+    void updateDocument(Term term, Document document) throws IOException {
+        writer.updateDocument(term, document);
+        writeGeneration.incrementAndGet();
+    }
+
+    void deleteDocuments(Query query) throws IOException {
+        writer.deleteDocuments(query);
+        writeGeneration.incrementAndGet();
+    }
+
+    void commit() throws IOException {
+        writer.commit();
+    }
+
+    /**
+     * @param upToDate when true the searcher is refreshed if needed in order to see all the writes performed so far,
+     *                 otherwise the latest refreshed searcher is used.
+     */
+    <T> T withSearcher(boolean upToDate, SearcherFunction<T> function) throws IOException, MailboxException {
+        if (upToDate) {
+            refresh();
+        }
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            return function.apply(searcher);
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    IndexSearcher acquire(boolean upToDate) throws IOException {
+        if (upToDate) {
+            refresh();
+        }
+        return searcherManager.acquire();
+    }
+
+    void release(IndexSearcher searcher) throws IOException {
+        searcherManager.release(searcher);
+    }
+
+    void refresh() throws IOException {
+        if (refreshedGeneration < writeGeneration.get()) {
+            // SearcherManager::maybeRefresh do not wait for a concurrent refresh to complete
+            synchronized (searcherManager) {
+                long targetGeneration = writeGeneration.get();
+                if (refreshedGeneration < targetGeneration) {
+                    searcherManager.maybeRefresh();
+                    refreshedGeneration = targetGeneration;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lifecycle.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            searcherManager.close();
+            writer.close();
+        } finally {
+            try {
+                if (IndexWriter.isLocked(directory)) {
+                    IndexWriter.unlock(directory);
+                }
+            } finally {
+                lifecycle.writeLock().unlock();
+            }
+        }
+    }
+}
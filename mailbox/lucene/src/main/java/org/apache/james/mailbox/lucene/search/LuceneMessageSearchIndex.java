@@ -24,6 +24,7 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.StringReader;
 import java.nio.charset.Charset;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
@@ -35,6 +36,7 @@ import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 import javax.annotation.PreDestroy;
@@ -42,12 +44,14 @@ import javax.inject.Inject;
 import javax.mail.Flags;
 import javax.mail.Flags.Flag;
 
+import org.apache.james.core.Username;
 import org.apache.james.mailbox.MailboxManager;
 import org.apache.james.mailbox.MailboxManager.SearchCapabilities;
 import org.apache.james.mailbox.MailboxSession;
 import org.apache.james.mailbox.MessageUid;
 import org.apache.james.mailbox.SessionProvider;
 import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.exception.MailboxNotFoundException;
 import org.apache.james.mailbox.exception.UnsupportedSearchException;
 import org.apache.james.mailbox.model.Mailbox;
 import org.apache.james.mailbox.model.MailboxId;
@@ -97,9 +101,9 @@ import org.apache.lucene.document.Field.Index;
 import org.apache.lucene.document.Field.Store;
 import org.apache.lucene.document.NumericField;
 import org.apache.lucene.index.IndexReader;
-import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.IndexWriterConfig.OpenMode;
+import org.apache.lucene.index.MultiReader;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
@@ -123,8 +127,10 @@ import com.github.fge.lambdas.Throwing;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * Lucene based {@link ListeningMessageSearchIndex} which offers message searching via a Lucene index
@@ -138,6 +144,11 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
     private static final Date MAX_DATE;
     private static final Date MIN_DATE;
     public static final org.apache.james.events.Group GROUP = new LuceneMessageSearchIndexGroup();
+
+    @FunctionalInterface
+    private interface IndexConsumer {
+        void accept(LuceneIndex index) throws IOException, MailboxException;
+    }
     
     static {
         Calendar cal = Calendar.getInstance();
@@ -362,15 +373,21 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
     private static final SortField FIRST_FROM_MAILBOX_DISPLAY_SORT = new SortField(FIRST_FROM_MAILBOX_DISPLAY_FIELD, SortField.STRING);
     private static final SortField FIRST_FROM_MAILBOX_DISPLAY_SORT_REVERSE = new SortField(FIRST_FROM_MAILBOX_DISPLAY_FIELD, SortField.STRING, true);
     
+    private final MailboxSessionMapperFactory mapperFactory;
     private final MailboxId.Factory mailboxIdFactory;
     private final MessageId.Factory messageIdFactory;
-    private final IndexWriter writer;
-    private final Directory directory;
+    private final Optional<LuceneIndex> sharedIndex;
+    private final Optional<UserIndexes> userIndexes;
+    private final Set<Username> droppedUserIndexes;
+    private final boolean dropIndexOnStart;
+    private final boolean lenient;
 
     private int maxQueryResults = DEFAULT_MAX_QUERY_RESULTS;
 
     private boolean suffixMatch = false;
 
+    private Optional<Disposable> scheduledRefresh = Optional.empty();
+
     @Inject
     public LuceneMessageSearchIndex(
         MailboxSessionMapperFactory factory,
@@ -390,20 +407,49 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
             MessageId.Factory messageIdFactory,
             SessionProvider sessionProvider) throws IOException {
         super(factory, sessionProvider);
+        this.mapperFactory = factory;
         this.mailboxIdFactory = mailboxIdFactory;
         this.messageIdFactory = messageIdFactory;
-        this.directory = directory;
-        this.writer = new IndexWriter(this.directory,  createConfig(createAnalyzer(lenient), dropIndexOnStart));
+        this.dropIndexOnStart = dropIndexOnStart;
+        this.lenient = lenient;
+        this.sharedIndex = Optional.of(new LuceneIndex(directory, createConfig(createAnalyzer(lenient), dropIndexOnStart)));
+        this.userIndexes = Optional.empty();
+        this.droppedUserIndexes = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Shards the index by user: the messages of the mailboxes owned by a given user are indexed in their own
+     * {@link Directory}, provided by the {@link UserIndexDirectoryFactory}. Users indexes are opened lazily, and at
+     * most <code>maxOpenedUserIndexes</code> of them are kept opened.
+     */
+    public LuceneMessageSearchIndex(
+            MailboxSessionMapperFactory factory,
+            MailboxId.Factory mailboxIdFactory,
+            UserIndexDirectoryFactory userIndexDirectoryFactory,
+            int maxOpenedUserIndexes,
+            boolean dropIndexOnStart,
+            boolean lenient,
+            MessageId.Factory messageIdFactory,
+            SessionProvider sessionProvider) {
+        super(factory, sessionProvider);
+        this.mapperFactory = factory;
+        this.mailboxIdFactory = mailboxIdFactory;
+        this.messageIdFactory = messageIdFactory;
+        this.dropIndexOnStart = dropIndexOnStart;
+        this.lenient = lenient;
+        this.sharedIndex = Optional.empty();
+        this.userIndexes = Optional.of(new UserIndexes(owner -> openUserIndex(userIndexDirectoryFactory, owner), maxOpenedUserIndexes));
+        this.droppedUserIndexes = ConcurrentHashMap.newKeySet();
     }
 
     @PreDestroy
     public void close() throws IOException {
-        try {
-            writer.close();
-        } finally {
-            if (IndexWriter.isLocked(directory)) {
-                IndexWriter.unlock(directory);
-            }
+        scheduledRefresh.ifPresent(Disposable::dispose);
+        if (sharedIndex.isPresent()) {
+            sharedIndex.get().close();
+        }
+        if (userIndexes.isPresent()) {
+            userIndexes.get().close();
         }
     }
 
@@ -456,6 +502,119 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
     public void setEnableSuffixMatch(boolean suffixMatch) {
         this.suffixMatch = suffixMatch;
     }
+
+    /**
+     * By default searchers are reopened before each search following a write, so that searches always see the
+     * latest indexed messages. When a refresh interval is set, searchers are instead reopened every
+     * <code>refreshInterval</code>, and reused by searches in between. Searches might then not see messages indexed
+     * during the last <code>refreshInterval</code>.
+     */
+    public synchronized void setRefreshInterval(Duration refreshInterval) {
+        Preconditions.checkArgument(!refreshInterval.isNegative() && !refreshInterval.isZero(), "'refreshInterval' needs to be strictly positive");
+
+        scheduledRefresh.ifPresent(Disposable::dispose);
+        scheduledRefresh = Optional.of(Flux.interval(refreshInterval, refreshInterval)
+            .onBackpressureDrop()
+            .concatMap(any -> Mono.fromRunnable(this::refreshAll)
+                .subscribeOn(Schedulers.elastic()))
+            .subscribe());
+    }
+
+    private void refreshAll() {
+        try {
+            withAllIndexes(forEach(index -> {
+                try {
+                    index.refresh();
+                } catch (IOException e) {
+                    LOGGER.error("Unable to refresh lucene searcher", e);
+                }
+            }));
+        } catch (IOException | MailboxException e) {
+            LOGGER.error("Unable to refresh lucene searchers", e);
+        }
+    }
+
+    private boolean searchNeedsUpToDateSearcher() {
+        return scheduledRefresh.isEmpty();
+    }
+
+    private LuceneIndex openUserIndex(UserIndexDirectoryFactory userIndexDirectoryFactory, Username owner) throws IOException {
+        // An index evicted then opened again must not be dropped
+        boolean dropIndex = dropIndexOnStart && droppedUserIndexes.add(owner);
+        return new LuceneIndex(userIndexDirectoryFactory.forUser(owner), createConfig(createAnalyzer(lenient), dropIndex));
+    }
+
+    /**
+     * @return the owners of the given existing mailboxes, needed to locate their indexes when sharded by user.
+     */
+    private Mono<List<Username>> ownersOf(MailboxSession session, Collection<MailboxId> mailboxIds) {
+        if (sharedIndex.isPresent()) {
+            return Mono.just(ImmutableList.of());
+        }
+        return Flux.fromIterable(mailboxIds)
+            .concatMap(mailboxId -> mapperFactory.getMailboxMapper(session).findMailboxById(mailboxId)
+                .onErrorResume(MailboxNotFoundException.class, e -> Mono.empty()))
+            .map(Mailbox::getUser)
+            .distinct()
+            .collectList();
+    }
+
+    private <T> T withIndexes(Collection<Username> owners, UserIndexes.IndexesFunction<T> function) throws IOException, MailboxException {
+        if (sharedIndex.isPresent()) {
+            return function.apply(ImmutableList.of(sharedIndex.get()));
+        }
+        return userIndexes.get().withIndexes(owners, function);
+    }
+
+    private <T> T withAllIndexes(UserIndexes.IndexesFunction<T> function) throws IOException, MailboxException {
+        if (sharedIndex.isPresent()) {
+            return function.apply(ImmutableList.of(sharedIndex.get()));
+        }
+        return userIndexes.get().withOpenedIndexes(function);
+    }
+
+    /**
+     * As opposed to {@link #withIndexes(Collection, UserIndexes.IndexesFunction)} this falls back to all opened
+     * indexes when the mailbox owners are unknown, as the mailbox no longer exists, so that deletions following the
+     * mailbox deletion are applied.
+     */
+    private <T> T withIndexesContaining(List<Username> owners, UserIndexes.IndexesFunction<T> function) throws IOException, MailboxException {
+        if (owners.isEmpty()) {
+            return withAllIndexes(function);
+        }
+        return withIndexes(owners, function);
+    }
+
+    private static UserIndexes.IndexesFunction<Void> forEach(IndexConsumer consumer) {
+        return indexes -> {
+            for (LuceneIndex index : indexes) {
+                consumer.accept(index);
+            }
+            return null;
+        };
+    }
+
+    private <T> T withSearcher(List<LuceneIndex> indexes, boolean upToDate, LuceneIndex.SearcherFunction<T> function) throws IOException, MailboxException {
+        if (indexes.size() == 1) {
+            return indexes.get(0).withSearcher(upToDate, function);
+        }
+        List<IndexSearcher> searchers = new ArrayList<>();
+        try {
+            for (LuceneIndex index : indexes) {
+                searchers.add(index.acquire(upToDate));
+            }
+            IndexReader[] readers = searchers.stream()
+                .map(IndexSearcher::getIndexReader)
+                .toArray(IndexReader[]::new);
+            try (IndexSearcher searcher = new IndexSearcher(new MultiReader(readers, false))) {
+                return function.apply(searcher);
+            }
+        } finally {
+            for (int i = 0; i < searchers.size(); i++) {
+                indexes.get(i).release(searchers.get(i));
+            }
+        }
+    }
     
     
     
@@ -463,7 +622,7 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
     public Flux<MessageUid> search(MailboxSession session, Mailbox mailbox, SearchQuery searchQuery) throws MailboxException {
         Preconditions.checkArgument(session != null, "'session' is mandatory");
 
-        return Flux.fromIterable(searchMultimap(ImmutableList.of(mailbox.getMailboxId()), searchQuery))
+        return Flux.fromIterable(searchMultimap(ImmutableList.of(mailbox.getUser()), ImmutableList.of(mailbox.getMailboxId()), searchQuery))
             .map(SearchResult::getMessageUid);
     }
 
@@ -474,42 +633,50 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
             return Flux.empty();
         }
 
-        return Flux.fromIterable(searchMultimap(mailboxIds, searchQuery)
-            .stream()
+        return ownersOf(session, mailboxIds)
+            .flatMapIterable(Throwing.function((List<Username> owners) -> searchMultimap(owners, mailboxIds, searchQuery)).sneakyThrow())
             .map(searchResult -> searchResult.getMessageId().get())
-            .filter(SearchUtil.distinct())
-            .limit(Long.valueOf(limit).intValue())
-            .collect(ImmutableList.toImmutableList()));
+            .distinct()
+            .take(limit);
     }
     
-    private List<SearchResult> searchMultimap(Collection<MailboxId> mailboxIds, SearchQuery searchQuery) throws MailboxException {
+    private List<SearchResult> searchMultimap(List<Username> owners, Collection<MailboxId> mailboxIds, SearchQuery searchQuery) throws MailboxException {
+        try {
+            return withIndexes(owners, indexes -> {
+                if (indexes.isEmpty()) {
+                    return ImmutableList.<SearchResult>of();
+                }
+                return withSearcher(indexes, searchNeedsUpToDateSearcher(), searcher -> searchMultimap(searcher, mailboxIds, searchQuery));
+            });
+        } catch (IOException e) {
+            throw new MailboxException("Unable to search the mailbox", e);
+        }
+    }
+
+    private List<SearchResult> searchMultimap(IndexSearcher searcher, Collection<MailboxId> mailboxIds, SearchQuery searchQuery) throws MailboxException, IOException {
         ImmutableList.Builder<SearchResult> results = ImmutableList.builder();
 
         Query inMailboxes = buildQueryFromMailboxes(mailboxIds);
-        
-        try (IndexSearcher searcher = new IndexSearcher(IndexReader.open(writer, true))) {
-            BooleanQuery query = new BooleanQuery();
-            query.add(inMailboxes, BooleanClause.Occur.MUST);
-            // Not return flags documents
-            query.add(new PrefixQuery(new Term(FLAGS_FIELD, "")), BooleanClause.Occur.MUST_NOT);
 
-            List<Criterion> crits = searchQuery.getCriteria();
-            for (Criterion crit : crits) {
-                query.add(createQuery(crit, inMailboxes, searchQuery.getRecentMessageUids()), BooleanClause.Occur.MUST);
-            }
+        BooleanQuery query = new BooleanQuery();
+        query.add(inMailboxes, BooleanClause.Occur.MUST);
+        // Not return flags documents
+        query.add(new PrefixQuery(new Term(FLAGS_FIELD, "")), BooleanClause.Occur.MUST_NOT);
 
-            // query for all the documents sorted as specified in the SearchQuery
-            TopDocs docs = searcher.search(query, null, maxQueryResults, createSort(searchQuery.getSorts()));
-            ScoreDoc[] sDocs = docs.scoreDocs;
-            for (ScoreDoc sDoc : sDocs) {
-                Document doc = searcher.doc(sDoc.doc);
-                MessageUid uid = MessageUid.of(Long.parseLong(doc.get(UID_FIELD)));
-                MailboxId mailboxId = mailboxIdFactory.fromString(doc.get(MAILBOX_ID_FIELD));
-                Optional<MessageId> messageId = toMessageId(Optional.ofNullable(doc.get(MESSAGE_ID_FIELD)));
-                results.add(new SearchResult(messageId, mailboxId, uid));
-            }
-        } catch (IOException e) {
-            throw new MailboxException("Unable to search the mailbox", e);
+        List<Criterion> crits = searchQuery.getCriteria();
+        for (Criterion crit : crits) {
+            query.add(createQuery(searcher, crit, inMailboxes, searchQuery.getRecentMessageUids()), BooleanClause.Occur.MUST);
+        }
+
+        // query for all the documents sorted as specified in the SearchQuery
+        TopDocs docs = searcher.search(query, null, maxQueryResults, createSort(searchQuery.getSorts()));
+        ScoreDoc[] sDocs = docs.scoreDocs;
+        for (ScoreDoc sDoc : sDocs) {
+            Document doc = searcher.doc(sDoc.doc);
+            MessageUid uid = MessageUid.of(Long.parseLong(doc.get(UID_FIELD)));
+            MailboxId mailboxId = mailboxIdFactory.fromString(doc.get(MAILBOX_ID_FIELD));
+            Optional<MessageId> messageId = toMessageId(Optional.ofNullable(doc.get(MESSAGE_ID_FIELD)));
+            results.add(new SearchResult(messageId, mailboxId, uid));
         }
         return results.build();
     }
@@ -929,7 +1096,7 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
      * Return a {@link Query} which is build based on the given {@link SearchQuery.FlagCriterion}. This is kind of a hack
      * as it will do a search for the flags in this method and
      */
-    private Query createFlagQuery(String flag, boolean isSet, Query inMailboxes, Collection<MessageUid> recentUids) throws MailboxException {
+    private Query createFlagQuery(IndexSearcher searcher, String flag, boolean isSet, Query inMailboxes, Collection<MessageUid> recentUids) throws MailboxException {
         BooleanQuery query = new BooleanQuery();
         
         if (isSet) {   
@@ -945,7 +1112,7 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
         query.add(inMailboxes, BooleanClause.Occur.MUST);
 
 
-        try (IndexSearcher searcher = new IndexSearcher(IndexReader.open(writer, true))) {
+        try {
             Set<MessageUid> uids = new HashSet<>();
 
             // query for all the documents sorted by uid
@@ -1103,24 +1270,24 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
     /**
      * Return a {@link Query} which is build based on the given {@link SearchQuery.ConjunctionCriterion}
      */
-    private Query createConjunctionQuery(SearchQuery.ConjunctionCriterion crit, Query inMailboxes, Collection<MessageUid> recentUids) throws UnsupportedSearchException, MailboxException {
+    private Query createConjunctionQuery(IndexSearcher searcher, SearchQuery.ConjunctionCriterion crit, Query inMailboxes, Collection<MessageUid> recentUids) throws UnsupportedSearchException, MailboxException {
         List<Criterion> crits = crit.getCriteria();
         BooleanQuery conQuery = new BooleanQuery();
         switch (crit.getType()) {
         case AND:
             for (Criterion criterion : crits) {
-                conQuery.add(createQuery(criterion, inMailboxes, recentUids), BooleanClause.Occur.MUST);
+                conQuery.add(createQuery(searcher, criterion, inMailboxes, recentUids), BooleanClause.Occur.MUST);
             }
             return conQuery;
         case OR:
             for (Criterion criterion : crits) {
-                conQuery.add(createQuery(criterion, inMailboxes, recentUids), BooleanClause.Occur.SHOULD);
+                conQuery.add(createQuery(searcher, criterion, inMailboxes, recentUids), BooleanClause.Occur.SHOULD);
             }
             return conQuery;
         case NOR:
             BooleanQuery nor = new BooleanQuery();
             for (Criterion criterion : crits) {
-                conQuery.add(createQuery(criterion, inMailboxes, recentUids), BooleanClause.Occur.SHOULD);
+                conQuery.add(createQuery(searcher, criterion, inMailboxes, recentUids), BooleanClause.Occur.SHOULD);
             }
             nor.add(inMailboxes, BooleanClause.Occur.MUST);
 
@@ -1135,7 +1302,7 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
     /**
      * Return a {@link Query} which is builded based on the given {@link Criterion}
      */
-    private Query createQuery(Criterion criterion, Query inMailboxes, Collection<MessageUid> recentUids) throws MailboxException {
+    private Query createQuery(IndexSearcher searcher, Criterion criterion, Query inMailboxes, Collection<MessageUid> recentUids) throws MailboxException {
         if (criterion instanceof SearchQuery.InternalDateCriterion) {
             SearchQuery.InternalDateCriterion crit = (SearchQuery.InternalDateCriterion) criterion;
             return createInternalDateQuery(crit);
@@ -1150,13 +1317,13 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
             return createUidQuery(crit);
         } else if (criterion instanceof SearchQuery.FlagCriterion) {
             FlagCriterion crit = (FlagCriterion) criterion;
-            return createFlagQuery(toString(crit.getFlag()), crit.getOperator().isSet(), inMailboxes, recentUids);
+            return createFlagQuery(searcher, toString(crit.getFlag()), crit.getOperator().isSet(), inMailboxes, recentUids);
         } else if (criterion instanceof SearchQuery.AttachmentCriterion) {
             AttachmentCriterion crit = (AttachmentCriterion) criterion;
             return createAttachmentQuery(crit.getOperator().isSet());
         } else if (criterion instanceof SearchQuery.CustomFlagCriterion) {
             CustomFlagCriterion crit = (CustomFlagCriterion) criterion;
-            return createFlagQuery(crit.getFlag(), crit.getOperator().isSet(), inMailboxes, recentUids);
+            return createFlagQuery(searcher, crit.getFlag(), crit.getOperator().isSet(), inMailboxes, recentUids);
         } else if (criterion instanceof SearchQuery.TextCriterion) {
             SearchQuery.TextCriterion crit = (SearchQuery.TextCriterion) criterion;
             return createTextQuery(crit);
@@ -1164,7 +1331,7 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
             return createAllQuery((AllCriterion) criterion);
         } else if (criterion instanceof SearchQuery.ConjunctionCriterion) {
             SearchQuery.ConjunctionCriterion crit = (SearchQuery.ConjunctionCriterion) criterion;
-            return createConjunctionQuery(crit, inMailboxes, recentUids);
+            return createConjunctionQuery(searcher, crit, inMailboxes, recentUids);
         } else if (criterion instanceof SearchQuery.ModSeqCriterion) {
             return createModSeqQuery((SearchQuery.ModSeqCriterion) criterion);
         } else if (criterion instanceof SearchQuery.MimeMessageIDCriterion) {
@@ -1183,22 +1350,24 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
             Document doc = createMessageDocument(session, membership);
             Document flagsDoc = createFlagsDocument(membership);
 
-            writer.addDocument(doc);
-            writer.addDocument(flagsDoc);
+            withIndexes(ImmutableList.of(mailbox.getUser()), forEach(index -> index.addDocuments(doc, flagsDoc)));
         }));
     }
 
     @Override
     public Mono<Void> update(MailboxSession session, MailboxId mailboxId, List<UpdatedFlags> updatedFlagsList) {
-        return Mono.fromRunnable(Throwing.runnable(() -> {
-            for (UpdatedFlags updatedFlags : updatedFlagsList) {
-                update(mailboxId, updatedFlags.getUid(), updatedFlags.getNewFlags());
-            }
-        }));
+        return ownersOf(session, ImmutableList.of(mailboxId))
+            .flatMap(owners -> Mono.fromRunnable(Throwing.runnable(() -> withIndexesContaining(owners, forEach(index -> {
+                for (UpdatedFlags updatedFlags : updatedFlagsList) {
+                    update(index, mailboxId, updatedFlags.getUid(), updatedFlags.getNewFlags());
+                }
+            })))))
+            .then();
     }
 
-    private void update(MailboxId mailboxId, MessageUid uid, Flags f) throws IOException {
-        try (IndexSearcher searcher = new IndexSearcher(IndexReader.open(writer, true))) {
+    private void update(LuceneIndex index, MailboxId mailboxId, MessageUid uid, Flags f) throws IOException, MailboxException {
+        List<Document> flagsDocuments = index.withSearcher(true, searcher -> {
+            ImmutableList.Builder<Document> documents = ImmutableList.builder();
             BooleanQuery query = new BooleanQuery();
             query.add(new TermQuery(new Term(MAILBOX_ID_FIELD, mailboxId.serialize())), BooleanClause.Occur.MUST);
             query.add(createQuery(MessageRange.one(uid)), BooleanClause.Occur.MUST);
@@ -1207,13 +1376,16 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
             TopDocs docs = searcher.search(query, 100000);
             ScoreDoc[] sDocs = docs.scoreDocs;
             for (ScoreDoc sDoc : sDocs) {
-                Document doc = searcher.doc(sDoc.doc);
+                documents.add(searcher.doc(sDoc.doc));
+            }
+            return documents.build();
+        });
 
-                doc.removeFields(FLAGS_FIELD);
-                indexFlags(doc, f);
+        for (Document doc : flagsDocuments) {
+            doc.removeFields(FLAGS_FIELD);
+            indexFlags(doc, f);
 
-                writer.updateDocument(new Term(ID_FIELD, doc.get(ID_FIELD)), doc);
-            }
+            index.updateDocument(new Term(ID_FIELD, doc.get(ID_FIELD)), doc);
         }
     }
 
@@ -1270,26 +1442,33 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
 
     @Override
     public Mono<Void> delete(MailboxSession session, MailboxId mailboxId, Collection<MessageUid> expungedUids) {
-        return Mono.fromRunnable(Throwing.runnable(() -> MessageRange.toRanges(expungedUids)
-            .forEach(Throwing.<MessageRange>consumer(messageRange -> delete(mailboxId, messageRange))
-                .sneakyThrow())));
+        return delete(session, mailboxId, MessageRange.toRanges(expungedUids));
     }
 
     @Override
     public Mono<Void> deleteAll(MailboxSession session, MailboxId mailboxId) {
-        return Mono.fromRunnable(Throwing.runnable(() -> delete(mailboxId, MessageRange.all())));
+        return delete(session, mailboxId, ImmutableList.of(MessageRange.all()));
+    }
+
+    private Mono<Void> delete(MailboxSession session, MailboxId mailboxId, List<MessageRange> ranges) {
+        return ownersOf(session, ImmutableList.of(mailboxId))
+            .flatMap(owners -> Mono.fromRunnable(Throwing.runnable(() -> withIndexesContaining(owners, forEach(index -> {
+                for (MessageRange range : ranges) {
+                    index.deleteDocuments(deletionQuery(mailboxId, range));
+                }
+            })))))
+            .then();
     }
 
-    public void delete(MailboxId mailboxId, MessageRange range) throws IOException {
+    private Query deletionQuery(MailboxId mailboxId, MessageRange range) {
         BooleanQuery query = new BooleanQuery();
         query.add(new TermQuery(new Term(MAILBOX_ID_FIELD, mailboxId.serialize())), BooleanClause.Occur.MUST);
         query.add(createQuery(range), BooleanClause.Occur.MUST);
-
-        writer.deleteDocuments(query);
+        return query;
     }
 
-    public void commit() throws IOException {
-        writer.commit();
+    public void commit() throws IOException, MailboxException {
+        withAllIndexes(forEach(LuceneIndex::commit));
     }
 
     @Override
@@ -1297,8 +1476,8 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
         return Mono.fromCallable(() -> retrieveFlags(mailbox, uid));
     }
 
-    private Flags retrieveFlags(Mailbox mailbox, MessageUid uid) throws IOException {
-        try (IndexSearcher searcher = new IndexSearcher(IndexReader.open(writer, true))) {
+    private Flags retrieveFlags(Mailbox mailbox, MessageUid uid) throws IOException, MailboxException {
+        return withIndexes(ImmutableList.of(mailbox.getUser()), indexes -> indexes.get(0).withSearcher(true, searcher -> {
             Flags retrievedFlags = new Flags();
 
             BooleanQuery query = new BooleanQuery();
@@ -1315,7 +1494,7 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
                     .forEach(flag -> fromString(flag).ifPresentOrElse(retrievedFlags::add, () -> retrievedFlags.add(flag)));
             }
             return retrievedFlags;
-        }
+        }));
     }
 
     /**
@@ -0,0 +1,205 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.lucene.search;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+
+import org.apache.james.core.Username;
+import org.apache.james.mailbox.exception.MailboxException;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Striped;
+
+/**
+ * The {@link LuceneIndex} of each user, when the {@link LuceneMessageSearchIndex} is sharded by user.
+ *
+ * At most <code>maxOpenedIndexes</code> indexes are kept opened: the least recently used ones are evicted, then
+ * closed once the operations using them complete. Opening again the index of a user first closes its evicted
+ * index, so that a single {@link org.apache.lucene.index.IndexWriter} is opened by user.
+ */
+class UserIndexes implements Closeable {
+    @FunctionalInterface
+    interface IndexesFunction<T> {
+        T apply(List<LuceneIndex> indexes) throws IOException, MailboxException;
+    }
+
+    @FunctionalInterface
+    interface IndexOpener {
+        LuceneIndex open(Username username) throws IOException;
+    }
+
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final boolean ACCESS_ORDER = true;
+    private static final int LOCK_STRIPES = 64;
+
+    private final IndexOpener indexOpener;
+    private final int maxOpenedIndexes;
+    private final LinkedHashMap<Username, LuceneIndex> openedIndexes;
+    private final ConcurrentHashMap<Username, LuceneIndex> evictedIndexes;
+    private final Striped<Lock> userLocks;
+
+    UserIndexes(IndexOpener indexOpener, int maxOpenedIndexes) {
+        Preconditions.checkArgument(maxOpenedIndexes > 0, "'maxOpenedIndexes' needs to be strictly positive");
+
+        this.indexOpener = indexOpener;
+        this.maxOpenedIndexes = maxOpenedIndexes;
+        this.openedIndexes = new LinkedHashMap<>(16, LOAD_FACTOR, ACCESS_ORDER);
+        this.evictedIndexes = new ConcurrentHashMap<>();
+        this.userLocks = Striped.lock(LOCK_STRIPES);
+    }
+
+    /**
+     * Applies the function to the indexes of the given users, opening them if needed.
+     */
+    <T> T withIndexes(Collection<Username> users, IndexesFunction<T> function) throws IOException, MailboxException {
+        try {
+            while (true) {
+                List<LuceneIndex> indexes = new ArrayList<>();
+                for (Username user : users) {
+                    indexes.add(indexOf(user));
+                }
+                List<LuceneIndex> retained = new ArrayList<>();
+                try {
+                    if (retainAll(indexes, retained)) {
+                        return function.apply(indexes);
+                    }
+                } finally {
+                    retained.forEach(LuceneIndex::relinquish);
+                }
+            }
+        } finally {
+            closeEvictedIndexes();
+        }
+    }
+
+    /**
+     * Applies the function to the currently opened indexes.
+     */
+    <T> T withOpenedIndexes(IndexesFunction<T> function) throws IOException, MailboxException {
+        List<LuceneIndex> retained = new ArrayList<>();
+        try {
+            for (LuceneIndex index : openedIndexes()) {
+                if (index.retain()) {
+                    retained.add(index);
+                }
+            }
+            return function.apply(retained);
+        } finally {
+            retained.forEach(LuceneIndex::relinquish);
+            closeEvictedIndexes();
+        }
+    }
+
+    private boolean retainAll(List<LuceneIndex> indexes, List<LuceneIndex> retained) {
+        for (LuceneIndex index : indexes) {
+            if (!index.retain()) {
+                return false;
+            }
+            retained.add(index);
+        }
+        return true;
+    }
+
+    private synchronized List<LuceneIndex> openedIndexes() {
+        return ImmutableList.copyOf(openedIndexes.values());
+    }
+
+    private LuceneIndex indexOf(Username user) throws IOException {
+        synchronized (this) {
+            LuceneIndex index = openedIndexes.get(user);
+            if (index != null) {
+                return index;
+            }
+        }
+
+        Lock lock = userLocks.get(user);
+        lock.lock();
+        try {
+            synchronized (this) {
+                LuceneIndex index = openedIndexes.get(user);
+                if (index != null) {
+                    return index;
+                }
+            }
+            LuceneIndex evictedIndex = evictedIndexes.remove(user);
+            if (evictedIndex != null) {
+                evictedIndex.close();
+            }
+            LuceneIndex index = indexOpener.open(user);
+            synchronized (this) {
+                openedIndexes.put(user, index);
+                evictLeastRecentlyUsed();
+            }
+            return index;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evictLeastRecentlyUsed() {
+        Iterator<Map.Entry<Username, LuceneIndex>> iterator = openedIndexes.entrySet().iterator();
+        while (openedIndexes.size() > maxOpenedIndexes) {
+            Map.Entry<Username, LuceneIndex> eldest = iterator.next();
+            iterator.remove();
+            evictedIndexes.put(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    private void closeEvictedIndexes() throws IOException {
+        for (Username user : evictedIndexes.keySet()) {
+            Lock lock = userLocks.get(user);
+            lock.lock();
+            try {
+                LuceneIndex evictedIndex = evictedIndexes.remove(user);
+                if (evictedIndex != null) {
+                    evictedIndex.close();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        List<LuceneIndex> indexes;
+        synchronized (this) {
+            indexes = ImmutableList.<LuceneIndex>builder()
+                .addAll(openedIndexes.values())
+                .addAll(evictedIndexes.values())
+                .build();
+            openedIndexes.clear();
+            evictedIndexes.clear();
+        }
+        for (LuceneIndex index : indexes) {
+            index.close();
+        }
+    }
+}
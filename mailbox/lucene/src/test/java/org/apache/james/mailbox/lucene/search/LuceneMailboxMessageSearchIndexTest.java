@@ -21,8 +21,11 @@ package org.apache.james.mailbox.lucene.search;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.apache.james.mailbox.store.MessageIdManagerTestSystem.MOD_SEQ;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Durations.ONE_MINUTE;
 
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.HashMap;
@@ -55,6 +58,8 @@ import org.apache.james.mailbox.store.MessageBuilder;
 import org.apache.james.mailbox.store.search.ListeningMessageSearchIndex;
 import org.apache.james.mailbox.store.search.ListeningMessageSearchIndexContract;
 import org.apache.lucene.store.RAMDirectory;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -192,6 +197,55 @@ class LuceneMailboxMessageSearchIndexTest {
 
     }
 
+    @AfterEach
+    void tearDown() throws IOException {
+        index.close();
+    }
+
+    private MessageUid addMessageToMailbox3(String body) throws Exception {
+        MessageUid uid = MessageUid.of(11);
+        MessageBuilder builder = new MessageBuilder()
+            .header("Subject", "refreshed")
+            .body(body.getBytes(UTF_8))
+            .uid(uid)
+            .mailboxId(TEST_ID_3);
+        index.add(session, mailbox3, builder.build(new TestMessageId.Factory().generate())).block();
+        return uid;
+    }
+
+    @Test
+    void searchShouldNotSeeUnrefreshedMessagesWhenRefreshIntervalIsSet() throws Exception {
+        index.setRefreshInterval(Duration.ofHours(1));
+        addMessageToMailbox3("rutabaga");
+
+        SearchQuery query = SearchQuery.of(SearchQuery.bodyContains("rutabaga"));
+        assertThat(index.search(session, mailbox3, query).toStream()).isEmpty();
+    }
+
+    @Test
+    void searchShouldSeeMessagesOnceRefreshedWhenRefreshIntervalIsSet() throws Exception {
+        index.setRefreshInterval(Duration.ofMillis(50));
+        MessageUid uid = addMessageToMailbox3("rutabaga");
+
+        SearchQuery query = SearchQuery.of(SearchQuery.bodyContains("rutabaga"));
+        Awaitility.await().atMost(ONE_MINUTE)
+            .untilAsserted(() -> assertThat(index.search(session, mailbox3, query).toStream()).containsExactly(uid));
+    }
+
+    @Test
+    void retrieveIndexedFlagsShouldSeeUnrefreshedUpdatesWhenRefreshIntervalIsSet() {
+        index.setRefreshInterval(Duration.ofHours(1));
+        Flags newFlags = new Flags(Flag.FLAGGED);
+        index.update(session, mailbox.getMailboxId(), ImmutableList.of(UpdatedFlags.builder()
+            .uid(uid1)
+            .modSeq(MOD_SEQ)
+            .newFlags(newFlags)
+            .oldFlags(new Flags(Flag.ANSWERED))
+            .build())).block();
+
+        assertThat(index.retrieveIndexedFlags(mailbox, uid1).block()).isEqualTo(newFlags);
+    }
+
     @Test
     void bodySearchShouldMatchPhraseInBody() throws Exception {
         SearchQuery query = SearchQuery.of(SearchQuery.bodyContains(CUSTARD));
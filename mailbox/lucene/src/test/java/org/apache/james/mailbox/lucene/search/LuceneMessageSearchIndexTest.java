@@ -19,11 +19,13 @@
 
 package org.apache.james.mailbox.lucene.search;
 
+import java.io.IOException;
 import java.util.List;
 
 import org.apache.james.mailbox.inmemory.InMemoryId;
 import org.apache.james.mailbox.inmemory.InMemoryMessageId;
 import org.apache.james.mailbox.inmemory.manager.InMemoryIntegrationResources;
+import org.apache.james.mailbox.inmemory.manager.InMemoryIntegrationResources.MailboxManagerSearchIndexStage;
 import org.apache.james.mailbox.model.MailboxId;
 import org.apache.james.mailbox.model.MessageId;
 import org.apache.james.mailbox.model.SearchQuery;
@@ -48,10 +50,7 @@ class LuceneMessageSearchIndexTest extends AbstractMessageSearchIndexTest {
             .inVmEventBus()
             .defaultAnnotationLimits()
             .defaultMessageParser()
-            .listeningSearchIndex(Throwing.function(preInstanciationStage -> new LuceneMessageSearchIndex(
-                preInstanciationStage.getMapperFactory(), new InMemoryId.Factory(), new RAMDirectory(),
-                new InMemoryMessageId.Factory(),
-                preInstanciationStage.getSessionProvider())))
+            .listeningSearchIndex(Throwing.function(this::createSearchIndex))
             .noPreDeletionHooks()
             .storeQuotaManager()
             .build();
@@ -63,6 +62,13 @@ class LuceneMessageSearchIndexTest extends AbstractMessageSearchIndexTest {
         messageIdFactory = new InMemoryMessageId.Factory();
     }
 
+    protected LuceneMessageSearchIndex createSearchIndex(MailboxManagerSearchIndexStage preInstanciationStage) throws IOException {
+        return new LuceneMessageSearchIndex(
+            preInstanciationStage.getMapperFactory(), new InMemoryId.Factory(), new RAMDirectory(),
+            new InMemoryMessageId.Factory(),
+            preInstanciationStage.getSessionProvider());
+    }
+
     @Override
     protected MessageId initNewBasedMessageId() {
         return InMemoryMessageId.of(100);
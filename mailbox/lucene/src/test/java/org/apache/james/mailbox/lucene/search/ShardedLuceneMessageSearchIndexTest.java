@@ -0,0 +1,44 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.lucene.search;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.james.core.Username;
+import org.apache.james.mailbox.inmemory.InMemoryId;
+import org.apache.james.mailbox.inmemory.InMemoryMessageId;
+import org.apache.james.mailbox.inmemory.manager.InMemoryIntegrationResources.MailboxManagerSearchIndexStage;
+import org.apache.lucene.store.RAMDirectory;
+
+class ShardedLuceneMessageSearchIndexTest extends LuceneMessageSearchIndexTest {
+    // Evicts the index of a user whenever the index of another one is used
+    private static final int MAX_OPENED_USER_INDEXES = 1;
+
+    @Override
+    protected LuceneMessageSearchIndex createSearchIndex(MailboxManagerSearchIndexStage preInstanciationStage) {
+        ConcurrentHashMap<Username, RAMDirectory> directories = new ConcurrentHashMap<>();
+        return new LuceneMessageSearchIndex(
+            preInstanciationStage.getMapperFactory(), new InMemoryId.Factory(),
+            username -> directories.computeIfAbsent(username, any -> new RAMDirectory()),
+            MAX_OPENED_USER_INDEXES, false, true,
+            new InMemoryMessageId.Factory(),
+            preInstanciationStage.getSessionProvider());
+    }
+}
@@ -682,13 +682,14 @@ public class StoreMailboxManager implements MailboxManager {
     private Function<Flux<Mailbox>, Flux<MailboxMetaData>> withCounters(MailboxSession session, List<Mailbox> mailboxes) {
         MessageMapper messageMapper = mailboxSessionMapperFactory.getMessageMapper(session);
         Map<MailboxPath, Boolean> parentMap = parentMap(mailboxes, session);
-        int concurrency = 4;
         return mailboxFlux -> mailboxFlux
-            .flatMap(mailbox -> retrieveCounters(messageMapper, mailbox, session)
-                .map(Throwing.<MailboxCounters, MailboxMetaData>function(
-                    counters -> toMailboxMetadata(session, parentMap, mailbox, counters))
-                    .sneakyThrow()),
-                concurrency);
+            .collectList()
+            .flatMapMany(matchingMailboxes -> retrieveCounters(messageMapper, matchingMailboxes, session)
+                .flatMapIterable(countersById -> matchingMailboxes.stream()
+                    .map(Throwing.<Mailbox, MailboxMetaData>function(
+                        mailbox -> toMailboxMetadata(session, parentMap, mailbox, Optional.ofNullable(countersById.get(mailbox.getMailboxId()))))
+                        .sneakyThrow())
+                    .collect(ImmutableList.toImmutableList())));
     }
 
     private Map<MailboxPath, Boolean> parentMap(List<Mailbox> mailboxes, MailboxSession session) {
@@ -706,14 +707,20 @@ public class StoreMailboxManager implements MailboxManager {
         Map<MailboxPath, Boolean> parentMap = parentMap(mailboxes, session);
         return mailboxFlux -> mailboxFlux
                 .map(Throwing.<Mailbox, MailboxMetaData>function(
-                    mailbox -> toMailboxMetadata(session, parentMap, mailbox, MailboxCounters.empty(mailbox.getMailboxId())))
+                    mailbox -> toMailboxMetadata(session, parentMap, mailbox, Optional.empty()))
                     .sneakyThrow());
     }
 
-    private Mono<MailboxCounters> retrieveCounters(MessageMapper messageMapper, Mailbox mailbox, MailboxSession session) {
-        return messageMapper.getMailboxCountersReactive(mailbox)
-            .filter(Throwing.<MailboxCounters>predicate(counter -> storeRightManager.hasRight(mailbox, Right.Read, session)).sneakyThrow())
-            .switchIfEmpty(Mono.just(MailboxCounters.empty(mailbox.getMailboxId())));
+    /**
+     * The counters of the mailboxes the user can not read are not retrieved.
+     */
+    private Mono<Map<MailboxId, MailboxCounters>> retrieveCounters(MessageMapper messageMapper, List<Mailbox> mailboxes, MailboxSession session) {
+        List<Mailbox> readableMailboxes = mailboxes.stream()
+            .filter(Throwing.<Mailbox>predicate(mailbox -> storeRightManager.hasRight(mailbox, Right.Read, session)).sneakyThrow())
+            .collect(ImmutableList.toImmutableList());
+
+        return messageMapper.getMailboxCountersReactive(readableMailboxes)
+            .collectMap(MailboxCounters::getMailboxId);
     }
 
     private Flux<Mailbox> searchMailboxes(MailboxQuery mailboxQuery, MailboxSession session, Right right) {
@@ -762,7 +769,7 @@ public class StoreMailboxManager implements MailboxManager {
             .map(Mailbox::getMailboxId);
     }
 
-    private MailboxMetaData toMailboxMetadata(MailboxSession session, Map<MailboxPath, Boolean> parentMap, Mailbox mailbox, MailboxCounters counters) throws UnsupportedRightException {
+    private MailboxMetaData toMailboxMetadata(MailboxSession session, Map<MailboxPath, Boolean> parentMap, Mailbox mailbox, Optional<MailboxCounters> counters) throws UnsupportedRightException {
         return new MailboxMetaData(
             mailbox.generateAssociatedPath(),
             mailbox.getMailboxId(),
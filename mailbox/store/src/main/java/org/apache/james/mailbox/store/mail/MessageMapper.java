@@ -20,6 +20,7 @@ package org.apache.james.mailbox.store.mail;
 
 import static javax.mail.Flags.Flag.RECENT;
 
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -116,6 +117,17 @@ public interface MessageMapper extends Mapper {
         return Mono.fromCallable(() -> getMailboxCounters(mailbox));
     }
 
+    int MAILBOX_COUNTERS_CONCURRENCY = 4;
+
+    /**
+     * Retrieves the counters of several mailboxes at once, in no specific order. Implementations backed by a remote
+     * storage should override it in order to rely on bulk reads rather than one point query per mailbox.
+     */
+    default Flux<MailboxCounters> getMailboxCountersReactive(Collection<Mailbox> mailboxes) {
+        return Flux.fromIterable(mailboxes)
+            .flatMap(this::getMailboxCountersReactive, MAILBOX_COUNTERS_CONCURRENCY);
+    }
+
     /**
      * Delete the given {@link MailboxMessage}
      */
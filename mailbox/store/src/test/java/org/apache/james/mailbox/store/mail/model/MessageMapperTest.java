@@ -172,6 +172,28 @@ public abstract class MessageMapperTest {
         assertThat(messageMapper.getMailboxCounters(benwaInboxMailbox).getUnseen()).isEqualTo(4);
     }
 
+    @Test
+    void getMailboxCountersReactiveShouldReturnCountersOfAllRequestedMailboxes() throws MailboxException {
+        saveMessages();
+        Mailbox emptyMailbox = createMailbox(MailboxPath.forUser(BENWA, "empty"));
+
+        assertThat(messageMapper.getMailboxCountersReactive(ImmutableList.of(benwaInboxMailbox, benwaWorkMailbox, emptyMailbox))
+                .collectList()
+                .block())
+            .containsExactlyInAnyOrder(
+                MailboxCounters.builder()
+                    .mailboxId(benwaInboxMailbox.getMailboxId())
+                    .count(5)
+                    .unseen(5)
+                    .build(),
+                MailboxCounters.builder()
+                    .mailboxId(benwaWorkMailbox.getMailboxId())
+                    .count(1)
+                    .unseen(1)
+                    .build(),
+                MailboxCounters.empty(emptyMailbox.getMailboxId()));
+    }
+
     @Test
     void deletedMessagesShouldBeRemovedFromStorage() throws MailboxException {
         saveMessages();
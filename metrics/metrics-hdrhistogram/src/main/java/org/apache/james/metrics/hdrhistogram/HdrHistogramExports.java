@@ -0,0 +1,121 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.metrics.hdrhistogram;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import javax.inject.Inject;
+
+import org.HdrHistogram.Histogram;
+
+import com.google.common.collect.ImmutableList;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.Predicate;
+import io.prometheus.client.exporter.common.TextFormat;
+
+/**
+ * Exposes {@link HdrHistogramMetricFactory} metrics to Prometheus.
+ *
+ * Timers are exported as summaries, in seconds. Quantiles are computed over the rotating window of each timer, see
+ * {@link HdrHistogramTimer#windowSnapshot()}, and are NaN when no value was recorded within it. Count and sum are
+ * cumulative. Collecting does not consume recorded values, hence several scrapers can collect a given factory.
+ */
+public class HdrHistogramExports extends Collector {
+    public static final List<Double> QUANTILES = ImmutableList.of(0.5, 0.75, 0.95, 0.99, 0.999);
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final List<String> NO_LABEL = ImmutableList.of();
+    private static final List<String> QUANTILE_LABEL = ImmutableList.of("quantile");
+
+    private final HdrHistogramMetricFactory metricFactory;
+
+    @Inject
+    public HdrHistogramExports(HdrHistogramMetricFactory metricFactory) {
+        this.metricFactory = metricFactory;
+    }
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+        return collect(null);
+    }
+
+    /**
+     * Timers none of whose samples match the filter are not snapshotted.
+     */
+    @Override
+    public List<MetricFamilySamples> collect(Predicate<String> sampleNameFilter) {
+        Predicate<String> filter = Objects.requireNonNullElse(sampleNameFilter, any -> true);
+        return Stream.concat(
+                metricFactory.counters().entrySet().stream()
+                    .filter(counter -> filter.test(sanitizeMetricName(counter.getKey())))
+                    .map(this::fromCounter),
+                metricFactory.timers().stream()
+                    .filter(timer -> sampleNames(timer).stream().anyMatch(filter::test))
+                    .map(this::fromTimer)
+                    .map(family -> family.filter(filter)))
+            .collect(ImmutableList.toImmutableList());
+    }
+
+    private List<String> sampleNames(HdrHistogramTimer timer) {
+        String name = sanitizeMetricName(timer.getName());
+        return ImmutableList.of(name, name + "_count", name + "_sum");
+    }
+
+    public void write(Writer writer) throws IOException {
+        TextFormat.write004(writer, Collections.enumeration(collect()));
+    }
+
+    private MetricFamilySamples fromCounter(Map.Entry<String, Long> counter) {
+        String name = sanitizeMetricName(counter.getKey());
+        return new MetricFamilySamples(name, Type.GAUGE, help(counter.getKey()),
+            ImmutableList.of(new MetricFamilySamples.Sample(name, NO_LABEL, NO_LABEL, Math.max(0, counter.getValue()))));
+    }
+
+    private MetricFamilySamples fromTimer(HdrHistogramTimer timer) {
+        String name = sanitizeMetricName(timer.getName());
+        Histogram window = timer.windowSnapshot();
+
+        ImmutableList.Builder<MetricFamilySamples.Sample> samples = ImmutableList.builder();
+        QUANTILES.forEach(quantile -> samples.add(new MetricFamilySamples.Sample(name, QUANTILE_LABEL,
+            ImmutableList.of(doubleToGoString(quantile)),
+            quantileInSeconds(window, quantile))));
+        samples.add(new MetricFamilySamples.Sample(name + "_count", NO_LABEL, NO_LABEL, timer.getCount()));
+        samples.add(new MetricFamilySamples.Sample(name + "_sum", NO_LABEL, NO_LABEL, timer.getSumInNanos() / NANOS_PER_SECOND));
+
+        return new MetricFamilySamples(name, Type.SUMMARY, help(timer.getName()), samples.build());
+    }
+
+    private double quantileInSeconds(Histogram window, double quantile) {
+        if (window.getTotalCount() == 0) {
+            return Double.NaN;
+        }
+        return window.getValueAtPercentile(quantile * 100) / NANOS_PER_SECOND;
+    }
+
+    private String help(String metricName) {
+        return "Generated from HdrHistogram metric import (metric=" + metricName + ")";
+    }
+}
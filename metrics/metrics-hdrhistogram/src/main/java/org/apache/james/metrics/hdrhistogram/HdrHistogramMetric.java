@@ -0,0 +1,69 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.metrics.hdrhistogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.james.metrics.api.Metric;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class HdrHistogramMetric implements Metric {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HdrHistogramMetric.class);
+
+    private final LongAdder value;
+    private final String metricName;
+
+    public HdrHistogramMetric(LongAdder value, String metricName) {
+        this.value = value;
+        this.metricName = metricName;
+    }
+
+    @Override
+    public void increment() {
+        value.increment();
+    }
+
+    @Override
+    public void decrement() {
+        value.decrement();
+    }
+
+    @Override
+    public void add(int i) {
+        value.add(i);
+    }
+
+    @Override
+    public void remove(int i) {
+        value.add(-1L * i);
+    }
+
+    @Override
+    public long getCount() {
+        long counter = value.sum();
+        if (counter < 0) {
+            LOGGER.error("counter value({}) of the metric '{}' should not be a negative number", counter, metricName);
+            return 0;
+        }
+
+        return counter;
+    }
+}
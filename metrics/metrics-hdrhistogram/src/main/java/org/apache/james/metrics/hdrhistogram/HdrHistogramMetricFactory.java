@@ -0,0 +1,93 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.metrics.hdrhistogram;
+
+import static org.apache.james.metrics.api.TimeMetric.ExecutionResult.DEFAULT_100_MS_THRESHOLD;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+import org.reactivestreams.Publisher;
+
+import com.google.common.collect.ImmutableMap;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class HdrHistogramMetricFactory implements MetricFactory {
+
+    private final ConcurrentHashMap<String, LongAdder> counters;
+    private final ConcurrentHashMap<String, HdrHistogramTimer> timers;
+
+    public HdrHistogramMetricFactory() {
+        this.counters = new ConcurrentHashMap<>();
+        this.timers = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public Metric generate(String name) {
+        return new HdrHistogramMetric(counters.computeIfAbsent(name, any -> new LongAdder()), name);
+    }
+
+    @Override
+    public HdrHistogramTimeMetric timer(String name) {
+        return new HdrHistogramTimeMetric(getTimer(name));
+    }
+
+    public HdrHistogramTimer getTimer(String name) {
+        HdrHistogramTimer timer = timers.get(name);
+        if (timer != null) {
+            return timer;
+        }
+        return timers.computeIfAbsent(name, HdrHistogramTimer::new);
+    }
+
+    public Map<String, Long> counters() {
+        return counters.entrySet()
+            .stream()
+            .collect(ImmutableMap.toImmutableMap(Map.Entry::getKey, entry -> entry.getValue().sum()));
+    }
+
+    public Collection<HdrHistogramTimer> timers() {
+        return timers.values();
+    }
+
+    @Override
+    public <T> Publisher<T> decoratePublisherWithTimerMetric(String name, Publisher<T> publisher) {
+        if (publisher instanceof Mono) {
+            return Mono.using(() -> timer(name),
+                any -> Mono.from(publisher),
+                HdrHistogramTimeMetric::stopAndPublish);
+        }
+        return Flux.using(() -> timer(name),
+            any -> publisher,
+            HdrHistogramTimeMetric::stopAndPublish);
+    }
+
+    @Override
+    public <T> Publisher<T> decoratePublisherWithTimerMetricLogP99(String name, Publisher<T> publisher) {
+        return Flux.using(() -> timer(name),
+            any -> publisher,
+            timer -> timer.stopAndPublish().logWhenExceedP99(DEFAULT_100_MS_THRESHOLD));
+    }
+}
@@ -0,0 +1,78 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.metrics.hdrhistogram;
+
+import java.time.Duration;
+
+import org.apache.james.metrics.api.TimeMetric;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+
+public class HdrHistogramTimeMetric implements TimeMetric {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HdrHistogramTimeMetric.class);
+
+    static class HdrHistogramExecutionResult implements ExecutionResult {
+        private final HdrHistogramTimer timer;
+        private final Duration elasped;
+
+        HdrHistogramExecutionResult(HdrHistogramTimer timer, Duration elasped) {
+            this.timer = timer;
+            this.elasped = elasped;
+        }
+
+        @Override
+        public Duration elasped() {
+            return elasped;
+        }
+
+        @Override
+        public ExecutionResult logWhenExceedP99(Duration thresholdInNanoSeconds) {
+            Preconditions.checkNotNull(thresholdInNanoSeconds);
+            Duration p99 = timer.p99();
+            if (elasped.compareTo(p99) > 0 && elasped.compareTo(thresholdInNanoSeconds) > 0) {
+                LOGGER.warn("{} metrics took {} nano seconds to complete, exceeding its {} nano seconds p99",
+                    timer.getName(), elasped, p99);
+            }
+            return this;
+        }
+    }
+
+    private final HdrHistogramTimer timer;
+    private final long startInNanos;
+
+    public HdrHistogramTimeMetric(HdrHistogramTimer timer) {
+        this.timer = timer;
+        this.startInNanos = System.nanoTime();
+    }
+
+    @Override
+    public String name() {
+        return timer.getName();
+    }
+
+    @Override
+    public ExecutionResult stopAndPublish() {
+        long elapsedInNanos = System.nanoTime() - startInNanos;
+        timer.record(elapsedInNanos);
+        return new HdrHistogramExecutionResult(timer, Duration.ofNanos(elapsedInNanos));
+    }
+}
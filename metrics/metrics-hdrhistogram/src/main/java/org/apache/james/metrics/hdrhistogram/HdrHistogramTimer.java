@@ -0,0 +1,178 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.metrics.hdrhistogram;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+/**
+ * Records latencies, in nanoseconds, into an HdrHistogram {@link Recorder}.
+ *
+ * Recording is wait-free and does not allocate. Recorded values are kept in a rotating window of
+ * {@link #DEFAULT_WINDOW_SIZE} intervals of {@link #DEFAULT_WINDOW_INTERVAL}: {@link #windowSnapshot()} merges them
+ * with {@link Histogram#add(org.HdrHistogram.AbstractHistogram)}, so that reads do not consume values and several
+ * readers see the same ones.
+ *
+ * The p99 used to log slow executions is computed from a distinct recorder, refreshed every
+ * {@link #DEFAULT_P99_REFRESH_INTERVAL}, so that it does not depend on readers.
+ */
+public class HdrHistogramTimer {
+    public static final long HIGHEST_TRACKABLE_VALUE = TimeUnit.HOURS.toNanos(1);
+    public static final int SIGNIFICANT_VALUE_DIGITS = 3;
+    public static final Duration DEFAULT_P99_REFRESH_INTERVAL = Duration.ofSeconds(10);
+    public static final Duration DEFAULT_WINDOW_INTERVAL = Duration.ofSeconds(10);
+    public static final int DEFAULT_WINDOW_SIZE = 6;
+
+    private final String name;
+    private final Recorder recorder;
+    private final Recorder p99Recorder;
+    private final long p99RefreshIntervalInNanos;
+    private final long windowIntervalInNanos;
+    private final LongSupplier nanoTime;
+    private final LongAdder count;
+    private final LongAdder sumInNanos;
+    // Window histograms auto-resize, so that they only cover the range of the recorded values
+    private final Histogram[] window;
+    private int windowPosition;
+    private long windowRotatedAtInNanos;
+    private Histogram recycledInterval;
+    private Histogram recycledP99Interval;
+    private volatile long p99InNanos;
+    private volatile long p99RefreshedAtInNanos;
+
+    public HdrHistogramTimer(String name) {
+        this(name, DEFAULT_P99_REFRESH_INTERVAL);
+    }
+
+    public HdrHistogramTimer(String name, Duration p99RefreshInterval) {
+        this(name, p99RefreshInterval, DEFAULT_WINDOW_INTERVAL, DEFAULT_WINDOW_SIZE, System::nanoTime);
+    }
+
+    @VisibleForTesting
+    HdrHistogramTimer(String name, Duration p99RefreshInterval, Duration windowInterval, int windowSize, LongSupplier nanoTime) {
+        Preconditions.checkArgument(windowSize > 0, "'windowSize' needs to be strictly positive");
+        Preconditions.checkArgument(!windowInterval.isNegative() && !windowInterval.isZero(), "'windowInterval' needs to be strictly positive");
+
+        this.name = name;
+        this.recorder = new Recorder(HIGHEST_TRACKABLE_VALUE, SIGNIFICANT_VALUE_DIGITS);
+        this.p99Recorder = new Recorder(HIGHEST_TRACKABLE_VALUE, SIGNIFICANT_VALUE_DIGITS);
+        this.p99RefreshIntervalInNanos = p99RefreshInterval.toNanos();
+        this.windowIntervalInNanos = windowInterval.toNanos();
+        this.nanoTime = nanoTime;
+        this.count = new LongAdder();
+        this.sumInNanos = new LongAdder();
+        this.window = new Histogram[windowSize];
+        for (int i = 0; i < windowSize; i++) {
+            window[i] = new Histogram(SIGNIFICANT_VALUE_DIGITS);
+        }
+        this.windowRotatedAtInNanos = nanoTime.getAsLong();
+        // The first p99 request triggers a refresh
+        this.p99RefreshedAtInNanos = nanoTime.getAsLong() - p99RefreshIntervalInNanos;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void record(long durationInNanos) {
+        long value = Math.max(0, durationInNanos);
+        recorder.recordValue(Math.min(value, HIGHEST_TRACKABLE_VALUE));
+        p99Recorder.recordValue(Math.min(value, HIGHEST_TRACKABLE_VALUE));
+        count.increment();
+        sumInNanos.add(value);
+    }
+
+    /**
+     * @return the values recorded during the current window. The returned histogram is owned by the caller.
+     */
+    public synchronized Histogram windowSnapshot() {
+        rotateWindow();
+        // Values recorded since the previous read are accounted to the current interval, so that they are read at least once
+        drainRecorder();
+        Histogram snapshot = new Histogram(SIGNIFICANT_VALUE_DIGITS);
+        for (Histogram interval : window) {
+            snapshot.add(interval);
+        }
+        return snapshot;
+    }
+
+    private void rotateWindow() {
+        long elapsedIntervals = (nanoTime.getAsLong() - windowRotatedAtInNanos) / windowIntervalInNanos;
+        if (elapsedIntervals <= 0) {
+            return;
+        }
+        for (long i = 0; i < Math.min(elapsedIntervals, window.length); i++) {
+            windowPosition = (windowPosition + 1) % window.length;
+            window[windowPosition].reset();
+        }
+        windowRotatedAtInNanos += elapsedIntervals * windowIntervalInNanos;
+    }
+
+    private void drainRecorder() {
+        recycledInterval = recorder.getIntervalHistogram(recycledInterval);
+        window[windowPosition].add(recycledInterval);
+    }
+
+    /**
+     * @return the p99 of the values recorded during the last refresh interval. The previous value is kept when no
+     * value was recorded.
+     */
+    public Duration p99() {
+        if (nanoTime.getAsLong() - p99RefreshedAtInNanos >= p99RefreshIntervalInNanos) {
+            refreshP99();
+        }
+        return Duration.ofNanos(p99InNanos);
+    }
+
+    private void refreshP99() {
+        synchronized (p99Recorder) {
+            long now = nanoTime.getAsLong();
+            if (now - p99RefreshedAtInNanos < p99RefreshIntervalInNanos) {
+                return;
+            }
+            recycledP99Interval = p99Recorder.getIntervalHistogram(recycledP99Interval);
+            if (recycledP99Interval.getTotalCount() > 0) {
+                p99InNanos = recycledP99Interval.getValueAtPercentile(99.0);
+            }
+            p99RefreshedAtInNanos = now;
+        }
+    }
+
+    /**
+     * @return the count of values recorded since creation. Unlike snapshots, this is not limited to the window.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return the sum of values recorded since creation. Unlike snapshots, this is not limited to the window.
+     */
+    public long getSumInNanos() {
+        return sumInNanos.sum();
+    }
+}
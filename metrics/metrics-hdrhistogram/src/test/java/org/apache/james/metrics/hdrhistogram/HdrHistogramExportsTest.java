@@ -0,0 +1,101 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.metrics.hdrhistogram;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HdrHistogramExportsTest {
+
+    private HdrHistogramMetricFactory metricFactory;
+    private HdrHistogramExports testee;
+
+    @BeforeEach
+    void setUp() {
+        metricFactory = new HdrHistogramMetricFactory();
+        testee = new HdrHistogramExports(metricFactory);
+    }
+
+    private String write() throws IOException {
+        StringWriter writer = new StringWriter();
+        testee.write(writer);
+        return writer.toString();
+    }
+
+    @Test
+    void writeShouldExposeCounters() throws IOException {
+        metricFactory.generate("imap-connections").add(3);
+
+        assertThat(write())
+            .contains("# TYPE imap_connections gauge")
+            .contains("imap_connections 3.0");
+    }
+
+    @Test
+    void writeShouldExposeTimerQuantilesInSeconds() throws IOException {
+        HdrHistogramTimer timer = metricFactory.getTimer("spoolProcessing");
+        for (int i = 0; i < 999; i++) {
+            timer.record(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        timer.record(TimeUnit.SECONDS.toNanos(1));
+
+        assertThat(write())
+            .contains("# TYPE spoolProcessing summary")
+            .contains("spoolProcessing{quantile=\"0.999\",} 0.001")
+            .contains("spoolProcessing_count 1000.0");
+    }
+
+    @Test
+    void writeShouldNotConsumeRecordedValues() throws IOException {
+        HdrHistogramTimer timer = metricFactory.getTimer("spoolProcessing");
+        timer.record(TimeUnit.SECONDS.toNanos(1));
+        write();
+
+        assertThat(write())
+            .contains("spoolProcessing{quantile=\"0.5\",} 1.0")
+            .contains("spoolProcessing_count 1.0");
+    }
+
+    @Test
+    void quantilesShouldBeNaNWhenNoValueWasRecorded() throws IOException {
+        metricFactory.getTimer("spoolProcessing");
+
+        assertThat(write())
+            .contains("spoolProcessing{quantile=\"0.5\",} NaN")
+            .contains("spoolProcessing_count 0.0");
+    }
+
+    @Test
+    void collectShouldOnlyReturnMatchingSamples() {
+        metricFactory.generate("imap-connections").add(3);
+        metricFactory.getTimer("spoolProcessing").record(TimeUnit.SECONDS.toNanos(1));
+        metricFactory.getTimer("other").record(TimeUnit.SECONDS.toNanos(1));
+
+        assertThat(testee.collect(name -> name.equals("spoolProcessing_count")))
+            .flatExtracting(family -> family.samples)
+            .extracting(sample -> sample.name)
+            .containsExactly("spoolProcessing_count");
+    }
+}
@@ -0,0 +1,218 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.metrics.hdrhistogram;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.data.Percentage.withPercentage;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.HdrHistogram.Histogram;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.MetricFactoryContract;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class HdrHistogramMetricFactoryTest implements MetricFactoryContract {
+
+    private HdrHistogramMetricFactory testee;
+
+    @BeforeEach
+    void setUp() {
+        testee = new HdrHistogramMetricFactory();
+    }
+
+    @Override
+    public MetricFactory testee() {
+        return testee;
+    }
+
+    @Test
+    void decoratePublisherWithTimerMetricShouldRecordANewValueForEachRetry() {
+        Duration duration = Duration.ofMillis(100);
+        Mono.from(testee.decoratePublisherWithTimerMetric("any", Mono.delay(duration)))
+            .repeat(5)
+            .blockLast();
+
+        assertThat(testee.getTimer("any").windowSnapshot().getTotalCount())
+            .isEqualTo(6);
+    }
+
+    @Test
+    void decoratePublisherWithTimerMetricShouldRecordAtLeastTheMonoDelayWhenWrappedInAFlux() {
+        Duration duration = Duration.ofMillis(100);
+        Flux.from(testee.decoratePublisherWithTimerMetric("any", Mono.delay(duration)))
+            .blockLast();
+
+        assertThat(testee.getTimer("any").windowSnapshot().getValueAtPercentile(99))
+            .isGreaterThanOrEqualTo(duration.toNanos());
+    }
+
+    @Test
+    void decoratePublisherWithTimerMetricShouldRecordAtLeastTheMonoDelayWhenWrappedInAMono() {
+        Duration duration = Duration.ofMillis(100);
+        Mono.from(testee.decoratePublisherWithTimerMetric("any", Mono.delay(duration)))
+            .block();
+
+        assertThat(testee.getTimer("any").windowSnapshot().getValueAtPercentile(99))
+            .isGreaterThanOrEqualTo(duration.toNanos());
+    }
+
+    @Test
+    void timerShouldKeepTailAccuracy() {
+        HdrHistogramTimer timer = testee.getTimer("any");
+        for (int i = 0; i < 9990; i++) {
+            timer.record(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        for (int i = 0; i < 10; i++) {
+            timer.record(TimeUnit.SECONDS.toNanos(2));
+        }
+
+        Histogram snapshot = timer.windowSnapshot();
+        SoftAssertions.assertSoftly(softly -> {
+            softly.assertThat(snapshot.getValueAtPercentile(99.9))
+                .isCloseTo(TimeUnit.MILLISECONDS.toNanos(1), withPercentage(0.1));
+            softly.assertThat(snapshot.getValueAtPercentile(99.95))
+                .isCloseTo(TimeUnit.SECONDS.toNanos(2), withPercentage(0.1));
+        });
+    }
+
+    @Test
+    void windowSnapshotShouldNotConsumeRecordedValues() {
+        HdrHistogramTimer timer = testee.getTimer("any");
+        timer.record(10);
+        timer.windowSnapshot();
+
+        timer.record(20);
+        timer.record(30);
+
+        assertThat(timer.windowSnapshot().getTotalCount()).isEqualTo(3);
+    }
+
+    @Test
+    void windowSnapshotShouldContainValuesOfEveryIntervalOfTheWindow() {
+        AtomicLong nanoTime = new AtomicLong(0);
+        HdrHistogramTimer timer = new HdrHistogramTimer("any", Duration.ZERO, Duration.ofSeconds(10), 3, nanoTime::get);
+        timer.record(10);
+        timer.windowSnapshot();
+        nanoTime.addAndGet(Duration.ofSeconds(20).toNanos());
+
+        timer.record(20);
+
+        assertThat(timer.windowSnapshot().getTotalCount()).isEqualTo(2);
+    }
+
+    @Test
+    void windowSnapshotShouldNotContainValuesOlderThanTheWindow() {
+        AtomicLong nanoTime = new AtomicLong(0);
+        HdrHistogramTimer timer = new HdrHistogramTimer("any", Duration.ZERO, Duration.ofSeconds(10), 3, nanoTime::get);
+        timer.record(10);
+        timer.windowSnapshot();
+        nanoTime.addAndGet(Duration.ofSeconds(20).toNanos());
+        timer.record(20);
+        timer.windowSnapshot();
+
+        nanoTime.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertThat(timer.windowSnapshot().getTotalCount()).isEqualTo(1);
+    }
+
+    @Test
+    void windowSnapshotShouldBeEmptyAfterALongIdlePeriod() {
+        AtomicLong nanoTime = new AtomicLong(0);
+        HdrHistogramTimer timer = new HdrHistogramTimer("any", Duration.ZERO, Duration.ofSeconds(10), 3, nanoTime::get);
+        timer.record(10);
+        timer.windowSnapshot();
+
+        nanoTime.addAndGet(Duration.ofHours(1).toNanos());
+
+        assertThat(timer.windowSnapshot().getTotalCount()).isZero();
+    }
+
+    @Test
+    void countAndSumShouldBeCumulative() {
+        HdrHistogramTimer timer = testee.getTimer("any");
+        timer.record(10);
+        timer.windowSnapshot();
+        timer.record(20);
+
+        SoftAssertions.assertSoftly(softly -> {
+            softly.assertThat(timer.getCount()).isEqualTo(2);
+            softly.assertThat(timer.getSumInNanos()).isEqualTo(30);
+        });
+    }
+
+    @Test
+    void recordShouldClampValuesAboveTheHighestTrackableValue() {
+        HdrHistogramTimer timer = testee.getTimer("any");
+
+        timer.record(HdrHistogramTimer.HIGHEST_TRACKABLE_VALUE * 2);
+
+        assertThat(timer.windowSnapshot().getMaxValue())
+            .isCloseTo(HdrHistogramTimer.HIGHEST_TRACKABLE_VALUE, withPercentage(0.1));
+    }
+
+    @Test
+    void p99ShouldNotDependOnWindowSnapshots() {
+        HdrHistogramTimer timer = new HdrHistogramTimer("any", Duration.ZERO);
+        timer.record(TimeUnit.MILLISECONDS.toNanos(10));
+
+        assertThat(timer.p99().toNanos())
+            .isCloseTo(TimeUnit.MILLISECONDS.toNanos(10), withPercentage(0.1));
+    }
+
+    @Test
+    void windowSnapshotsShouldNotConsumeTheValuesOfP99() {
+        HdrHistogramTimer timer = new HdrHistogramTimer("any", Duration.ZERO);
+        timer.record(TimeUnit.MILLISECONDS.toNanos(10));
+
+        timer.windowSnapshot();
+
+        assertThat(timer.p99().toNanos())
+            .isCloseTo(TimeUnit.MILLISECONDS.toNanos(10), withPercentage(0.1));
+    }
+
+    @Test
+    void p99ShouldBeKeptWhenNoValueWasRecordedSinceThePreviousRefresh() {
+        HdrHistogramTimer timer = new HdrHistogramTimer("any", Duration.ZERO);
+        timer.record(TimeUnit.MILLISECONDS.toNanos(10));
+        timer.p99();
+
+        assertThat(timer.p99().toNanos())
+            .isCloseTo(TimeUnit.MILLISECONDS.toNanos(10), withPercentage(0.1));
+    }
+
+    @Test
+    void p99ShouldNotBeRefreshedWithinTheRefreshInterval() {
+        HdrHistogramTimer timer = new HdrHistogramTimer("any", Duration.ofHours(1));
+        timer.record(TimeUnit.MILLISECONDS.toNanos(10));
+        timer.p99();
+
+        timer.record(TimeUnit.SECONDS.toNanos(10));
+
+        assertThat(timer.p99().toNanos())
+            .isCloseTo(TimeUnit.MILLISECONDS.toNanos(10), withPercentage(0.1));
+    }
+}
@@ -58,6 +58,13 @@ public abstract class Listing implements ImapTestConstants {
             .run("ListPercentWildcard");
     }
 
+    @Test
+    public void testListStatusUS() throws Exception {
+        simpleScriptedTestProtocol
+            .withLocale(Locale.US)
+            .run("ListStatus");
+    }
+
     @Test
     public void testListPlusKOREA() throws Exception {
         simpleScriptedTestProtocol
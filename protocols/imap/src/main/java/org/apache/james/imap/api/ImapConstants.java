@@ -198,6 +198,9 @@ public interface ImapConstants {
     ImapCommand FETCH_COMMAND = ImapCommand.selectedStateCommand("FETCH");
     ImapCommand MOVE_COMMAND = ImapCommand.selectedStateCommand("MOVE");
     ImapCommand SEARCH_COMMAND = ImapCommand.selectedStateCommand("SEARCH");
+    // RFC-5256 IMAP SORT and THREAD extensions
+    ImapCommand SORT_COMMAND = ImapCommand.selectedStateCommand("SORT");
+    ImapCommand THREAD_COMMAND = ImapCommand.selectedStateCommand("THREAD");
     ImapCommand STORE_COMMAND = ImapCommand.selectedStateCommand("STORE");
     ImapCommand UID_COMMAND = ImapCommand.selectedStateCommand("UID");
 
@@ -43,6 +43,11 @@ public enum SearchResultOption {
      */
     COUNT,
     
+    /**
+     * Return the matched messages within a range of positions of the result. See RFC5267
+     */
+    PARTIAL,
+
     /**
      * Save the last ESEARCH returned sequence-set's. 
      * 
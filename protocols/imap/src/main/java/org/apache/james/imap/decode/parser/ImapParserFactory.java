@@ -86,6 +86,9 @@ public class ImapParserFactory implements ImapCommandParserFactory {
             new CopyCommandParser(statusResponseFactory),
             new MoveCommandParser(statusResponseFactory),
             new SearchCommandParser(statusResponseFactory),
+            // RFC5256 SORT and THREAD
+            new SortCommandParser(statusResponseFactory),
+            new ThreadCommandParser(statusResponseFactory),
             new FetchCommandParser(statusResponseFactory),
             new StoreCommandParser(statusResponseFactory),
             new UidCommandParser(this, statusResponseFactory),
@@ -18,10 +18,16 @@
  ****************************************************************/
 package org.apache.james.imap.decode.parser;
 
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Optional;
+
 import org.apache.james.imap.api.ImapCommand;
 import org.apache.james.imap.api.ImapConstants;
 import org.apache.james.imap.api.ImapMessage;
 import org.apache.james.imap.api.Tag;
+import org.apache.james.imap.api.display.HumanReadableText;
+import org.apache.james.imap.api.message.StatusDataItems;
 import org.apache.james.imap.api.message.response.StatusResponseFactory;
 import org.apache.james.imap.api.process.ImapSession;
 import org.apache.james.imap.decode.DecodingException;
@@ -33,6 +39,9 @@ import org.apache.james.imap.message.request.ListRequest;
  * Parse LIST commands
  */
 public class ListCommandParser extends AbstractUidCommandParser {
+    private static final String RETURN = "RETURN";
+    private static final String STATUS = "STATUS";
+    private static final String CHILDREN = "CHILDREN";
 
     public ListCommandParser(StatusResponseFactory statusResponseFactory) {
         super(ImapConstants.LIST_COMMAND, statusResponseFactory);
@@ -75,11 +84,52 @@ public class ListCommandParser extends AbstractUidCommandParser {
     protected ImapMessage decode(ImapRequestLineReader request, Tag tag, boolean useUids, ImapSession session) throws DecodingException {
         String referenceName = request.mailbox();
         String mailboxPattern = listMailbox(request);
+        Optional<StatusDataItems> statusDataItems = returnOptions(request);
         request.eol();
-        return createMessage(referenceName, mailboxPattern, tag);
+        return createMessage(referenceName, mailboxPattern, statusDataItems, tag);
+    }
+
+    /**
+     * Reads the optional return options (RFC-5258). Only the STATUS return option defined by RFC-5819 LIST-STATUS
+     * is retained: CHILDREN is accepted but children information is always returned anyway.
+     */
+    protected Optional<StatusDataItems> returnOptions(ImapRequestLineReader request) throws DecodingException {
+        if (!request.nextWordCharLenient().isPresent()) {
+            return Optional.empty();
+        }
+        if (!request.atom().equalsIgnoreCase(RETURN)) {
+            throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Unknown list option");
+        }
+        request.nextWordChar();
+        request.consumeChar('(');
+        Optional<StatusDataItems> statusDataItems = Optional.empty();
+        while (request.nextWordChar() != ')') {
+            String option = request.atom().toUpperCase(Locale.US);
+            if (option.equals(STATUS)) {
+                statusDataItems = Optional.of(statusDataItems(request));
+            } else if (!option.equals(CHILDREN)) {
+                throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Unsupported return option " + option);
+            }
+        }
+        request.consumeChar(')');
+        return statusDataItems;
+    }
+
+    private StatusDataItems statusDataItems(ImapRequestLineReader request) throws DecodingException {
+        request.nextWordChar();
+        request.consumeChar('(');
+        EnumSet<StatusDataItems.StatusItem> items = EnumSet.noneOf(StatusDataItems.StatusItem.class);
+        while (request.nextWordChar() != ')') {
+            items.add(StatusCommandParser.parseStatus(request.atom()));
+        }
+        request.consumeChar(')');
+        if (items.isEmpty()) {
+            throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Empty STATUS return option");
+        }
+        return new StatusDataItems(items);
     }
 
-    protected ImapMessage createMessage(String referenceName, String mailboxPattern, Tag tag) {
-        return new ListRequest(referenceName, mailboxPattern, tag);
+    protected ImapMessage createMessage(String referenceName, String mailboxPattern, Optional<StatusDataItems> statusDataItems, Tag tag) {
+        return new ListRequest(referenceName, mailboxPattern, statusDataItems, tag);
     }
 }
@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import org.apache.james.imap.api.ImapCommand;
 import org.apache.james.imap.api.ImapConstants;
 import org.apache.james.imap.api.ImapMessage;
 import org.apache.james.imap.api.Tag;
@@ -52,7 +53,11 @@ public class SearchCommandParser extends AbstractUidCommandParser {
     private static final Logger LOGGER = LoggerFactory.getLogger(SearchCommandParser.class);
 
     public SearchCommandParser(StatusResponseFactory statusResponseFactory) {
-        super(ImapConstants.SEARCH_COMMAND, statusResponseFactory);
+        this(ImapConstants.SEARCH_COMMAND, statusResponseFactory);
+    }
+
+    protected SearchCommandParser(ImapCommand command, StatusResponseFactory statusResponseFactory) {
+        super(command, statusResponseFactory);
     }
 
     /**
@@ -882,15 +887,26 @@ public class SearchCommandParser extends AbstractUidCommandParser {
     }
 
     public SearchKey decode(ImapSession session, ImapRequestLineReader request) throws DecodingException, IllegalCharsetNameException, UnsupportedCharsetException {
+        return decode(session, request, null, true);
+    }
+
+    /**
+     * Parses the search criteria of commands specifying the charset on their own, like SORT and THREAD.
+     */
+    protected SearchKey decode(ImapSession session, ImapRequestLineReader request, Charset charset) throws DecodingException, IllegalCharsetNameException, UnsupportedCharsetException {
+        return decode(session, request, charset, false);
+    }
+
+    private SearchKey decode(ImapSession session, ImapRequestLineReader request, Charset charset, boolean isFirstToken) throws DecodingException, IllegalCharsetNameException, UnsupportedCharsetException {
         request.nextWordChar();
-        final SearchKey firstKey = searchKey(session, request, null, true);
+        final SearchKey firstKey = searchKey(session, request, charset, isFirstToken);
         final SearchKey result;
         if (request.nextChar() == ' ') {
             List<SearchKey> keys = new ArrayList<>();
             keys.add(firstKey);
             while (request.nextChar() == ' ') {
                 request.nextWordChar();
-                final SearchKey key = searchKey(session, request, null, false);
+                final SearchKey key = searchKey(session, request, charset, false);
                 keys.add(key);
             }
             result = SearchKey.buildAnd(keys);
@@ -901,9 +917,9 @@ public class SearchCommandParser extends AbstractUidCommandParser {
         return result;
     }
 
-    private ImapMessage unsupportedCharset(Tag tag) {
+    protected ImapMessage unsupportedCharset(Tag tag) {
         final ResponseCode badCharset = StatusResponse.ResponseCode.badCharset();
-        return taggedNo(tag, ImapConstants.SEARCH_COMMAND, HumanReadableText.BAD_CHARSET, badCharset);
+        return taggedNo(tag, getCommand(), HumanReadableText.BAD_CHARSET, badCharset);
     }
 
     /**
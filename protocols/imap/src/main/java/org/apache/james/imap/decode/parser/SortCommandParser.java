@@ -0,0 +1,187 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imap.decode.parser;
+
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+import org.apache.james.imap.api.ImapConstants;
+import org.apache.james.imap.api.ImapMessage;
+import org.apache.james.imap.api.Tag;
+import org.apache.james.imap.api.display.HumanReadableText;
+import org.apache.james.imap.api.message.IdRange;
+import org.apache.james.imap.api.message.request.SearchKey;
+import org.apache.james.imap.api.message.request.SearchOperation;
+import org.apache.james.imap.api.message.request.SearchResultOption;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.api.process.ImapSession;
+import org.apache.james.imap.decode.DecodingException;
+import org.apache.james.imap.decode.ImapRequestLineReader;
+import org.apache.james.imap.message.request.SortRequest;
+import org.apache.james.mailbox.model.SearchQuery;
+import org.apache.james.mailbox.model.SearchQuery.Sort.Order;
+import org.apache.james.mailbox.model.SearchQuery.Sort.SortClause;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Parse SORT commands, see RFC5256. Result options from RFC5267 ESORT are supported.
+ */
+public class SortCommandParser extends SearchCommandParser {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SortCommandParser.class);
+    private static final String PARTIAL = "PARTIAL";
+    private static final String RETURN = "RETURN";
+    private static final String REVERSE = "REVERSE";
+
+    public SortCommandParser(StatusResponseFactory statusResponseFactory) {
+        super(ImapConstants.SORT_COMMAND, statusResponseFactory);
+    }
+
+    @Override
+    protected ImapMessage decode(ImapRequestLineReader request, Tag tag, boolean useUids, ImapSession session) throws DecodingException {
+        try {
+            ImmutableList.Builder<SearchResultOption> options = ImmutableList.builder();
+            Optional<IdRange> partialRange = Optional.empty();
+            if (ImapRequestLineReader.cap(request.nextWordChar()) == 'R') {
+                if (!request.atom().equalsIgnoreCase(RETURN)) {
+                    throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Unknown sort option");
+                }
+                request.nextWordChar();
+                request.consumeChar('(');
+                boolean empty = true;
+                while (request.nextWordChar() != ')') {
+                    String option = request.atom().toUpperCase(Locale.US);
+                    if (option.equals(PARTIAL)) {
+                        request.nextWordChar();
+                        partialRange = Optional.of(partialRange(request.atom()));
+                    }
+                    options.add(resultOption(option));
+                    empty = false;
+                }
+                request.consumeChar(')');
+                // RETURN () is a shortcut for ALL. See RFC4731 3.1
+                if (empty) {
+                    options.add(SearchResultOption.ALL);
+                }
+            }
+            List<SearchQuery.Sort> sorts = sortCriteria(request);
+            Charset charset = Charset.forName(request.astring());
+            SearchKey key = decode(session, request, charset);
+
+            return new SortRequest(sorts, new SearchOperation(key, options.build()), partialRange, useUids, tag);
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+            LOGGER.debug("Unable to decode request", e);
+            return unsupportedCharset(tag);
+        }
+    }
+
+    private SearchResultOption resultOption(String option) throws DecodingException {
+        switch (option) {
+            case "ALL":
+                return SearchResultOption.ALL;
+            case "COUNT":
+                return SearchResultOption.COUNT;
+            case "MAX":
+                return SearchResultOption.MAX;
+            case "MIN":
+                return SearchResultOption.MIN;
+            case PARTIAL:
+                return SearchResultOption.PARTIAL;
+            case "SAVE":
+                throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "SAVE result option is not supported by SORT");
+            default:
+                throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Unknown sort result option " + option);
+        }
+    }
+
+    /**
+     * RFC5267: partial-range = nz-number ":" nz-number. A range 500:400 is the same as 400:500.
+     */
+    private IdRange partialRange(String range) throws DecodingException {
+        int separator = range.indexOf(':');
+        if (separator == -1) {
+            throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Invalid partial range " + range);
+        }
+        long first = nzNumber(range.substring(0, separator));
+        long second = nzNumber(range.substring(separator + 1));
+        return new IdRange(Math.min(first, second), Math.max(first, second));
+    }
+
+    private long nzNumber(String value) throws DecodingException {
+        try {
+            long number = Long.parseLong(value);
+            if (number < 1) {
+                throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Invalid partial range bound " + value);
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Invalid partial range bound " + value, e);
+        }
+    }
+
+    private List<SearchQuery.Sort> sortCriteria(ImapRequestLineReader request) throws DecodingException {
+        request.nextWordChar();
+        request.consumeChar('(');
+        ImmutableList.Builder<SearchQuery.Sort> sorts = ImmutableList.builder();
+        Order order = Order.NATURAL;
+        while (request.nextWordChar() != ')') {
+            String criterion = request.atom().toUpperCase(Locale.US);
+            if (criterion.equals(REVERSE)) {
+                order = Order.REVERSE;
+            } else {
+                sorts.add(new SearchQuery.Sort(sortClause(criterion), order));
+                order = Order.NATURAL;
+            }
+        }
+        request.consumeChar(')');
+
+        ImmutableList<SearchQuery.Sort> result = sorts.build();
+        if (result.isEmpty() || order == Order.REVERSE) {
+            throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Invalid sort criteria");
+        }
+        return result;
+    }
+
+    private SortClause sortClause(String criterion) throws DecodingException {
+        switch (criterion) {
+            case "ARRIVAL":
+                return SortClause.Arrival;
+            case "CC":
+                return SortClause.MailboxCc;
+            case "DATE":
+                return SortClause.SentDate;
+            case "FROM":
+                return SortClause.MailboxFrom;
+            case "SIZE":
+                return SortClause.Size;
+            case "SUBJECT":
+                return SortClause.BaseSubject;
+            case "TO":
+                return SortClause.MailboxTo;
+            default:
+                throw new DecodingException(HumanReadableText.ILLEGAL_ARGUMENTS, "Unknown sort criterion " + criterion);
+        }
+    }
+}
@@ -71,6 +71,9 @@ public class ESearchResponseEncoder implements ImapResponseEncoder<ESearchRespon
             composer.message(SearchResultOption.ALL.name());
             composer.sequenceSet(allUids);
         }
+        if (response.getPartialRange() != null && options.contains(SearchResultOption.PARTIAL)) {
+            encodePartial(response, composer);
+        }
         
         // Add the MODSEQ to the response if needed. 
         //
@@ -81,4 +84,23 @@ public class ESearchResponseEncoder implements ImapResponseEncoder<ESearchRespon
         }
         composer.end();
     }
+
+    /**
+     * RFC5267: "PARTIAL" SP "(" partial-range SP partial-results ")", with NIL partial-results when no message
+     * matches within the requested range.
+     */
+    private void encodePartial(ESearchResponse response, ImapResponseComposer composer) throws IOException {
+        IdRange partialRange = response.getPartialRange();
+        composer.message(SearchResultOption.PARTIAL.name())
+            .openParen()
+            .message(partialRange.getLowVal() + ":" + partialRange.getHighVal());
+        if (response.getUseUid() && response.getPartialUids() != null && response.getPartialUids().length > 0) {
+            composer.sequenceSet(response.getPartialUids());
+        } else if (!response.getUseUid() && response.getPartial() != null && response.getPartial().length > 0) {
+            composer.sequenceSet(response.getPartial());
+        } else {
+            composer.nil();
+        }
+        composer.closeParen();
+    }
 }
@@ -0,0 +1,79 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imap.message.request;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.james.imap.api.ImapConstants;
+import org.apache.james.imap.api.Tag;
+import org.apache.james.imap.api.message.IdRange;
+import org.apache.james.imap.api.message.request.SearchOperation;
+import org.apache.james.mailbox.model.SearchQuery;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+
+public class SortRequest extends AbstractImapRequest {
+    private final List<SearchQuery.Sort> sorts;
+    private final SearchOperation operation;
+    private final boolean useUids;
+    private final Optional<IdRange> partialRange;
+
+    public SortRequest(List<SearchQuery.Sort> sorts, SearchOperation operation, boolean useUids, Tag tag) {
+        this(sorts, operation, Optional.empty(), useUids, tag);
+    }
+
+    public SortRequest(List<SearchQuery.Sort> sorts, SearchOperation operation, Optional<IdRange> partialRange, boolean useUids, Tag tag) {
+        super(tag, ImapConstants.SORT_COMMAND);
+        this.sorts = ImmutableList.copyOf(sorts);
+        this.operation = operation;
+        this.partialRange = partialRange;
+        this.useUids = useUids;
+    }
+
+    public final List<SearchQuery.Sort> getSorts() {
+        return sorts;
+    }
+
+    public final SearchOperation getSearchOperation() {
+        return operation;
+    }
+
+    public final boolean isUseUids() {
+        return useUids;
+    }
+
+    /**
+     * @return the 1-based positions, within the sorted result, requested by the PARTIAL result option
+     */
+    public final Optional<IdRange> getPartialRange() {
+        return partialRange;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("sorts", sorts)
+            .add("operation", operation)
+            .add("partialRange", partialRange)
+            .add("useUids", useUids)
+            .toString();
+    }
+}
@@ -38,8 +38,16 @@ public class ESearchResponse implements ImapResponseMessage {
     private final List<SearchResultOption> options;
     private final ModSeq highestModSeq;
     private UidRange[] allUids;
+    private final IdRange partialRange;
+    private final IdRange[] partial;
+    private final UidRange[] partialUids;
 
     public ESearchResponse(long minUid, long maxUid, long count, IdRange[] all, UidRange[] allUids, ModSeq highestModSeq, Tag tag, boolean useUid, List<SearchResultOption> options) {
+        this(minUid, maxUid, count, all, allUids, null, null, null, highestModSeq, tag, useUid, options);
+    }
+
+    public ESearchResponse(long minUid, long maxUid, long count, IdRange[] all, UidRange[] allUids, IdRange partialRange, IdRange[] partial, UidRange[] partialUids,
+                           ModSeq highestModSeq, Tag tag, boolean useUid, List<SearchResultOption> options) {
         this.options = options;
         this.minUid = minUid;
         this.maxUid = maxUid;
@@ -49,6 +57,9 @@ public class ESearchResponse implements ImapResponseMessage {
         this.allUids = allUids;
         this.useUid = useUid;
         this.highestModSeq = highestModSeq;
+        this.partialRange = partialRange;
+        this.partial = partial;
+        this.partialUids = partialUids;
     }
     
     public final long getCount() {
@@ -71,6 +82,18 @@ public class ESearchResponse implements ImapResponseMessage {
         return allUids;
     }
     
+    public IdRange getPartialRange() {
+        return partialRange;
+    }
+
+    public IdRange[] getPartial() {
+        return partial;
+    }
+
+    public UidRange[] getPartialUids() {
+        return partialUids;
+    }
+
     public Tag getTag() {
         return tag;
     }
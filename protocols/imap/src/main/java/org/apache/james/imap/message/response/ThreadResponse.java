@@ -0,0 +1,121 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imap.message.response;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.apache.james.imap.api.message.response.ImapResponseMessage;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * A <code>THREAD</code> response, see RFC5256.
+ */
+public class ThreadResponse implements ImapResponseMessage {
+
+    /**
+     * A message of a thread, along with its replies.
+     */
+    public static class Node {
+        public static Node of(long id, List<Node> children) {
+            return new Node(id, children);
+        }
+
+        public static Node of(long id) {
+            return new Node(id, ImmutableList.of());
+        }
+
+        private final long id;
+        private final List<Node> children;
+
+        private Node(long id, List<Node> children) {
+            this.id = id;
+            this.children = ImmutableList.copyOf(children);
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public List<Node> getChildren() {
+            return children;
+        }
+
+        @Override
+        public final boolean equals(Object o) {
+            if (o instanceof Node) {
+                Node that = (Node) o;
+
+                return Objects.equals(this.id, that.id)
+                    && Objects.equals(this.children, that.children);
+            }
+            return false;
+        }
+
+        @Override
+        public final int hashCode() {
+            return Objects.hash(id, children);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                .add("id", id)
+                .add("children", children)
+                .toString();
+        }
+    }
+
+    private final List<Node> threads;
+
+    public ThreadResponse(List<Node> threads) {
+        this.threads = ImmutableList.copyOf(threads);
+    }
+
+    /**
+     * @return the root message of each thread
+     */
+    public List<Node> getThreads() {
+        return threads;
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof ThreadResponse) {
+            ThreadResponse that = (ThreadResponse) o;
+
+            return Objects.equals(this.threads, that.threads);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(threads);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("threads", threads)
+            .toString();
+    }
+}
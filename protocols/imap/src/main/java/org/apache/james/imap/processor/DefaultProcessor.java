@@ -83,6 +83,8 @@ public class DefaultProcessor implements ImapProcessor {
         builder.add(new XListProcessor(mailboxManager, statusResponseFactory, mailboxTyper, metricFactory));
         builder.add(new ListProcessor<>(mailboxManager, statusResponseFactory, metricFactory));
         builder.add(new SearchProcessor(mailboxManager, statusResponseFactory, metricFactory));
+        builder.add(new SortProcessor(mailboxManager, statusResponseFactory, metricFactory));
+        builder.add(new ThreadProcessor(mailboxManager, statusResponseFactory, metricFactory));
         SelectProcessor selectProcessor = new SelectProcessor(mailboxManager, eventBus, statusResponseFactory, metricFactory);
         builder.add(selectProcessor);
         builder.add(new NamespaceProcessor(mailboxManager, statusResponseFactory, metricFactory));
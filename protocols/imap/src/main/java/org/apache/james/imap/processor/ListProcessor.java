@@ -19,11 +19,17 @@
 
 package org.apache.james.imap.processor;
 
+import static org.apache.james.mailbox.MailboxManager.MailboxSearchFetchType.Counters;
 import static org.apache.james.mailbox.MailboxManager.MailboxSearchFetchType.Minimal;
 import static org.apache.james.util.ReactorUtils.logOnError;
 
+import java.util.List;
+import java.util.Optional;
+
 import org.apache.james.imap.api.display.HumanReadableText;
 import org.apache.james.imap.api.display.ModifiedUtf7;
+import org.apache.james.imap.api.message.Capability;
+import org.apache.james.imap.api.message.StatusDataItems;
 import org.apache.james.imap.api.message.response.ImapResponseMessage;
 import org.apache.james.imap.api.message.response.StatusResponseFactory;
 import org.apache.james.imap.api.process.ImapSession;
@@ -31,10 +37,13 @@ import org.apache.james.imap.api.process.MailboxType;
 import org.apache.james.imap.main.PathConverter;
 import org.apache.james.imap.message.request.ListRequest;
 import org.apache.james.imap.message.response.ListResponse;
+import org.apache.james.imap.message.response.MailboxStatusResponse;
 import org.apache.james.mailbox.MailboxManager;
 import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageManager;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.model.MailboxConstants;
+import org.apache.james.mailbox.model.MailboxCounters;
 import org.apache.james.mailbox.model.MailboxMetaData;
 import org.apache.james.mailbox.model.MailboxPath;
 import org.apache.james.mailbox.model.search.MailboxQuery;
@@ -45,10 +54,14 @@ import org.apache.james.util.MDCBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.github.fge.lambdas.Throwing;
+import com.google.common.collect.ImmutableList;
+
 import reactor.core.publisher.Mono;
 
-public class ListProcessor<T extends ListRequest> extends AbstractMailboxProcessor<T> {
+public class ListProcessor<T extends ListRequest> extends AbstractMailboxProcessor<T> implements CapabilityImplementingProcessor {
     private static final Logger LOGGER = LoggerFactory.getLogger(ListProcessor.class);
+    private static final List<Capability> CAPS = ImmutableList.of(Capability.of("LIST-STATUS"));
 
     public ListProcessor(MailboxManager mailboxManager, StatusResponseFactory factory, MetricFactory metricFactory) {
         this((Class<T>) ListRequest.class, mailboxManager, factory, metricFactory);
@@ -58,6 +71,11 @@ public class ListProcessor<T extends ListRequest> extends AbstractMailboxProcess
         super(clazz, mailboxManager, factory, metricFactory);
     }
 
+    @Override
+    public List<Capability> getImplementedCapabilities(ImapSession session) {
+        return CAPS;
+    }
+
     /**
      * (from rfc3501)<br>
      * The LIST command returns a subset of names from the complete set of all
@@ -77,7 +95,7 @@ public class ListProcessor<T extends ListRequest> extends AbstractMailboxProcess
         String mailboxPatternString = request.getMailboxPattern();
         MailboxSession mailboxSession = session.getMailboxSession();
 
-        return respond(session, responder, baseReferenceName, mailboxPatternString, mailboxSession)
+        return respond(session, responder, baseReferenceName, mailboxPatternString, request.getStatusDataItems(), mailboxSession)
             .then(Mono.fromRunnable(() -> okComplete(request, responder)))
             .doOnEach(logOnError(MailboxException.class, e -> LOGGER.error("List failed for mailboxName {}", mailboxPatternString, e)))
             .onErrorResume(MailboxException.class, e -> {
@@ -87,11 +105,12 @@ public class ListProcessor<T extends ListRequest> extends AbstractMailboxProcess
             .then();
     }
 
-    private Mono<Void> respond(ImapSession session, Responder responder, String baseReferenceName, String mailboxPatternString, MailboxSession mailboxSession) {
+    private Mono<Void> respond(ImapSession session, Responder responder, String baseReferenceName, String mailboxPatternString,
+                               Optional<StatusDataItems> statusDataItems, MailboxSession mailboxSession) {
         if (mailboxPatternString.length() == 0) {
             return Mono.fromRunnable(() -> respondNamespace(baseReferenceName, responder, mailboxSession));
         } else {
-            return respondMailboxList(baseReferenceName, mailboxPatternString, session, responder, mailboxSession);
+            return respondMailboxList(baseReferenceName, mailboxPatternString, statusDataItems, session, responder, mailboxSession);
         }
     }
 
@@ -128,7 +147,8 @@ public class ListProcessor<T extends ListRequest> extends AbstractMailboxProcess
         }
     }
 
-    private Mono<Void> respondMailboxList(String referenceName, String mailboxName, ImapSession session, Responder responder, MailboxSession mailboxSession) {
+    private Mono<Void> respondMailboxList(String referenceName, String mailboxName, Optional<StatusDataItems> statusDataItems,
+                                          ImapSession session, Responder responder, MailboxSession mailboxSession) {
         // If the mailboxPattern is fully qualified, ignore the
         // reference name.
         String finalReferencename = referenceName;
@@ -141,11 +161,75 @@ public class ListProcessor<T extends ListRequest> extends AbstractMailboxProcess
 
         MailboxPath basePath = computeBasePath(session, finalReferencename, isRelative);
 
+        if (statusDataItems.isPresent()) {
+            return respondMailboxListWithStatus(mailboxQuery(basePath, mailboxName, mailboxSession), isRelative, statusDataItems.get(),
+                session, responder, mailboxSession);
+        }
         return getMailboxManager().search(mailboxQuery(basePath, mailboxName, mailboxSession), Minimal, mailboxSession)
             .doOnNext(metaData -> processResult(responder, isRelative, metaData, getMailboxType(session, metaData.getPath())))
             .then();
     }
 
+    /**
+     * (from rfc5819) LIST-STATUS: the STATUS of each listed, selectable mailbox is returned right after its LIST
+     * response, thus avoiding a STATUS round trip per mailbox.
+     *
+     * MESSAGES and UNSEEN only require the mailbox counters, which the mailbox manager retrieves in bulk along with the
+     * listing. Other status items need the full metadata of each mailbox.
+     */
+    private Mono<Void> respondMailboxListWithStatus(MailboxQuery mailboxQuery, boolean isRelative, StatusDataItems statusDataItems,
+                                                    ImapSession session, Responder responder, MailboxSession mailboxSession) {
+        boolean countersOnly = !statusDataItems.isRecent()
+            && !statusDataItems.isUidNext()
+            && !statusDataItems.isUidValidity()
+            && !statusDataItems.isHighestModSeq();
+
+        return getMailboxManager().search(mailboxQuery, countersOnly ? Counters : Minimal, mailboxSession)
+            .concatMap(metaData -> {
+                String mailboxName = processResult(responder, isRelative, metaData, getMailboxType(session, metaData.getPath()));
+                if (metaData.getSelectability() == MailboxMetaData.Selectability.NOSELECT) {
+                    return Mono.empty();
+                }
+                String encodedMailboxName = ModifiedUtf7.encodeModifiedUTF7(mailboxName);
+                if (countersOnly) {
+                    // Counters are missing for the mailboxes the user can not read: their status is omitted
+                    return Mono.justOrEmpty(metaData.getKnownCounters())
+                        .doOnNext(counters -> responder.respond(countersStatusResponse(encodedMailboxName, statusDataItems, counters)))
+                        .then();
+                }
+                return respondStatus(metaData, encodedMailboxName, statusDataItems, session, responder, mailboxSession);
+            })
+            .then();
+    }
+
+    private MailboxStatusResponse countersStatusResponse(String mailboxName, StatusDataItems statusDataItems, MailboxCounters counters) {
+        Long messages = statusDataItems.isMessages() ? counters.getCount() : null;
+        Long unseen = statusDataItems.isUnseen() ? counters.getUnseen() : null;
+        return new MailboxStatusResponse(messages, null, null, null, null, unseen, mailboxName);
+    }
+
+    private Mono<Void> respondStatus(MailboxMetaData listResult, String mailboxName, StatusDataItems statusDataItems,
+                                     ImapSession session, Responder responder, MailboxSession mailboxSession) {
+        MessageManager.MailboxMetaData.FetchGroup fetchGroup = StatusProcessor.computeFetchGroup(statusDataItems);
+
+        return Mono.from(getMailboxManager().getMailboxReactive(listResult.getId(), mailboxSession))
+            .flatMap(Throwing.function(mailbox -> mailbox.getMetaDataReactive(false, mailboxSession, fetchGroup)))
+            .doOnNext(metaData -> {
+                MailboxStatusResponse response = StatusProcessor.computeStatusResponse(mailboxName, statusDataItems, metaData);
+                // Enable CONDSTORE as this is a CONDSTORE enabling command
+                if (response.getHighestModSeq() != null) {
+                    condstoreEnablingCommand(session, responder, metaData, false);
+                }
+                responder.respond(response);
+            })
+            // Status is omitted for the mailboxes it can not be computed for, for instance lacking the read right
+            .onErrorResume(MailboxException.class, e -> {
+                LOGGER.debug("Could not compute the status of {}", listResult.getPath(), e);
+                return Mono.empty();
+            })
+            .then();
+    }
+
     private MailboxQuery mailboxQuery(MailboxPath basePath, String mailboxName, MailboxSession mailboxSession) {
         if (basePath.getNamespace().equals(MailboxConstants.USER_NAMESPACE)
             && basePath.getUser().equals(mailboxSession.getUser())
@@ -176,7 +260,7 @@ public class ListProcessor<T extends ListRequest> extends AbstractMailboxProcess
         }
     }
 
-    private void processResult(Responder responder, boolean relative, MailboxMetaData listResult, MailboxType mailboxType) {
+    private String processResult(Responder responder, boolean relative, MailboxMetaData listResult, MailboxType mailboxType) {
         String mailboxName = mailboxName(relative, listResult.getPath(), listResult.getHierarchyDelimiter());
 
         ImapResponseMessage response =
@@ -187,6 +271,7 @@ public class ListProcessor<T extends ListRequest> extends AbstractMailboxProcess
                 listResult.getHierarchyDelimiter(),
                 mailboxType);
         responder.respond(response);
+        return mailboxName;
     }
 
     /**
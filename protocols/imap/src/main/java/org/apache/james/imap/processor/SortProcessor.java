@@ -0,0 +1,161 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imap.processor;
+
+import static org.apache.james.util.ReactorUtils.logOnError;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.james.imap.api.display.HumanReadableText;
+import org.apache.james.imap.api.message.Capability;
+import org.apache.james.imap.api.message.IdRange;
+import org.apache.james.imap.api.message.UidRange;
+import org.apache.james.imap.api.message.request.SearchResultOption;
+import org.apache.james.imap.api.message.response.ImapResponseMessage;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.api.process.ImapSession;
+import org.apache.james.imap.message.request.SortRequest;
+import org.apache.james.imap.message.response.ESearchResponse;
+import org.apache.james.imap.message.response.SortResponse;
+import org.apache.james.mailbox.MailboxManager;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.exception.MessageRangeException;
+import org.apache.james.mailbox.model.SearchQuery;
+import org.apache.james.mailbox.model.SearchQuery.Sort.SortClause;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.util.MDCBuilder;
+import org.apache.james.util.ReactorUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.fge.lambdas.Throwing;
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Implements SORT (RFC5256) and its ESORT result options (RFC5267).
+ *
+ * Sorting is delegated to the mailbox search index so that clients no longer need to fetch the headers of every
+ * message in order to sort them locally.
+ */
+public class SortProcessor extends AbstractMailboxProcessor<SortRequest> implements CapabilityImplementingProcessor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SortProcessor.class);
+    private static final List<Capability> CAPS = ImmutableList.of(Capability.of("SORT"), Capability.of("ESORT"));
+    private static final SearchQuery.Sort UID_SORT = new SearchQuery.Sort(SortClause.Uid);
+
+    public SortProcessor(MailboxManager mailboxManager, StatusResponseFactory factory, MetricFactory metricFactory) {
+        super(SortRequest.class, mailboxManager, factory, metricFactory);
+    }
+
+    @Override
+    protected Mono<Void> processRequestReactive(SortRequest request, ImapSession session, Responder responder) {
+        try {
+            MailboxSession mailboxSession = session.getMailboxSession();
+            SearchQuery query = SearchProcessor.toQueryBuilder(request.getSearchOperation().getSearchKey(), session)
+                .sorts(withUidTieBreaker(request.getSorts()))
+                .build();
+            boolean useUids = request.isUseUids();
+            return getSelectedMailboxReactive(session)
+                .flatMap(Throwing.function(mailbox -> Flux.from(mailbox.search(query, mailboxSession))
+                    .collect(ImmutableList.<MessageUid>toImmutableList())
+                    .doOnNext(uids -> responder.respond(toResponse(request, session, uids)))
+                    .then(unsolicitedResponses(session, responder, !useUids, useUids))))
+                .then(Mono.fromRunnable(() -> okComplete(request, responder)))
+                .then()
+                .doFinally(type -> session.setAttribute(SearchProcessor.SEARCH_MODSEQ, null))
+                .doOnEach(logOnError(MessageRangeException.class, e -> LOGGER.error("Sort failed in mailbox {}", session.getSelected().getMailboxId(), e)))
+                .onErrorResume(MessageRangeException.class, e -> {
+                    no(request, responder, HumanReadableText.SEARCH_FAILED);
+                    return Mono.empty();
+                });
+        } catch (MessageRangeException e) {
+            return ReactorUtils.logAsMono(() -> LOGGER.debug("Sort failed in mailbox {} because of an invalid sequence-set ", session.getSelected().getMailboxId(), e))
+                .then(Mono.fromRunnable(() -> taggedBad(request, responder, HumanReadableText.INVALID_MESSAGESET)));
+        }
+    }
+
+    /**
+     * RFC5256: If two or more messages exactly match according to the sorting criteria, these messages are sorted
+     * according to the order in which they appear in the mailbox.
+     */
+    private List<SearchQuery.Sort> withUidTieBreaker(List<SearchQuery.Sort> sorts) {
+        return ImmutableList.<SearchQuery.Sort>builder()
+            .addAll(sorts)
+            .add(UID_SORT)
+            .build();
+    }
+
+    private ImapResponseMessage toResponse(SortRequest request, ImapSession session, List<MessageUid> uids) {
+        Collection<Long> results = SearchProcessor.asResults(session, request.isUseUids(), uids);
+        long[] ids = results.stream().mapToLong(x -> x).toArray();
+
+        List<SearchResultOption> resultOptions = request.getSearchOperation().getResultOptions();
+        if (resultOptions.isEmpty()) {
+            return new SortResponse(ids);
+        }
+        // ESORT: MIN and MAX are the first and last messages in sort order, and ALL preserves the sort order
+        long min = -1;
+        long max = -1;
+        if (ids.length > 0) {
+            min = ids[0];
+            max = ids[ids.length - 1];
+        }
+        IdRange[] idRanges = results.stream()
+            .map(IdRange::new)
+            .toArray(IdRange[]::new);
+        UidRange[] uidRanges = uids.stream()
+            .map(UidRange::new)
+            .toArray(UidRange[]::new);
+        IdRange partialRange = request.getPartialRange().orElse(null);
+        return new ESearchResponse(min, max, ids.length, idRanges, uidRanges,
+            partialRange, partial(idRanges, partialRange), partial(uidRanges, partialRange),
+            null, request.getTag(), request.isUseUids(), resultOptions);
+    }
+
+    /**
+     * RFC5267 PARTIAL: the range designates 1-based positions within the sorted result.
+     */
+    private <T> T[] partial(T[] ranges, IdRange partialRange) {
+        if (partialRange == null) {
+            return null;
+        }
+        int from = (int) Math.min(partialRange.getLowVal() - 1, ranges.length);
+        int to = (int) Math.min(partialRange.getHighVal(), ranges.length);
+        return Arrays.copyOfRange(ranges, from, to);
+    }
+
+    @Override
+    public List<Capability> getImplementedCapabilities(ImapSession session) {
+        return CAPS;
+    }
+
+    @Override
+    protected MDCBuilder mdc(SortRequest request) {
+        return MDCBuilder.create()
+            .addToContext(MDCBuilder.ACTION, "SORT")
+            .addToContext("useUid", Boolean.toString(request.isUseUids()))
+            .addToContext("sorts", request.getSorts().toString())
+            .addToContext("searchOperation", request.getSearchOperation().toString());
+    }
+}
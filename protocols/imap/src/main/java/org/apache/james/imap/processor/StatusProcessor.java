@@ -63,7 +63,7 @@ public class StatusProcessor extends AbstractMailboxProcessor<StatusRequest> {
         return logInitialRequest(mailboxPath)
             .then(retrieveMetadata(mailboxPath, statusDataItems, mailboxSession))
             .doOnNext(metaData -> {
-                MailboxStatusResponse response = computeStatusResponse(request, statusDataItems, metaData);
+                MailboxStatusResponse response = computeStatusResponse(request.getMailboxName(), statusDataItems, metaData);
 
                 // Enable CONDSTORE as this is a CONDSTORE enabling command
                 if (response.getHighestModSeq() != null) {
@@ -96,17 +96,17 @@ public class StatusProcessor extends AbstractMailboxProcessor<StatusRequest> {
             .flatMap(Throwing.function(mailbox -> mailbox.getMetaDataReactive(false, mailboxSession, fetchGroup)));
     }
 
-    private MailboxStatusResponse computeStatusResponse(StatusRequest request, StatusDataItems statusDataItems, MessageManager.MailboxMetaData metaData) {
+    static MailboxStatusResponse computeStatusResponse(String mailboxName, StatusDataItems statusDataItems, MessageManager.MailboxMetaData metaData) {
         Long messages = messages(statusDataItems, metaData);
         Long recent = recent(statusDataItems, metaData);
         MessageUid uidNext = uidNext(statusDataItems, metaData);
         UidValidity uidValidity = uidValidity(statusDataItems, metaData);
         Long unseen = unseen(statusDataItems, metaData);
         ModSeq highestModSeq = highestModSeq(statusDataItems, metaData);
-        return new MailboxStatusResponse(messages, recent, uidNext, highestModSeq, uidValidity, unseen, request.getMailboxName());
+        return new MailboxStatusResponse(messages, recent, uidNext, highestModSeq, uidValidity, unseen, mailboxName);
     }
 
-    private MessageManager.MailboxMetaData.FetchGroup computeFetchGroup(StatusDataItems statusDataItems) {
+    static MessageManager.MailboxMetaData.FetchGroup computeFetchGroup(StatusDataItems statusDataItems) {
         if (statusDataItems.isUnseen()) {
             return MessageManager.MailboxMetaData.FetchGroup.UNSEEN_COUNT;
         } else {
@@ -114,7 +114,7 @@ public class StatusProcessor extends AbstractMailboxProcessor<StatusRequest> {
         }
     }
 
-    private Long unseen(StatusDataItems statusDataItems, MessageManager.MailboxMetaData metaData) {
+    private static Long unseen(StatusDataItems statusDataItems, MessageManager.MailboxMetaData metaData) {
         if (statusDataItems.isUnseen()) {
             return metaData.getUnseenCount();
         } else {
@@ -122,7 +122,7 @@ public class StatusProcessor extends AbstractMailboxProcessor<StatusRequest> {
         }
     }
 
-    private UidValidity uidValidity(StatusDataItems statusDataItems, MessageManager.MailboxMetaData metaData) {
+    private static UidValidity uidValidity(StatusDataItems statusDataItems, MessageManager.MailboxMetaData metaData) {
         if (statusDataItems.isUidValidity()) {
             return metaData.getUidValidity();
         } else {
@@ -130,7 +130,7 @@ public class StatusProcessor extends AbstractMailboxProcessor<StatusRequest> {
         }
     }
 
-    private ModSeq highestModSeq(StatusDataItems statusDataItems, MessageManager.MailboxMetaData metaData) {
+    private static ModSeq highestModSeq(StatusDataItems statusDataItems, MessageManager.MailboxMetaData metaData) {
         if (statusDataItems.isHighestModSeq()) {
             return metaData.getHighestModSeq();
         } else {
@@ -138,7 +138,7 @@ public class StatusProcessor extends AbstractMailboxProcessor<StatusRequest> {
         }
     }
     
-    private MessageUid uidNext(StatusDataItems statusDataItems, MessageManager.MailboxMetaData metaData) {
+    private static MessageUid uidNext(StatusDataItems statusDataItems, MessageManager.MailboxMetaData metaData) {
         if (statusDataItems.isUidNext()) {
             return metaData.getUidNext();
         } else {
@@ -146,7 +146,7 @@ public class StatusProcessor extends AbstractMailboxProcessor<StatusRequest> {
         }
     }
 
-    private Long recent(StatusDataItems statusDataItems, MessageManager.MailboxMetaData metaData) {
+    private static Long recent(StatusDataItems statusDataItems, MessageManager.MailboxMetaData metaData) {
         if (statusDataItems.isRecent()) {
             return metaData.countRecent();
         } else {
@@ -154,7 +154,7 @@ public class StatusProcessor extends AbstractMailboxProcessor<StatusRequest> {
         }
     }
 
-    private Long messages(StatusDataItems statusDataItems, MessageManager.MailboxMetaData metaData) {
+    private static Long messages(StatusDataItems statusDataItems, MessageManager.MailboxMetaData metaData) {
         if (statusDataItems.isMessages()) {
            return metaData.getMessageCount();
         } else {
@@ -0,0 +1,214 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imap.processor;
+
+import static org.apache.james.util.ReactorUtils.logOnError;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.james.imap.api.display.HumanReadableText;
+import org.apache.james.imap.api.message.Capability;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.api.process.ImapSession;
+import org.apache.james.imap.message.request.ThreadRequest;
+import org.apache.james.imap.message.response.ThreadResponse;
+import org.apache.james.mailbox.MailboxManager;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.exception.MessageRangeException;
+import org.apache.james.mailbox.model.ComposedMessageIdWithMetaData;
+import org.apache.james.mailbox.model.MessageRange;
+import org.apache.james.mailbox.model.SearchQuery;
+import org.apache.james.mailbox.model.SearchQuery.Sort.Order;
+import org.apache.james.mailbox.model.SearchQuery.Sort.SortClause;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.util.MDCBuilder;
+import org.apache.james.util.ReactorUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Implements THREAD (RFC5256).
+ *
+ * Messages are retrieved from the search index in sent date order then grouped:
+ *  - REFERENCES relies on the thread id computed upon delivery by the ThreadIdGuessingAlgorithm, thus only message
+ *  metadata needs to be read.
+ *  - ORDEREDSUBJECT groups messages by base subject. The grouping is computed by the search index as well, thus no
+ *  message content needs to be read.
+ *
+ * The first message of each group, by sent date, is the parent of the others. As the reply tree is not stored, replies
+ * of a REFERENCES thread are presented as siblings.
+ */
+public class ThreadProcessor extends AbstractMailboxProcessor<ThreadRequest> implements CapabilityImplementingProcessor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ThreadProcessor.class);
+    private static final List<Capability> CAPS = ImmutableList.of(Capability.of("THREAD=ORDEREDSUBJECT"), Capability.of("THREAD=REFERENCES"));
+    private static final List<SearchQuery.Sort> SENT_DATE_ORDER = ImmutableList.of(new SearchQuery.Sort(SortClause.SentDate), new SearchQuery.Sort(SortClause.Uid));
+    private static final List<SearchQuery.Sort> BASE_SUBJECT_ORDER = ImmutableList.of(new SearchQuery.Sort(SortClause.BaseSubject),
+        new SearchQuery.Sort(SortClause.SentDate), new SearchQuery.Sort(SortClause.Uid));
+    private static final List<SearchQuery.Sort> REVERSE_BASE_SUBJECT_ORDER = ImmutableList.of(new SearchQuery.Sort(SortClause.BaseSubject, Order.REVERSE),
+        new SearchQuery.Sort(SortClause.SentDate), new SearchQuery.Sort(SortClause.Uid));
+
+    public ThreadProcessor(MailboxManager mailboxManager, StatusResponseFactory factory, MetricFactory metricFactory) {
+        super(ThreadRequest.class, mailboxManager, factory, metricFactory);
+    }
+
+    @Override
+    protected Mono<Void> processRequestReactive(ThreadRequest request, ImapSession session, Responder responder) {
+        try {
+            MailboxSession mailboxSession = session.getMailboxSession();
+            SearchQuery.Builder queryBuilder = SearchProcessor.toQueryBuilder(request.getSearchKey(), session);
+            SearchQuery query = queryBuilder.sorts(SENT_DATE_ORDER).build();
+            boolean useUids = request.isUseUids();
+            return getSelectedMailboxReactive(session)
+                .flatMap(mailbox -> search(mailbox, query, mailboxSession)
+                    .flatMap(uids -> threads(request, session, mailbox, mailboxSession, queryBuilder, uids))
+                    .doOnNext(responder::respond)
+                    .then(unsolicitedResponses(session, responder, !useUids, useUids)))
+                .then(Mono.fromRunnable(() -> okComplete(request, responder)))
+                .then()
+                .doFinally(type -> session.setAttribute(SearchProcessor.SEARCH_MODSEQ, null))
+                .doOnEach(logOnError(MessageRangeException.class, e -> LOGGER.error("Thread failed in mailbox {}", session.getSelected().getMailboxId(), e)))
+                .onErrorResume(MessageRangeException.class, e -> {
+                    no(request, responder, HumanReadableText.SEARCH_FAILED);
+                    return Mono.empty();
+                });
+        } catch (MessageRangeException e) {
+            return ReactorUtils.logAsMono(() -> LOGGER.debug("Thread failed in mailbox {} because of an invalid sequence-set ", session.getSelected().getMailboxId(), e))
+                .then(Mono.fromRunnable(() -> taggedBad(request, responder, HumanReadableText.INVALID_MESSAGESET)));
+        }
+    }
+
+    private Mono<List<MessageUid>> search(MessageManager mailbox, SearchQuery query, MailboxSession mailboxSession) {
+        try {
+            return Flux.from(mailbox.search(query, mailboxSession))
+                .collect(ImmutableList.toImmutableList());
+        } catch (MailboxException e) {
+            return Mono.error(e);
+        }
+    }
+
+    private Mono<ThreadResponse> threads(ThreadRequest request, ImapSession session, MessageManager mailbox, MailboxSession mailboxSession,
+                                         SearchQuery.Builder queryBuilder, List<MessageUid> uids) {
+        if (uids.isEmpty()) {
+            return Mono.just(new ThreadResponse(ImmutableList.of()));
+        }
+        switch (request.getAlgorithm()) {
+            case REFERENCES:
+                return threadIds(mailbox, mailboxSession, uids)
+                    .map(threadIds -> toResponse(session, request.isUseUids(), uids, threadIds));
+            case ORDEREDSUBJECT:
+                return baseSubjectGroups(mailbox, mailboxSession, queryBuilder)
+                    .map(baseSubjectGroups -> toResponse(session, request.isUseUids(), uids, baseSubjectGroups));
+            default:
+                return Mono.error(new IllegalArgumentException("Unsupported thread algorithm " + request.getAlgorithm()));
+        }
+    }
+
+    private Mono<Map<MessageUid, Object>> threadIds(MessageManager mailbox, MailboxSession mailboxSession, List<MessageUid> uids) {
+        return Flux.fromIterable(MessageRange.toRanges(uids))
+            .concatMap(range -> mailbox.listMessagesMetadata(range, mailboxSession))
+            .<MessageUid, Object>collectMap(metaData -> metaData.getComposedMessageId().getUid(), ComposedMessageIdWithMetaData::getThreadId);
+    }
+
+    private Mono<Map<MessageUid, Object>> baseSubjectGroups(MessageManager mailbox, MailboxSession mailboxSession, SearchQuery.Builder queryBuilder) {
+        SearchQuery byBaseSubject = queryBuilder.sorts(BASE_SUBJECT_ORDER).build();
+        SearchQuery byReverseBaseSubject = queryBuilder.sorts(REVERSE_BASE_SUBJECT_ORDER).build();
+        return search(mailbox, byBaseSubject, mailboxSession)
+            .zipWith(search(mailbox, byReverseBaseSubject, mailboxSession))
+            .map(sorted -> baseSubjectGroups(sorted.getT1(), sorted.getT2()));
+    }
+
+    /**
+     * Reversing the base subject order reverses the order of the base subject groups but not the order of the messages
+     * within a group. Two consecutive messages in base subject order thus share their base subject if and only if they
+     * are consecutive in reverse base subject order as well.
+     *
+     * @return the first message of its base subject group for each message
+     */
+    private Map<MessageUid, Object> baseSubjectGroups(List<MessageUid> byBaseSubject, List<MessageUid> byReverseBaseSubject) {
+        Map<MessageUid, Integer> reversePositions = new HashMap<>();
+        for (int i = 0; i < byReverseBaseSubject.size(); i++) {
+            reversePositions.put(byReverseBaseSubject.get(i), i);
+        }
+        Map<MessageUid, Object> groups = new HashMap<>();
+        MessageUid groupHead = null;
+        Integer previousPosition = null;
+        for (MessageUid uid : byBaseSubject) {
+            Integer position = reversePositions.get(uid);
+            if (groupHead == null || position == null || previousPosition == null || position != previousPosition + 1) {
+                groupHead = uid;
+            }
+            groups.put(uid, groupHead);
+            previousPosition = position;
+        }
+        return groups;
+    }
+
+    /**
+     * @param uids matching messages in sent date order
+     * @param threadKeys value shared by the messages of a same thread
+     */
+    private ThreadResponse toResponse(ImapSession session, boolean useUids, List<MessageUid> uids, Map<MessageUid, Object> threadKeys) {
+        Map<Object, List<Long>> threads = new LinkedHashMap<>();
+        for (MessageUid uid : uids) {
+            toId(session, useUids, uid).ifPresent(id -> threads
+                .computeIfAbsent(threadKeys.getOrDefault(uid, uid), any -> new ArrayList<>())
+                .add(id));
+        }
+        return new ThreadResponse(threads.values()
+            .stream()
+            .map(ids -> ThreadResponse.Node.of(ids.get(0), ids.stream()
+                .skip(1)
+                .map(ThreadResponse.Node::of)
+                .collect(ImmutableList.toImmutableList())))
+            .collect(ImmutableList.toImmutableList()));
+    }
+
+    private Optional<Long> toId(ImapSession session, boolean useUids, MessageUid uid) {
+        return SearchProcessor.asResults(session, useUids, ImmutableList.of(uid))
+            .stream()
+            .findFirst();
+    }
+
+    @Override
+    public List<Capability> getImplementedCapabilities(ImapSession session) {
+        return CAPS;
+    }
+
+    @Override
+    protected MDCBuilder mdc(ThreadRequest request) {
+        return MDCBuilder.create()
+            .addToContext(MDCBuilder.ACTION, "THREAD")
+            .addToContext("useUid", Boolean.toString(request.isUseUids()))
+            .addToContext("algorithm", request.getAlgorithm().name())
+            .addToContext("searchKey", request.getSearchKey().toString());
+    }
+}
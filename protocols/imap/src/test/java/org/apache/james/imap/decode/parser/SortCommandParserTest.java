@@ -0,0 +1,171 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imap.decode.parser;
+
+import static org.apache.james.imap.ImapFixture.TAG;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.james.imap.api.ImapMessage;
+import org.apache.james.imap.api.message.IdRange;
+import org.apache.james.imap.api.message.request.SearchKey;
+import org.apache.james.imap.api.message.request.SearchResultOption;
+import org.apache.james.imap.api.message.response.StatusResponse;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.decode.DecodingException;
+import org.apache.james.imap.decode.ImapRequestStreamLineReader;
+import org.apache.james.imap.encode.FakeImapSession;
+import org.apache.james.imap.message.request.SortRequest;
+import org.apache.james.imap.message.response.UnpooledStatusResponseFactory;
+import org.apache.james.mailbox.model.SearchQuery.Sort;
+import org.apache.james.mailbox.model.SearchQuery.Sort.Order;
+import org.apache.james.mailbox.model.SearchQuery.Sort.SortClause;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SortCommandParserTest {
+    private SortCommandParser parser;
+
+    @BeforeEach
+    void setUp() {
+        parser = new SortCommandParser(mock(StatusResponseFactory.class));
+    }
+
+    private ImapMessage decode(String command) throws DecodingException {
+        ImapRequestStreamLineReader lineReader = new ImapRequestStreamLineReader(
+            new ByteArrayInputStream(command.getBytes(StandardCharsets.US_ASCII)), null);
+        return parser.decode(lineReader, TAG, new FakeImapSession());
+    }
+
+    @Test
+    void decodeShouldParseSortCriteria() throws Exception {
+        SortRequest request = (SortRequest) decode(" (REVERSE DATE subject) UTF-8 ALL\r\n");
+
+        assertThat(request.getSorts()).containsExactly(
+            new Sort(SortClause.SentDate, Order.REVERSE),
+            new Sort(SortClause.BaseSubject, Order.NATURAL));
+        assertThat(request.getSearchOperation().getSearchKey()).isEqualTo(SearchKey.buildAll());
+        assertThat(request.getSearchOperation().getResultOptions()).isEmpty();
+        assertThat(request.isUseUids()).isFalse();
+    }
+
+    @Test
+    void decodeShouldParseAllSortCriteria() throws Exception {
+        SortRequest request = (SortRequest) decode(" (ARRIVAL CC DATE FROM SIZE SUBJECT TO) US-ASCII ALL\r\n");
+
+        assertThat(request.getSorts()).containsExactly(
+            new Sort(SortClause.Arrival),
+            new Sort(SortClause.MailboxCc),
+            new Sort(SortClause.SentDate),
+            new Sort(SortClause.MailboxFrom),
+            new Sort(SortClause.Size),
+            new Sort(SortClause.BaseSubject),
+            new Sort(SortClause.MailboxTo));
+    }
+
+    @Test
+    void decodeShouldParseSearchCriteria() throws Exception {
+        SortRequest request = (SortRequest) decode(" (SUBJECT) UTF-8 SINCE 1-Feb-1994 DELETED\r\n");
+
+        assertThat(request.getSearchOperation().getSearchKey().getType()).isEqualTo(SearchKey.Type.TYPE_AND);
+        assertThat(request.getSearchOperation().getSearchKey().getKeys()).hasSize(2);
+    }
+
+    @Test
+    void decodeShouldParseReturnOptions() throws Exception {
+        SortRequest request = (SortRequest) decode(" RETURN (MIN COUNT) (DATE) UTF-8 ALL\r\n");
+
+        assertThat(request.getSearchOperation().getResultOptions())
+            .containsExactly(SearchResultOption.MIN, SearchResultOption.COUNT);
+        assertThat(request.getSorts()).containsExactly(new Sort(SortClause.SentDate));
+    }
+
+    @Test
+    void decodeShouldParsePartialReturnOption() throws Exception {
+        SortRequest request = (SortRequest) decode(" RETURN (COUNT PARTIAL 1:100) (DATE) UTF-8 ALL\r\n");
+
+        assertThat(request.getSearchOperation().getResultOptions())
+            .containsExactly(SearchResultOption.COUNT, SearchResultOption.PARTIAL);
+        assertThat(request.getPartialRange()).contains(new IdRange(1, 100));
+    }
+
+    @Test
+    void decodeShouldAcceptReversedPartialRange() throws Exception {
+        SortRequest request = (SortRequest) decode(" RETURN (PARTIAL 100:1) (DATE) UTF-8 ALL\r\n");
+
+        assertThat(request.getPartialRange()).contains(new IdRange(1, 100));
+    }
+
+    @Test
+    void decodeShouldRejectPartialRangeStartingAtZero() {
+        assertThatThrownBy(() -> decode(" RETURN (PARTIAL 0:10) (DATE) UTF-8 ALL\r\n"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void decodeShouldRejectInvalidPartialRange() {
+        assertThatThrownBy(() -> decode(" RETURN (PARTIAL 10) (DATE) UTF-8 ALL\r\n"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void decodeShouldTreatEmptyReturnOptionsAsAll() throws Exception {
+        SortRequest request = (SortRequest) decode(" RETURN () (DATE) UTF-8 ALL\r\n");
+
+        assertThat(request.getSearchOperation().getResultOptions())
+            .containsExactly(SearchResultOption.ALL);
+    }
+
+    @Test
+    void decodeShouldRejectSaveReturnOption() {
+        assertThatThrownBy(() -> decode(" RETURN (SAVE) (DATE) UTF-8 ALL\r\n"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void decodeShouldRejectEmptySortCriteria() {
+        assertThatThrownBy(() -> decode(" () UTF-8 ALL\r\n"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void decodeShouldRejectTrailingReverse() {
+        assertThatThrownBy(() -> decode(" (DATE REVERSE) UTF-8 ALL\r\n"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void decodeShouldRejectUnknownSortCriterion() {
+        assertThatThrownBy(() -> decode(" (COLOR) UTF-8 ALL\r\n"))
+            .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void decodeShouldReturnBadCharsetWhenUnknownCharset() throws Exception {
+        parser = new SortCommandParser(new UnpooledStatusResponseFactory());
+
+        StatusResponse response = (StatusResponse) decode(" (DATE) NOT-A-CHARSET ALL\r\n");
+
+        assertThat(response.getResponseCode()).isEqualTo(StatusResponse.ResponseCode.badCharset());
+    }
+}
@@ -0,0 +1,75 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imap.decode.parser;
+
+import static org.apache.james.imap.ImapFixture.TAG;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.james.imap.api.ImapMessage;
+import org.apache.james.imap.api.message.request.SearchKey;
+import org.apache.james.imap.api.message.request.ThreadAlgorithm;
+import org.apache.james.imap.api.message.response.StatusResponseFactory;
+import org.apache.james.imap.decode.DecodingException;
+import org.apache.james.imap.decode.ImapRequestStreamLineReader;
+import org.apache.james.imap.encode.FakeImapSession;
+import org.apache.james.imap.message.request.ThreadRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ThreadCommandParserTest {
+    private ThreadCommandParser parser;
+
+    @BeforeEach
+    void setUp() {
+        parser = new ThreadCommandParser(mock(StatusResponseFactory.class));
+    }
+
+    private ImapMessage decode(String command) throws DecodingException {
+        ImapRequestStreamLineReader lineReader = new ImapRequestStreamLineReader(
+            new ByteArrayInputStream(command.getBytes(StandardCharsets.US_ASCII)), null);
+        return parser.decode(lineReader, TAG, new FakeImapSession());
+    }
+
+    @Test
+    void decodeShouldParseReferences() throws Exception {
+        ThreadRequest request = (ThreadRequest) decode(" REFERENCES UTF-8 ALL\r\n");
+
+        assertThat(request.getAlgorithm()).isEqualTo(ThreadAlgorithm.REFERENCES);
+        assertThat(request.getSearchKey()).isEqualTo(SearchKey.buildAll());
+    }
+
+    @Test
+    void decodeShouldParseOrderedSubjectIgnoringCase() throws Exception {
+        ThreadRequest request = (ThreadRequest) decode(" orderedsubject US-ASCII UNSEEN\r\n");
+
+        assertThat(request.getAlgorithm()).isEqualTo(ThreadAlgorithm.ORDEREDSUBJECT);
+        assertThat(request.getSearchKey()).isEqualTo(SearchKey.buildUnseen());
+    }
+
+    @Test
+    void decodeShouldRejectUnknownAlgorithm() {
+        assertThatThrownBy(() -> decode(" UNKNOWN UTF-8 ALL\r\n"))
+            .isInstanceOf(DecodingException.class);
+    }
+}
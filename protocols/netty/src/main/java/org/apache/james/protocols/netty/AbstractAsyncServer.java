@@ -24,6 +24,8 @@ import java.util.List;
 
 import org.apache.james.protocols.api.ProtocolServer;
 import org.apache.james.util.concurrent.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.github.fge.lambdas.Throwing;
 import com.google.common.collect.ImmutableList;
@@ -35,9 +37,7 @@ import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.DefaultChannelGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.ImmediateEventExecutor;
 
@@ -47,8 +47,10 @@ import io.netty.util.concurrent.ImmediateEventExecutor;
  * Abstract base class for Servers which want to use async io
  */
 public abstract class AbstractAsyncServer implements ProtocolServer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AbstractAsyncServer.class);
 
     public static final int DEFAULT_IO_WORKER_COUNT = Runtime.getRuntime().availableProcessors() * 2;
+    public static final int DEFAULT_BOSS_WORKER_COUNT = 2;
     private volatile int backlog = 250;
     
     private volatile int timeout = 120;
@@ -61,6 +63,12 @@ public abstract class AbstractAsyncServer implements ProtocolServer {
     private final ChannelGroup channels = new DefaultChannelGroup(ImmediateEventExecutor.INSTANCE);
 
     private volatile int ioWorker = DEFAULT_IO_WORKER_COUNT;
+
+    private volatile int bossWorker = DEFAULT_BOSS_WORKER_COUNT;
+
+    private volatile NettyTransport transport = NettyTransport.NIO;
+
+    private volatile boolean reusePort = false;
     
     private List<InetSocketAddress> addresses = new ArrayList<>();
 
@@ -89,6 +97,37 @@ public abstract class AbstractAsyncServer implements ProtocolServer {
         this.ioWorker = ioWorker;
     }
 
+    /**
+     * Set the thread count accepting connections. Default is 2
+     */
+    public void setBossWorkerCount(int bossWorker) {
+        if (started) {
+            throw new IllegalStateException("Can only be set when the server is not running");
+        }
+        this.bossWorker = bossWorker;
+    }
+
+    /**
+     * Set the transport to use. Unavailable native transports fall back to NIO. Default is NIO
+     */
+    public void setTransport(NettyTransport transport) {
+        if (started) {
+            throw new IllegalStateException("Can only be set when the server is not running");
+        }
+        this.transport = transport;
+    }
+
+    /**
+     * Bind each address once per boss worker thread, sharing the port with SO_REUSEPORT, so that accepting
+     * connections scales with the boss worker count. Requires a transport supporting SO_REUSEPORT. Default is false
+     */
+    public void setReusePort(boolean reusePort) {
+        if (started) {
+            throw new IllegalStateException("Can only be set when the server is not running");
+        }
+        this.reusePort = reusePort;
+    }
+
     @Override
     public synchronized void bind() throws Exception {
         if (started) {
@@ -99,11 +138,12 @@ public abstract class AbstractAsyncServer implements ProtocolServer {
             throw new RuntimeException("Please specify at least on socketaddress to which the server should get bound!");
         }
 
+        NettyTransport effectiveTransport = transport.orFallbackToNio();
         ServerBootstrap bootstrap = new ServerBootstrap();
-        bootstrap.channel(NioServerSocketChannel.class);
+        bootstrap.channel(effectiveTransport.serverChannelClass());
 
-        bossGroup = new NioEventLoopGroup(2, NamedThreadFactory.withName(jmxName + "-boss"));
-        workerGroup = new NioEventLoopGroup(ioWorker, NamedThreadFactory.withName(jmxName + "-io"));
+        bossGroup = effectiveTransport.eventLoopGroup(bossWorker, NamedThreadFactory.withName(jmxName + "-boss"));
+        workerGroup = effectiveTransport.eventLoopGroup(ioWorker, NamedThreadFactory.withName(jmxName + "-io"));
 
         bootstrap.group(bossGroup, workerGroup);
 
@@ -114,9 +154,24 @@ public abstract class AbstractAsyncServer implements ProtocolServer {
 
         configureBootstrap(bootstrap);
 
+        int acceptorCount = 1;
+        if (reusePort) {
+            if (effectiveTransport.enableReusePort(bootstrap)) {
+                acceptorCount = bossWorker;
+            } else {
+                LOGGER.warn("{} transport does not support SO_REUSEPORT, {} will use a single acceptor per address", effectiveTransport, jmxName);
+            }
+        }
+
         for (InetSocketAddress address : addresses) {
             Channel channel = bootstrap.bind(address).sync().channel();
             channels.add(channel);
+
+            // Additional acceptors share the port effectively bound by the first one, which matters for ephemeral ports
+            InetSocketAddress boundAddress = (InetSocketAddress) channel.localAddress();
+            for (int i = 1; i < acceptorCount; i++) {
+                channels.add(bootstrap.bind(boundAddress).sync().channel());
+            }
         }
 
         started = true;
@@ -162,6 +217,7 @@ public abstract class AbstractAsyncServer implements ProtocolServer {
     public synchronized List<InetSocketAddress> getListenAddresses() {
         return channels.stream()
             .map(channel -> (InetSocketAddress) channel.localAddress())
+            .distinct()
             .collect(ImmutableList.toImmutableList());
     }
     
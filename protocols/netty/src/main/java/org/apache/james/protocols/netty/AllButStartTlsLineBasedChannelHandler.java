@@ -31,11 +31,10 @@ import com.google.common.base.Splitter;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPipeline;
-import io.netty.handler.codec.LineBasedFrameDecoder;
 import io.netty.util.AttributeKey;
 
 
-public class AllButStartTlsLineBasedChannelHandler extends LineBasedFrameDecoder {
+public class AllButStartTlsLineBasedChannelHandler extends ChunkAwareLineBasedFrameDecoder {
     private static final Boolean FAIL_FAST = true;
     private static final CharMatcher CRLF_MATCHER = CharMatcher.anyOf("\r\n");
     private static final Splitter CRLF_SPLITTER = Splitter.on(CRLF_MATCHER).omitEmptyStrings();
@@ -54,6 +53,9 @@ public class AllButStartTlsLineBasedChannelHandler extends LineBasedFrameDecoder
 
     @Override
     protected Object decode(ChannelHandlerContext ctx, ByteBuf buffer) throws Exception {
+        if (!isFramingLines()) {
+            return super.decode(ctx, buffer);
+        }
         CommandDetectionSession session = retrieveSession(ctx);
 
         if (session == null || session.needsCommandInjectionDetection()) {
@@ -47,6 +47,7 @@ import com.google.common.collect.Iterables;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.handler.codec.TooLongFrameException;
@@ -144,9 +145,17 @@ public class BasicChannelInboundHandler extends ChannelInboundHandlerAdapter imp
     /**
      * Call the {@link LineHandler} 
      */
-    @SuppressWarnings({ "unchecked", "rawtypes" })
     @Override
     public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        try {
+            processFrame(ctx, msg);
+        } finally {
+            notifyFramer(ctx, msg);
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void processFrame(ChannelHandlerContext ctx, Object msg) throws Exception {
         ChannelInboundHandlerAdapter override = Iterables.getFirst(behaviourOverrides, null);
         if (override != null) {
             override.channelRead(ctx, msg);
@@ -182,6 +191,18 @@ public class BasicChannelInboundHandler extends ChannelInboundHandlerAdapter imp
         }
     }
 
+    /**
+     * Framing might depend on how handlers processed the frame, see {@link ChunkAwareLineBasedFrameDecoder}.
+     */
+    private void notifyFramer(ChannelHandlerContext ctx, Object msg) {
+        ChannelHandler framer = ctx.pipeline().get(HandlerConstants.FRAMER);
+        if (framer instanceof ChunkAwareLineBasedFrameDecoder) {
+            Optional<Long> acceptedChunkSize = Optional.ofNullable((ProtocolSession) ctx.channel().attr(SESSION_ATTRIBUTE_KEY).get())
+                .flatMap(session -> session.removeAttachment(ChunkAwareLineBasedFrameDecoder.ACCEPTED_CHUNK_SIZE, Connection));
+            ((ChunkAwareLineBasedFrameDecoder) framer).onFrameProcessed(msg, acceptedChunkSize);
+        }
+    }
+
 
     /**
      * Cleanup the channel
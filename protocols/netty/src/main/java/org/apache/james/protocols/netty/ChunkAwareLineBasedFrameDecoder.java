@@ -0,0 +1,114 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.protocols.netty;
+
+import java.util.Optional;
+
+import org.apache.james.protocols.api.ProtocolSession;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.LineBasedFrameDecoder;
+
+/**
+ * {@link LineBasedFrameDecoder} which passes the bytes following some lines as is, for instance to transfer a message
+ * chunk whose size is announced by the preceding command.
+ *
+ * Only the protocol handlers know whether a line is a command announcing a chunk: the same bytes could be part of a
+ * message body, or a command rejected in the current state. As handlers might run on another thread than the
+ * decoder, framing is suspended after a line that {@link #mayAnnounceChunk(ByteBuf)}, until
+ * {@link #onFrameProcessed(Object, Optional)} reports the size of the chunk the handlers did accept, if any.
+ *
+ * Bytes of the chunk are emitted as soon as they are received, as slices of the received buffer, without waiting for
+ * the whole chunk. Line based framing resumes once the chunk had been fully read.
+ */
+public class ChunkAwareLineBasedFrameDecoder extends LineBasedFrameDecoder {
+    /**
+     * Set by protocol handlers accepting a command followed by a chunk of the given size.
+     */
+    public static final ProtocolSession.AttachmentKey<Long> ACCEPTED_CHUNK_SIZE = ProtocolSession.AttachmentKey.of("ACCEPTED_CHUNK_SIZE", Long.class);
+
+    private long remainingChunkBytes;
+    private volatile Object suspendingFrame;
+    private ChannelHandlerContext context;
+
+    public ChunkAwareLineBasedFrameDecoder(int maxLength, boolean stripDelimiter, boolean failFast) {
+        super(maxLength, stripDelimiter, failFast);
+        this.remainingChunkBytes = 0;
+    }
+
+    /**
+     * Returns whether the given line might be a command followed by a chunk. Does not alter the line.
+     *
+     * This implementation never expects chunks.
+     */
+    protected boolean mayAnnounceChunk(ByteBuf line) {
+        return false;
+    }
+
+    protected boolean isFramingLines() {
+        return remainingChunkBytes == 0 && suspendingFrame == null;
+    }
+
+    /**
+     * To be called once protocol handlers processed a frame emitted by this decoder.
+     *
+     * @param frame the processed frame
+     * @param acceptedChunkSize the size of the chunk following the frame, if handlers accepted a command announcing one
+     */
+    public void onFrameProcessed(Object frame, Optional<Long> acceptedChunkSize) {
+        if (frame != suspendingFrame) {
+            return;
+        }
+        context.executor().execute(() -> {
+            suspendingFrame = null;
+            remainingChunkBytes = acceptedChunkSize.orElse(0L);
+            try {
+                // Decodes the bytes received while framing was suspended
+                channelRead(context, Unpooled.EMPTY_BUFFER);
+            } catch (Exception e) {
+                context.fireExceptionCaught(e);
+            }
+        });
+    }
+
+    @Override
+    protected Object decode(ChannelHandlerContext ctx, ByteBuf buffer) throws Exception {
+        if (suspendingFrame != null) {
+            return null;
+        }
+        if (remainingChunkBytes > 0) {
+            if (!buffer.isReadable()) {
+                return null;
+            }
+            int length = (int) Math.min(remainingChunkBytes, buffer.readableBytes());
+            remainingChunkBytes -= length;
+            return buffer.readRetainedSlice(length);
+        }
+
+        Object frame = super.decode(ctx, buffer);
+        if (frame != null && mayAnnounceChunk((ByteBuf) frame)) {
+            context = ctx;
+            suspendingFrame = frame;
+        }
+        return frame;
+    }
+}
@@ -0,0 +1,125 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.protocols.netty;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+
+/**
+ * Transports protocol servers can rely on for their event loops.
+ */
+public enum NettyTransport {
+    /**
+     * Portable transport based on java NIO.
+     */
+    NIO {
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public boolean enableReusePort(ServerBootstrap bootstrap) {
+            return false;
+        }
+
+        @Override
+        public EventLoopGroup eventLoopGroup(int threadCount, ThreadFactory threadFactory) {
+            return new NioEventLoopGroup(threadCount, threadFactory);
+        }
+
+        @Override
+        public Class<? extends ServerChannel> serverChannelClass() {
+            return NioServerSocketChannel.class;
+        }
+    },
+    /**
+     * Linux native transport based on epoll. Supports SO_REUSEPORT.
+     */
+    EPOLL {
+        @Override
+        public boolean isAvailable() {
+            return Epoll.isAvailable();
+        }
+
+        @Override
+        public boolean enableReusePort(ServerBootstrap bootstrap) {
+            bootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+            return true;
+        }
+
+        @Override
+        public EventLoopGroup eventLoopGroup(int threadCount, ThreadFactory threadFactory) {
+            return new EpollEventLoopGroup(threadCount, threadFactory);
+        }
+
+        @Override
+        public Class<? extends ServerChannel> serverChannelClass() {
+            return EpollServerSocketChannel.class;
+        }
+    };
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NettyTransport.class);
+
+    public static NettyTransport parse(String value) {
+        return Arrays.stream(values())
+            .filter(transport -> transport.name().equalsIgnoreCase(value.trim()))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Unknown transport '" + value + "'. Supported values are "
+                + Arrays.toString(values())));
+    }
+
+    public abstract boolean isAvailable();
+
+    /**
+     * Allows several server channels to be bound to the same address, the kernel spreading incoming connections among them.
+     *
+     * @return false if this transport does not support SO_REUSEPORT
+     */
+    public abstract boolean enableReusePort(ServerBootstrap bootstrap);
+
+    public abstract EventLoopGroup eventLoopGroup(int threadCount, ThreadFactory threadFactory);
+
+    public abstract Class<? extends ServerChannel> serverChannelClass();
+
+    /**
+     * @return this transport when available on the running platform, {@link #NIO} otherwise
+     */
+    public NettyTransport orFallbackToNio() {
+        if (isAvailable()) {
+            return this;
+        }
+        LOGGER.warn("{} transport is not available on this platform, falling back to NIO", this);
+        return NIO;
+    }
+}
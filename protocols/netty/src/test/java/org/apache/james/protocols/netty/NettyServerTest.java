@@ -19,14 +19,21 @@
 
 package org.apache.james.protocols.netty;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import static org.mockito.Mockito.mock;
 
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
 import javax.net.ssl.SSLContext;
 
 import org.apache.james.protocols.api.Protocol;
 import org.junit.jupiter.api.Test;
 
+import io.netty.channel.epoll.Epoll;
+
 class NettyServerTest {
     @Test
     void protocolShouldThrowWhenProtocolIsNull() {
@@ -60,4 +67,48 @@ class NettyServerTest {
             .frameHandlerFactory(channelHandlerFactory)
             .build();
     }
+
+    @Test
+    void parseShouldBeCaseInsensitive() {
+        assertThat(NettyTransport.parse("Epoll")).isEqualTo(NettyTransport.EPOLL);
+    }
+
+    @Test
+    void parseShouldThrowOnUnknownTransport() {
+        assertThatThrownBy(() -> NettyTransport.parse("kqueue"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void reusePortShouldBeIgnoredByNioTransport() throws Exception {
+        assertAcceptsConnections(NettyTransport.NIO);
+    }
+
+    @Test
+    void epollTransportShouldShareThePortAmongAcceptors() throws Exception {
+        assumeTrue(Epoll.isAvailable());
+
+        assertAcceptsConnections(NettyTransport.EPOLL);
+    }
+
+    private void assertAcceptsConnections(NettyTransport transport) throws Exception {
+        NettyServer server = new NettyServer.Factory()
+            .protocol(mock(Protocol.class))
+            .build();
+        server.setListenAddresses(new InetSocketAddress("127.0.0.1", 0));
+        server.setTransport(transport);
+        server.setBossWorkerCount(4);
+        server.setReusePort(true);
+        server.bind();
+
+        try {
+            assertThat(server.getListenAddresses()).hasSize(1);
+            try (Socket socket = new Socket()) {
+                socket.connect(server.getListenAddresses().get(0));
+                assertThat(socket.isConnected()).isTrue();
+            }
+        } finally {
+            server.unbind();
+        }
+    }
 }
@@ -157,6 +157,20 @@ public class ReceivedDataLineFilter extends SeparatingDataLineFilter {
      * @return response
      */
     private Response addHeaders(SMTPSession session, ByteBuffer line, LineHandler<SMTPSession> next) {
+        Response response = transferHeaders(session, next);
+        if (response != null) {
+            return response;
+        }
+        return next.onLine(session, line);
+    }
+
+    /**
+     * Transfer the headers to the given {@link LineHandler}. This allows adding them in front of message content which
+     * is not received line by line, like BDAT chunks.
+     *
+     * @return the first <code>non-null</code> response of the {@link LineHandler}, if any
+     */
+    public Response transferHeaders(SMTPSession session, LineHandler<SMTPSession> next) {
         Response response;
         for (Header header: headers(session)) {
             response = header.transferTo(session, next);
@@ -164,7 +178,7 @@ public class ReceivedDataLineFilter extends SeparatingDataLineFilter {
                 return response;
             }
         }
-        return next.onLine(session, line);
+        return null;
     }
 
     enum Location {
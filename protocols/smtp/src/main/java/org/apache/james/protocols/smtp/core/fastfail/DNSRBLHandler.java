@@ -20,8 +20,10 @@ package org.apache.james.protocols.smtp.core.fastfail;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.StringTokenizer;
 
@@ -97,6 +99,20 @@ public class DNSRBLHandler implements RcptHook {
         this.getDetail = getDetail;
     }
 
+    protected List<String> getWhitelist() {
+        if (whitelist == null) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(whitelist);
+    }
+
+    protected List<String> getBlacklist() {
+        if (blacklist == null) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(blacklist);
+    }
+
     /**
      *
      * This checks DNSRBL whitelists and blacklists.  If the remote IP is whitelisted
@@ -123,47 +139,54 @@ public class DNSRBLHandler implements RcptHook {
             }
             String reversedOctets = sb.toString();
 
-            if (whitelist != null) {
-                String[] rblList = whitelist;
-                for (String rbl : rblList) {
-                    if (resolve(reversedOctets + rbl)) {
-                        LOGGER.info("Connection from {} whitelisted by {}", ipAddress, rbl);
-                        return;
-                    } else {
-                        LOGGER.debug("IpAddress {} not listed on {}", session.getRemoteAddress().getAddress(), rbl);
+            findBlacklist(ipAddress, reversedOctets).ifPresent(rbl -> {
+                LOGGER.info("Connection from {} restricted by {} to SMTP AUTH/postmaster/abuse.", ipAddress, rbl);
+
+                // we should try to retrieve details
+                if (getDetail) {
+                    Collection<String> txt = resolveTXTRecords(reversedOctets + rbl);
+
+                    // Check if we found a txt record
+                    if (!txt.isEmpty()) {
+                        // Set the detail
+                        String blocklistedDetail = txt.iterator().next().toString();
+
+                        session.setAttachment(RBL_DETAIL_MAIL_ATTRIBUTE_NAME, blocklistedDetail, State.Connection);
                     }
                 }
-            }
 
-            if (blacklist != null) {
-                String[] rblList = blacklist;
-                for (String rbl : rblList) {
-                    if (resolve(reversedOctets + rbl)) {
-                        LOGGER.info("Connection from {} restricted by {} to SMTP AUTH/postmaster/abuse.", ipAddress, rbl);
-
-                        // we should try to retrieve details
-                        if (getDetail) {
-                            Collection<String> txt = resolveTXTRecords(reversedOctets + rbl);
-
-                            // Check if we found a txt record
-                            if (!txt.isEmpty()) {
-                                // Set the detail
-                                String blocklistedDetail = txt.iterator().next().toString();
-
-                                session.setAttachment(RBL_DETAIL_MAIL_ATTRIBUTE_NAME, blocklistedDetail, State.Connection);
-                            }
-                        }
-
-                        session.setAttachment(RBL_BLOCKLISTED_MAIL_ATTRIBUTE_NAME, true, State.Connection);
-                        return;
-                    } else {
-                        // if it is unknown, it isn't blocked
-                        LOGGER.debug("unknown host exception thrown: {}", rbl);
-                    }
+                session.setAttachment(RBL_BLOCKLISTED_MAIL_ATTRIBUTE_NAME, true, State.Connection);
+            });
+        }
+    }
 
-                }
+    /**
+     * Return the blacklist the ipAddress is listed on, unless it is listed on a whitelist.
+     *
+     * This implementation checks the lists one after the other. Sub-classes may override this with a concurrent solution.
+     *
+     * @param reversedOctets the octets of the ipAddress in reverse order, followed by a dot
+     * @return the blacklist
+     */
+    protected Optional<String> findBlacklist(String ipAddress, String reversedOctets) {
+        for (String rbl : getWhitelist()) {
+            if (resolve(reversedOctets + rbl)) {
+                LOGGER.info("Connection from {} whitelisted by {}", ipAddress, rbl);
+                return Optional.empty();
+            } else {
+                LOGGER.debug("IpAddress {} not listed on {}", ipAddress, rbl);
+            }
+        }
+
+        for (String rbl : getBlacklist()) {
+            if (resolve(reversedOctets + rbl)) {
+                return Optional.of(rbl);
+            } else {
+                // if it is unknown, it isn't blocked
+                LOGGER.debug("unknown host exception thrown: {}", rbl);
             }
         }
+        return Optional.empty();
     }
     
     @Override
@@ -43,6 +43,7 @@ import org.apache.james.modules.data.CassandraUsersRepositoryModule;
 import org.apache.james.modules.data.CassandraVacationModule;
 import org.apache.james.modules.event.JMAPEventBusModule;
 import org.apache.james.modules.event.RabbitMQEventBusModule;
+import org.apache.james.modules.event.RecipientRewriteTableEventBusModule;
 import org.apache.james.modules.eventstore.CassandraEventStoreModule;
 import org.apache.james.modules.mailbox.CassandraDeletedMessageVaultModule;
 import org.apache.james.modules.mailbox.CassandraMailboxModule;
@@ -166,6 +167,7 @@ public class CassandraRabbitMQJamesServerMain implements JamesServerMain {
             new RabbitMailQueueRoutesModule(),
             new JMAPEventBusModule(),
             new RabbitMQEventBusModule(),
+            new RecipientRewriteTableEventBusModule(),
             new DistributedTaskSerializationModule());
 
     public static void main(String[] args) throws Exception {
@@ -52,6 +52,7 @@ import org.apache.james.modules.data.CassandraUsersRepositoryModule;
 import org.apache.james.modules.data.CassandraVacationModule;
 import org.apache.james.modules.event.JMAPEventBusModule;
 import org.apache.james.modules.event.RabbitMQEventBusModule;
+import org.apache.james.modules.event.RecipientRewriteTableEventBusModule;
 import org.apache.james.modules.eventstore.CassandraEventStoreModule;
 import org.apache.james.modules.mailbox.CassandraBlobStoreDependenciesModule;
 import org.apache.james.modules.mailbox.CassandraDeletedMessageVaultModule;
@@ -161,6 +162,7 @@ public class DistributedPOP3JamesServerMain implements JamesServerMain {
         .with(new RabbitMQModule(),
             new RabbitMailQueueRoutesModule(),
             new RabbitMQEventBusModule(),
+            new RecipientRewriteTableEventBusModule(),
             new DistributedTaskSerializationModule());
 
     public static void main(String[] args) throws Exception {
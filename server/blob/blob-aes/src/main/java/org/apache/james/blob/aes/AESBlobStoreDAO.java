@@ -23,8 +23,10 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.security.GeneralSecurityException;
 import java.util.Collection;
+import java.util.Optional;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.james.blob.api.BlobId;
@@ -40,11 +42,14 @@ import com.google.common.io.ByteSource;
 import com.google.common.io.FileBackedOutputStream;
 import com.google.crypto.tink.subtle.AesGcmHkdfStreaming;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 public class AESBlobStoreDAO implements BlobStoreDAO {
     // For now, aligned with with MimeMessageInputStreamSource file threshold, detailed benchmarking might be conducted to challenge this choice
     public static final int FILE_THRESHOLD_100_KB = 100 * 1024;
+    private static final int CHUNK_SIZE = 64 * 1024;
     private final BlobStoreDAO underlying;
     private final AesGcmHkdfStreaming streamingAead;
 
@@ -90,6 +95,29 @@ public class AESBlobStoreDAO implements BlobStoreDAO {
             .map(Throwing.function(IOUtils::toByteArray));
     }
 
+    @Override
+    public Publisher<ByteBuffer> readReactive(BucketName bucketName, BlobId blobId) {
+        return Flux.using(() -> read(bucketName, blobId),
+                clearContent -> readChunks(blobId, clearContent),
+                Throwing.consumer(InputStream::close).sneakyThrow())
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Flux<ByteBuffer> readChunks(BlobId blobId, InputStream clearContent) {
+        return Flux.generate(sink -> {
+            try {
+                byte[] chunk = clearContent.readNBytes(CHUNK_SIZE);
+                if (chunk.length == 0) {
+                    sink.complete();
+                } else {
+                    sink.next(ByteBuffer.wrap(chunk));
+                }
+            } catch (IOException e) {
+                sink.error(new ObjectStoreIOException("Error reading blob " + blobId.asString(), e));
+            }
+        });
+    }
+
     @Override
     public Publisher<Void> save(BucketName bucketName, BlobId blobId, byte[] data) {
         Preconditions.checkNotNull(bucketName);
@@ -147,4 +175,14 @@ public class AESBlobStoreDAO implements BlobStoreDAO {
     public Publisher<BlobId> listBlobs(BucketName bucketName) {
         return underlying.listBlobs(bucketName);
     }
+
+    @Override
+    public Publisher<BlobId> listBlobsAfter(BucketName bucketName, BlobId after) {
+        return underlying.listBlobsAfter(bucketName, after);
+    }
+
+    @Override
+    public Publisher<BlobId> listBlobsExcluding(BucketName bucketName, Optional<BlobId> after, Collection<String> excludedPrefixes) {
+        return underlying.listBlobsExcluding(bucketName, after, excludedPrefixes);
+    }
 }
@@ -19,6 +19,7 @@
 package org.apache.james.blob.api;
 
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
 import org.reactivestreams.Publisher;
@@ -48,6 +49,8 @@ public interface BlobStore {
 
     InputStream read(BucketName bucketName, BlobId blobId);
 
+    Publisher<ByteBuffer> readReactive(BucketName bucketName, BlobId blobId);
+
     default Publisher<byte[]> readBytes(BucketName bucketName, BlobId blobId, StoragePolicy storagePolicy) {
        return readBytes(bucketName, blobId);
     }
@@ -20,8 +20,10 @@
 package org.apache.james.blob.api;
 
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.Optional;
 
 import org.reactivestreams.Publisher;
 
@@ -47,6 +49,16 @@ public interface BlobStoreDAO {
      */
     Publisher<byte[]> readBytes(BucketName bucketName, BlobId blobId);
 
+    /**
+     * Reads a Blob based on its BucketName and its BlobId as a sequence of chunks, allowing to handle large blobs
+     * without loading them in memory.
+     *
+     * @return a Flux of the chunks composing the blob or
+     *  an ObjectNotFoundException in its error channel when the blobId or the bucket is not found
+     *  or an IOObjectStoreException when an unexpected IO error occurs
+     */
+    Publisher<ByteBuffer> readReactive(BucketName bucketName, BlobId blobId);
+
 
     /**
      * Save the blob with the provided blob id, and overwrite the previous blob with the same id if it already exists
@@ -105,5 +117,24 @@ public interface BlobStoreDAO {
 
     Publisher<BucketName> listBuckets();
 
+    /**
+     * Lists the blobs of a bucket. Implementations list blobs in a stable order, so that listings can be resumed, see
+     * {@link #listBlobsAfter(BucketName, BlobId)}.
+     */
     Publisher<BlobId> listBlobs(BucketName bucketName);
+
+    /**
+     * Resumes a {@link #listBlobs(BucketName)} listing: lists the blobs following the given one in the listing order,
+     * whether or not the given blob still exists.
+     */
+    Publisher<BlobId> listBlobsAfter(BucketName bucketName, BlobId after);
+
+    /**
+     * Lists, in the {@link #listBlobs(BucketName)} order, the blobs of a bucket whose id does not start with any of the
+     * given prefixes, resuming the listing after the given blob when present.
+     *
+     * Implementations listing blobs in ascending order of their ids skip the excluded prefixes without enumerating
+     * their blobs, other implementations filter them out of the listing.
+     */
+    Publisher<BlobId> listBlobsExcluding(BucketName bucketName, Optional<BlobId> after, Collection<String> excludedPrefixes);
 }
@@ -23,6 +23,7 @@ import static org.apache.james.blob.api.BlobStore.StoragePolicy.LOW_COST;
 import static org.apache.james.blob.api.MetricableBlobStore.DELETE_BUCKET_TIMER_NAME;
 import static org.apache.james.blob.api.MetricableBlobStore.DELETE_TIMER_NAME;
 import static org.apache.james.blob.api.MetricableBlobStore.READ_BYTES_TIMER_NAME;
+import static org.apache.james.blob.api.MetricableBlobStore.READ_REACTIVE_TIMER_NAME;
 import static org.apache.james.blob.api.MetricableBlobStore.READ_TIMER_NAME;
 import static org.apache.james.blob.api.MetricableBlobStore.SAVE_BYTES_TIMER_NAME;
 import static org.apache.james.blob.api.MetricableBlobStore.SAVE_INPUT_STREAM_TIMER_NAME;
@@ -39,6 +40,7 @@ import org.junit.jupiter.api.extension.BeforeEachCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 
@@ -124,6 +126,19 @@ public interface MetricableBlobStoreContract extends BlobStoreContract {
                 .hasSize(2));
     }
 
+    @Test
+    default void readReactiveShouldPublishReadReactiveTimerMetrics() {
+        BlobStore store = testee();
+
+        BlobId blobId = Mono.from(store.save(store.getDefaultBucketName(), BYTES_CONTENT, LOW_COST)).block();
+        Flux.from(store.readReactive(store.getDefaultBucketName(), blobId)).blockLast();
+        Flux.from(store.readReactive(store.getDefaultBucketName(), blobId)).blockLast();
+
+        await().atMost(FIVE_SECONDS)
+            .untilAsserted(() ->  assertThat(metricsTestExtension.getMetricFactory().executionTimesFor(READ_REACTIVE_TIMER_NAME))
+                .hasSize(2));
+    }
+
     @Test
     default void deleteBucketShouldPublishDeleteBucketTimerMetrics() {
         BlobStore store = testee();
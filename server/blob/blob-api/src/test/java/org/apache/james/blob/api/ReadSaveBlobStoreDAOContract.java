@@ -31,13 +31,17 @@ import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.ExecutionException;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import org.apache.james.util.concurrency.ConcurrentTestRunner;
@@ -46,6 +50,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.io.ByteSource;
 
 import reactor.core.publisher.Flux;
@@ -171,6 +176,53 @@ public interface ReadSaveBlobStoreDAOContract {
         assertThat(bytes).isEqualTo(TWELVE_MEGABYTES);
     }
 
+    @Test
+    default void readReactiveShouldThrowWhenNotExisting() {
+        BlobStoreDAO store = testee();
+
+        assertThatThrownBy(() -> Flux.from(store.readReactive(TEST_BUCKET_NAME, new TestBlobId("unknown"))).blockLast())
+            .isExactlyInstanceOf(ObjectNotFoundException.class);
+    }
+
+    @Test
+    default void readReactiveShouldReturnEmptySavedData() {
+        BlobStoreDAO store = testee();
+
+        Mono.from(store.save(TEST_BUCKET_NAME, TEST_BLOB_ID, EMPTY_BYTEARRAY)).block();
+
+        assertThat(readReactiveAsBytes(store, TEST_BLOB_ID)).isEmpty();
+    }
+
+    @Test
+    default void readReactiveShouldReturnSavedData() {
+        BlobStoreDAO store = testee();
+
+        Mono.from(store.save(TEST_BUCKET_NAME, TEST_BLOB_ID, SHORT_BYTEARRAY)).block();
+
+        assertThat(readReactiveAsBytes(store, TEST_BLOB_ID)).isEqualTo(SHORT_BYTEARRAY);
+    }
+
+    @Test
+    default void readReactiveShouldReturnBigSavedData() {
+        BlobStoreDAO store = testee();
+
+        Mono.from(store.save(TEST_BUCKET_NAME, TEST_BLOB_ID, TWELVE_MEGABYTES)).block();
+
+        assertThat(readReactiveAsBytes(store, TEST_BLOB_ID)).isEqualTo(TWELVE_MEGABYTES);
+    }
+
+    private byte[] readReactiveAsBytes(BlobStoreDAO store, BlobId blobId) {
+        return Flux.from(store.readReactive(TEST_BUCKET_NAME, blobId))
+            .reduce(new ByteArrayOutputStream(), (output, chunk) -> {
+                byte[] bytes = new byte[chunk.remaining()];
+                chunk.get(bytes);
+                output.writeBytes(bytes);
+                return output;
+            })
+            .map(ByteArrayOutputStream::toByteArray)
+            .block();
+    }
+
     @Test
     default void readStreamShouldThrowWhenNotExisting() {
         BlobStoreDAO store = testee();
@@ -324,6 +376,58 @@ public interface ReadSaveBlobStoreDAOContract {
             .containsOnly(TEST_BLOB_ID, OTHER_TEST_BLOB_ID);
     }
 
+    @Test
+    default void listAfterShouldReturnFollowingBlobs() {
+        BlobStoreDAO store = testee();
+        IntStream.range(0, 5)
+            .forEach(index -> Mono.from(store.save(TEST_BUCKET_NAME, new TestBlobId("blob-" + index), SHORT_BYTEARRAY)).block());
+        List<BlobId> listedBlobIds = Flux.from(store.listBlobs(TEST_BUCKET_NAME)).collectList().block();
+
+        assertThat(Flux.from(store.listBlobsAfter(TEST_BUCKET_NAME, listedBlobIds.get(1))).collectList().block())
+            .containsExactlyElementsOf(listedBlobIds.subList(2, 5));
+    }
+
+    @Test
+    default void listAfterShouldResumeWhenCursorWasDeleted() {
+        BlobStoreDAO store = testee();
+        IntStream.range(0, 5)
+            .forEach(index -> Mono.from(store.save(TEST_BUCKET_NAME, new TestBlobId("blob-" + index), SHORT_BYTEARRAY)).block());
+        List<BlobId> listedBlobIds = Flux.from(store.listBlobs(TEST_BUCKET_NAME)).collectList().block();
+        Mono.from(store.delete(TEST_BUCKET_NAME, listedBlobIds.get(1))).block();
+
+        assertThat(Flux.from(store.listBlobsAfter(TEST_BUCKET_NAME, listedBlobIds.get(1))).collectList().block())
+            .containsExactlyElementsOf(listedBlobIds.subList(2, 5));
+    }
+
+    @Test
+    default void listExcludingShouldSkipBlobsOfExcludedPrefixes() {
+        BlobStoreDAO store = testee();
+        Stream.of("a-1", "b-1", "b-2", "c-1", "d-1", "d-2", "e-1")
+            .forEach(id -> Mono.from(store.save(TEST_BUCKET_NAME, new TestBlobId(id), SHORT_BYTEARRAY)).block());
+
+        assertThat(Flux.from(store.listBlobsExcluding(TEST_BUCKET_NAME, Optional.empty(), ImmutableList.of("b-", "d-", "d-2"))).collectList().block())
+            .containsExactlyInAnyOrder(new TestBlobId("a-1"), new TestBlobId("c-1"), new TestBlobId("e-1"));
+    }
+
+    @Test
+    default void listExcludingShouldResumeAfterGivenBlob() {
+        BlobStoreDAO store = testee();
+        IntStream.range(0, 5)
+            .forEach(index -> Mono.from(store.save(TEST_BUCKET_NAME, new TestBlobId("blob-" + index), SHORT_BYTEARRAY)).block());
+        Mono.from(store.save(TEST_BUCKET_NAME, new TestBlobId("excluded"), SHORT_BYTEARRAY)).block();
+        List<BlobId> listedBlobIds = Flux.from(store.listBlobsExcluding(TEST_BUCKET_NAME, Optional.empty(), ImmutableList.of("excluded")))
+            .collectList().block();
+
+        assertThat(Flux.from(store.listBlobsExcluding(TEST_BUCKET_NAME, Optional.of(listedBlobIds.get(1)), ImmutableList.of("excluded"))).collectList().block())
+            .containsExactlyElementsOf(listedBlobIds.subList(2, 5));
+    }
+
+    @Test
+    default void listAfterShouldReturnEmptyWhenBucketDoesNotExist() {
+        assertThat(Flux.from(testee().listBlobsAfter(TEST_BUCKET_NAME, TEST_BLOB_ID)).collectList().block())
+            .isEmpty();
+    }
+
     static Stream<Arguments> blobs() {
         return Stream.of(new Object[]{"SHORT", SHORT_BYTEARRAY}, new Object[]{"LONG", ELEVEN_KILOBYTES}, new Object[]{"BIG", TWELVE_MEGABYTES})
             .map(Arguments::of);
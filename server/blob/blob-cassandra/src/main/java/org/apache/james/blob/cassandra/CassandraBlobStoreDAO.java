@@ -27,6 +27,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Optional;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -107,6 +108,11 @@ public class CassandraBlobStoreDAO implements BlobStoreDAO {
             .map(this::byteBuffersToBytesArray);
     }
 
+    @Override
+    public Flux<ByteBuffer> readReactive(BucketName bucketName, BlobId blobId) {
+        return readBlobParts(bucketName, blobId);
+    }
+
     @Override
     public Mono<Void> save(BucketName bucketName, BlobId blobId, byte[] data) {
         Preconditions.checkNotNull(data);
@@ -292,4 +298,27 @@ public class CassandraBlobStoreDAO implements BlobStoreDAO {
             return bucketDAO.listAll(bucketName);
         }
     }
+
+    /**
+     * Blobs are listed in the token order of their partition key, which does not require the given blob to exist.
+     */
+    @Override
+    public Publisher<BlobId> listBlobsAfter(BucketName bucketName, BlobId after) {
+        if (isDefaultBucket(bucketName)) {
+            return defaultBucketDAO.listBlobsAfter(after);
+        } else {
+            return bucketDAO.listAllAfter(bucketName, after);
+        }
+    }
+
+    /**
+     * The token order of the partition key is unrelated to blob ids, hence blobs of excluded prefixes are filtered out
+     * of the listing.
+     */
+    @Override
+    public Publisher<BlobId> listBlobsExcluding(BucketName bucketName, Optional<BlobId> after, Collection<String> excludedPrefixes) {
+        return Flux.from(after.map(position -> listBlobsAfter(bucketName, position))
+                .orElseGet(() -> listBlobs(bucketName)))
+            .filter(blobId -> excludedPrefixes.stream().noneMatch(blobId.asString()::startsWith));
+    }
 }
@@ -23,8 +23,10 @@ import static com.datastax.driver.core.ConsistencyLevel.LOCAL_ONE;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.bindMarker;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.delete;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.eq;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.gt;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.insertInto;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.select;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.token;
 import static org.apache.james.blob.cassandra.BlobTables.BucketBlobTable.BUCKET;
 import static org.apache.james.blob.cassandra.BlobTables.BucketBlobTable.ID;
 import static org.apache.james.blob.cassandra.BlobTables.BucketBlobTable.NUMBER_OF_CHUNK;
@@ -58,6 +60,7 @@ public class CassandraBucketDAO {
     private final PreparedStatement deleteParts;
     private final PreparedStatement listAll;
     private final PreparedStatement listBucketContent;
+    private final PreparedStatement listAllAfter;
 
     @Inject
     @VisibleForTesting
@@ -72,6 +75,7 @@ public class CassandraBucketDAO {
         this.deleteParts = prepareDeleteParts(session);
         this.listAll = prepareListAll(session);
         this.listBucketContent = prepareListBucketContent(session);
+        this.listAllAfter = prepareListAllAfter(session);
     }
 
     private PreparedStatement prepareDeleteParts(Session session) {
@@ -100,6 +104,12 @@ public class CassandraBucketDAO {
             .allowFiltering());
     }
 
+    private PreparedStatement prepareListAllAfter(Session session) {
+        return session.prepare(select()
+            .from(BlobTables.BucketBlobTable.TABLE_NAME)
+            .where(gt(token(BUCKET, ID), token(bindMarker(BUCKET), bindMarker(ID)))));
+    }
+
     private PreparedStatement prepareSelect(Session session) {
         return session.prepare(select()
             .from(BlobTables.BucketBlobTable.TABLE_NAME)
@@ -208,6 +218,17 @@ public class CassandraBucketDAO {
             .map(row -> blobIdFactory.from(row.getString(ID)));
     }
 
+    /**
+     * A partition key can not be restricted both by value and by token: rows of other buckets are filtered out here.
+     */
+    public Flux<BlobId> listAllAfter(BucketName bucketName, BlobId after) {
+        return cassandraAsyncExecutor.executeRows(listAllAfter.bind()
+                .setString(BUCKET, bucketName.asString())
+                .setString(ID, after.asString()))
+            .filter(row -> bucketName.asString().equals(row.getString(BUCKET)))
+            .map(row -> blobIdFactory.from(row.getString(ID)));
+    }
+
     private ByteBuffer rowToData(Row row) {
         return row.getBytes(BucketBlobParts.DATA);
     }
@@ -23,8 +23,10 @@ import static com.datastax.driver.core.ConsistencyLevel.LOCAL_ONE;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.bindMarker;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.delete;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.eq;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.gt;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.insertInto;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.select;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.token;
 import static org.apache.james.blob.cassandra.BlobTables.DefaultBucketBlobTable.ID;
 import static org.apache.james.blob.cassandra.BlobTables.DefaultBucketBlobTable.NUMBER_OF_CHUNK;
 
@@ -53,6 +55,7 @@ public class CassandraDefaultBucketDAO {
     private final PreparedStatement delete;
     private final PreparedStatement deleteParts;
     private final PreparedStatement listBlobs;
+    private final PreparedStatement listBlobsAfter;
     private final BlobId.Factory blobIdFactory;
 
     @Inject
@@ -66,6 +69,7 @@ public class CassandraDefaultBucketDAO {
         this.delete = prepareDelete(session);
         this.deleteParts = prepareDeleteParts(session);
         this.listBlobs = prepareListBlobs(session);
+        this.listBlobsAfter = prepareListBlobsAfter(session);
         this.blobIdFactory = blobIdFactory;
     }
 
@@ -87,6 +91,12 @@ public class CassandraDefaultBucketDAO {
             .from(DefaultBucketBlobParts.TABLE_NAME));
     }
 
+    private PreparedStatement prepareListBlobsAfter(Session session) {
+        return session.prepare(select(DefaultBucketBlobParts.ID)
+            .from(DefaultBucketBlobParts.TABLE_NAME)
+            .where(gt(token(DefaultBucketBlobParts.ID), token(bindMarker(DefaultBucketBlobParts.ID)))));
+    }
+
     private PreparedStatement prepareInsert(Session session) {
         return session.prepare(insertInto(BlobTables.DefaultBucketBlobTable.TABLE_NAME)
             .value(ID, bindMarker(ID))
@@ -176,6 +186,12 @@ public class CassandraDefaultBucketDAO {
             .map(row -> blobIdFactory.from(row.getString(DefaultBucketBlobParts.ID)));
     }
 
+    Flux<BlobId> listBlobsAfter(BlobId after) {
+        return cassandraAsyncExecutor.executeRows(listBlobsAfter.bind()
+                .setString(DefaultBucketBlobParts.ID, after.asString()))
+            .map(row -> blobIdFactory.from(row.getString(DefaultBucketBlobParts.ID)));
+    }
+
     private ByteBuffer rowToData(Row row) {
         return row.getBytes(DefaultBucketBlobParts.DATA);
     }
@@ -24,6 +24,7 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PushbackInputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Optional;
 
@@ -181,6 +182,11 @@ public class CachedBlobStore implements BlobStore {
         return read(bucketName, blobId, LOW_COST);
     }
 
+    @Override
+    public Publisher<ByteBuffer> readReactive(BucketName bucketName, BlobId blobId) {
+        return backend.readReactive(bucketName, blobId);
+    }
+
     private Mono<byte[]> readBytesInDefaultBucket(BucketName bucketName, BlobId blobId) {
         return readFromCache(blobId).switchIfEmpty(
             readBytesFromBackend(bucketName, blobId)
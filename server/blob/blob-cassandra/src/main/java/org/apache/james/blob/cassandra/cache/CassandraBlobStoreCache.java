@@ -53,6 +53,7 @@ import reactor.core.publisher.Mono;
 public class CassandraBlobStoreCache implements BlobStoreCache {
 
     public static final Logger LOGGER = LoggerFactory.getLogger(CassandraBlobStoreCache.class);
+    public static final String TIER_NAME = "cassandra";
 
     private final CassandraAsyncExecutor cassandraAsyncExecutor;
     private final PreparedStatement insertStatement;
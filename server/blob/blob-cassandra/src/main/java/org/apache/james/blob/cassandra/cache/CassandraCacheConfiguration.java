@@ -41,6 +41,8 @@ public class CassandraCacheConfiguration {
         private Optional<Duration> readTimeout = Optional.empty();
         private Optional<Integer> sizeThresholdInBytes = Optional.empty();
         private Optional<Duration> ttl = Optional.empty();
+        private Optional<Long> inMemorySizeInBytes = Optional.empty();
+        private boolean inMemoryOffHeap = false;
 
         public Builder timeOut(Duration timeout) {
             Preconditions.checkNotNull(timeout, "'Read timeout' must not to be null");
@@ -69,6 +71,23 @@ public class CassandraCacheConfiguration {
             return this;
         }
 
+        public Builder inMemorySizeInBytes(long inMemorySizeInBytes) {
+            Preconditions.checkArgument(inMemorySizeInBytes > 0, "'In memory cache size' needs to be strictly positive");
+
+            this.inMemorySizeInBytes = Optional.of(inMemorySizeInBytes);
+            return this;
+        }
+
+        public Builder inMemorySizeInBytes(Optional<Long> inMemorySizeInBytes) {
+            inMemorySizeInBytes.ifPresent(this::inMemorySizeInBytes);
+            return this;
+        }
+
+        public Builder inMemoryOffHeap(boolean inMemoryOffHeap) {
+            this.inMemoryOffHeap = inMemoryOffHeap;
+            return this;
+        }
+
         public Builder ttl(Optional<Duration> ttl) {
             ttl.ifPresent(this::ttl);
             return this;
@@ -88,7 +107,9 @@ public class CassandraCacheConfiguration {
             return new CassandraCacheConfiguration(
                 readTimeout.orElse(DEFAULT_READ_TIMEOUT),
                 sizeThresholdInBytes.orElse(DEFAULT_BYTE_THRESHOLD_SIZE),
-                ttl.orElse(DEFAULT_TTL));
+                ttl.orElse(DEFAULT_TTL),
+                inMemorySizeInBytes,
+                inMemoryOffHeap);
         }
     }
 
@@ -106,22 +127,32 @@ public class CassandraCacheConfiguration {
         Optional<Integer> sizeThreshold = Optional.ofNullable(configuration.getString("cache.sizeThresholdInBytes", null))
             .map(SizeFormat::parseAsByteCount)
             .map(Math::toIntExact);
+        Optional<Long> inMemorySize = Optional.ofNullable(configuration.getString("cache.memory.size", null))
+            .map(SizeFormat::parseAsByteCount);
+        boolean inMemoryOffHeap = configuration.getBoolean("cache.memory.offHeap", false);
 
         return builder()
             .ttl(ttl)
             .timeOut(timeOut)
             .sizeThresholdInBytes(sizeThreshold)
+            .inMemorySizeInBytes(inMemorySize)
+            .inMemoryOffHeap(inMemoryOffHeap)
             .build();
     }
 
     private final Duration readTimeOut;
     private final int sizeThresholdInBytes;
     private final Duration ttl;
+    private final Optional<Long> inMemorySizeInBytes;
+    private final boolean inMemoryOffHeap;
 
-    private CassandraCacheConfiguration(Duration timeout, int sizeThresholdInBytes, Duration ttl) {
+    private CassandraCacheConfiguration(Duration timeout, int sizeThresholdInBytes, Duration ttl,
+                                        Optional<Long> inMemorySizeInBytes, boolean inMemoryOffHeap) {
         this.readTimeOut = timeout;
         this.sizeThresholdInBytes = sizeThresholdInBytes;
         this.ttl = ttl;
+        this.inMemorySizeInBytes = inMemorySizeInBytes;
+        this.inMemoryOffHeap = inMemoryOffHeap;
     }
 
     public Duration getReadTimeOut() {
@@ -136,6 +167,18 @@ public class CassandraCacheConfiguration {
         return sizeThresholdInBytes;
     }
 
+    /**
+     * @return the maximum weight of the in-memory cache tier, placed in front of the Cassandra cache. Empty when this
+     * tier is disabled.
+     */
+    public Optional<Long> getInMemorySizeInBytes() {
+        return inMemorySizeInBytes;
+    }
+
+    public boolean isInMemoryOffHeap() {
+        return inMemoryOffHeap;
+    }
+
     @Override
     public final boolean equals(Object o) {
         if (o instanceof CassandraCacheConfiguration) {
@@ -143,13 +186,15 @@ public class CassandraCacheConfiguration {
 
             return Objects.equals(this.sizeThresholdInBytes, that.sizeThresholdInBytes)
                 && Objects.equals(this.readTimeOut, that.readTimeOut)
-                && Objects.equals(this.ttl, that.ttl);
+                && Objects.equals(this.ttl, that.ttl)
+                && Objects.equals(this.inMemorySizeInBytes, that.inMemorySizeInBytes)
+                && Objects.equals(this.inMemoryOffHeap, that.inMemoryOffHeap);
         }
         return false;
     }
 
     @Override
     public final int hashCode() {
-        return Objects.hash(readTimeOut, sizeThresholdInBytes, ttl);
+        return Objects.hash(readTimeOut, sizeThresholdInBytes, ttl, inMemorySizeInBytes, inMemoryOffHeap);
     }
 }
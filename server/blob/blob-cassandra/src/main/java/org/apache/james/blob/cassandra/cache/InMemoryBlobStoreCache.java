@@ -0,0 +1,120 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.cassandra.cache;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.metrics.api.GaugeRegistry;
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.Weigher;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Bounded, byte weighted, in-process {@link BlobStoreCache}.
+ *
+ * Meant to be chained in front of {@link CassandraBlobStoreCache} using {@link TieredBlobStoreCache} in order to serve
+ * hot blobs without a network round trip. Entries expire with the same TTL as the Cassandra cache.
+ *
+ * Blobs can be stored off-heap, using direct buffers, to avoid increasing garbage collection pressure.
+ *
+ * Cached content is copied both when cached and when read, so that callers mutating their arrays can not alter it.
+ */
+public class InMemoryBlobStoreCache implements BlobStoreCache {
+    public static final String TIER_NAME = "memory";
+    public static final String RESIDENT_BYTES_METRIC_NAME = "blobStoreCache.memory.residentBytes";
+    public static final String HIT_RATIO_METRIC_NAME = "blobStoreCache.memory.hitRatio";
+    public static final String EVICTION_COUNT_METRIC_NAME = "blobStoreCache.memory.evictions";
+    public static final String SIZE_METRIC_NAME = "blobStoreCache.memory.size";
+
+    private final Cache<BlobId, ByteBuffer> cache;
+    private final Metric residentBytesMetric;
+    private final boolean offHeap;
+
+    public InMemoryBlobStoreCache(CassandraCacheConfiguration cacheConfiguration, MetricFactory metricFactory, GaugeRegistry gaugeRegistry) {
+        Preconditions.checkArgument(cacheConfiguration.getInMemorySizeInBytes().isPresent(), "In memory blob store cache is not enabled");
+
+        this.offHeap = cacheConfiguration.isInMemoryOffHeap();
+        this.residentBytesMetric = metricFactory.generate(RESIDENT_BYTES_METRIC_NAME);
+
+        Weigher<BlobId, ByteBuffer> weigher = (blobId, data) -> data.capacity();
+        RemovalListener<BlobId, ByteBuffer> removalListener = notification -> Optional.ofNullable(notification.getValue())
+            .map(ByteBuffer::capacity)
+            .ifPresent(residentBytesMetric::remove);
+
+        this.cache = CacheBuilder.newBuilder()
+            .maximumWeight(cacheConfiguration.getInMemorySizeInBytes().get())
+            .weigher(weigher)
+            .expireAfterWrite(cacheConfiguration.getTtl().toMillis(), TimeUnit.MILLISECONDS)
+            .recordStats()
+            .removalListener(removalListener)
+            .build();
+
+        gaugeRegistry.register(HIT_RATIO_METRIC_NAME, () -> cache.stats().hitRate())
+            .register(EVICTION_COUNT_METRIC_NAME, () -> cache.stats().evictionCount())
+            .register(SIZE_METRIC_NAME, cache::size);
+    }
+
+    @Override
+    public Mono<Void> cache(BlobId blobId, byte[] data) {
+        return Mono.fromRunnable(() -> {
+            ByteBuffer buffer = toBuffer(data);
+            residentBytesMetric.add(buffer.capacity());
+            cache.put(blobId, buffer);
+        });
+    }
+
+    @Override
+    public Mono<byte[]> read(BlobId blobId) {
+        return Mono.fromCallable(() -> Optional.ofNullable(cache.getIfPresent(blobId))
+                .map(this::toBytes))
+            .flatMap(Mono::justOrEmpty);
+    }
+
+    @Override
+    public Mono<Void> remove(BlobId blobId) {
+        return Mono.fromRunnable(() -> cache.invalidate(blobId));
+    }
+
+    private ByteBuffer toBuffer(byte[] data) {
+        if (offHeap) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+            buffer.put(data);
+            return buffer.flip();
+        }
+        return ByteBuffer.wrap(Arrays.copyOf(data, data.length));
+    }
+
+    private byte[] toBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.capacity()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,87 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.cassandra.cache;
+
+import static org.apache.james.blob.cassandra.cache.CachedBlobStore.BLOBSTORE_CACHED_HIT_COUNT_METRIC_NAME;
+import static org.apache.james.blob.cassandra.cache.CachedBlobStore.BLOBSTORE_CACHED_MISS_COUNT_METRIC_NAME;
+
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Chains two {@link BlobStoreCache}: reads are first served by the first tier, then by the second tier, in which case
+ * the first tier gets populated.
+ *
+ * Hits and misses are reported for each tier as {@code blobStoreCacheHits.<tier>} and {@code blobStoreCacheMisses.<tier>}.
+ */
+public class TieredBlobStoreCache implements BlobStoreCache {
+    private final BlobStoreCache firstTier;
+    private final BlobStoreCache secondTier;
+    private final Metric firstTierHits;
+    private final Metric firstTierMisses;
+    private final Metric secondTierHits;
+    private final Metric secondTierMisses;
+
+    public TieredBlobStoreCache(BlobStoreCache firstTier, String firstTierName,
+                                BlobStoreCache secondTier, String secondTierName,
+                                MetricFactory metricFactory) {
+        this.firstTier = firstTier;
+        this.secondTier = secondTier;
+        this.firstTierHits = metricFactory.generate(BLOBSTORE_CACHED_HIT_COUNT_METRIC_NAME + "." + firstTierName);
+        this.firstTierMisses = metricFactory.generate(BLOBSTORE_CACHED_MISS_COUNT_METRIC_NAME + "." + firstTierName);
+        this.secondTierHits = metricFactory.generate(BLOBSTORE_CACHED_HIT_COUNT_METRIC_NAME + "." + secondTierName);
+        this.secondTierMisses = metricFactory.generate(BLOBSTORE_CACHED_MISS_COUNT_METRIC_NAME + "." + secondTierName);
+    }
+
+    @Override
+    public Mono<Void> cache(BlobId blobId, byte[] data) {
+        return Mono.from(firstTier.cache(blobId, data))
+            .then(Mono.from(secondTier.cache(blobId, data)));
+    }
+
+    @Override
+    public Mono<byte[]> read(BlobId blobId) {
+        return Mono.from(firstTier.read(blobId))
+            .doOnNext(any -> firstTierHits.increment())
+            .switchIfEmpty(Mono.defer(() -> {
+                firstTierMisses.increment();
+                return readFromSecondTier(blobId);
+            }));
+    }
+
+    private Mono<byte[]> readFromSecondTier(BlobId blobId) {
+        return Mono.from(secondTier.read(blobId))
+            .flatMap(bytes -> {
+                secondTierHits.increment();
+                return Mono.from(firstTier.cache(blobId, bytes))
+                    .thenReturn(bytes);
+            })
+            .switchIfEmpty(Mono.fromRunnable(secondTierMisses::increment));
+    }
+
+    @Override
+    public Mono<Void> remove(BlobId blobId) {
+        return Mono.from(firstTier.remove(blobId))
+            .then(Mono.from(secondTier.remove(blobId)));
+    }
+}
@@ -158,4 +158,29 @@ class CassandraCacheConfigurationTest {
                 .build());
     }
 
+    @Test
+    void fromShouldReturnSuppliedInMemoryConfiguration() {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+        configuration.addProperty("cache.memory.size", "64 MiB");
+        configuration.addProperty("cache.memory.offHeap", "true");
+
+        assertThat(CassandraCacheConfiguration.from(configuration))
+            .isEqualTo(CassandraCacheConfiguration.builder()
+                .inMemorySizeInBytes(64 * 1024 * 1024)
+                .inMemoryOffHeap(true)
+                .build());
+    }
+
+    @Test
+    void inMemorySizeShouldBeDisabledByDefault() {
+        assertThat(CassandraCacheConfiguration.builder().build().getInMemorySizeInBytes())
+            .isEmpty();
+    }
+
+    @Test
+    void shouldThrowWhenConfiguredZeroInMemorySize() {
+        assertThatThrownBy(() -> CassandraCacheConfiguration.builder()
+                .inMemorySizeInBytes(0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
 }
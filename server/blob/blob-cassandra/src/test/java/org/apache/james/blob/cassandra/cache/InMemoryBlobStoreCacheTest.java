@@ -0,0 +1,150 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.cassandra.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.HashBlobId;
+import org.apache.james.metrics.api.NoopGaugeRegistry;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Mono;
+
+class InMemoryBlobStoreCacheTest implements BlobStoreCacheContract {
+    private static final Duration _2_SEC_TTL = Duration.ofSeconds(2);
+
+    private RecordingMetricFactory metricFactory;
+    private BlobStoreCache testee;
+    private HashBlobId.Factory blobIdFactory;
+
+    @BeforeEach
+    void setUp() {
+        blobIdFactory = new HashBlobId.Factory();
+        metricFactory = new RecordingMetricFactory();
+        testee = new InMemoryBlobStoreCache(configuration(100 * EIGHT_KILOBYTES.length, false), metricFactory, new NoopGaugeRegistry());
+    }
+
+    private static CassandraCacheConfiguration configuration(long sizeInBytes, boolean offHeap) {
+        return CassandraCacheConfiguration.builder()
+            .ttl(_2_SEC_TTL)
+            .inMemorySizeInBytes(sizeInBytes)
+            .inMemoryOffHeap(offHeap)
+            .build();
+    }
+
+    @Override
+    public BlobStoreCache testee() {
+        return testee;
+    }
+
+    @Override
+    public BlobId.Factory blobIdFactory() {
+        return blobIdFactory;
+    }
+
+    @Test
+    void constructorShouldThrowWhenInMemoryCacheIsNotConfigured() {
+        assertThatThrownBy(() -> new InMemoryBlobStoreCache(CassandraCacheConfiguration.DEFAULT, metricFactory, new NoopGaugeRegistry()))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void cacheShouldEvictEntriesWhenExceedingConfiguredSize() {
+        int maximumSize = 4 * EIGHT_KILOBYTES.length;
+        BlobStoreCache smallCache = new InMemoryBlobStoreCache(configuration(maximumSize, false), metricFactory, new NoopGaugeRegistry());
+
+        List<BlobId> blobIds = IntStream.range(0, 10)
+            .mapToObj(i -> blobIdFactory.randomId())
+            .collect(ImmutableList.toImmutableList());
+        blobIds.forEach(blobId -> Mono.from(smallCache.cache(blobId, EIGHT_KILOBYTES)).block());
+
+        assertThat(blobIds.stream()
+                .filter(blobId -> Mono.from(smallCache.read(blobId)).blockOptional().isPresent())
+                .count())
+            .isLessThanOrEqualTo(4);
+        assertThat(metricFactory.countFor(InMemoryBlobStoreCache.RESIDENT_BYTES_METRIC_NAME))
+            .isLessThanOrEqualTo(maximumSize);
+    }
+
+    @Test
+    void residentBytesShouldTrackCachedEntries() {
+        BlobId blobId1 = blobIdFactory.randomId();
+        BlobId blobId2 = blobIdFactory.randomId();
+        Mono.from(testee.cache(blobId1, EIGHT_KILOBYTES)).block();
+        Mono.from(testee.cache(blobId2, EIGHT_KILOBYTES)).block();
+        Mono.from(testee.remove(blobId1)).block();
+
+        assertThat(metricFactory.countFor(InMemoryBlobStoreCache.RESIDENT_BYTES_METRIC_NAME))
+            .isEqualTo(EIGHT_KILOBYTES.length);
+    }
+
+    @Test
+    void mutatingCachedArrayShouldNotAlterCachedContent() {
+        BlobId blobId = blobIdFactory.randomId();
+        byte[] data = "content".getBytes(StandardCharsets.UTF_8);
+        Mono.from(testee.cache(blobId, data)).block();
+
+        data[0] = 'X';
+
+        assertThat(Mono.from(testee.read(blobId)).block()).isEqualTo("content".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void mutatingReadArrayShouldNotAlterCachedContent() {
+        BlobId blobId = blobIdFactory.randomId();
+        Mono.from(testee.cache(blobId, "content".getBytes(StandardCharsets.UTF_8))).block();
+
+        Mono.from(testee.read(blobId)).block()[0] = 'X';
+
+        assertThat(Mono.from(testee.read(blobId)).block()).isEqualTo("content".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Nested
+    class OffHeap implements BlobStoreCacheContract {
+        private BlobStoreCache offHeapTestee;
+
+        @BeforeEach
+        void setUp() {
+            offHeapTestee = new InMemoryBlobStoreCache(configuration(100 * EIGHT_KILOBYTES.length, true), new RecordingMetricFactory(), new NoopGaugeRegistry());
+        }
+
+        @Override
+        public BlobStoreCache testee() {
+            return offHeapTestee;
+        }
+
+        @Override
+        public BlobId.Factory blobIdFactory() {
+            return blobIdFactory;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.cassandra.cache;
+
+import static org.apache.james.blob.cassandra.cache.CachedBlobStore.BLOBSTORE_CACHED_HIT_COUNT_METRIC_NAME;
+import static org.apache.james.blob.cassandra.cache.CachedBlobStore.BLOBSTORE_CACHED_MISS_COUNT_METRIC_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.HashBlobId;
+import org.apache.james.metrics.api.NoopGaugeRegistry;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+
+class TieredBlobStoreCacheTest implements BlobStoreCacheContract {
+    private static final String FIRST_TIER = "first";
+    private static final String SECOND_TIER = "second";
+
+    private RecordingMetricFactory metricFactory;
+    private BlobStoreCache firstTier;
+    private BlobStoreCache secondTier;
+    private BlobStoreCache testee;
+    private HashBlobId.Factory blobIdFactory;
+
+    @BeforeEach
+    void setUp() {
+        blobIdFactory = new HashBlobId.Factory();
+        metricFactory = new RecordingMetricFactory();
+        CassandraCacheConfiguration configuration = CassandraCacheConfiguration.builder()
+            .ttl(Duration.ofSeconds(2))
+            .inMemorySizeInBytes(100 * EIGHT_KILOBYTES.length)
+            .build();
+        firstTier = new InMemoryBlobStoreCache(configuration, new RecordingMetricFactory(), new NoopGaugeRegistry());
+        secondTier = new InMemoryBlobStoreCache(configuration, new RecordingMetricFactory(), new NoopGaugeRegistry());
+        testee = new TieredBlobStoreCache(firstTier, FIRST_TIER, secondTier, SECOND_TIER, metricFactory);
+    }
+
+    @Override
+    public BlobStoreCache testee() {
+        return testee;
+    }
+
+    @Override
+    public BlobId.Factory blobIdFactory() {
+        return blobIdFactory;
+    }
+
+    @Test
+    void cacheShouldPopulateBothTiers() {
+        BlobId blobId = blobIdFactory.randomId();
+        Mono.from(testee.cache(blobId, EIGHT_KILOBYTES)).block();
+
+        assertThat(Mono.from(firstTier.read(blobId)).block()).containsExactly(EIGHT_KILOBYTES);
+        assertThat(Mono.from(secondTier.read(blobId)).block()).containsExactly(EIGHT_KILOBYTES);
+    }
+
+    @Test
+    void readShouldPopulateFirstTierUponSecondTierHit() {
+        BlobId blobId = blobIdFactory.randomId();
+        Mono.from(secondTier.cache(blobId, EIGHT_KILOBYTES)).block();
+
+        Mono.from(testee.read(blobId)).block();
+
+        assertThat(Mono.from(firstTier.read(blobId)).block()).containsExactly(EIGHT_KILOBYTES);
+    }
+
+    @Test
+    void removeShouldRemoveFromBothTiers() {
+        BlobId blobId = blobIdFactory.randomId();
+        Mono.from(testee.cache(blobId, EIGHT_KILOBYTES)).block();
+
+        Mono.from(testee.remove(blobId)).block();
+
+        assertThat(Mono.from(firstTier.read(blobId)).blockOptional()).isEmpty();
+        assertThat(Mono.from(secondTier.read(blobId)).blockOptional()).isEmpty();
+    }
+
+    @Test
+    void readShouldRecordHitsAndMissesPerTier() {
+        BlobId inFirstTier = blobIdFactory.randomId();
+        BlobId inSecondTier = blobIdFactory.randomId();
+        Mono.from(testee.cache(inFirstTier, EIGHT_KILOBYTES)).block();
+        Mono.from(secondTier.cache(inSecondTier, EIGHT_KILOBYTES)).block();
+
+        Mono.from(testee.read(inFirstTier)).block();
+        Mono.from(testee.read(inSecondTier)).block();
+        Mono.from(testee.read(blobIdFactory.randomId())).block();
+
+        assertThat(metricFactory.countFor(BLOBSTORE_CACHED_HIT_COUNT_METRIC_NAME + "." + FIRST_TIER)).isEqualTo(1);
+        assertThat(metricFactory.countFor(BLOBSTORE_CACHED_MISS_COUNT_METRIC_NAME + "." + FIRST_TIER)).isEqualTo(2);
+        assertThat(metricFactory.countFor(BLOBSTORE_CACHED_HIT_COUNT_METRIC_NAME + "." + SECOND_TIER)).isEqualTo(1);
+        assertThat(metricFactory.countFor(BLOBSTORE_CACHED_MISS_COUNT_METRIC_NAME + "." + SECOND_TIER)).isEqualTo(1);
+    }
+}
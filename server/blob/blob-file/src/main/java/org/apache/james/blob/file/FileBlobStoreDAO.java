@@ -0,0 +1,506 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.file;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.BlobStoreDAO;
+import org.apache.james.blob.api.BucketName;
+import org.apache.james.blob.api.ObjectNotFoundException;
+import org.apache.james.blob.api.ObjectStoreIOException;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteSource;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Stores blobs as files on the local file system, under the following layout:
+ *
+ * <pre>
+ * rootDirectory/buckets/{bucket}/{shard}/{shard}/{blobId}
+ * rootDirectory/tmp/
+ * </pre>
+ *
+ * Bucket and blob names are URL safe base64 encoded, shards are derived from a hash of the blobId in order to keep
+ * directories small. Blob ids whose encoded name would exceed the file system file name limit are stored under
+ * {@code ~{sha256 of the blobId}}, next to a {@code ~{sha256 of the blobId}.id} file holding the blob id.
+ *
+ * Blobs are first written in the temporary directory then atomically renamed, thus readers never see partially
+ * written blobs. The parent directory is synced after the rename so that the rename itself survives a crash.
+ *
+ * Reactive reads of big blobs emit memory mapped regions of the file, which are not copied to the heap.
+ *
+ * Blobs of a bucket are listed in the lexicographic order of their path relative to the bucket directory.
+ */
+public class FileBlobStoreDAO implements BlobStoreDAO {
+    private static final String BUCKETS_DIRECTORY = "buckets";
+    private static final String TEMPORARY_DIRECTORY = "tmp";
+    private static final int SHARD_DEPTH = 2;
+    private static final long MEMORY_MAPPING_THRESHOLD = 1024 * 1024;
+    private static final long MAPPED_REGION_SIZE = 4 * 1024 * 1024;
+    private static final int MAX_FILE_NAME_LENGTH = 255;
+    private static final String HASHED_NAME_PREFIX = "~";
+    private static final String BLOB_ID_FILE_SUFFIX = ".id";
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final Base64.Encoder NAME_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder NAME_DECODER = Base64.getUrlDecoder();
+
+    private final Path bucketsDirectory;
+    private final Path temporaryDirectory;
+    private final BlobId.Factory blobIdFactory;
+
+    public FileBlobStoreDAO(Path rootDirectory, BlobId.Factory blobIdFactory) {
+        this.bucketsDirectory = rootDirectory.resolve(BUCKETS_DIRECTORY);
+        this.temporaryDirectory = rootDirectory.resolve(TEMPORARY_DIRECTORY);
+        this.blobIdFactory = blobIdFactory;
+        try {
+            Files.createDirectories(bucketsDirectory);
+            Files.createDirectories(temporaryDirectory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create blob store directories in " + rootDirectory, e);
+        }
+    }
+
+    @Override
+    public InputStream read(BucketName bucketName, BlobId blobId) throws ObjectStoreIOException, ObjectNotFoundException {
+        Preconditions.checkNotNull(bucketName);
+        try {
+            return Files.newInputStream(blobPath(bucketName, blobId));
+        } catch (NoSuchFileException e) {
+            throw notFound(bucketName, blobId);
+        } catch (IOException e) {
+            throw new ObjectStoreIOException("Failed reading blob " + blobId.asString(), e);
+        }
+    }
+
+    @Override
+    public Mono<byte[]> readBytes(BucketName bucketName, BlobId blobId) {
+        Preconditions.checkNotNull(bucketName);
+        return Mono.fromCallable(() -> readFully(bucketName, blobId))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private byte[] readFully(BucketName bucketName, BlobId blobId) {
+        try (FileChannel channel = FileChannel.open(blobPath(bucketName, blobId), StandardOpenOption.READ)) {
+            long size = channel.size();
+            Preconditions.checkState(size <= Integer.MAX_VALUE, "Blob %s is too big to be read in memory", blobId.asString());
+            byte[] bytes = new byte[(int) size];
+            if (size >= MEMORY_MAPPING_THRESHOLD) {
+                // A byte array is expected: mapping the file limits copies to this single one
+                channel.map(FileChannel.MapMode.READ_ONLY, 0, size).get(bytes);
+            } else {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                    // keep reading until the buffer is full
+                }
+            }
+            return bytes;
+        } catch (NoSuchFileException e) {
+            throw notFound(bucketName, blobId);
+        } catch (IOException e) {
+            throw new ObjectStoreIOException("Failed reading blob " + blobId.asString(), e);
+        }
+    }
+
+    @Override
+    public Flux<ByteBuffer> readReactive(BucketName bucketName, BlobId blobId) {
+        Preconditions.checkNotNull(bucketName);
+        return Flux.using(() -> FileChannel.open(blobPath(bucketName, blobId), StandardOpenOption.READ),
+                this::readChunks,
+                this::closeQuietly)
+            .onErrorMap(NoSuchFileException.class, e -> notFound(bucketName, blobId))
+            .onErrorMap(IOException.class, e -> new ObjectStoreIOException("Failed reading blob " + blobId.asString(), e))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Flux<ByteBuffer> readChunks(FileChannel channel) {
+        return Mono.fromCallable(channel::size)
+            .flatMapMany(size -> {
+                if (size >= MEMORY_MAPPING_THRESHOLD) {
+                    return mappedRegions(channel, size);
+                }
+                return readHeapChunks(channel);
+            });
+    }
+
+    /**
+     * Mappings stay valid once the channel is closed, and are handed over without being copied.
+     */
+    private Flux<ByteBuffer> mappedRegions(FileChannel channel, long size) {
+        return Flux.generate(() -> 0L, (position, sink) -> {
+            if (position >= size) {
+                sink.complete();
+                return position;
+            }
+            long length = Math.min(MAPPED_REGION_SIZE, size - position);
+            try {
+                sink.next(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+            } catch (IOException e) {
+                sink.error(e);
+            }
+            return position + length;
+        });
+    }
+
+    private Flux<ByteBuffer> readHeapChunks(FileChannel channel) {
+        return Flux.generate(sink -> {
+            try {
+                ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE);
+                int read = channel.read(chunk);
+                if (read < 0) {
+                    sink.complete();
+                } else {
+                    sink.next(chunk.flip());
+                }
+            } catch (IOException e) {
+                sink.error(e);
+            }
+        });
+    }
+
+    @Override
+    public Mono<Void> save(BucketName bucketName, BlobId blobId, byte[] data) {
+        Preconditions.checkNotNull(bucketName);
+        Preconditions.checkNotNull(data);
+        return save(bucketName, blobId, temporaryFile -> {
+            try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW)) {
+                ByteBuffer buffer = ByteBuffer.wrap(data);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+        });
+    }
+
+    @Override
+    public Mono<Void> save(BucketName bucketName, BlobId blobId, InputStream inputStream) {
+        Preconditions.checkNotNull(bucketName);
+        Preconditions.checkNotNull(inputStream);
+        return save(bucketName, blobId, temporaryFile -> {
+            try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW);
+                 OutputStream outputStream = Channels.newOutputStream(channel)) {
+                inputStream.transferTo(outputStream);
+                channel.force(false);
+            }
+        });
+    }
+
+    @Override
+    public Mono<Void> save(BucketName bucketName, BlobId blobId, ByteSource content) {
+        Preconditions.checkNotNull(bucketName);
+        return Mono.using(content::openStream,
+            inputStream -> save(bucketName, blobId, inputStream),
+            this::closeQuietly);
+    }
+
+    @FunctionalInterface
+    private interface TemporaryFileWriter {
+        void write(Path temporaryFile) throws IOException;
+    }
+
+    private Mono<Void> save(BucketName bucketName, BlobId blobId, TemporaryFileWriter writer) {
+        return Mono.<Void>fromRunnable(() -> {
+                Path temporaryFile = temporaryDirectory.resolve(UUID.randomUUID().toString());
+                try {
+                    writer.write(temporaryFile);
+                    Path target = blobPath(bucketName, blobId);
+                    moveToTarget(temporaryFile, target);
+                    if (isHashedName(target)) {
+                        saveBlobId(target, blobId);
+                    }
+                } catch (IOException e) {
+                    throw new ObjectStoreIOException("Failed saving blob " + blobId.asString(), e);
+                } finally {
+                    deleteIfExists(temporaryFile);
+                }
+            })
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private void saveBlobId(Path blobPath, BlobId blobId) throws IOException {
+        Path temporaryFile = temporaryDirectory.resolve(UUID.randomUUID().toString());
+        try {
+            try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW)) {
+                ByteBuffer buffer = ByteBuffer.wrap(blobId.asString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+            moveToTarget(temporaryFile, blobIdPath(blobPath));
+        } finally {
+            deleteIfExists(temporaryFile);
+        }
+    }
+
+    private void moveToTarget(Path temporaryFile, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(temporaryFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (NoSuchFileException e) {
+            // The shard directory was removed by a concurrent bucket deletion
+            Files.createDirectories(target.getParent());
+            Files.move(temporaryFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory(target.getParent());
+    }
+
+    private void syncDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    @Override
+    public Mono<Void> delete(BucketName bucketName, BlobId blobId) {
+        Preconditions.checkNotNull(bucketName);
+        return Mono.<Void>fromRunnable(() -> deleteBlob(blobPath(bucketName, blobId)))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Void> delete(BucketName bucketName, Collection<BlobId> blobIds) {
+        Preconditions.checkNotNull(bucketName);
+        return Mono.<Void>fromRunnable(() -> blobIds.forEach(blobId -> deleteBlob(blobPath(bucketName, blobId))))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Void> deleteBucket(BucketName bucketName) {
+        Preconditions.checkNotNull(bucketName);
+        return Mono.<Void>fromRunnable(() -> deleteRecursively(bucketPath(bucketName)))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Flux<BucketName> listBuckets() {
+        return Flux.using(() -> Files.list(bucketsDirectory),
+                Flux::fromStream,
+                Stream::close)
+            .map(path -> BucketName.of(decodeName(path)))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Flux<BlobId> listBlobs(BucketName bucketName) {
+        Preconditions.checkNotNull(bucketName);
+        return listBlobs(bucketName, Optional.empty());
+    }
+
+    @Override
+    public Flux<BlobId> listBlobsAfter(BucketName bucketName, BlobId after) {
+        Preconditions.checkNotNull(bucketName);
+        Path bucketPath = bucketPath(bucketName);
+        return listBlobs(bucketName, Optional.of(bucketPath.relativize(blobPath(bucketName, after))));
+    }
+
+    /**
+     * Shards are derived from a hash of the blob id, hence blobs of excluded prefixes are filtered out of the listing.
+     */
+    @Override
+    public Flux<BlobId> listBlobsExcluding(BucketName bucketName, Optional<BlobId> after, Collection<String> excludedPrefixes) {
+        return after.map(position -> listBlobsAfter(bucketName, position))
+            .orElseGet(() -> listBlobs(bucketName))
+            .filter(blobId -> excludedPrefixes.stream().noneMatch(blobId.asString()::startsWith));
+    }
+
+    private Flux<BlobId> listBlobs(BucketName bucketName, Optional<Path> cursor) {
+        Path bucketPath = bucketPath(bucketName);
+        return listBlobFiles(bucketPath, bucketPath, cursor)
+            .flatMap(path -> Mono.justOrEmpty(readBlobId(path)))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Flux<Path> listBlobFiles(Path bucketPath, Path directory, Optional<Path> cursor) {
+        Flux<Path> children = sortedChildren(directory)
+            .filter(child -> cursor.map(position -> isAfter(bucketPath.relativize(child), position)).orElse(true));
+        if (directory.getNameCount() - bucketPath.getNameCount() == SHARD_DEPTH) {
+            return children.filter(Files::isRegularFile)
+                .filter(child -> !isBlobIdFile(child));
+        }
+        return children.filter(Files::isDirectory)
+            .concatMap(child -> listBlobFiles(bucketPath, child, cursor));
+    }
+
+    private Flux<Path> sortedChildren(Path directory) {
+        return Flux.using(() -> Files.list(directory),
+                children -> Flux.fromIterable(children.sorted().collect(ImmutableList.toImmutableList())),
+                Stream::close)
+            // the directory does not exist or was removed by a concurrent bucket deletion
+            .onErrorResume(NoSuchFileException.class, e -> Flux.empty());
+    }
+
+    /**
+     * Directories are kept when they might contain paths following the cursor, files when they follow it.
+     */
+    private boolean isAfter(Path relativePath, Path cursor) {
+        int depth = relativePath.getNameCount();
+        int comparison = relativePath.compareTo(cursor.subpath(0, depth));
+        return comparison > 0 || (comparison == 0 && depth < cursor.getNameCount());
+    }
+
+    private Path bucketPath(BucketName bucketName) {
+        return bucketsDirectory.resolve(encodeName(bucketName.asString()));
+    }
+
+    private Path blobPath(BucketName bucketName, BlobId blobId) {
+        String shards = Hashing.murmur3_32_fixed().hashString(blobId.asString(), StandardCharsets.UTF_8).toString();
+        return bucketPath(bucketName)
+            .resolve(shards.substring(0, 2))
+            .resolve(shards.substring(2, 4))
+            .resolve(blobFileName(blobId));
+    }
+
+    private String blobFileName(BlobId blobId) {
+        String encodedName = encodeName(blobId.asString());
+        if (encodedName.length() <= MAX_FILE_NAME_LENGTH) {
+            return encodedName;
+        }
+        return HASHED_NAME_PREFIX + Hashing.sha256().hashString(blobId.asString(), StandardCharsets.UTF_8);
+    }
+
+    private boolean isHashedName(Path blobPath) {
+        return blobPath.getFileName().toString().startsWith(HASHED_NAME_PREFIX);
+    }
+
+    private boolean isBlobIdFile(Path path) {
+        return path.getFileName().toString().endsWith(BLOB_ID_FILE_SUFFIX);
+    }
+
+    private Path blobIdPath(Path blobPath) {
+        return blobPath.resolveSibling(blobPath.getFileName() + BLOB_ID_FILE_SUFFIX);
+    }
+
+    private Optional<BlobId> readBlobId(Path blobPath) {
+        if (!isHashedName(blobPath)) {
+            return Optional.of(blobIdFactory.from(decodeName(blobPath)));
+        }
+        try {
+            return Optional.of(blobIdFactory.from(Files.readString(blobIdPath(blobPath), StandardCharsets.UTF_8)));
+        } catch (NoSuchFileException e) {
+            // the blob id is not written yet, or the blob is being deleted
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new ObjectStoreIOException("Failed reading the blob id of " + blobPath, e);
+        }
+    }
+
+    private String encodeName(String name) {
+        return NAME_ENCODER.encodeToString(name.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String decodeName(Path path) {
+        return new String(NAME_DECODER.decode(path.getFileName().toString()), StandardCharsets.UTF_8);
+    }
+
+    private ObjectNotFoundException notFound(BucketName bucketName, BlobId blobId) {
+        return new ObjectNotFoundException(String.format("blob '%s' not found in bucket '%s'", blobId.asString(), bucketName.asString()));
+    }
+
+    private void deleteBlob(Path blobPath) {
+        deleteIfExists(blobPath);
+        if (isHashedName(blobPath)) {
+            deleteIfExists(blobIdPath(blobPath));
+        }
+    }
+
+    private void deleteIfExists(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new ObjectStoreIOException("Failed deleting " + path, e);
+        }
+    }
+
+    private void deleteRecursively(Path directory) {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try {
+            Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    Files.deleteIfExists(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) throws IOException {
+                    if (e instanceof NoSuchFileException) {
+                        // concurrently deleted
+                        return FileVisitResult.CONTINUE;
+                    }
+                    throw e;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                    try {
+                        Files.deleteIfExists(dir);
+                    } catch (DirectoryNotEmptyException concurrentlyWritten) {
+                        // a blob was concurrently saved, which is allowed to leave the bucket in an inconsistent state
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (NoSuchFileException e) {
+            // concurrently deleted
+        } catch (IOException e) {
+            throw new ObjectStoreIOException("Failed deleting " + directory, e);
+        }
+    }
+
+    private void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // ignored
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.blob.file;
+
+import static org.apache.james.blob.api.BlobStoreDAOFixture.TEST_BLOB_ID;
+import static org.apache.james.blob.api.BlobStoreDAOFixture.TEST_BUCKET_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.BlobStoreDAO;
+import org.apache.james.blob.api.BlobStoreDAOContract;
+import org.apache.james.blob.api.TestBlobId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.google.common.base.Strings;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class FileBlobStoreDAOTest implements BlobStoreDAOContract {
+    private static final int BIG_BLOB_SIZE = 2 * 1024 * 1024;
+    private static final BlobId LONG_BLOB_ID = new TestBlobId(Strings.repeat("a", 300));
+
+    @TempDir
+    Path rootDirectory;
+
+    private FileBlobStoreDAO blobStore;
+
+    @BeforeEach
+    void setUp() {
+        blobStore = new FileBlobStoreDAO(rootDirectory, new TestBlobId.Factory());
+    }
+
+    @Override
+    public BlobStoreDAO testee() {
+        return blobStore;
+    }
+
+    @Test
+    void readBytesShouldReturnMemoryMappedBlobs() {
+        byte[] bigBlob = new byte[BIG_BLOB_SIZE];
+        bigBlob[BIG_BLOB_SIZE - 1] = 42;
+
+        Mono.from(blobStore.save(TEST_BUCKET_NAME, TEST_BLOB_ID, bigBlob)).block();
+
+        assertThat(Mono.from(blobStore.readBytes(TEST_BUCKET_NAME, TEST_BLOB_ID)).block())
+            .isEqualTo(bigBlob);
+    }
+
+    @Test
+    void readReactiveShouldEmitMemoryMappedRegionsForBigBlobs() {
+        byte[] bigBlob = new byte[BIG_BLOB_SIZE];
+        bigBlob[BIG_BLOB_SIZE - 1] = 42;
+        Mono.from(blobStore.save(TEST_BUCKET_NAME, TEST_BLOB_ID, bigBlob)).block();
+
+        List<ByteBuffer> regions = Flux.from(blobStore.readReactive(TEST_BUCKET_NAME, TEST_BLOB_ID)).collectList().block();
+
+        assertThat(regions).allMatch(ByteBuffer::isDirect);
+        ByteBuffer content = ByteBuffer.allocate(BIG_BLOB_SIZE);
+        regions.forEach(content::put);
+        assertThat(content.array()).isEqualTo(bigBlob);
+    }
+
+    @Test
+    void longBlobIdsShouldBeSupported() {
+        Mono.from(blobStore.save(TEST_BUCKET_NAME, LONG_BLOB_ID, "content")).block();
+
+        assertThat(Mono.from(blobStore.readBytes(TEST_BUCKET_NAME, LONG_BLOB_ID)).block()).isEqualTo("content".getBytes(StandardCharsets.UTF_8));
+        assertThat(Flux.from(blobStore.listBlobs(TEST_BUCKET_NAME)).collectList().block()).containsExactly(LONG_BLOB_ID);
+    }
+
+    @Test
+    void listBlobsAfterShouldSupportLongBlobIds() {
+        Mono.from(blobStore.save(TEST_BUCKET_NAME, LONG_BLOB_ID, "content")).block();
+        Mono.from(blobStore.save(TEST_BUCKET_NAME, TEST_BLOB_ID, "content")).block();
+
+        List<BlobId> blobIds = Flux.from(blobStore.listBlobs(TEST_BUCKET_NAME)).collectList().block();
+
+        assertThat(Flux.from(blobStore.listBlobsAfter(TEST_BUCKET_NAME, blobIds.get(0))).collectList().block())
+            .containsExactly(blobIds.get(1));
+    }
+
+    @Test
+    void deleteShouldRemoveAllFilesOfLongBlobIds() throws Exception {
+        Mono.from(blobStore.save(TEST_BUCKET_NAME, LONG_BLOB_ID, "content")).block();
+
+        Mono.from(blobStore.delete(TEST_BUCKET_NAME, LONG_BLOB_ID)).block();
+
+        try (Stream<Path> files = Files.walk(rootDirectory.resolve("buckets"))) {
+            assertThat(files.filter(Files::isRegularFile)).isEmpty();
+        }
+    }
+
+    @Test
+    void saveShouldNotLeaveTemporaryFiles() throws Exception {
+        Mono.from(blobStore.save(TEST_BUCKET_NAME, TEST_BLOB_ID, "content")).block();
+
+        assertThat(rootDirectory.resolve("tmp")).isEmptyDirectory();
+    }
+}
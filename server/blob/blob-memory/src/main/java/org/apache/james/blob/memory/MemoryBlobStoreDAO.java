@@ -22,7 +22,10 @@ package org.apache.james.blob.memory;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.Optional;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.james.blob.api.BlobId;
@@ -34,6 +37,7 @@ import org.reactivestreams.Publisher;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Table;
 import com.google.common.io.ByteSource;
@@ -62,6 +66,13 @@ public class MemoryBlobStoreDAO implements BlobStoreDAO {
             .switchIfEmpty(Mono.error(() -> new ObjectNotFoundException(String.format("blob '%s' not found in bucket '%s'", blobId.asString(), bucketName.asString()))));
     }
 
+    @Override
+    public Flux<ByteBuffer> readReactive(BucketName bucketName, BlobId blobId) {
+        return readBytes(bucketName, blobId)
+            .map(ByteBuffer::wrap)
+            .flux();
+    }
+
     @Override
     public Mono<Void> save(BucketName bucketName, BlobId blobId, byte[] data) {
         return Mono.fromRunnable(() -> {
@@ -129,6 +140,22 @@ public class MemoryBlobStoreDAO implements BlobStoreDAO {
 
     @Override
     public Publisher<BlobId> listBlobs(BucketName bucketName) {
-        return Flux.fromIterable(ImmutableSet.copyOf(blobs.row(bucketName).keySet()));
+        return Flux.fromIterable(blobs.row(bucketName).keySet()
+            .stream()
+            .sorted(Comparator.comparing(BlobId::asString))
+            .collect(ImmutableList.toImmutableList()));
+    }
+
+    @Override
+    public Publisher<BlobId> listBlobsAfter(BucketName bucketName, BlobId after) {
+        return Flux.from(listBlobs(bucketName))
+            .filter(blobId -> blobId.asString().compareTo(after.asString()) > 0);
+    }
+
+    @Override
+    public Publisher<BlobId> listBlobsExcluding(BucketName bucketName, Optional<BlobId> after, Collection<String> excludedPrefixes) {
+        return Flux.from(after.map(position -> listBlobsAfter(bucketName, position))
+                .orElseGet(() -> listBlobs(bucketName)))
+            .filter(blobId -> excludedPrefixes.stream().noneMatch(blobId.asString()::startsWith));
     }
 }
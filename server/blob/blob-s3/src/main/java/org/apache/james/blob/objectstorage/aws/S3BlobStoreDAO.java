@@ -30,8 +30,11 @@ import java.security.GeneralSecurityException;
 import java.security.KeyStore;
 import java.time.Duration;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
@@ -52,6 +55,7 @@ import com.github.fge.lambdas.Throwing;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedSet;
 import com.google.common.io.ByteSource;
 import com.google.common.io.FileBackedOutputStream;
 
@@ -81,6 +85,7 @@ import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.paginators.ListObjectsV2Publisher;
 
 public class S3BlobStoreDAO implements BlobStoreDAO, Startable, Closeable {
 
@@ -206,6 +211,17 @@ public class S3BlobStoreDAO implements BlobStoreDAO, Startable, Closeable {
     }
 
 
+    @Override
+    public Flux<ByteBuffer> readReactive(BucketName bucketName, BlobId blobId) {
+        BucketName resolvedBucketName = bucketNameResolver.resolve(bucketName);
+
+        return getObject(resolvedBucketName, blobId)
+            .onErrorMap(NoSuchBucketException.class, e -> new ObjectNotFoundException("Bucket not found " + resolvedBucketName.asString(), e))
+            .onErrorMap(NoSuchKeyException.class, e -> new ObjectNotFoundException("Blob not found " + resolvedBucketName.asString(), e))
+            .publishOn(Schedulers.parallel())
+            .flatMapMany(response -> response.flux);
+    }
+
     @Override
     public Mono<byte[]> readBytes(BucketName bucketName, BlobId blobId) {
         BucketName resolvedBucketName = bucketNameResolver.resolve(bucketName);
@@ -366,7 +382,66 @@ public class S3BlobStoreDAO implements BlobStoreDAO, Startable, Closeable {
 
     @Override
     public Publisher<BlobId> listBlobs(BucketName bucketName) {
-        return Flux.from(client.listObjectsV2Paginator(builder -> builder.bucket(bucketName.asString())))
+        return listBlobs(client.listObjectsV2Paginator(builder -> builder.bucket(bucketName.asString())));
+    }
+
+    /**
+     * S3 lists objects in ascending order of their keys, and can start after any key.
+     */
+    @Override
+    public Publisher<BlobId> listBlobsAfter(BucketName bucketName, BlobId after) {
+        return listBlobs(client.listObjectsV2Paginator(builder -> builder.bucket(bucketName.asString())
+            .startAfter(after.asString())));
+    }
+
+    /**
+     * Excluded prefixes split the sorted key space into ranges, each listed from its start and left at its end: the
+     * blobs of excluded prefixes are never listed.
+     */
+    @Override
+    public Publisher<BlobId> listBlobsExcluding(BucketName bucketName, Optional<BlobId> after, Collection<String> excludedPrefixes) {
+        ImmutableList<String> prefixes = outermostPrefixes(excludedPrefixes);
+        Stream<Optional<String>> rangeStarts = Stream.concat(Stream.of(Optional.empty()),
+            prefixes.stream().map(prefix -> Optional.of(prefix + Character.MAX_VALUE)));
+        Stream<Optional<String>> rangeEnds = Stream.concat(prefixes.stream().map(Optional::of),
+            Stream.of(Optional.empty()));
+
+        return Flux.zip(Flux.fromStream(rangeStarts), Flux.fromStream(rangeEnds))
+            .concatMap(range -> listRange(bucketName, latest(after.map(BlobId::asString), range.getT1()), range.getT2()));
+    }
+
+    private Flux<BlobId> listRange(BucketName bucketName, Optional<String> startAfter, Optional<String> end) {
+        boolean emptyRange = startAfter.flatMap(start -> end.map(position -> start.compareTo(position) >= 0))
+            .orElse(false);
+        if (emptyRange) {
+            return Flux.empty();
+        }
+        return listBlobs(client.listObjectsV2Paginator(builder -> builder.bucket(bucketName.asString())
+                .startAfter(startAfter.orElse(null))))
+            .takeWhile(blobId -> end.map(position -> blobId.asString().compareTo(position) < 0).orElse(true));
+    }
+
+    // Prefixes starting with another excluded prefix are part of its range
+    private static ImmutableList<String> outermostPrefixes(Collection<String> prefixes) {
+        ImmutableList.Builder<String> outermostPrefixes = ImmutableList.builder();
+        Optional<String> previous = Optional.empty();
+        for (String prefix : ImmutableSortedSet.copyOf(prefixes)) {
+            if (!previous.map(prefix::startsWith).orElse(false)) {
+                outermostPrefixes.add(prefix);
+                previous = Optional.of(prefix);
+            }
+        }
+        return outermostPrefixes.build();
+    }
+
+    private static Optional<String> latest(Optional<String> position, Optional<String> otherPosition) {
+        return Stream.of(position, otherPosition)
+            .flatMap(Optional::stream)
+            .max(Comparator.naturalOrder());
+    }
+
+    private Flux<BlobId> listBlobs(ListObjectsV2Publisher listing) {
+        return Flux.from(listing)
             .flatMapIterable(ListObjectsV2Response::contents)
             .map(S3Object::key)
             .map(blobIdFactory::from)
@@ -19,8 +19,11 @@
 
 package org.apache.james.server.blob.deduplication;
 
+import static org.apache.james.util.ReactorUtils.DEFAULT_CONCURRENCY;
+
 import java.time.Clock;
 import java.time.Instant;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 
@@ -32,9 +35,51 @@ import org.apache.james.task.Task;
 import org.apache.james.task.TaskExecutionDetails;
 import org.apache.james.task.TaskType;
 
+import com.google.common.base.Preconditions;
+
 public class BlobGCTask implements Task {
     public static final TaskType TASK_TYPE = TaskType.of("BlobGCTask");
 
+    public static class RunningOptions {
+        public static final int DEFAULT_DELETION_PARALLELISM = DEFAULT_CONCURRENCY;
+        public static final RunningOptions DEFAULT = new RunningOptions(DEFAULT_DELETION_PARALLELISM, Optional.empty());
+
+        private final int deletionParallelism;
+        private final Optional<Integer> deletionsPerSecond;
+
+        public RunningOptions(int deletionParallelism, Optional<Integer> deletionsPerSecond) {
+            Preconditions.checkArgument(deletionParallelism > 0, "'deletionParallelism' must be strictly positive");
+            deletionsPerSecond.ifPresent(rate -> Preconditions.checkArgument(rate > 0, "'deletionsPerSecond' must be strictly positive"));
+
+            this.deletionParallelism = deletionParallelism;
+            this.deletionsPerSecond = deletionsPerSecond;
+        }
+
+        public int getDeletionParallelism() {
+            return deletionParallelism;
+        }
+
+        public Optional<Integer> getDeletionsPerSecond() {
+            return deletionsPerSecond;
+        }
+
+        @Override
+        public final boolean equals(Object o) {
+            if (o instanceof RunningOptions) {
+                RunningOptions that = (RunningOptions) o;
+
+                return Objects.equals(this.deletionParallelism, that.deletionParallelism)
+                    && Objects.equals(this.deletionsPerSecond, that.deletionsPerSecond);
+            }
+            return false;
+        }
+
+        @Override
+        public final int hashCode() {
+            return Objects.hash(deletionParallelism, deletionsPerSecond);
+        }
+    }
+
     public static class AdditionalInformation implements TaskExecutionDetails.AdditionalInformation {
 
         private static AdditionalInformation from(Context context) {
@@ -46,6 +91,8 @@ public class BlobGCTask implements Task {
                 snapshot.getErrorCount(),
                 snapshot.getBloomFilterExpectedBlobCount(),
                 snapshot.getBloomFilterAssociatedProbability(),
+                context.referenceSourceThroughput(),
+                context.blobThroughput(),
                 Clock.systemUTC().instant());
         }
 
@@ -56,6 +103,8 @@ public class BlobGCTask implements Task {
         private final long errorCount;
         private final long bloomFilterExpectedBlobCount;
         private final double bloomFilterAssociatedProbability;
+        private final double referenceSourceThroughput;
+        private final double blobThroughput;
 
         AdditionalInformation(long referenceSourceCount,
                               long blobCount,
@@ -63,6 +112,8 @@ public class BlobGCTask implements Task {
                               long errorCount,
                               long bloomFilterExpectedBlobCount,
                               double bloomFilterAssociatedProbability,
+                              double referenceSourceThroughput,
+                              double blobThroughput,
                               Instant timestamp) {
             this.referenceSourceCount = referenceSourceCount;
             this.blobCount = blobCount;
@@ -70,6 +121,8 @@ public class BlobGCTask implements Task {
             this.errorCount = errorCount;
             this.bloomFilterExpectedBlobCount = bloomFilterExpectedBlobCount;
             this.bloomFilterAssociatedProbability = bloomFilterAssociatedProbability;
+            this.referenceSourceThroughput = referenceSourceThroughput;
+            this.blobThroughput = blobThroughput;
             this.timestamp = timestamp;
         }
 
@@ -105,13 +158,26 @@ public class BlobGCTask implements Task {
         public double getBloomFilterAssociatedProbability() {
             return bloomFilterAssociatedProbability;
         }
+
+        public double getReferenceSourceThroughput() {
+            return referenceSourceThroughput;
+        }
+
+        public double getBlobThroughput() {
+            return blobThroughput;
+        }
     }
 
     interface Builder {
 
+        @FunctionalInterface
+        interface RequireRunningOptions {
+            BlobGCTask runningOptions(RunningOptions runningOptions);
+        }
+
         @FunctionalInterface
         interface RequireAssociatedProbability {
-            BlobGCTask associatedProbability(double associatedProbability);
+            RequireRunningOptions associatedProbability(double associatedProbability);
         }
 
         @FunctionalInterface
@@ -153,7 +219,7 @@ public class BlobGCTask implements Task {
     public static Builder.RequireBlobStoreDAO builder() {
         return blobStoreDao -> generationAwareBlobIdFactory -> generationAwareBlobIdConfiguration
             -> blobReferenceSources -> bucketName -> clock -> expectedBlobCount
-            -> associatedProbability
+            -> associatedProbability -> runningOptions
             -> new BlobGCTask(
             blobStoreDao,
             generationAwareBlobIdFactory,
@@ -162,7 +228,8 @@ public class BlobGCTask implements Task {
             bucketName,
             clock,
             expectedBlobCount,
-            associatedProbability);
+            associatedProbability,
+            runningOptions);
     }
 
 
@@ -174,6 +241,7 @@ public class BlobGCTask implements Task {
     private final BucketName bucketName;
     private final int expectedBlobCount;
     private final double associatedProbability;
+    private final RunningOptions runningOptions;
     private final Context context;
 
 
@@ -184,7 +252,8 @@ public class BlobGCTask implements Task {
                       BucketName bucketName,
                       Clock clock,
                       int expectedBlobCount,
-                      double associatedProbability) {
+                      double associatedProbability,
+                      RunningOptions runningOptions) {
         this.blobStoreDAO = blobStoreDAO;
         this.generationAwareBlobIdFactory = generationAwareBlobIdFactory;
         this.generationAwareBlobIdConfiguration = generationAwareBlobIdConfiguration;
@@ -193,6 +262,7 @@ public class BlobGCTask implements Task {
         this.bucketName = bucketName;
         this.expectedBlobCount = expectedBlobCount;
         this.associatedProbability = associatedProbability;
+        this.runningOptions = runningOptions;
         this.context = new Context(expectedBlobCount, associatedProbability);
     }
 
@@ -205,7 +275,7 @@ public class BlobGCTask implements Task {
             generationAwareBlobIdConfiguration,
             clock);
 
-        return gcAlgorithm.gc(expectedBlobCount, associatedProbability, bucketName, context)
+        return gcAlgorithm.gc(expectedBlobCount, associatedProbability, bucketName, runningOptions, context)
             .block();
     }
 
@@ -234,4 +304,8 @@ public class BlobGCTask implements Task {
     public double getAssociatedProbability() {
         return associatedProbability;
     }
+
+    public RunningOptions getRunningOptions() {
+        return runningOptions;
+    }
 }
@@ -40,6 +40,8 @@ public class BlobGCTaskAdditionalInformationDTO implements AdditionalInformation
                     dto.errorCount,
                     dto.bloomFilterExpectedBlobCount,
                     dto.bloomFilterAssociatedProbability,
+                    dto.referenceSourceThroughput,
+                    dto.blobThroughput,
                     dto.timestamp
                 ))
             .toDTOConverter((domain, type) ->
@@ -51,7 +53,9 @@ public class BlobGCTaskAdditionalInformationDTO implements AdditionalInformation
                     domain.getGcedBlobCount(),
                     domain.getErrorCount(),
                     domain.getBloomFilterExpectedBlobCount(),
-                    domain.getBloomFilterAssociatedProbability()
+                    domain.getBloomFilterAssociatedProbability(),
+                    domain.getReferenceSourceThroughput(),
+                    domain.getBlobThroughput()
                 ))
             .typeName(BlobGCTask.TASK_TYPE.asString())
             .withFactory(AdditionalInformationDTOModule::new);
@@ -64,6 +68,8 @@ public class BlobGCTaskAdditionalInformationDTO implements AdditionalInformation
     private final long errorCount;
     private final long bloomFilterExpectedBlobCount;
     private final double bloomFilterAssociatedProbability;
+    private final double referenceSourceThroughput;
+    private final double blobThroughput;
 
     public BlobGCTaskAdditionalInformationDTO(@JsonProperty("type") String type,
                                               @JsonProperty("timestamp") Instant timestamp,
@@ -72,7 +78,9 @@ public class BlobGCTaskAdditionalInformationDTO implements AdditionalInformation
                                               @JsonProperty("gcedBlobCount") long gcedBlobCount,
                                               @JsonProperty("errorCount") long errorCount,
                                               @JsonProperty("bloomFilterExpectedBlobCount") long bloomFilterExpectedBlobCount,
-                                              @JsonProperty("bloomFilterAssociatedProbability") double bloomFilterAssociatedProbability) {
+                                              @JsonProperty("bloomFilterAssociatedProbability") double bloomFilterAssociatedProbability,
+                                              @JsonProperty("referenceSourceThroughput") double referenceSourceThroughput,
+                                              @JsonProperty("blobThroughput") double blobThroughput) {
         this.type = type;
         this.timestamp = timestamp;
         this.referenceSourceCount = referenceSourceCount;
@@ -81,6 +89,8 @@ public class BlobGCTaskAdditionalInformationDTO implements AdditionalInformation
         this.errorCount = errorCount;
         this.bloomFilterExpectedBlobCount = bloomFilterExpectedBlobCount;
         this.bloomFilterAssociatedProbability = bloomFilterAssociatedProbability;
+        this.referenceSourceThroughput = referenceSourceThroughput;
+        this.blobThroughput = blobThroughput;
     }
 
 
@@ -117,4 +127,12 @@ public class BlobGCTaskAdditionalInformationDTO implements AdditionalInformation
     public double getBloomFilterAssociatedProbability() {
         return bloomFilterAssociatedProbability;
     }
+
+    public double getReferenceSourceThroughput() {
+        return referenceSourceThroughput;
+    }
+
+    public double getBlobThroughput() {
+        return blobThroughput;
+    }
 }
@@ -20,6 +20,7 @@
 package org.apache.james.server.blob.deduplication;
 
 import java.time.Clock;
+import java.util.Optional;
 import java.util.Set;
 
 import org.apache.james.blob.api.BlobReferenceSource;
@@ -36,15 +37,21 @@ public class BlobGCTaskDTO implements TaskDTO {
     private final String bucketName;
     private final int expectedBlobCount;
     private final double associatedProbability;
+    private final Optional<Integer> deletionParallelism;
+    private final Optional<Integer> deletionsPerSecond;
     private final String type;
 
     public BlobGCTaskDTO(@JsonProperty("bucketName") String bucketName,
                          @JsonProperty("expectedBlobCount") int expectedBlobCount,
                          @JsonProperty("associatedProbability") double associatedProbability,
+                         @JsonProperty("deletionParallelism") Optional<Integer> deletionParallelism,
+                         @JsonProperty("deletionsPerSecond") Optional<Integer> deletionsPerSecond,
                          @JsonProperty("type") String type) {
         this.bucketName = bucketName;
         this.expectedBlobCount = expectedBlobCount;
         this.associatedProbability = associatedProbability;
+        this.deletionParallelism = deletionParallelism;
+        this.deletionsPerSecond = deletionsPerSecond;
         this.type = type;
     }
 
@@ -64,12 +71,17 @@ public class BlobGCTaskDTO implements TaskDTO {
                     .bucketName(BucketName.of(dto.bucketName))
                     .clock(clock)
                     .expectedBlobCount(dto.expectedBlobCount)
-                    .associatedProbability(dto.associatedProbability))
+                    .associatedProbability(dto.associatedProbability)
+                    .runningOptions(new BlobGCTask.RunningOptions(
+                        dto.deletionParallelism.orElse(BlobGCTask.RunningOptions.DEFAULT_DELETION_PARALLELISM),
+                        dto.deletionsPerSecond)))
             .toDTOConverter((domain, type) ->
                 new BlobGCTaskDTO(
                     domain.getBucketName().asString(),
                     domain.getExpectedBlobCount(),
                     domain.getAssociatedProbability(),
+                    Optional.of(domain.getRunningOptions().getDeletionParallelism()),
+                    domain.getRunningOptions().getDeletionsPerSecond(),
                     type))
             .typeName(BlobGCTask.TASK_TYPE.asString())
             .withFactory(TaskDTOModule::new);
@@ -91,4 +103,12 @@ public class BlobGCTaskDTO implements TaskDTO {
     public double getAssociatedProbability() {
         return associatedProbability;
     }
+
+    public Optional<Integer> getDeletionParallelism() {
+        return deletionParallelism;
+    }
+
+    public Optional<Integer> getDeletionsPerSecond() {
+        return deletionsPerSecond;
+    }
 }
@@ -19,6 +19,8 @@
 
 package org.apache.james.server.blob.deduplication;
 
+import static org.apache.james.util.ReactorUtils.DEFAULT_CONCURRENCY;
+
 import java.util.Collection;
 
 import org.apache.james.blob.api.BlobReferenceSource;
@@ -33,7 +35,8 @@ public class BlobReferenceAggregate {
     }
 
     public static BlobReferenceSource aggregate(Collection<BlobReferenceSource> sources) {
+        // Sources are independent from each other and can be scanned concurrently
         return () -> Flux.fromIterable(sources)
-            .concatMap(BlobReferenceSource::listReferencedBlobs);
+            .flatMap(BlobReferenceSource::listReferencedBlobs, DEFAULT_CONCURRENCY);
     }
 }
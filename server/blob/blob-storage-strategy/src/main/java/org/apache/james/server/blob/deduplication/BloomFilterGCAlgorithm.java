@@ -19,17 +19,19 @@
 
 package org.apache.james.server.blob.deduplication;
 
-import static org.apache.james.util.ReactorUtils.DEFAULT_CONCURRENCY;
-
 import java.nio.charset.StandardCharsets;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
+import org.apache.james.blob.api.BlobId;
 import org.apache.james.blob.api.BlobReferenceSource;
 import org.apache.james.blob.api.BlobStoreDAO;
 import org.apache.james.blob.api.BucketName;
@@ -49,7 +51,7 @@ import reactor.core.publisher.Mono;
 public class BloomFilterGCAlgorithm {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(BloomFilterGCAlgorithm.class);
-    private static final Funnel<CharSequence> BLOOM_FILTER_FUNNEL = Funnels.stringFunnel(StandardCharsets.US_ASCII);
+    static final Funnel<CharSequence> BLOOM_FILTER_FUNNEL = Funnels.stringFunnel(StandardCharsets.US_ASCII);
     private static final int DELETION_BATCH_SIZE = 1000;
 
     public static class Context {
@@ -196,20 +198,73 @@ public class BloomFilterGCAlgorithm {
             }
         }
 
+        private static class Phase {
+            private final AtomicReference<Instant> start = new AtomicReference<>();
+            private final AtomicReference<Instant> end = new AtomicReference<>();
+
+            double throughput(long count, Clock clock) {
+                return Optional.ofNullable(start.get())
+                    .map(startInstant -> Duration.between(startInstant, Optional.ofNullable(end.get()).orElseGet(clock::instant)))
+                    .filter(duration -> !duration.isZero() && !duration.isNegative())
+                    .map(duration -> count * 1000.0 / duration.toMillis())
+                    .orElse(0.0);
+            }
+        }
+
         private final AtomicLong referenceSourceCount;
         private final AtomicLong blobCount;
         private final AtomicLong gcedBlobCount;
         private final AtomicLong errorCount;
         private final Long bloomFilterExpectedBlobCount;
         private final Double bloomFilterAssociatedProbability;
+        private final Clock clock;
+        private final Phase referenceSourcePhase;
+        private final Phase blobPhase;
 
         public Context(long bloomFilterExpectedBlobCount, double bloomFilterAssociatedProbability) {
+            this(bloomFilterExpectedBlobCount, bloomFilterAssociatedProbability, Clock.systemUTC());
+        }
+
+        public Context(long bloomFilterExpectedBlobCount, double bloomFilterAssociatedProbability, Clock clock) {
             this.referenceSourceCount = new AtomicLong();
             this.blobCount = new AtomicLong();
             this.gcedBlobCount = new AtomicLong();
             this.errorCount = new AtomicLong();
             this.bloomFilterExpectedBlobCount = bloomFilterExpectedBlobCount;
             this.bloomFilterAssociatedProbability = bloomFilterAssociatedProbability;
+            this.clock = clock;
+            this.referenceSourcePhase = new Phase();
+            this.blobPhase = new Phase();
+        }
+
+        void startReferenceSourcePhase() {
+            referenceSourcePhase.start.set(clock.instant());
+        }
+
+        void endReferenceSourcePhase() {
+            referenceSourcePhase.end.set(clock.instant());
+        }
+
+        void startBlobPhase() {
+            blobPhase.start.set(clock.instant());
+        }
+
+        void endBlobPhase() {
+            blobPhase.end.set(clock.instant());
+        }
+
+        /**
+         * @return the count of blob references read per second while populating the bloom filter
+         */
+        public double referenceSourceThroughput() {
+            return referenceSourcePhase.throughput(referenceSourceCount.get(), clock);
+        }
+
+        /**
+         * @return the count of blobs listed and tried against the bloom filter per second
+         */
+        public double blobThroughput() {
+            return blobPhase.throughput(blobCount.get(), clock);
         }
 
         public void incrementBlobCount() {
@@ -240,10 +295,21 @@ public class BloomFilterGCAlgorithm {
         }
     }
 
+    private static class Page {
+        private final Result result;
+        private final BlobId lastBlobId;
+
+        private Page(Result result, BlobId lastBlobId) {
+            this.result = result;
+            this.lastBlobId = lastBlobId;
+        }
+    }
+
     private final BlobReferenceSource referenceSource;
     private final BlobStoreDAO blobStoreDAO;
     private final GenerationAwareBlobId.Factory generationAwareBlobIdFactory;
     private final GenerationAwareBlobId.Configuration generationAwareBlobIdConfiguration;
+    private final BloomFilterGCCheckpoint.Store checkpointStore;
     private final Instant now;
 
     // Avoids two subsequent run to have the same false positives.
@@ -258,42 +324,98 @@ public class BloomFilterGCAlgorithm {
         this.blobStoreDAO = blobStoreDAO;
         this.generationAwareBlobIdFactory = generationAwareBlobIdFactory;
         this.generationAwareBlobIdConfiguration = generationAwareBlobIdConfiguration;
+        this.checkpointStore = new BloomFilterGCCheckpoint.Store(blobStoreDAO, generationAwareBlobIdFactory, BLOOM_FILTER_FUNNEL);
         this.salt = UUID.randomUUID().toString();
         this.now = clock.instant();
     }
 
     public Mono<Result> gc(int expectedBlobCount, double associatedProbability, BucketName bucketName, Context context) {
-        return populatedBloomFilter(expectedBlobCount, associatedProbability, context)
-            .flatMap(bloomFilter -> gc(bloomFilter, bucketName, context))
+        return gc(expectedBlobCount, associatedProbability, bucketName, BlobGCTask.RunningOptions.DEFAULT, context);
+    }
+
+    public Mono<Result> gc(int expectedBlobCount, double associatedProbability, BucketName bucketName, BlobGCTask.RunningOptions runningOptions, Context context) {
+        DeletionRateLimiter rateLimiter = DeletionRateLimiter.of(runningOptions.getDeletionsPerSecond());
+        return checkpoint(expectedBlobCount, associatedProbability, bucketName, context)
+            .flatMap(checkpoint -> gc(checkpoint, bucketName, runningOptions, rateLimiter, context))
             .onErrorResume(error -> {
                 LOGGER.error("Error when running blob deduplicate garbage collection", error);
                 return Mono.just(Result.PARTIAL);
             });
     }
 
-    private Mono<Result> gc(BloomFilter<CharSequence> bloomFilter, BucketName bucketName, Context context) {
-        return Flux.from(blobStoreDAO.listBlobs(bucketName))
+    private Mono<BloomFilterGCCheckpoint> checkpoint(int expectedBlobCount, double associatedProbability, BucketName bucketName, Context context) {
+        return checkpointStore.retrieve(bucketName)
+            .filter(this::isResumable)
+            .doOnNext(checkpoint -> LOGGER.info("Resuming blob garbage collection of {} started at {} after {}",
+                bucketName.asString(), checkpoint.getNow(), checkpoint.getCursor().orElse("<none>")))
+            .switchIfEmpty(Mono.defer(() -> populatedBloomFilter(expectedBlobCount, associatedProbability, context)
+                .map(bloomFilter -> new BloomFilterGCCheckpoint(salt, now, bloomFilter, Optional.empty()))
+                .flatMap(checkpoint -> checkpointStore.saveFilter(bucketName, checkpoint)
+                    .thenReturn(checkpoint))));
+    }
+
+    /**
+     * References added after the bloom filter was populated are only guaranteed to target active generations.
+     * Hence a checkpoint can only be resumed as long as the generations it considered expired are still expired
+     * from its own point of view, that is within a generation duration.
+     */
+    private boolean isResumable(BloomFilterGCCheckpoint checkpoint) {
+        return checkpoint.getNow().plus(generationAwareBlobIdConfiguration.getDuration()).isAfter(now);
+    }
+
+    private Mono<Result> gc(BloomFilterGCCheckpoint checkpoint, BucketName bucketName, BlobGCTask.RunningOptions runningOptions,
+                            DeletionRateLimiter rateLimiter, Context context) {
+        return listNotYetCollected(bucketName, checkpoint)
+            .doOnSubscribe(any -> context.startBlobPhase())
             .doOnNext(blobId -> context.incrementBlobCount())
-            .flatMap(blobId -> Mono.fromCallable(() -> generationAwareBlobIdFactory.from(blobId.asString())))
-            .filter(blobId -> !blobId.inActiveGeneration(generationAwareBlobIdConfiguration, now))
-            .filter(blobId -> !bloomFilter.mightContain(salt + blobId.asString()))
-            .window(DELETION_BATCH_SIZE)
-            .flatMap(blobIdFlux -> handlePagedDeletion(bucketName, context, blobIdFlux), DEFAULT_CONCURRENCY)
+            .buffer(DELETION_BATCH_SIZE)
+            .flatMapSequential(page -> handlePage(bucketName, checkpoint, rateLimiter, context, page), runningOptions.getDeletionParallelism())
+            .concatMap(page -> checkpointStore.saveCursor(bucketName, page.lastBlobId)
+                .thenReturn(page.result))
             .reduce(Task::combine)
-            .switchIfEmpty(Mono.just(Result.COMPLETED));
+            .switchIfEmpty(Mono.just(Result.COMPLETED))
+            .doOnSuccess(any -> context.endBlobPhase())
+            .flatMap(result -> checkpointStore.delete(bucketName)
+                .thenReturn(result));
     }
 
-    private Mono<Result> handlePagedDeletion(BucketName bucketName, Context context, Flux<GenerationAwareBlobId> blobIdFlux) {
-        return blobIdFlux.collectList()
-            .flatMap(orphanBlobIds -> Mono.from(blobStoreDAO.delete(bucketName, (Collection) orphanBlobIds))
-                .then(Mono.fromCallable(() -> {
-                    context.incrementGCedBlobCount(orphanBlobIds.size());
-                    return Result.COMPLETED;
-                })).onErrorResume(error -> {
-                    LOGGER.error("Error when gc orphan blob", error);
-                    context.incrementErrorCount();
-                    return Mono.just(Result.PARTIAL);
-                }));
+    /**
+     * Only blobs of expired generations are listed: the active generations are excluded by their id prefix.
+     *
+     * The cursor is the last listed blob of a handled page, which that page likely deleted: the listing is resumed
+     * from its position rather than by looking it up.
+     */
+    private Flux<BlobId> listNotYetCollected(BucketName bucketName, BloomFilterGCCheckpoint checkpoint) {
+        return Flux.from(blobStoreDAO.listBlobsExcluding(bucketName,
+            checkpoint.getCursor().map(generationAwareBlobIdFactory::from),
+            GenerationAwareBlobId.activeGenerationPrefixes(generationAwareBlobIdConfiguration, checkpoint.getNow())));
+    }
+
+    private Mono<Page> handlePage(BucketName bucketName, BloomFilterGCCheckpoint checkpoint, DeletionRateLimiter rateLimiter,
+                                  Context context, List<BlobId> page) {
+        BlobId lastBlobId = page.get(page.size() - 1);
+        return Flux.fromIterable(page)
+            .map(blobId -> generationAwareBlobIdFactory.from(blobId.asString()))
+            .filter(blobId -> !blobId.inActiveGeneration(generationAwareBlobIdConfiguration, checkpoint.getNow()))
+            .filter(blobId -> !checkpoint.mightBeReferenced(blobId))
+            .buffer(rateLimiter.batchSize(DELETION_BATCH_SIZE))
+            .concatMap(orphanBlobIds -> rateLimiter.acquire(orphanBlobIds.size())
+                .then(deleteOrphans(bucketName, context, orphanBlobIds)))
+            .reduce(Task::combine)
+            .switchIfEmpty(Mono.just(Result.COMPLETED))
+            .map(result -> new Page(result, lastBlobId));
+    }
+
+    private Mono<Result> deleteOrphans(BucketName bucketName, Context context, List<GenerationAwareBlobId> orphanBlobIds) {
+        return Mono.from(blobStoreDAO.delete(bucketName, (Collection) orphanBlobIds))
+            .then(Mono.fromCallable(() -> {
+                context.incrementGCedBlobCount(orphanBlobIds.size());
+                return Result.COMPLETED;
+            })).onErrorResume(error -> {
+                LOGGER.error("Error when gc orphan blob", error);
+                context.incrementErrorCount();
+                return Mono.just(Result.PARTIAL);
+            });
     }
 
     private Mono<BloomFilter<CharSequence>> populatedBloomFilter(int expectedBlobCount, double associatedProbability, Context context) {
@@ -303,9 +425,23 @@ public class BloomFilterGCAlgorithm {
                 associatedProbability))
             .flatMap(bloomFilter ->
                 Flux.from(referenceSource.listReferencedBlobs())
+                    .doOnSubscribe(any -> context.startReferenceSourcePhase())
                     .doOnNext(ref -> context.incrementReferenceSourceCount())
+                    .filter(ref -> !isInActiveGeneration(ref))
                     .map(ref -> bloomFilter.put(salt + ref.asString()))
                     .then()
+                    .doOnSuccess(any -> context.endReferenceSourcePhase())
                     .thenReturn(bloomFilter));
     }
+
+    // Blobs of active generations are never collected, thus there is no need to track their references
+    private boolean isInActiveGeneration(BlobId ref) {
+        try {
+            return generationAwareBlobIdFactory.from(ref.asString())
+                .inActiveGeneration(generationAwareBlobIdConfiguration, now);
+        } catch (IllegalArgumentException e) {
+            // Not a generation aware blob id, keep track of it
+            return false;
+        }
+    }
 }
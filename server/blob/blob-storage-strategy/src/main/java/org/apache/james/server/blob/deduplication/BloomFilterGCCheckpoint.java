@@ -0,0 +1,183 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.server.blob.deduplication;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.BlobStoreDAO;
+import org.apache.james.blob.api.BucketName;
+import org.apache.james.blob.api.ObjectNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnel;
+import com.google.common.io.FileBackedOutputStream;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * State allowing an interrupted {@link BloomFilterGCAlgorithm} run to resume where it stopped: the populated bloom filter,
+ * the salt and instant it was computed with, and the last blob id whose garbage collection completed.
+ */
+class BloomFilterGCCheckpoint {
+    static final BucketName CHECKPOINT_BUCKET = BucketName.of("blob-gc-checkpoints");
+
+    static class Store {
+        private static final Logger LOGGER = LoggerFactory.getLogger(Store.class);
+        private static final int FILE_THRESHOLD = 100 * 1024;
+
+        private final BlobStoreDAO blobStoreDAO;
+        private final BlobId.Factory blobIdFactory;
+        private final Funnel<CharSequence> funnel;
+
+        Store(BlobStoreDAO blobStoreDAO, BlobId.Factory blobIdFactory, Funnel<CharSequence> funnel) {
+            this.blobStoreDAO = blobStoreDAO;
+            this.blobIdFactory = blobIdFactory;
+            this.funnel = funnel;
+        }
+
+        Mono<BloomFilterGCCheckpoint> retrieve(BucketName bucketName) {
+            return Mono.fromCallable(() -> readFilter(bucketName))
+                .flatMap(Mono::justOrEmpty)
+                .flatMap(checkpoint -> readCursor(bucketName)
+                    .map(checkpoint::withCursor)
+                    .defaultIfEmpty(checkpoint))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> {
+                    LOGGER.warn("Failed reading blob GC checkpoint for {}, starting from scratch", bucketName.asString(), e);
+                    return Mono.empty();
+                });
+        }
+
+        private Optional<BloomFilterGCCheckpoint> readFilter(BucketName bucketName) throws IOException {
+            try (DataInputStream input = new DataInputStream(blobStoreDAO.read(CHECKPOINT_BUCKET, filterBlobId(bucketName)))) {
+                String salt = input.readUTF();
+                Instant now = Instant.ofEpochMilli(input.readLong());
+                BloomFilter<CharSequence> bloomFilter = BloomFilter.readFrom(input, funnel);
+                return Optional.of(new BloomFilterGCCheckpoint(salt, now, bloomFilter, Optional.empty()));
+            } catch (ObjectNotFoundException e) {
+                return Optional.empty();
+            }
+        }
+
+        private Mono<String> readCursor(BucketName bucketName) {
+            return Mono.from(blobStoreDAO.readBytes(CHECKPOINT_BUCKET, cursorBlobId(bucketName)))
+                .map(bytes -> new String(bytes, StandardCharsets.UTF_8))
+                .onErrorResume(ObjectNotFoundException.class, e -> Mono.empty());
+        }
+
+        Mono<Void> saveFilter(BucketName bucketName, BloomFilterGCCheckpoint checkpoint) {
+            return Mono.using(() -> new FileBackedOutputStream(FILE_THRESHOLD),
+                    fileBackedOutputStream -> Mono.fromCallable(() -> {
+                            DataOutputStream output = new DataOutputStream(fileBackedOutputStream);
+                            output.writeUTF(checkpoint.salt);
+                            output.writeLong(checkpoint.now.toEpochMilli());
+                            checkpoint.bloomFilter.writeTo(output);
+                            output.flush();
+                            return fileBackedOutputStream.asByteSource();
+                        })
+                        .flatMap(content -> Mono.from(blobStoreDAO.save(CHECKPOINT_BUCKET, filterBlobId(bucketName), content))),
+                    this::reset)
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> {
+                    LOGGER.warn("Failed saving blob GC bloom filter for {}, an interrupted run will not be resumable", bucketName.asString(), e);
+                    return Mono.empty();
+                });
+        }
+
+        Mono<Void> saveCursor(BucketName bucketName, BlobId cursor) {
+            return Mono.defer(() -> Mono.from(blobStoreDAO.save(CHECKPOINT_BUCKET, cursorBlobId(bucketName), cursor.asString())))
+                .onErrorResume(e -> {
+                    LOGGER.warn("Failed saving blob GC cursor for {}", bucketName.asString(), e);
+                    return Mono.empty();
+                });
+        }
+
+        Mono<Void> delete(BucketName bucketName) {
+            return Mono.defer(() -> Mono.from(blobStoreDAO.delete(CHECKPOINT_BUCKET, cursorBlobId(bucketName)))
+                    .then(Mono.from(blobStoreDAO.delete(CHECKPOINT_BUCKET, filterBlobId(bucketName)))))
+                .onErrorResume(e -> {
+                    LOGGER.warn("Failed deleting blob GC checkpoint for {}", bucketName.asString(), e);
+                    return Mono.empty();
+                });
+        }
+
+        private BlobId filterBlobId(BucketName bucketName) {
+            return blobIdFactory.from(checkpointName(bucketName) + "-filter");
+        }
+
+        private BlobId cursorBlobId(BucketName bucketName) {
+            return blobIdFactory.from(checkpointName(bucketName) + "-cursor");
+        }
+
+        private String checkpointName(BucketName bucketName) {
+            // '_' is the generation separator of GenerationAwareBlobId
+            return bucketName.asString().replace('_', '-');
+        }
+
+        private void reset(FileBackedOutputStream fileBackedOutputStream) {
+            try {
+                fileBackedOutputStream.reset();
+            } catch (IOException e) {
+                LOGGER.warn("Failed releasing blob GC checkpoint temporary file", e);
+            }
+        }
+    }
+
+    private final String salt;
+    private final Instant now;
+    private final BloomFilter<CharSequence> bloomFilter;
+    private final Optional<String> cursor;
+
+    BloomFilterGCCheckpoint(String salt, Instant now, BloomFilter<CharSequence> bloomFilter, Optional<String> cursor) {
+        this.salt = salt;
+        this.now = now;
+        this.bloomFilter = bloomFilter;
+        this.cursor = cursor;
+    }
+
+    BloomFilterGCCheckpoint withCursor(String cursor) {
+        return new BloomFilterGCCheckpoint(salt, now, bloomFilter, Optional.of(cursor));
+    }
+
+    boolean mightBeReferenced(BlobId blobId) {
+        return bloomFilter.mightContain(salt + blobId.asString());
+    }
+
+    String getSalt() {
+        return salt;
+    }
+
+    Instant getNow() {
+        return now;
+    }
+
+    Optional<String> getCursor() {
+        return cursor;
+    }
+}
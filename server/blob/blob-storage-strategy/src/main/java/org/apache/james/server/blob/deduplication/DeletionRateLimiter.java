@@ -0,0 +1,91 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.server.blob.deduplication;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Token bucket pacing blob deletions across concurrent deletion batches.
+ *
+ * Each acquisition reserves the next slot of the bucket and is delayed until that slot is reached, allowing at most one
+ * second worth of permits to burst.
+ *
+ * Deletions are meant to be issued in batches of {@link #batchSize(int)} blobs, each acquiring its own permits, so that
+ * they are spread over time rather than issued in bursts.
+ */
+class DeletionRateLimiter {
+    private static final long ONE_SECOND_IN_NANOS = Duration.ofSeconds(1).toNanos();
+    private static final int BATCHES_PER_SECOND = 10;
+
+    static DeletionRateLimiter of(Optional<Integer> permitsPerSecond) {
+        return permitsPerSecond
+            .map(rate -> new DeletionRateLimiter(rate, Ticker.systemTicker()))
+            .orElseGet(DeletionRateLimiter::unlimited);
+    }
+
+    static DeletionRateLimiter unlimited() {
+        return new DeletionRateLimiter(Integer.MAX_VALUE, Ticker.systemTicker());
+    }
+
+    private final int permitsPerSecond;
+    private final Ticker ticker;
+    // Instant at which the bucket would be full again, given the permits already granted
+    private long theoreticalArrivalNanos;
+
+    @VisibleForTesting
+    DeletionRateLimiter(int permitsPerSecond, Ticker ticker) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.ticker = ticker;
+        this.theoreticalArrivalNanos = ticker.read();
+    }
+
+    /**
+     * @return the size of deletion batches, matching a tenth of a second worth of permits
+     */
+    int batchSize(int maxBatchSize) {
+        return Math.max(1, Math.min(maxBatchSize, permitsPerSecond / BATCHES_PER_SECOND));
+    }
+
+    Mono<Void> acquire(int permits) {
+        if (permitsPerSecond == Integer.MAX_VALUE) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> {
+            Duration delay = reserve(permits);
+            if (delay.isZero()) {
+                return Mono.empty();
+            }
+            return Mono.delay(delay).then();
+        });
+    }
+
+    @VisibleForTesting
+    synchronized Duration reserve(int permits) {
+        long now = ticker.read();
+        theoreticalArrivalNanos = Math.max(theoreticalArrivalNanos, now) + permits * ONE_SECOND_IN_NANOS / permitsPerSecond;
+        return Duration.ofNanos(Math.max(0, theoreticalArrivalNanos - now - ONE_SECOND_IN_NANOS));
+    }
+}
@@ -25,6 +25,7 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import org.apache.james.blob.api.BlobId;
 import org.apache.james.util.DurationParser;
@@ -32,6 +33,7 @@ import org.apache.james.util.DurationParser;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.io.ByteSource;
 
 public class GenerationAwareBlobId implements BlobId {
@@ -172,6 +174,17 @@ public class GenerationAwareBlobId implements BlobId {
         return now.getEpochSecond() / configuration.getDuration().toSeconds();
     }
 
+    /**
+     * Id prefixes of the blobs of the active generations, including the next generation written by nodes whose clock
+     * is ahead. Blobs of further generations do not match them but are still {@link #inActiveGeneration}.
+     */
+    public static ImmutableSet<String> activeGenerationPrefixes(Configuration configuration, Instant now) {
+        long currentGeneration = computeGeneration(configuration, now);
+        return LongStream.rangeClosed(Math.max(currentGeneration - 1, NO_GENERATION), currentGeneration + 1)
+            .mapToObj(generation -> configuration.getFamily() + "_" + generation + "_")
+            .collect(ImmutableSet.toImmutableSet());
+    }
+
     private final long generation;
     private final int family;
     private final BlobId delegate;
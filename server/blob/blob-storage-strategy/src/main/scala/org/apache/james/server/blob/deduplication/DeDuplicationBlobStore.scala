@@ -20,6 +20,7 @@
 package org.apache.james.server.blob.deduplication
 
 import java.io.InputStream
+import java.nio.ByteBuffer
 import java.util.concurrent.Callable
 
 import com.google.common.base.Preconditions
@@ -100,6 +101,12 @@ class DeDuplicationBlobStore @Inject()(blobStoreDAO: BlobStoreDAO,
     blobStoreDAO.read(bucketName, blobId)
   }
 
+  override def readReactive(bucketName: BucketName, blobId: BlobId): Publisher[ByteBuffer] = {
+    Preconditions.checkNotNull(bucketName)
+
+    blobStoreDAO.readReactive(bucketName, blobId)
+  }
+
   override def getDefaultBucketName: BucketName = defaultBucketName
 
   override def deleteBucket(bucketName: BucketName): Publisher[Void] = {
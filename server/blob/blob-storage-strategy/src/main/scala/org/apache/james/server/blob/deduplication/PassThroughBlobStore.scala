@@ -20,6 +20,7 @@
 package org.apache.james.server.blob.deduplication
 
 import java.io.InputStream
+import java.nio.ByteBuffer
 
 import com.google.common.base.Preconditions
 import com.google.common.io.ByteSource
@@ -74,6 +75,12 @@ class PassThroughBlobStore @Inject()(blobStoreDAO: BlobStoreDAO,
     blobStoreDAO.read(bucketName, blobId)
   }
 
+  override def readReactive(bucketName: BucketName, blobId: BlobId): Publisher[ByteBuffer] = {
+    Preconditions.checkNotNull(bucketName)
+
+    blobStoreDAO.readReactive(bucketName, blobId)
+  }
+
   override def getDefaultBucketName: BucketName = defaultBucketName
 
   override def deleteBucket(bucketName: BucketName): Publisher[Void] = {
@@ -37,6 +37,8 @@ class BlobGCTaskAdditionalInformationDTOTest {
                 4,
                 5,
                 0.8,
+                1200.5,
+                3400.25,
                 Instant.parse("2007-12-03T10:15:30.00Z")
             ))
             .json(ClassLoaderUtils.getSystemResourceAsString("json/blobGC.additionalInformation.json"))
@@ -19,10 +19,12 @@
 
 package org.apache.james.server.blob.deduplication;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 
 import java.time.Clock;
 import java.time.Instant;
+import java.util.Optional;
 import java.util.Set;
 
 import org.apache.james.JsonSerializationVerifier;
@@ -30,6 +32,7 @@ import org.apache.james.blob.api.BlobReferenceSource;
 import org.apache.james.blob.api.BlobStoreDAO;
 import org.apache.james.blob.api.BucketName;
 import org.apache.james.blob.api.HashBlobId;
+import org.apache.james.server.task.json.JsonTaskSerializer;
 import org.apache.james.util.ClassLoaderUtils;
 import org.apache.james.utils.UpdatableTickingClock;
 import org.junit.jupiter.api.BeforeEach;
@@ -69,9 +72,24 @@ class BlobGCTaskSerializationTest {
                 BucketName.DEFAULT,
                 clock,
                 99,
-                0.8
+                0.8,
+                new BlobGCTask.RunningOptions(8, Optional.of(500))
             ))
             .json(ClassLoaderUtils.getSystemResourceAsString("json/blobGC.task.json"))
             .verify();
     }
+
+    @Test
+    void shouldDeserializeLegacyTaskWithDefaultRunningOptions() throws Exception {
+        JsonTaskSerializer serializer = JsonTaskSerializer.of(BlobGCTaskDTO.module(
+            blobStoreDAO,
+            generationAwareBlobIdFactory,
+            generationAwareBlobIdConfiguration,
+            blobReferenceSources,
+            clock));
+
+        BlobGCTask task = (BlobGCTask) serializer.deserialize(ClassLoaderUtils.getSystemResourceAsString("json/blobGC.legacy.task.json"));
+
+        assertThat(task.getRunningOptions()).isEqualTo(BlobGCTask.RunningOptions.DEFAULT);
+    }
 }
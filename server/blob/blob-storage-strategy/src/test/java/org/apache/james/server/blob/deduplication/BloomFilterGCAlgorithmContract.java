@@ -30,6 +30,7 @@ import static org.mockito.Mockito.when;
 import java.time.ZonedDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -52,6 +53,8 @@ import org.junit.jupiter.api.RepeatedTest;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
 
+import com.google.common.hash.BloomFilter;
+
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -132,7 +135,7 @@ public interface BloomFilterGCAlgorithmContract {
         assertThat(context.snapshot())
             .isEqualTo(Snapshot.builder()
                 .referenceSourceCount(0)
-                .blobCount(1)
+                .blobCount(0)
                 .gcedBlobCount(0)
                 .errorCount(0)
                 .bloomFilterExpectedBlobCount(100)
@@ -148,6 +151,7 @@ public interface BloomFilterGCAlgorithmContract {
         BlobId blobId = Mono.from(blobStore.save(DEFAULT_BUCKET, UUID.randomUUID().toString(), BlobStore.StoragePolicy.HIGH_PERFORMANCE)).block();
 
         when(BLOB_REFERENCE_SOURCE.listReferencedBlobs()).thenReturn(Flux.just(blobId));
+        CLOCK.setInstant(NOW.plusMonths(2).toInstant());
 
         Context context = new Context(EXPECTED_BLOB_COUNT, ASSOCIATED_PROBABILITY);
         BloomFilterGCAlgorithm bloomFilterGCAlgorithm = bloomFilterGCAlgorithm();
@@ -228,12 +232,36 @@ public interface BloomFilterGCAlgorithmContract {
         });
     }
 
+    @Test
+    default void gcShouldRemoveOrphanBlobsWhenThrottled() {
+        BlobStore blobStore = blobStore();
+        List<BlobId> referencedBlobIds = IntStream.range(0, 10)
+            .mapToObj(index -> Mono.from(blobStore.save(DEFAULT_BUCKET, UUID.randomUUID().toString(), BlobStore.StoragePolicy.HIGH_PERFORMANCE)).block())
+            .collect(Collectors.toList());
+        List<BlobId> orphanBlobIds = IntStream.range(0, 10)
+            .mapToObj(index -> Mono.from(blobStore.save(DEFAULT_BUCKET, UUID.randomUUID().toString(), BlobStore.StoragePolicy.HIGH_PERFORMANCE)).block())
+            .collect(Collectors.toList());
+        when(BLOB_REFERENCE_SOURCE.listReferencedBlobs()).thenReturn(Flux.fromIterable(referencedBlobIds));
+        CLOCK.setInstant(NOW.plusMonths(2).toInstant());
+
+        Context context = new Context(EXPECTED_BLOB_COUNT, ASSOCIATED_PROBABILITY);
+        Task.Result result = Mono.from(bloomFilterGCAlgorithm().gc(EXPECTED_BLOB_COUNT, ASSOCIATED_PROBABILITY, DEFAULT_BUCKET,
+            new BlobGCTask.RunningOptions(1, Optional.of(5)), context)).block();
+
+        assertThat(result).isEqualTo(Task.Result.COMPLETED);
+        assertThat(context.snapshot().getGcedBlobCount()).isLessThanOrEqualTo(orphanBlobIds.size());
+        referencedBlobIds.forEach(blobId ->
+            assertThat(blobStore.read(DEFAULT_BUCKET, blobId))
+                .isNotNull());
+    }
+
     @Test
     default void gcShouldHandlerErrorWhenException() {
         when(BLOB_REFERENCE_SOURCE.listReferencedBlobs()).thenReturn(Flux.empty());
         BlobStoreDAO blobStoreDAO = mock(BlobStoreDAO.class);
         BlobId blobId = GENERATION_AWARE_BLOB_ID_FACTORY.randomId();
-        when(blobStoreDAO.listBlobs(DEFAULT_BUCKET)).thenReturn(Flux.just(blobId));
+        when(blobStoreDAO.listBlobsExcluding(ArgumentMatchers.eq(DEFAULT_BUCKET), ArgumentMatchers.eq(Optional.empty()), any(Collection.class)))
+            .thenReturn(Flux.just(blobId));
         when(blobStoreDAO.delete(ArgumentMatchers.eq(DEFAULT_BUCKET), any(Collection.class))).thenReturn(Mono.error(new RuntimeException("test")));
 
         CLOCK.setInstant(NOW.plusMonths(2).toInstant());
@@ -258,4 +286,94 @@ public interface BloomFilterGCAlgorithmContract {
                 .bloomFilterAssociatedProbability(ASSOCIATED_PROBABILITY)
                 .build());
     }
+
+    @Test
+    default void gcShouldResumeAfterCheckpointCursor() {
+        BlobStore blobStore = blobStore();
+        IntStream.range(0, 10)
+            .forEach(index -> Mono.from(blobStore.save(DEFAULT_BUCKET, UUID.randomUUID().toString(), BlobStore.StoragePolicy.HIGH_PERFORMANCE)).block());
+        when(BLOB_REFERENCE_SOURCE.listReferencedBlobs()).thenReturn(Flux.empty());
+        CLOCK.setInstant(NOW.plusMonths(2).toInstant());
+
+        List<BlobId> listedBlobIds = Flux.from(blobStoreDAO().listBlobs(DEFAULT_BUCKET)).collectList().block();
+        BloomFilterGCCheckpoint.Store checkpointStore = new BloomFilterGCCheckpoint.Store(blobStoreDAO(), GENERATION_AWARE_BLOB_ID_FACTORY, BloomFilterGCAlgorithm.BLOOM_FILTER_FUNNEL);
+        checkpointStore.saveFilter(DEFAULT_BUCKET, new BloomFilterGCCheckpoint("salt", CLOCK.instant(),
+            BloomFilter.create(BloomFilterGCAlgorithm.BLOOM_FILTER_FUNNEL, EXPECTED_BLOB_COUNT, ASSOCIATED_PROBABILITY), Optional.empty())).block();
+        checkpointStore.saveCursor(DEFAULT_BUCKET, listedBlobIds.get(4)).block();
+
+        Context context = new Context(EXPECTED_BLOB_COUNT, ASSOCIATED_PROBABILITY);
+        Task.Result result = Mono.from(bloomFilterGCAlgorithm().gc(EXPECTED_BLOB_COUNT, ASSOCIATED_PROBABILITY, DEFAULT_BUCKET, context)).block();
+
+        assertThat(result).isEqualTo(Task.Result.COMPLETED);
+        assertThat(context.snapshot().getBlobCount()).isEqualTo(5);
+        assertThat(context.snapshot().getGcedBlobCount()).isEqualTo(5);
+        listedBlobIds.subList(0, 5).forEach(blobId ->
+            assertThat(blobStore.read(DEFAULT_BUCKET, blobId))
+                .isNotNull());
+        listedBlobIds.subList(5, 10).forEach(blobId ->
+            assertThatThrownBy(() -> blobStore.read(DEFAULT_BUCKET, blobId).read())
+                .isInstanceOf(ObjectNotFoundException.class));
+    }
+
+    @Test
+    default void gcShouldResumeAfterCheckpointCursorWhenCursorBlobWasCollected() {
+        BlobStore blobStore = blobStore();
+        IntStream.range(0, 10)
+            .forEach(index -> Mono.from(blobStore.save(DEFAULT_BUCKET, UUID.randomUUID().toString(), BlobStore.StoragePolicy.HIGH_PERFORMANCE)).block());
+        when(BLOB_REFERENCE_SOURCE.listReferencedBlobs()).thenReturn(Flux.empty());
+        CLOCK.setInstant(NOW.plusMonths(2).toInstant());
+
+        List<BlobId> listedBlobIds = Flux.from(blobStoreDAO().listBlobs(DEFAULT_BUCKET)).collectList().block();
+        BloomFilterGCCheckpoint.Store checkpointStore = new BloomFilterGCCheckpoint.Store(blobStoreDAO(), GENERATION_AWARE_BLOB_ID_FACTORY, BloomFilterGCAlgorithm.BLOOM_FILTER_FUNNEL);
+        checkpointStore.saveFilter(DEFAULT_BUCKET, new BloomFilterGCCheckpoint("salt", CLOCK.instant(),
+            BloomFilter.create(BloomFilterGCAlgorithm.BLOOM_FILTER_FUNNEL, EXPECTED_BLOB_COUNT, ASSOCIATED_PROBABILITY), Optional.empty())).block();
+        checkpointStore.saveCursor(DEFAULT_BUCKET, listedBlobIds.get(4)).block();
+        Mono.from(blobStoreDAO().delete(DEFAULT_BUCKET, listedBlobIds.get(4))).block();
+
+        Context context = new Context(EXPECTED_BLOB_COUNT, ASSOCIATED_PROBABILITY);
+        Task.Result result = Mono.from(bloomFilterGCAlgorithm().gc(EXPECTED_BLOB_COUNT, ASSOCIATED_PROBABILITY, DEFAULT_BUCKET, context)).block();
+
+        assertThat(result).isEqualTo(Task.Result.COMPLETED);
+        assertThat(context.snapshot().getBlobCount()).isEqualTo(5);
+        assertThat(context.snapshot().getGcedBlobCount()).isEqualTo(5);
+        listedBlobIds.subList(0, 4).forEach(blobId ->
+            assertThat(blobStore.read(DEFAULT_BUCKET, blobId))
+                .isNotNull());
+        listedBlobIds.subList(5, 10).forEach(blobId ->
+            assertThatThrownBy(() -> blobStore.read(DEFAULT_BUCKET, blobId).read())
+                .isInstanceOf(ObjectNotFoundException.class));
+    }
+
+    @Test
+    default void gcShouldDeleteCheckpointUponCompletion() {
+        BlobStore blobStore = blobStore();
+        Mono.from(blobStore.save(DEFAULT_BUCKET, UUID.randomUUID().toString(), BlobStore.StoragePolicy.HIGH_PERFORMANCE)).block();
+        when(BLOB_REFERENCE_SOURCE.listReferencedBlobs()).thenReturn(Flux.empty());
+        CLOCK.setInstant(NOW.plusMonths(2).toInstant());
+
+        Mono.from(bloomFilterGCAlgorithm().gc(EXPECTED_BLOB_COUNT, ASSOCIATED_PROBABILITY, DEFAULT_BUCKET, new Context(EXPECTED_BLOB_COUNT, ASSOCIATED_PROBABILITY))).block();
+
+        BloomFilterGCCheckpoint.Store checkpointStore = new BloomFilterGCCheckpoint.Store(blobStoreDAO(), GENERATION_AWARE_BLOB_ID_FACTORY, BloomFilterGCAlgorithm.BLOOM_FILTER_FUNNEL);
+        assertThat(checkpointStore.retrieve(DEFAULT_BUCKET).blockOptional()).isEmpty();
+    }
+
+    @Test
+    default void gcShouldIgnoreOutdatedCheckpoint() {
+        BlobStore blobStore = blobStore();
+        IntStream.range(0, 10)
+            .forEach(index -> Mono.from(blobStore.save(DEFAULT_BUCKET, UUID.randomUUID().toString(), BlobStore.StoragePolicy.HIGH_PERFORMANCE)).block());
+        when(BLOB_REFERENCE_SOURCE.listReferencedBlobs()).thenReturn(Flux.empty());
+        CLOCK.setInstant(NOW.plusMonths(2).toInstant());
+
+        List<BlobId> listedBlobIds = Flux.from(blobStoreDAO().listBlobs(DEFAULT_BUCKET)).collectList().block();
+        BloomFilterGCCheckpoint.Store checkpointStore = new BloomFilterGCCheckpoint.Store(blobStoreDAO(), GENERATION_AWARE_BLOB_ID_FACTORY, BloomFilterGCAlgorithm.BLOOM_FILTER_FUNNEL);
+        checkpointStore.saveFilter(DEFAULT_BUCKET, new BloomFilterGCCheckpoint("salt", NOW.toInstant(),
+            BloomFilter.create(BloomFilterGCAlgorithm.BLOOM_FILTER_FUNNEL, EXPECTED_BLOB_COUNT, ASSOCIATED_PROBABILITY), Optional.empty())).block();
+        checkpointStore.saveCursor(DEFAULT_BUCKET, listedBlobIds.get(4)).block();
+
+        Context context = new Context(EXPECTED_BLOB_COUNT, ASSOCIATED_PROBABILITY);
+        Mono.from(bloomFilterGCAlgorithm().gc(EXPECTED_BLOB_COUNT, ASSOCIATED_PROBABILITY, DEFAULT_BUCKET, context)).block();
+
+        assertThat(context.snapshot().getBlobCount()).isEqualTo(10);
+    }
 }
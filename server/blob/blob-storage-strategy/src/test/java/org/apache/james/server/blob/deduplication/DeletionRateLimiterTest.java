@@ -0,0 +1,116 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.server.blob.deduplication;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.base.Ticker;
+
+import reactor.core.publisher.Mono;
+
+class DeletionRateLimiterTest {
+    private static class FakeTicker extends Ticker {
+        private final AtomicLong nanos = new AtomicLong();
+
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+
+        void advance(Duration duration) {
+            nanos.addAndGet(duration.toNanos());
+        }
+    }
+
+    private FakeTicker ticker;
+    private DeletionRateLimiter testee;
+
+    @BeforeEach
+    void setUp() {
+        ticker = new FakeTicker();
+        testee = new DeletionRateLimiter(100, ticker);
+    }
+
+    @Test
+    void reserveShouldNotDelayWithinOneSecondBurst() {
+        assertThat(testee.reserve(100)).isEqualTo(Duration.ZERO);
+    }
+
+    @Test
+    void reserveShouldDelayWhenExceedingTheBurst() {
+        testee.reserve(100);
+
+        assertThat(testee.reserve(50)).isEqualTo(Duration.ofMillis(500));
+    }
+
+    @Test
+    void reserveShouldAccumulateDelays() {
+        testee.reserve(100);
+        testee.reserve(50);
+
+        assertThat(testee.reserve(50)).isEqualTo(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void reserveShouldRefillOverTime() {
+        testee.reserve(100);
+        ticker.advance(Duration.ofMillis(500));
+
+        assertThat(testee.reserve(50)).isEqualTo(Duration.ZERO);
+    }
+
+    @Test
+    void reserveShouldNotAccumulateIdleTimeBeyondTheBurst() {
+        ticker.advance(Duration.ofMinutes(1));
+        testee.reserve(100);
+
+        assertThat(testee.reserve(50)).isEqualTo(Duration.ofMillis(500));
+    }
+
+    @Test
+    void batchSizeShouldMatchATenthOfASecondOfPermits() {
+        assertThat(testee.batchSize(1000)).isEqualTo(10);
+    }
+
+    @Test
+    void batchSizeShouldNotExceedTheMaximum() {
+        assertThat(DeletionRateLimiter.unlimited().batchSize(1000)).isEqualTo(1000);
+    }
+
+    @Test
+    void batchSizeShouldBeAtLeastOne() {
+        assertThat(new DeletionRateLimiter(5, ticker).batchSize(1000)).isEqualTo(1);
+    }
+
+    @Test
+    void unlimitedShouldNeverDelay() {
+        DeletionRateLimiter unlimited = DeletionRateLimiter.of(Optional.empty());
+
+        assertThat(Mono.from(unlimited.acquire(Integer.MAX_VALUE)).hasElement().block())
+            .isFalse();
+    }
+}
@@ -286,6 +286,25 @@ class GenerationAwareBlobIdTest {
                 .isFalse();
         }
 
+        @ParameterizedTest
+        @ValueSource(ints = {0, 30, 60})
+        void activeGenerationPrefixesShouldMatchBlobsInActiveGeneration(int daysLater) {
+            GenerationAwareBlobId blobId = testee.forPayload("abc".getBytes());
+            Instant now = NOW.plus(daysLater, ChronoUnit.DAYS);
+
+            assertThat(GenerationAwareBlobId.activeGenerationPrefixes(GenerationAwareBlobId.Configuration.DEFAULT, now)
+                    .stream()
+                    .anyMatch(blobId.asString()::startsWith))
+                .isEqualTo(blobId.inActiveGeneration(GenerationAwareBlobId.Configuration.DEFAULT, now));
+        }
+
+        @Test
+        void activeGenerationPrefixesShouldNotMatchDistinctFamily() {
+            GenerationAwareBlobId blobId = new GenerationAwareBlobId(628L, 2, delegate.forPayload("abcd".getBytes()));
+
+            assertThat(GenerationAwareBlobId.activeGenerationPrefixes(GenerationAwareBlobId.Configuration.DEFAULT, NOW))
+                .noneMatch(blobId.asString()::startsWith);
+        }
     }
 
     @Nested
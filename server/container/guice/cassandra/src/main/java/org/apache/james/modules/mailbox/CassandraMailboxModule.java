@@ -20,11 +20,13 @@ package org.apache.james.modules.mailbox;
 
 import static org.apache.james.modules.Names.MAILBOXMANAGER_NAME;
 
+import javax.inject.Provider;
 import javax.inject.Singleton;
 
 import org.apache.james.adapter.mailbox.UserRepositoryAuthenticator;
 import org.apache.james.adapter.mailbox.UserRepositoryAuthorizator;
 import org.apache.james.backends.cassandra.components.CassandraModule;
+import org.apache.james.backends.cassandra.init.configuration.CassandraConfiguration;
 import org.apache.james.blob.api.BlobReferenceSource;
 import org.apache.james.events.EventListener;
 import org.apache.james.eventsourcing.Event;
@@ -39,6 +41,7 @@ import org.apache.james.jmap.cassandra.change.CassandraMailboxChangeRepository;
 import org.apache.james.jmap.cassandra.change.CassandraStateFactory;
 import org.apache.james.jmap.cassandra.change.EmailChangeRepositoryDAO;
 import org.apache.james.jmap.cassandra.change.MailboxChangeRepositoryDAO;
+import org.apache.james.lifecycle.api.StartUpCheck;
 import org.apache.james.mailbox.AttachmentContentLoader;
 import org.apache.james.mailbox.AttachmentManager;
 import org.apache.james.mailbox.Authenticator;
@@ -75,6 +78,7 @@ import org.apache.james.mailbox.cassandra.mail.CassandraMessageDAOV3;
 import org.apache.james.mailbox.cassandra.mail.CassandraMessageIdDAO;
 import org.apache.james.mailbox.cassandra.mail.CassandraMessageIdToImapUidDAO;
 import org.apache.james.mailbox.cassandra.mail.CassandraModSeqProvider;
+import org.apache.james.mailbox.cassandra.mail.CassandraUidAndModSeqProvider;
 import org.apache.james.mailbox.cassandra.mail.CassandraUidProvider;
 import org.apache.james.mailbox.cassandra.mail.CassandraUserMailboxRightsDAO;
 import org.apache.james.mailbox.cassandra.mail.MessageBlobReferenceSource;
@@ -90,6 +94,7 @@ import org.apache.james.mailbox.cassandra.modules.CassandraMailboxRecentsModule;
 import org.apache.james.mailbox.cassandra.modules.CassandraMessageModule;
 import org.apache.james.mailbox.cassandra.modules.CassandraModSeqModule;
 import org.apache.james.mailbox.cassandra.modules.CassandraSubscriptionModule;
+import org.apache.james.mailbox.cassandra.modules.CassandraUidAndModSeqModule;
 import org.apache.james.mailbox.cassandra.modules.CassandraUidModule;
 import org.apache.james.mailbox.indexer.MessageIdReIndexer;
 import org.apache.james.mailbox.indexer.ReIndexer;
@@ -117,6 +122,7 @@ import org.apache.mailbox.tools.indexer.ReIndexerImpl;
 
 import com.google.inject.AbstractModule;
 import com.google.inject.Inject;
+import com.google.inject.Provides;
 import com.google.inject.Scopes;
 import com.google.inject.TypeLiteral;
 import com.google.inject.multibindings.Multibinder;
@@ -164,6 +170,7 @@ public class CassandraMailboxModule extends AbstractModule {
         bind(CassandraThreadIdGuessingAlgorithm.class).in(Scopes.SINGLETON);
         bind(CassandraModSeqProvider.class).in(Scopes.SINGLETON);
         bind(CassandraUidProvider.class).in(Scopes.SINGLETON);
+        bind(CassandraUidAndModSeqProvider.class).in(Scopes.SINGLETON);
         bind(NoMailboxPathLocker.class).in(Scopes.SINGLETON);
         bind(UserRepositoryAuthenticator.class).in(Scopes.SINGLETON);
         bind(UserRepositoryAuthorizator.class).in(Scopes.SINGLETON);
@@ -180,8 +187,6 @@ public class CassandraMailboxModule extends AbstractModule {
         bind(SubscriptionMapperFactory.class).to(CassandraMailboxSessionMapperFactory.class);
 
         bind(ACLMapper.class).to(CassandraACLMapper.class);
-        bind(ModSeqProvider.class).to(CassandraModSeqProvider.class);
-        bind(UidProvider.class).to(CassandraUidProvider.class);
         bind(SubscriptionManager.class).to(StoreSubscriptionManager.class);
         bind(MailboxPathLocker.class).to(NoMailboxPathLocker.class);
         bind(Authenticator.class).to(UserRepositoryAuthenticator.class);
@@ -221,9 +226,13 @@ public class CassandraMailboxModule extends AbstractModule {
         cassandraDataDefinitions.addBinding().toInstance(CassandraModSeqModule.MODULE);
         cassandraDataDefinitions.addBinding().toInstance(CassandraSubscriptionModule.MODULE);
         cassandraDataDefinitions.addBinding().toInstance(CassandraUidModule.MODULE);
+        cassandraDataDefinitions.addBinding().toInstance(CassandraUidAndModSeqModule.MODULE);
 
         Multibinder.newSetBinder(binder(), MailboxManagerDefinition.class).addBinding().to(CassandraMailboxManagerDefinition.class);
 
+        Multibinder.newSetBinder(binder(), StartUpCheck.class)
+            .addBinding().to(CassandraUidAndModSeqStartUpCheck.class);
+
         Multibinder.newSetBinder(binder(), EventListener.GroupEventListener.class)
             .addBinding().to(MailboxAnnotationListener.class);
         Multibinder.newSetBinder(binder(), EventListener.ReactiveGroupEventListener.class)
@@ -240,6 +249,26 @@ public class CassandraMailboxModule extends AbstractModule {
             .addBinding().to(MessageBlobReferenceSource.class);
     }
     
+    @Provides
+    @Singleton
+    UidProvider uidProvider(CassandraConfiguration configuration, Provider<CassandraUidProvider> uidProvider,
+                            Provider<CassandraUidAndModSeqProvider> uidAndModSeqProvider) {
+        if (configuration.isUidModSeqSingleLightweightTransaction()) {
+            return uidAndModSeqProvider.get();
+        }
+        return uidProvider.get();
+    }
+
+    @Provides
+    @Singleton
+    ModSeqProvider modSeqProvider(CassandraConfiguration configuration, Provider<CassandraModSeqProvider> modSeqProvider,
+                                  Provider<CassandraUidAndModSeqProvider> uidAndModSeqProvider) {
+        if (configuration.isUidModSeqSingleLightweightTransaction()) {
+            return uidAndModSeqProvider.get();
+        }
+        return modSeqProvider.get();
+    }
+
     @Singleton
     private static class CassandraMailboxManagerDefinition extends MailboxManagerDefinition {
         @Inject
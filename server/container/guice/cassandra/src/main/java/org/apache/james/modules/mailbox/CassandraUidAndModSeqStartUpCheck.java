@@ -0,0 +1,70 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.modules.mailbox;
+
+import javax.inject.Inject;
+
+import org.apache.james.backends.cassandra.init.configuration.CassandraConfiguration;
+import org.apache.james.lifecycle.api.StartUpCheck;
+import org.apache.james.mailbox.cassandra.mail.CassandraUidAndModSeqProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Once UIDs and MODSEQs were allocated with a single lightweight transaction, the former UID and MODSEQ tables are
+ * no longer updated. Allocating from them again would hand out already used values, thus turning
+ * mailbox.uid.modseq.single.lwt.enabled off is refused.
+ */
+public class CassandraUidAndModSeqStartUpCheck implements StartUpCheck {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CassandraUidAndModSeqStartUpCheck.class);
+    static final String CHECK_NAME = "CassandraUidAndModSeqStartUpCheck";
+
+    private final CassandraConfiguration configuration;
+    private final CassandraUidAndModSeqProvider uidAndModSeqProvider;
+
+    @Inject
+    public CassandraUidAndModSeqStartUpCheck(CassandraConfiguration configuration, CassandraUidAndModSeqProvider uidAndModSeqProvider) {
+        this.configuration = configuration;
+        this.uidAndModSeqProvider = uidAndModSeqProvider;
+    }
+
+    @Override
+    public CheckResult check() {
+        if (!configuration.isUidModSeqSingleLightweightTransaction() && uidAndModSeqProvider.isInUse().block()) {
+            String message = "UIDs and MODSEQs are allocated with a single lightweight transaction, the former tables are outdated. " +
+                "mailbox.uid.modseq.single.lwt.enabled can not be turned off.";
+            LOGGER.error(message);
+            return CheckResult.builder()
+                .checkName(checkName())
+                .resultType(ResultType.BAD)
+                .description(message)
+                .build();
+        }
+        return CheckResult.builder()
+            .checkName(checkName())
+            .resultType(ResultType.GOOD)
+            .build();
+    }
+
+    @Override
+    public String checkName() {
+        return CHECK_NAME;
+    }
+}
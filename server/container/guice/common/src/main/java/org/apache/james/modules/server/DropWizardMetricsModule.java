@@ -28,11 +28,28 @@ import org.apache.james.utils.InitializationOperation;
 import org.apache.james.utils.InitilizationOperationBuilder;
 
 import com.codahale.metrics.MetricRegistry;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.inject.AbstractModule;
 import com.google.inject.Scopes;
 import com.google.inject.multibindings.ProvidesIntoSet;
 
 public class DropWizardMetricsModule extends AbstractModule {
+    /**
+     * System property, typically set in jvm.properties, recording timers and counters with HdrHistogram instead of
+     * Dropwizard when true. See {@link HdrHistogramMetricsModule}.
+     */
+    public static final String HDR_HISTOGRAM_ENABLED_PROPERTY = "james.metrics.hdrhistogram.enabled";
+
+    private final boolean hdrHistogramEnabled;
+
+    public DropWizardMetricsModule() {
+        this(Boolean.getBoolean(HDR_HISTOGRAM_ENABLED_PROPERTY));
+    }
+
+    @VisibleForTesting
+    DropWizardMetricsModule(boolean hdrHistogramEnabled) {
+        this.hdrHistogramEnabled = hdrHistogramEnabled;
+    }
 
     @Override
     protected void configure() {
@@ -40,7 +57,11 @@ public class DropWizardMetricsModule extends AbstractModule {
         bind(DropWizardMetricFactory.class).in(Scopes.SINGLETON);
         bind(DropWizardGaugeRegistry.class).in(Scopes.SINGLETON);
         bind(DropWizardJVMMetrics.class).in(Scopes.SINGLETON);
-        bind(MetricFactory.class).to(DropWizardMetricFactory.class);
+        if (hdrHistogramEnabled) {
+            install(new HdrHistogramMetricsModule());
+        } else {
+            bind(MetricFactory.class).to(DropWizardMetricFactory.class);
+        }
 
         bind(MetricRegistry.class).toInstance(new MetricRegistry());
         bind(GaugeRegistry.class).to(DropWizardGaugeRegistry.class);
@@ -0,0 +1,45 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.modules.server;
+
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.hdrhistogram.HdrHistogramExports;
+import org.apache.james.metrics.hdrhistogram.HdrHistogramMetricFactory;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Scopes;
+
+/**
+ * Records timers and counters with HdrHistogram instead of Dropwizard.
+ *
+ * Opt-in: {@link DropWizardMetricsModule} installs it when the {@link DropWizardMetricsModule#HDR_HISTOGRAM_ENABLED_PROPERTY}
+ * system property is true. It can also override {@link DropWizardMetricsModule}, for instance with
+ * {@code GuiceJamesServer::overrideWith}. Gauges and JVM metrics are still reported by Dropwizard. HdrHistogram metrics
+ * are exposed to Prometheus by the org.apache.james.webadmin.hdrhistogram.HdrHistogramMetricsRoutes webadmin extension.
+ */
+public class HdrHistogramMetricsModule extends AbstractModule {
+
+    @Override
+    protected void configure() {
+        bind(HdrHistogramMetricFactory.class).in(Scopes.SINGLETON);
+        bind(HdrHistogramExports.class).in(Scopes.SINGLETON);
+        bind(MetricFactory.class).to(HdrHistogramMetricFactory.class);
+    }
+}
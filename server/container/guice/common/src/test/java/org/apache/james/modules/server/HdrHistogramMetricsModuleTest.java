@@ -0,0 +1,70 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.modules.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.dropwizard.DropWizardMetricFactory;
+import org.apache.james.metrics.hdrhistogram.HdrHistogramExports;
+import org.apache.james.metrics.hdrhistogram.HdrHistogramMetricFactory;
+import org.junit.jupiter.api.Test;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.util.Modules;
+
+class HdrHistogramMetricsModuleTest {
+    @Test
+    void hdrHistogramMetricFactoryShouldOverrideDropWizardMetricFactory() {
+        Injector injector = Guice.createInjector(Modules.override(new DropWizardMetricsModule())
+            .with(new HdrHistogramMetricsModule()));
+
+        assertThat(injector.getInstance(MetricFactory.class))
+            .isSameAs(injector.getInstance(HdrHistogramMetricFactory.class));
+    }
+
+    @Test
+    void dropWizardMetricFactoryShouldBeBoundByDefault() {
+        Injector injector = Guice.createInjector(new DropWizardMetricsModule(false));
+
+        assertThat(injector.getInstance(MetricFactory.class))
+            .isSameAs(injector.getInstance(DropWizardMetricFactory.class));
+    }
+
+    @Test
+    void hdrHistogramMetricFactoryShouldBeBoundWhenEnabled() {
+        Injector injector = Guice.createInjector(new DropWizardMetricsModule(true));
+
+        assertThat(injector.getInstance(MetricFactory.class))
+            .isSameAs(injector.getInstance(HdrHistogramMetricFactory.class));
+    }
+
+    @Test
+    void exportsShouldExposeTheMetricsOfTheBoundMetricFactory() {
+        Injector injector = Guice.createInjector(Modules.override(new DropWizardMetricsModule())
+            .with(new HdrHistogramMetricsModule()));
+
+        injector.getInstance(MetricFactory.class).generate("metric").increment();
+
+        assertThat(injector.getInstance(HdrHistogramExports.class).collect())
+            .anySatisfy(samples -> assertThat(samples.name).isEqualTo("metric"));
+    }
+}
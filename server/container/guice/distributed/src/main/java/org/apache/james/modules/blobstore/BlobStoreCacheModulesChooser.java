@@ -35,6 +35,10 @@ import org.apache.james.blob.cassandra.cache.CachedBlobStore;
 import org.apache.james.blob.cassandra.cache.CassandraBlobCacheModule;
 import org.apache.james.blob.cassandra.cache.CassandraBlobStoreCache;
 import org.apache.james.blob.cassandra.cache.CassandraCacheConfiguration;
+import org.apache.james.blob.cassandra.cache.InMemoryBlobStoreCache;
+import org.apache.james.blob.cassandra.cache.TieredBlobStoreCache;
+import org.apache.james.metrics.api.GaugeRegistry;
+import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.modules.mailbox.CassandraCacheSessionModule;
 import org.apache.james.modules.mailbox.ConfigurationComponent;
 import org.apache.james.utils.PropertiesProvider;
@@ -66,7 +70,6 @@ public class BlobStoreCacheModulesChooser {
         @Override
         protected void configure() {
             bind(CassandraBlobStoreCache.class).in(Scopes.SINGLETON);
-            bind(BlobStoreCache.class).to(CassandraBlobStoreCache.class);
 
             Multibinder.newSetBinder(binder(), CassandraModule.class, Names.named(InjectionNames.CACHE))
                 .addBinding()
@@ -80,6 +83,19 @@ public class BlobStoreCacheModulesChooser {
             return cachedBlobStore;
         }
 
+        @Provides
+        @Singleton
+        BlobStoreCache provideBlobStoreCache(CassandraBlobStoreCache cassandraBlobStoreCache, CassandraCacheConfiguration cacheConfiguration,
+                                             MetricFactory metricFactory, GaugeRegistry gaugeRegistry) {
+            if (cacheConfiguration.getInMemorySizeInBytes().isPresent()) {
+                return new TieredBlobStoreCache(
+                    new InMemoryBlobStoreCache(cacheConfiguration, metricFactory, gaugeRegistry), InMemoryBlobStoreCache.TIER_NAME,
+                    cassandraBlobStoreCache, CassandraBlobStoreCache.TIER_NAME,
+                    metricFactory);
+            }
+            return cassandraBlobStoreCache;
+        }
+
         @Provides
         @Singleton
         CassandraCacheConfiguration providesCacheConfiguration(PropertiesProvider propertiesProvider) throws ConfigurationException {
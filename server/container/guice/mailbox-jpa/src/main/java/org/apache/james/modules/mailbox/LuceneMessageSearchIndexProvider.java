@@ -0,0 +1,74 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.modules.mailbox;
+
+import java.io.File;
+import java.io.IOException;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+import org.apache.james.filesystem.api.FileSystem;
+import org.apache.james.mailbox.SessionProvider;
+import org.apache.james.mailbox.lucene.search.LuceneMessageSearchIndex;
+import org.apache.james.mailbox.lucene.search.UserIndexDirectoryFactory;
+import org.apache.james.mailbox.model.MailboxId;
+import org.apache.james.mailbox.model.MessageId;
+import org.apache.james.mailbox.store.MailboxSessionMapperFactory;
+import org.apache.lucene.store.Directory;
+
+@Singleton
+public class LuceneMessageSearchIndexProvider implements Provider<LuceneMessageSearchIndex> {
+    private static final String USER_INDEXES_DIRECTORY = "lucene-users";
+    private static final boolean DROP_INDEX_ON_START = false;
+    private static final boolean LENIENT = true;
+
+    private final LuceneMessageSearchIndex index;
+
+    @Inject
+    public LuceneMessageSearchIndexProvider(LuceneSearchConfiguration configuration,
+                                            MailboxSessionMapperFactory mapperFactory,
+                                            MailboxId.Factory mailboxIdFactory,
+                                            MessageId.Factory messageIdFactory,
+                                            SessionProvider sessionProvider,
+                                            FileSystem fileSystem,
+                                            Provider<Directory> directory) throws IOException {
+        if (configuration.isShardByUser()) {
+            UserIndexDirectoryFactory directoryFactory = UserIndexDirectoryFactory.fileSystem(new File(fileSystem.getBasedir(), USER_INDEXES_DIRECTORY));
+            this.index = new LuceneMessageSearchIndex(mapperFactory, mailboxIdFactory, directoryFactory, configuration.getMaxOpenedUserIndexes(),
+                DROP_INDEX_ON_START, LENIENT, messageIdFactory, sessionProvider);
+        } else {
+            this.index = new LuceneMessageSearchIndex(mapperFactory, mailboxIdFactory, directory.get(), messageIdFactory, sessionProvider);
+        }
+        configuration.getRefreshInterval().ifPresent(index::setRefreshInterval);
+    }
+
+    @Override
+    public LuceneMessageSearchIndex get() {
+        return index;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        index.close();
+    }
+}
@@ -0,0 +1,91 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.modules.mailbox;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.apache.commons.configuration2.Configuration;
+import org.apache.james.util.DurationParser;
+
+import com.google.common.base.Preconditions;
+
+public class LuceneSearchConfiguration {
+    private static final String SHARD_BY_USER = "shardByUser";
+    private static final String MAX_OPENED_USER_INDEXES = "maxOpenedUserIndexes";
+    private static final String REFRESH_INTERVAL = "refreshInterval";
+    private static final boolean DEFAULT_SHARD_BY_USER = false;
+    private static final int DEFAULT_MAX_OPENED_USER_INDEXES = 100;
+    public static final LuceneSearchConfiguration DEFAULT_CONFIGURATION = new LuceneSearchConfiguration(DEFAULT_SHARD_BY_USER,
+        DEFAULT_MAX_OPENED_USER_INDEXES, Optional.empty());
+
+    public static LuceneSearchConfiguration from(Configuration configuration) {
+        int maxOpenedUserIndexes = configuration.getInt(MAX_OPENED_USER_INDEXES, DEFAULT_MAX_OPENED_USER_INDEXES);
+        Optional<Duration> refreshInterval = Optional.ofNullable(configuration.getString(REFRESH_INTERVAL, null))
+            .map(DurationParser::parse);
+
+        Preconditions.checkArgument(maxOpenedUserIndexes > 0, "'%s' needs to be strictly positive", MAX_OPENED_USER_INDEXES);
+        refreshInterval.ifPresent(interval -> Preconditions.checkArgument(!interval.isNegative() && !interval.isZero(),
+            "'%s' needs to be strictly positive", REFRESH_INTERVAL));
+
+        return new LuceneSearchConfiguration(configuration.getBoolean(SHARD_BY_USER, DEFAULT_SHARD_BY_USER),
+            maxOpenedUserIndexes, refreshInterval);
+    }
+
+    private final boolean shardByUser;
+    private final int maxOpenedUserIndexes;
+    private final Optional<Duration> refreshInterval;
+
+    LuceneSearchConfiguration(boolean shardByUser, int maxOpenedUserIndexes, Optional<Duration> refreshInterval) {
+        this.shardByUser = shardByUser;
+        this.maxOpenedUserIndexes = maxOpenedUserIndexes;
+        this.refreshInterval = refreshInterval;
+    }
+
+    public boolean isShardByUser() {
+        return shardByUser;
+    }
+
+    public int getMaxOpenedUserIndexes() {
+        return maxOpenedUserIndexes;
+    }
+
+    public Optional<Duration> getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof LuceneSearchConfiguration) {
+            LuceneSearchConfiguration that = (LuceneSearchConfiguration) o;
+
+            return Objects.equals(this.shardByUser, that.shardByUser)
+                && Objects.equals(this.maxOpenedUserIndexes, that.maxOpenedUserIndexes)
+                && Objects.equals(this.refreshInterval, that.refreshInterval);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(shardByUser, maxOpenedUserIndexes, refreshInterval);
+    }
+}
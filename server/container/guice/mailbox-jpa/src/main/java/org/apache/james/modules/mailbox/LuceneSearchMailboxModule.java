@@ -19,15 +19,20 @@
 
 package org.apache.james.modules.mailbox;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
 
+import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.james.events.EventListener;
 import org.apache.james.filesystem.api.FileSystem;
 import org.apache.james.mailbox.lucene.search.LuceneMessageSearchIndex;
 import org.apache.james.mailbox.store.search.ListeningMessageSearchIndex;
 import org.apache.james.mailbox.store.search.MessageSearchIndex;
+import org.apache.james.utils.PropertiesProvider;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
@@ -36,12 +41,14 @@ import com.google.inject.Singleton;
 import com.google.inject.multibindings.Multibinder;
 
 public class LuceneSearchMailboxModule extends AbstractModule {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LuceneSearchMailboxModule.class);
+    private static final String FILENAME = "lucene";
 
     @Override
     protected void configure() {
         install(new ReIndexingTaskSerializationModule());
 
-        bind(LuceneMessageSearchIndex.class).in(Scopes.SINGLETON);
+        bind(LuceneMessageSearchIndex.class).toProvider(LuceneMessageSearchIndexProvider.class).in(Scopes.SINGLETON);
         bind(MessageSearchIndex.class).to(LuceneMessageSearchIndex.class);
         bind(ListeningMessageSearchIndex.class).to(LuceneMessageSearchIndex.class);
 
@@ -55,4 +62,15 @@ public class LuceneSearchMailboxModule extends AbstractModule {
     Directory provideDirectory(FileSystem fileSystem) throws IOException {
         return FSDirectory.open(fileSystem.getBasedir());
     }
+
+    @Provides
+    @Singleton
+    LuceneSearchConfiguration provideLuceneSearchConfiguration(PropertiesProvider propertiesProvider) throws ConfigurationException {
+        try {
+            return LuceneSearchConfiguration.from(propertiesProvider.getConfiguration(FILENAME));
+        } catch (FileNotFoundException e) {
+            LOGGER.info("Could not find {} configuration file, using default configuration", FILENAME);
+            return LuceneSearchConfiguration.DEFAULT_CONFIGURATION;
+        }
+    }
 }
@@ -0,0 +1,83 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.modules.mailbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.apache.commons.configuration2.PropertiesConfiguration;
+import org.junit.jupiter.api.Test;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+
+class LuceneSearchConfigurationTest {
+    @Test
+    void shouldMatchBeanContract() {
+        EqualsVerifier.forClass(LuceneSearchConfiguration.class)
+            .verify();
+    }
+
+    @Test
+    void fromShouldReturnDefaultConfigurationWhenEmpty() {
+        assertThat(LuceneSearchConfiguration.from(new PropertiesConfiguration()))
+            .isEqualTo(LuceneSearchConfiguration.DEFAULT_CONFIGURATION);
+    }
+
+    @Test
+    void fromShouldReadAllProperties() {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+        configuration.addProperty("shardByUser", true);
+        configuration.addProperty("maxOpenedUserIndexes", 12);
+        configuration.addProperty("refreshInterval", "2s");
+
+        assertThat(LuceneSearchConfiguration.from(configuration))
+            .isEqualTo(new LuceneSearchConfiguration(true, 12, Optional.of(Duration.ofSeconds(2))));
+    }
+
+    @Test
+    void fromShouldDefaultToMillisecondsForRefreshInterval() {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+        configuration.addProperty("refreshInterval", "500");
+
+        assertThat(LuceneSearchConfiguration.from(configuration).getRefreshInterval())
+            .contains(Duration.ofMillis(500));
+    }
+
+    @Test
+    void fromShouldRejectZeroMaxOpenedUserIndexes() {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+        configuration.addProperty("maxOpenedUserIndexes", 0);
+
+        assertThatThrownBy(() -> LuceneSearchConfiguration.from(configuration))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void fromShouldRejectZeroRefreshInterval() {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+        configuration.addProperty("refreshInterval", "0");
+
+        assertThatThrownBy(() -> LuceneSearchConfiguration.from(configuration))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
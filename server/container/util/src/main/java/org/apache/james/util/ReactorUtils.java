@@ -24,6 +24,7 @@ import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
@@ -39,6 +40,7 @@ import com.google.common.base.Preconditions;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.Signal;
+import reactor.core.publisher.Sinks;
 import reactor.core.publisher.SynchronousSink;
 import reactor.util.concurrent.Queues;
 import reactor.util.context.Context;
@@ -67,6 +69,31 @@ public class ReactorUtils {
         };
     }
 
+    /**
+     * Like {@link Flux#bufferTimeout(int, Duration)}, without failing with an overflow when a buffer times out while
+     * downstream has no pending demand: such buffers are held until requested. To keep them bounded, at most
+     * <code>maxPendingElements</code> elements not yet handed over downstream are requested upstream.
+     */
+    public static <T> Function<Flux<T>, Flux<List<T>>> bufferTimeout(int maxSize, Duration maxTime, int maxPendingElements) {
+        Preconditions.checkArgument(maxSize > 0, "'maxSize' must be strictly positive");
+        Preconditions.checkArgument(maxPendingElements >= maxSize, "'maxPendingElements' must be greater than or equal to 'maxSize'");
+
+        return flux -> Flux.defer(() -> {
+            Sinks.Many<Boolean> permits = Sinks.many().unicast().onBackpressureBuffer();
+            release(permits, maxPendingElements);
+            return flux.zipWith(permits.asFlux(), 1, (element, permit) -> element)
+                .bufferTimeout(maxSize, maxTime)
+                .onBackpressureBuffer()
+                .doOnNext(buffer -> release(permits, buffer.size()));
+        });
+    }
+
+    private static void release(Sinks.Many<Boolean> permits, int count) {
+        for (int i = 0; i < count; i++) {
+            permits.emitNext(true, Sinks.EmitFailureHandler.FAIL_FAST);
+        }
+    }
+
     @FunctionalInterface
     public interface RequiresQuantity<T, U> {
         RequiresPeriod<T, U> elements(int maxSize);
@@ -35,6 +35,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.RandomStringUtils;
@@ -52,6 +53,7 @@ import com.google.common.primitives.Bytes;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
 
 class ReactorUtilsTest {
     static final int BUFFER_SIZE = 5;
@@ -399,6 +401,54 @@ class ReactorUtilsTest {
         }
     }
 
+    @Nested
+    class BufferTimeout {
+        @Test
+        void bufferTimeoutShouldThrowWhenMaxPendingElementsIsSmallerThanMaxSize() {
+            assertThatThrownBy(() -> ReactorUtils.bufferTimeout(10, Duration.ofMillis(10), 9))
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        void bufferTimeoutShouldGroupElements() {
+            List<List<Integer>> buffers = Flux.range(0, 5)
+                .transform(ReactorUtils.bufferTimeout(2, Duration.ofSeconds(10), 4))
+                .collectList()
+                .block();
+
+            assertThat(buffers).containsExactly(ImmutableList.of(0, 1), ImmutableList.of(2, 3), ImmutableList.of(4));
+        }
+
+        @Test
+        void bufferTimeoutShouldNotOverflowWhenBuffersTimeOutWhileDownstreamIsBusy() {
+            List<Integer> elements = Flux.range(0, 50)
+                .delayElements(Duration.ofMillis(5))
+                .transform(ReactorUtils.bufferTimeout(10, Duration.ofMillis(1), 20))
+                .flatMap(buffer -> Mono.delay(Duration.ofMillis(50)).thenReturn(buffer), 1)
+                .flatMapIterable(Function.identity())
+                .collectList()
+                .block();
+
+            assertThat(elements).containsExactlyElementsOf(IntStream.range(0, 50).boxed().collect(ImmutableList.toImmutableList()));
+        }
+
+        @Test
+        void bufferTimeoutShouldBoundElementsRequestedUpstream() {
+            AtomicInteger emitted = new AtomicInteger();
+
+            StepVerifier.create(Flux.range(0, 1000)
+                    .doOnNext(any -> emitted.incrementAndGet())
+                    .transform(ReactorUtils.bufferTimeout(10, Duration.ofMillis(1), 20)), 1)
+                .expectNextCount(1)
+                .expectNoEvent(Duration.ofMillis(200))
+                .thenCancel()
+                .verify();
+
+            // the handed over buffer, the pending elements, and the element prefetched while waiting for a permit
+            assertThat(emitted.get()).isLessThanOrEqualTo(10 + 20 + 1);
+        }
+    }
+
     @Nested
     class ExecuteAndEmpty {
         @Test
@@ -18,19 +18,29 @@
  ****************************************************************/
 package org.apache.james.rrt.api;
 
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.EnumSet;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 import org.apache.james.core.Domain;
+import org.apache.james.core.MailAddress;
 import org.apache.james.rrt.lib.Mapping;
 import org.apache.james.rrt.lib.MappingSource;
 import org.apache.james.rrt.lib.Mappings;
 import org.apache.james.rrt.lib.MappingsImpl;
+import org.reactivestreams.Publisher;
 
+import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
 /**
  * Interface which should be implemented of classes which map recipients.
  */
@@ -47,6 +57,69 @@ public interface RecipientRewriteTable {
         }
     }
 
+    /**
+     * Outcome of the resolution of a recipient: either its resolved mappings, or the error that prevented it.
+     */
+    class RecipientResolution {
+        public static RecipientResolution resolved(MailAddress recipient, Mappings mappings) {
+            return new RecipientResolution(recipient, Optional.ofNullable(mappings), Optional.empty());
+        }
+
+        public static RecipientResolution failed(MailAddress recipient, Exception error) {
+            return new RecipientResolution(recipient, Optional.empty(), Optional.of(error));
+        }
+
+        private final MailAddress recipient;
+        private final Optional<Mappings> mappings;
+        private final Optional<Exception> error;
+
+        private RecipientResolution(MailAddress recipient, Optional<Mappings> mappings, Optional<Exception> error) {
+            this.recipient = recipient;
+            this.mappings = mappings;
+            this.error = error;
+        }
+
+        public MailAddress getRecipient() {
+            return recipient;
+        }
+
+        public Optional<Mappings> getMappings() {
+            return mappings;
+        }
+
+        public Optional<Exception> getError() {
+            return error;
+        }
+
+        @Override
+        public final boolean equals(Object o) {
+            if (o instanceof RecipientResolution) {
+                RecipientResolution that = (RecipientResolution) o;
+
+                return Objects.equals(this.recipient, that.recipient)
+                    && Objects.equals(this.mappings, that.mappings)
+                    && Objects.equals(this.error, that.error);
+            }
+            return false;
+        }
+
+        @Override
+        public final int hashCode() {
+            return Objects.hash(recipient, mappings, error);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                .add("recipient", recipient)
+                .add("mappings", mappings)
+                .add("error", error)
+                .toString();
+        }
+    }
+
+    int DEFAULT_RESOLUTION_CONCURRENCY = 8;
+
     EnumSet<Mapping.Type> listSourcesSupportedType = EnumSet.of(
         Mapping.Type.Group,
         Mapping.Type.Forward,
@@ -108,6 +181,22 @@ public interface RecipientRewriteTable {
      */
     Mappings getResolvedMappings(String user, Domain domain, EnumSet<Mapping.Type> mappingTypes) throws ErrorMappingException, RecipientRewriteTableException;
 
+    /**
+     * Resolves the mappings of all the recipients of a mail in one call.
+     *
+     * One {@link RecipientResolution} is emitted per recipient, in the order of the recipients. An
+     * {@link ErrorMappingException} or a {@link RecipientRewriteTableException} is reported in the resolution of the
+     * recipient it affects and does not fail the other ones.
+     */
+    default Publisher<RecipientResolution> getResolvedMappingsReactive(Collection<MailAddress> recipients) {
+        return Flux.fromIterable(recipients)
+            .flatMapSequential(recipient -> Mono.fromCallable(() -> RecipientResolution.resolved(recipient,
+                    getResolvedMappings(recipient.getLocalPart(), recipient.getDomain())))
+                .onErrorResume(e -> e instanceof ErrorMappingException || e instanceof RecipientRewriteTableException,
+                    e -> Mono.just(RecipientResolution.failed(recipient, (Exception) e)))
+                .subscribeOn(Schedulers.boundedElastic()), DEFAULT_RESOLUTION_CONCURRENCY);
+    }
+
     /**
      * Return the explicit mapping stored for the given user and domain. Return empty object
      * if no matched mapping was found
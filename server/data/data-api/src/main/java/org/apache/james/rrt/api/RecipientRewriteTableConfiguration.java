@@ -19,11 +19,14 @@
 
 package org.apache.james.rrt.api;
 
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 import java.util.Objects;
 
 import org.apache.commons.configuration2.HierarchicalConfiguration;
 import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.commons.configuration2.tree.ImmutableNode;
+import org.apache.james.util.DurationParser;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
@@ -34,6 +37,9 @@ public class RecipientRewriteTableConfiguration {
     public static final boolean RECURSIVE_MAPPING_ENABLED = true;
     public static final int DEFAULT_ENABLED_MAPPING_LIMIT = 10;
     public static final int DISABLED_MAPPING_LIMIT = 0;
+    public static final boolean DEFAULT_RESOLUTION_CACHE_ENABLED = false;
+    public static final long DEFAULT_RESOLUTION_CACHE_SIZE = 10000;
+    public static final String DEFAULT_RESOLUTION_CACHE_EXPIRATION = "1h";
 
     public static final RecipientRewriteTableConfiguration DEFAULT_ENABLED = new RecipientRewriteTableConfiguration(RECURSIVE_MAPPING_ENABLED, DEFAULT_ENABLED_MAPPING_LIMIT);
     public static final RecipientRewriteTableConfiguration DISABLED = new RecipientRewriteTableConfiguration(!RECURSIVE_MAPPING_ENABLED, DISABLED_MAPPING_LIMIT);
@@ -43,11 +49,26 @@ public class RecipientRewriteTableConfiguration {
 
     private final boolean recursive;
 
+    // Resolved mappings are cached when enabled. The expiration bounds staleness should a change notification be lost.
+    private final boolean resolutionCacheEnabled;
+    private final long resolutionCacheSize;
+    private final Duration resolutionCacheExpiration;
+
     @VisibleForTesting
     public RecipientRewriteTableConfiguration(boolean recursive, int mappingLimit) {
+        this(recursive, mappingLimit, DEFAULT_RESOLUTION_CACHE_ENABLED, DEFAULT_RESOLUTION_CACHE_SIZE, DurationParser.parse(DEFAULT_RESOLUTION_CACHE_EXPIRATION));
+    }
+
+    @VisibleForTesting
+    public RecipientRewriteTableConfiguration(boolean recursive, int mappingLimit, boolean resolutionCacheEnabled, long resolutionCacheSize, Duration resolutionCacheExpiration) {
         Preconditions.checkArgument(mappingLimit == 0 || recursive, "mappingLimit can not be different than 0 when recursive mode is disabled");
+        Preconditions.checkArgument(resolutionCacheSize > 0, "resolutionCache.size should be strictly positive");
+        Preconditions.checkArgument(!resolutionCacheExpiration.isNegative() && !resolutionCacheExpiration.isZero(), "resolutionCache.expiration should be strictly positive");
         this.recursive = recursive;
         this.mappingLimit = mappingLimit;
+        this.resolutionCacheEnabled = resolutionCacheEnabled;
+        this.resolutionCacheSize = resolutionCacheSize;
+        this.resolutionCacheExpiration = resolutionCacheExpiration;
     }
 
     public static RecipientRewriteTableConfiguration fromConfiguration(HierarchicalConfiguration<ImmutableNode> config) throws ConfigurationException {
@@ -59,7 +80,20 @@ public class RecipientRewriteTableConfiguration {
         } else {
             mappingLimit = DISABLED_MAPPING_LIMIT;
         }
-        return new RecipientRewriteTableConfiguration(recursive, mappingLimit);
+        boolean resolutionCacheEnabled = config.getBoolean("resolutionCache.enabled", DEFAULT_RESOLUTION_CACHE_ENABLED);
+        long resolutionCacheSize = config.getLong("resolutionCache.size", DEFAULT_RESOLUTION_CACHE_SIZE);
+        Duration resolutionCacheExpiration = DurationParser.parse(config.getString("resolutionCache.expiration", DEFAULT_RESOLUTION_CACHE_EXPIRATION), ChronoUnit.SECONDS);
+        checkResolutionCache(resolutionCacheSize, resolutionCacheExpiration);
+        return new RecipientRewriteTableConfiguration(recursive, mappingLimit, resolutionCacheEnabled, resolutionCacheSize, resolutionCacheExpiration);
+    }
+
+    private static void checkResolutionCache(long size, Duration expiration) throws ConfigurationException {
+        if (size < 1) {
+            throw new ConfigurationException("The minimum resolutionCache.size is 1");
+        }
+        if (expiration.isNegative() || expiration.isZero()) {
+            throw new ConfigurationException("resolutionCache.expiration should be strictly positive");
+        }
     }
 
     private static void checkMappingLimit(int mappingLimit) throws ConfigurationException {
@@ -76,11 +110,27 @@ public class RecipientRewriteTableConfiguration {
         return recursive;
     }
 
+    public boolean isResolutionCacheEnabled() {
+        return resolutionCacheEnabled;
+    }
+
+    public long getResolutionCacheSize() {
+        return resolutionCacheSize;
+    }
+
+    public Duration getResolutionCacheExpiration() {
+        return resolutionCacheExpiration;
+    }
+
     @Override
     public final boolean equals(Object other) {
         if (other instanceof RecipientRewriteTableConfiguration) {
             RecipientRewriteTableConfiguration that = (RecipientRewriteTableConfiguration) other;
-            return Objects.equals(mappingLimit, that.mappingLimit) && Objects.equals(recursive, that.recursive);
+            return Objects.equals(mappingLimit, that.mappingLimit)
+                && Objects.equals(recursive, that.recursive)
+                && Objects.equals(resolutionCacheEnabled, that.resolutionCacheEnabled)
+                && Objects.equals(resolutionCacheSize, that.resolutionCacheSize)
+                && Objects.equals(resolutionCacheExpiration, that.resolutionCacheExpiration);
         }
 
         return false;
@@ -88,7 +138,7 @@ public class RecipientRewriteTableConfiguration {
 
     @Override
     public final int hashCode() {
-        return Objects.hash(mappingLimit, recursive);
+        return Objects.hash(mappingLimit, recursive, resolutionCacheEnabled, resolutionCacheSize, resolutionCacheExpiration);
     }
 
     @Override
@@ -96,6 +146,9 @@ public class RecipientRewriteTableConfiguration {
         return MoreObjects.toStringHelper(this)
             .add("mappingLimit", mappingLimit)
             .add("recursive", recursive)
+            .add("resolutionCacheEnabled", resolutionCacheEnabled)
+            .add("resolutionCacheSize", resolutionCacheSize)
+            .add("resolutionCacheExpiration", resolutionCacheExpiration)
             .toString();
     }
 }
@@ -37,6 +37,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Splitter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 
 @FunctionalInterface
@@ -80,6 +82,30 @@ public interface UserRewritter extends Serializable {
 
         private static final int REGEX = 0;
         private static final int PARAMETERIZED_STRING = 1;
+        private static final long COMPILED_MAPPINGS_CACHE_SIZE = 10000;
+
+        // Regex mappings are re-read from the store at each resolution: keep them compiled across resolutions
+        private static final Cache<String, CompiledMapping> COMPILED_MAPPINGS = CacheBuilder.newBuilder()
+            .maximumSize(COMPILED_MAPPINGS_CACHE_SIZE)
+            .build();
+
+        private static class CompiledMapping {
+            static CompiledMapping parse(String mapping) {
+                List<String> parts = ImmutableList.copyOf(Splitter.on(':').split(mapping));
+                if (parts.size() != 2) {
+                    throw new PatternSyntaxException("Regex should be formatted as <regular-expression>:<parameterized-string>", mapping, 0);
+                }
+                return new CompiledMapping(Pattern.compile(parts.get(REGEX)), parts.get(PARAMETERIZED_STRING));
+            }
+
+            private final Pattern pattern;
+            private final String parameterizedString;
+
+            private CompiledMapping(Pattern pattern, String parameterizedString) {
+                this.pattern = pattern;
+                this.parameterizedString = parameterizedString;
+            }
+        }
 
         @Override
         public UserRewritter generateUserRewriter(String mapping) {
@@ -101,21 +127,26 @@ public interface UserRewritter extends Serializable {
          * (.*)@(.*):${1}@tld
          */
         public Optional<String> regexMap(MailAddress address, String mapping) {
-            List<String> parts = ImmutableList.copyOf(Splitter.on(':').split(mapping));
-            if (parts.size() != 2) {
-                throw new PatternSyntaxException("Regex should be formatted as <regular-expression>:<parameterized-string>", mapping, 0);
-            }
-
-            Pattern pattern = Pattern.compile(parts.get(REGEX));
-            Matcher match = pattern.matcher(address.asString());
+            CompiledMapping compiledMapping = compile(mapping);
+            Matcher match = compiledMapping.pattern.matcher(address.asString());
 
             if (match.matches()) {
                 ImmutableList<String> parameters = listMatchingGroups(match);
-                return Optional.of(replaceParameters(parts.get(PARAMETERIZED_STRING), parameters));
+                return Optional.of(replaceParameters(compiledMapping.parameterizedString, parameters));
             }
             return Optional.empty();
         }
 
+        private CompiledMapping compile(String mapping) {
+            CompiledMapping cached = COMPILED_MAPPINGS.getIfPresent(mapping);
+            if (cached != null) {
+                return cached;
+            }
+            CompiledMapping compiledMapping = CompiledMapping.parse(mapping);
+            COMPILED_MAPPINGS.put(mapping, compiledMapping);
+            return compiledMapping;
+        }
+
         private ImmutableList<String> listMatchingGroups(Matcher match) {
             return IntStream
                 .rangeClosed(1, match.groupCount())
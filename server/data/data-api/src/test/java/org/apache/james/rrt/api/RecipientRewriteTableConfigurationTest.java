@@ -22,6 +22,8 @@ package org.apache.james.rrt.api;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 
+import java.time.Duration;
+
 import org.apache.commons.configuration2.BaseHierarchicalConfiguration;
 import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.junit.jupiter.api.Test;
@@ -43,6 +45,37 @@ class RecipientRewriteTableConfigurationTest {
             .isEqualTo(10);
         assertThat(recipientRewriteTableConfiguration.isRecursive())
             .isTrue();
+        assertThat(recipientRewriteTableConfiguration.isResolutionCacheEnabled())
+            .isFalse();
+        assertThat(recipientRewriteTableConfiguration.getResolutionCacheSize())
+            .isEqualTo(10000);
+        assertThat(recipientRewriteTableConfiguration.getResolutionCacheExpiration())
+            .isEqualTo(Duration.ofHours(1));
+    }
+
+    @Test
+    void resolutionCacheShouldBeConfigurable() throws ConfigurationException {
+        BaseHierarchicalConfiguration configuration = new BaseHierarchicalConfiguration();
+        configuration.addProperty("resolutionCache.enabled", "true");
+        configuration.addProperty("resolutionCache.size", 42);
+        configuration.addProperty("resolutionCache.expiration", "10m");
+        RecipientRewriteTableConfiguration recipientRewriteTableConfiguration = RecipientRewriteTableConfiguration.fromConfiguration(configuration);
+
+        assertThat(recipientRewriteTableConfiguration.isResolutionCacheEnabled())
+            .isTrue();
+        assertThat(recipientRewriteTableConfiguration.getResolutionCacheSize())
+            .isEqualTo(42);
+        assertThat(recipientRewriteTableConfiguration.getResolutionCacheExpiration())
+            .isEqualTo(Duration.ofMinutes(10));
+    }
+
+    @Test
+    void nullResolutionCacheSizeShouldThrow() {
+        BaseHierarchicalConfiguration configuration = new BaseHierarchicalConfiguration();
+        configuration.addProperty("resolutionCache.size", 0);
+
+        assertThatCode(() -> RecipientRewriteTableConfiguration.fromConfiguration(configuration))
+            .isInstanceOf(ConfigurationException.class);
     }
 
     @Test
@@ -46,14 +46,14 @@ public class CassandraRecipientRewriteTable extends AbstractRecipientRewriteTabl
     }
 
     @Override
-    public void addMapping(MappingSource source, Mapping mapping) {
+    protected void storeMapping(MappingSource source, Mapping mapping) {
         cassandraRecipientRewriteTableDAO.addMapping(source, mapping)
             .then(cassandraMappingsSourcesDAO.addMapping(mapping, source))
             .block();
     }
 
     @Override
-    public void removeMapping(MappingSource source, Mapping mapping) {
+    protected void deleteMapping(MappingSource source, Mapping mapping) {
         cassandraRecipientRewriteTableDAO.removeMapping(source, mapping)
             .then(cassandraMappingsSourcesDAO.removeMapping(mapping, source))
             .block();
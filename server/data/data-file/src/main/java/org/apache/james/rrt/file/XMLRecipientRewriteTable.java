@@ -90,12 +90,12 @@ public class XMLRecipientRewriteTable extends AbstractRecipientRewriteTable {
     }
 
     @Override
-    public void addMapping(MappingSource source, Mapping mapping) throws RecipientRewriteTableException {
+    protected void storeMapping(MappingSource source, Mapping mapping) throws RecipientRewriteTableException {
         throw new RecipientRewriteTableException("Read-Only implementation");
     }
 
     @Override
-    public void removeMapping(MappingSource source, Mapping mapping) throws RecipientRewriteTableException {
+    protected void deleteMapping(MappingSource source, Mapping mapping) throws RecipientRewriteTableException {
         throw new RecipientRewriteTableException("Read-Only implementation");
     }
 }
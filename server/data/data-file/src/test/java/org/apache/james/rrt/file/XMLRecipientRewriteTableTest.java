@@ -286,4 +286,9 @@ class XMLRecipientRewriteTableTest implements RecipientRewriteTableContract {
     @Disabled("XMLRecipientRewriteTable is read only")
     public void getMappingsForTypeShouldReturnSortedStream() {
     }
+
+    @Test
+    @Disabled("XMLRecipientRewriteTable is read only")
+    public void getResolvedMappingsReactiveShouldResolveEachRecipient() {
+    }
 }
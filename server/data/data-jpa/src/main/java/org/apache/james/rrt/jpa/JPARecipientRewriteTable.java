@@ -63,7 +63,7 @@ public class JPARecipientRewriteTable extends AbstractRecipientRewriteTable {
     }
 
     @Override
-    public void addMapping(MappingSource source, Mapping mapping) throws RecipientRewriteTableException {
+    protected void storeMapping(MappingSource source, Mapping mapping) throws RecipientRewriteTableException {
         Mappings map = getStoredMappings(source);
         if (!map.isEmpty()) {
             Mappings updatedMappings = MappingsImpl.from(map).add(mapping).build();
@@ -127,7 +127,7 @@ public class JPARecipientRewriteTable extends AbstractRecipientRewriteTable {
     }
 
     @Override
-    public void removeMapping(MappingSource source, Mapping mapping) throws RecipientRewriteTableException {
+    protected void deleteMapping(MappingSource source, Mapping mapping) throws RecipientRewriteTableException {
         Mappings map = getStoredMappings(source);
         if (map.size() > 1) {
             Mappings updatedMappings = map.remove(mapping);
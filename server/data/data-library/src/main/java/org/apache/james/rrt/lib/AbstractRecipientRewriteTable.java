@@ -21,9 +21,12 @@ package org.apache.james.rrt.lib;
 import static org.apache.james.UserEntityValidator.EntityType.ALIAS;
 import static org.apache.james.UserEntityValidator.EntityType.GROUP;
 
+import java.util.Collection;
 import java.util.EnumSet;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -54,25 +57,89 @@ import org.apache.james.rrt.api.SameSourceAndDestinationException;
 import org.apache.james.rrt.api.SourceDomainIsNotInDomainListException;
 import org.apache.james.rrt.lib.Mapping.Type;
 import org.apache.james.user.api.UsersRepository;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.fge.lambdas.Throwing;
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 public abstract class AbstractRecipientRewriteTable implements RecipientRewriteTable, Configurable {
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractRecipientRewriteTable.class);
+    private static final EnumSet<Type> ALL_TYPES = EnumSet.allOf(Type.class);
+
+    private static class ResolutionKey {
+        private final Username username;
+        private final ImmutableSet<Type> mappingTypes;
+
+        private ResolutionKey(Username username, EnumSet<Type> mappingTypes) {
+            this.username = username;
+            this.mappingTypes = Sets.immutableEnumSet(mappingTypes);
+        }
+
+        @Override
+        public final boolean equals(Object o) {
+            if (o instanceof ResolutionKey) {
+                ResolutionKey that = (ResolutionKey) o;
+
+                return Objects.equals(this.username, that.username)
+                    && Objects.equals(this.mappingTypes, that.mappingTypes);
+            }
+            return false;
+        }
+
+        @Override
+        public final int hashCode() {
+            return Objects.hash(username, mappingTypes);
+        }
+    }
+
+    private static class CachedResolution {
+        private final long generation;
+        private final Mappings mappings;
+
+        private CachedResolution(long generation, Mappings mappings) {
+            this.generation = generation;
+            this.mappings = mappings;
+        }
+    }
 
     private RecipientRewriteTableConfiguration configuration;
     private UserEntityValidator userEntityValidator;
     private UsersRepository usersRepository;
     private DomainList domainList;
+    private MappingsChangeNotifier mappingsChangeNotifier = MappingsChangeNotifier.NOOP;
+    private Optional<Cache<ResolutionKey, CachedResolution>> resolutionCache = Optional.empty();
+    // Bumped on each change. Cached resolutions carry the generation they were loaded at, so that a resolution racing
+    // with a change, and cached after the invalidation, is never served.
+    private final AtomicLong mappingsGeneration = new AtomicLong();
 
     public void setConfiguration(RecipientRewriteTableConfiguration configuration) {
         Preconditions.checkState(this.configuration == null, "A configuration cannot be set twice");
         this.configuration = configuration;
         this.userEntityValidator = new RecipientRewriteTableUserEntityValidator(this);
+        if (configuration.isResolutionCacheEnabled()) {
+            this.resolutionCache = Optional.of(CacheBuilder.newBuilder()
+                .maximumSize(configuration.getResolutionCacheSize())
+                .expireAfterWrite(configuration.getResolutionCacheExpiration())
+                .build());
+        }
+    }
+
+    /**
+     * Propagates the mapping changes done through this instance, typically to the other James nodes of a cluster so
+     * that they invalidate their resolution cache.
+     */
+    public void setMappingsChangeNotifier(MappingsChangeNotifier mappingsChangeNotifier) {
+        this.mappingsChangeNotifier = mappingsChangeNotifier;
     }
 
     @Inject
@@ -108,7 +175,73 @@ public abstract class AbstractRecipientRewriteTable implements RecipientRewriteT
     @Override
     public Mappings getResolvedMappings(String user, Domain domain, EnumSet<Type> mappingTypes) throws ErrorMappingException, RecipientRewriteTableException {
         Preconditions.checkState(this.configuration != null, "RecipientRewriteTable is not configured");
-        return getMappings(Username.fromLocalPartWithDomain(user, domain), configuration.getMappingLimit(), mappingTypes);
+        Username username = Username.fromLocalPartWithDomain(user, domain);
+        if (resolutionCache.isEmpty()) {
+            return getMappings(username, configuration.getMappingLimit(), mappingTypes);
+        }
+
+        ResolutionKey key = new ResolutionKey(username, mappingTypes);
+        Optional<Mappings> cachedMappings = cachedMappings(key);
+        if (cachedMappings.isPresent()) {
+            return cachedMappings.get();
+        }
+        long generation = mappingsGeneration.get();
+        Mappings mappings = getMappings(username, configuration.getMappingLimit(), mappingTypes);
+        resolutionCache.get().put(key, new CachedResolution(generation, mappings));
+        return mappings;
+    }
+
+    @Override
+    public Publisher<RecipientResolution> getResolvedMappingsReactive(Collection<MailAddress> recipients) {
+        Preconditions.checkState(this.configuration != null, "RecipientRewriteTable is not configured");
+        return Flux.fromIterable(recipients)
+            .flatMapSequential(recipient -> cachedMappings(new ResolutionKey(Username.fromMailAddress(recipient), ALL_TYPES))
+                .map(mappings -> Mono.just(RecipientResolution.resolved(recipient, mappings)))
+                .orElseGet(() -> Mono.from(RecipientRewriteTable.super.getResolvedMappingsReactive(ImmutableList.of(recipient)))),
+                DEFAULT_RESOLUTION_CONCURRENCY);
+    }
+
+    private Optional<Mappings> cachedMappings(ResolutionKey key) {
+        return resolutionCache.flatMap(cache -> Optional.ofNullable(cache.getIfPresent(key)))
+            .filter(cachedResolution -> cachedResolution.generation == mappingsGeneration.get())
+            .map(cachedResolution -> cachedResolution.mappings);
+    }
+
+    /**
+     * Drops all the resolved mappings held in cache.
+     *
+     * A change can alter the resolution of any source pointing to the changed one through a chain of mappings, hence
+     * the whole cache is invalidated.
+     */
+    public void invalidateResolutionCache() {
+        mappingsGeneration.incrementAndGet();
+        resolutionCache.ifPresent(Cache::invalidateAll);
+    }
+
+    @Override
+    public void addMapping(MappingSource source, Mapping mapping) throws RecipientRewriteTableException {
+        storeMapping(source, mapping);
+        mappingsChanged(source);
+    }
+
+    @Override
+    public void removeMapping(MappingSource source, Mapping mapping) throws RecipientRewriteTableException {
+        deleteMapping(source, mapping);
+        mappingsChanged(source);
+    }
+
+    /**
+     * Invalidates the resolution cache and propagates the change. Backends overriding addMapping or removeMapping
+     * need to call it once the change is stored.
+     */
+    protected void mappingsChanged(MappingSource source) {
+        invalidateResolutionCache();
+        try {
+            Mono.from(mappingsChangeNotifier.notifyChange(source)).block();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not propagate the change of the mappings of {}, remote resolution caches will only be refreshed upon expiration",
+                source.asString(), e);
+        }
     }
 
     private Mappings getMappings(Username username, int mappingLimit, EnumSet<Type> mappingTypes) throws ErrorMappingException, RecipientRewriteTableException {
@@ -383,6 +516,16 @@ public abstract class AbstractRecipientRewriteTable implements RecipientRewriteT
         removeMapping(source, mapping);
     }
 
+    /**
+     * Persists the given mapping. Resolution cache invalidation is handled by {@link #addMapping(MappingSource, Mapping)}.
+     */
+    protected abstract void storeMapping(MappingSource source, Mapping mapping) throws RecipientRewriteTableException;
+
+    /**
+     * Removes the given mapping. Resolution cache invalidation is handled by {@link #removeMapping(MappingSource, Mapping)}.
+     */
+    protected abstract void deleteMapping(MappingSource source, Mapping mapping) throws RecipientRewriteTableException;
+
     /**
      * Return a Map which holds all Mappings
      * 
@@ -0,0 +1,54 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.rrt.lib;
+
+import org.apache.james.events.Event;
+import org.apache.james.events.EventBus;
+import org.apache.james.events.EventListener;
+import org.apache.james.events.Registration;
+import org.reactivestreams.Publisher;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Broadcasts mapping changes over an {@link EventBus} so that the resolution caches of all the James nodes get
+ * invalidated, and not only the one of the node the change was made on.
+ */
+public class EventBusMappingsChangeNotifier implements MappingsChangeNotifier {
+
+    private final EventBus eventBus;
+
+    public EventBusMappingsChangeNotifier(EventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    @Override
+    public Publisher<Void> notifyChange(MappingSource source) {
+        return eventBus.dispatch(new MappingsChangedEvent(Event.EventId.random(), source), RecipientRewriteTableRegistrationKey.INSTANCE);
+    }
+
+    /**
+     * Invalidates the resolution cache of the given table upon the changes made on any node.
+     */
+    public Publisher<Registration> listenForChanges(AbstractRecipientRewriteTable recipientRewriteTable) {
+        EventListener.ReactiveEventListener listener = event -> Mono.fromRunnable(recipientRewriteTable::invalidateResolutionCache);
+        return eventBus.register(listener, RecipientRewriteTableRegistrationKey.INSTANCE);
+    }
+}
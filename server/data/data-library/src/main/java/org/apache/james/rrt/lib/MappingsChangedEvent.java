@@ -0,0 +1,84 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.rrt.lib;
+
+import java.util.Objects;
+
+import org.apache.james.core.Username;
+import org.apache.james.events.Event;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Signals that the mappings of a source changed and that resolution caches should be invalidated.
+ */
+public class MappingsChangedEvent implements Event {
+    private final EventId eventId;
+    private final MappingSource source;
+
+    public MappingsChangedEvent(EventId eventId, MappingSource source) {
+        this.eventId = eventId;
+        this.source = source;
+    }
+
+    public MappingSource getSource() {
+        return source;
+    }
+
+    @Override
+    public Username getUsername() {
+        return source.asUsername()
+            .orElseGet(() -> Username.fromLocalPartWithoutDomain(source.asString()));
+    }
+
+    @Override
+    public boolean isNoop() {
+        return false;
+    }
+
+    @Override
+    public EventId getEventId() {
+        return eventId;
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof MappingsChangedEvent) {
+            MappingsChangedEvent that = (MappingsChangedEvent) o;
+
+            return Objects.equals(this.eventId, that.eventId)
+                && Objects.equals(this.source, that.source);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(eventId, source);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("eventId", eventId)
+            .add("source", source.asString())
+            .toString();
+    }
+}
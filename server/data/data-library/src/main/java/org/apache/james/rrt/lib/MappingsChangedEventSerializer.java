@@ -0,0 +1,91 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.rrt.lib;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.apache.james.core.Username;
+import org.apache.james.events.Event;
+import org.apache.james.events.EventSerializer;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Preconditions;
+
+public class MappingsChangedEventSerializer implements EventSerializer {
+
+    private static class MappingsChangedEventDTO {
+        private final String eventId;
+        private final String source;
+
+        @JsonCreator
+        MappingsChangedEventDTO(@JsonProperty("eventId") String eventId,
+                                @JsonProperty("source") String source) {
+            this.eventId = eventId;
+            this.source = source;
+        }
+
+        public String getEventId() {
+            return eventId;
+        }
+
+        public String getSource() {
+            return source;
+        }
+    }
+
+    private static final String WILDCARD = "*";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    public String toJson(Event event) {
+        Preconditions.checkArgument(event instanceof MappingsChangedEvent, "Unsupported event %s", event.getClass().getName());
+        MappingsChangedEvent mappingsChangedEvent = (MappingsChangedEvent) event;
+        try {
+            return objectMapper.writeValueAsString(new MappingsChangedEventDTO(
+                mappingsChangedEvent.getEventId().getId().toString(),
+                asString(mappingsChangedEvent.getSource())));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Matches the formats understood by MappingSource::parse
+    private String asString(MappingSource source) {
+        return source.asUsername()
+            .map(Username::asString)
+            .or(() -> source.asDomain().map(domain -> WILDCARD + "@" + domain.asString()))
+            .orElse(WILDCARD);
+    }
+
+    @Override
+    public Event asEvent(String serialized) {
+        try {
+            MappingsChangedEventDTO dto = objectMapper.readValue(serialized, MappingsChangedEventDTO.class);
+            return new MappingsChangedEvent(Event.EventId.of(dto.getEventId()), MappingSource.parse(dto.getSource()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.rrt.lib;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.apache.james.core.Domain;
+import org.apache.james.events.Event;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class MappingsChangedEventSerializerTest {
+    private static final Event.EventId EVENT_ID = Event.EventId.of(UUID.fromString("6e0dd59d-660e-4d9b-b22f-0354479f47b4"));
+
+    private final MappingsChangedEventSerializer serializer = new MappingsChangedEventSerializer();
+
+    static Stream<Arguments> sources() {
+        return Stream.of(
+            Arguments.of(MappingSource.fromUser("alice", Domain.LOCALHOST), "alice@localhost"),
+            Arguments.of(MappingSource.fromDomain(Domain.LOCALHOST), "*@localhost"),
+            Arguments.of(MappingSource.wildCard(), "*"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("sources")
+    void serializationShouldBeReversible(MappingSource source, String serializedSource) {
+        MappingsChangedEvent event = new MappingsChangedEvent(EVENT_ID, source);
+
+        assertThat(serializer.asEvent(serializer.toJson(event)))
+            .isEqualTo(event);
+    }
+
+    @ParameterizedTest
+    @MethodSource("sources")
+    void eventShouldBeDeserialized(MappingSource source, String serializedSource) {
+        assertThat(serializer.asEvent("{\"eventId\":\"6e0dd59d-660e-4d9b-b22f-0354479f47b4\",\"source\":\"" + serializedSource + "\"}"))
+            .isEqualTo(new MappingsChangedEvent(EVENT_ID, source));
+    }
+}
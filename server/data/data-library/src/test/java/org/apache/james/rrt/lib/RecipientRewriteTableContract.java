@@ -22,6 +22,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.lang3.tuple.Pair;
@@ -31,12 +32,16 @@ import org.apache.james.domainlist.api.mock.SimpleDomainList;
 import org.apache.james.lifecycle.api.LifecycleUtil;
 import org.apache.james.rrt.api.LoopDetectedException;
 import org.apache.james.rrt.api.RecipientRewriteTable.ErrorMappingException;
+import org.apache.james.rrt.api.RecipientRewriteTable.RecipientResolution;
 import org.apache.james.rrt.api.RecipientRewriteTableConfiguration;
 import org.apache.james.rrt.api.RecipientRewriteTableException;
 import org.apache.james.rrt.api.SourceDomainIsNotInDomainListException;
 import org.junit.jupiter.api.Test;
 
 import com.github.fge.lambdas.Throwing;
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Flux;
 
 /**
  * The abstract test for the virtual user table. Contains tests related to
@@ -725,4 +730,28 @@ public interface RecipientRewriteTableContract {
             SOURCE.asString()))
             .isInstanceOf(LoopDetectedException.class);
     }
+
+    @Test
+    default void getResolvedMappingsReactiveShouldResolveEachRecipient() throws Exception {
+        MailAddress mapped = new MailAddress("test@localhost");
+        MailAddress failing = new MailAddress("error@localhost");
+        MailAddress notMapped = new MailAddress("other@localhost");
+        virtualUserTable().addMapping(SOURCE, Mapping.address(ADDRESS));
+        virtualUserTable().addMapping(MappingSource.fromMailAddress(failing), Mapping.error("bam"));
+
+        List<RecipientResolution> resolutions = Flux.from(virtualUserTable()
+                .getResolvedMappingsReactive(ImmutableList.of(mapped, failing, notMapped)))
+            .collectList()
+            .block();
+
+        assertThat(resolutions)
+            .extracting(RecipientResolution::getRecipient)
+            .containsExactly(mapped, failing, notMapped);
+        assertThat(resolutions.get(0).getMappings())
+            .hasValueSatisfying(mappings -> assertThat(mappings).containsOnly(Mapping.address(ADDRESS)));
+        assertThat(resolutions.get(1).getError())
+            .hasValueSatisfying(error -> assertThat(error).isInstanceOf(ErrorMappingException.class));
+        assertThat(resolutions.get(2).getMappings())
+            .hasValueSatisfying(mappings -> assertThat(mappings).isEmpty());
+    }
 }
@@ -84,11 +84,23 @@ public class MemoryRecipientRewriteTable extends AbstractRecipientRewriteTable {
 
     @Override
     public void addMapping(MappingSource source, Mapping mapping) {
-        mappingEntries.add(new InMemoryMappingEntry(source, mapping));
+        storeMapping(source, mapping);
+        mappingsChanged(source);
     }
 
     @Override
     public void removeMapping(MappingSource source, Mapping mapping) {
+        deleteMapping(source, mapping);
+        mappingsChanged(source);
+    }
+
+    @Override
+    protected void storeMapping(MappingSource source, Mapping mapping) {
+        mappingEntries.add(new InMemoryMappingEntry(source, mapping));
+    }
+
+    @Override
+    protected void deleteMapping(MappingSource source, Mapping mapping) {
         mappingEntries.remove(new InMemoryMappingEntry(source, mapping));
     }
 
@@ -0,0 +1,154 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.rrt.memory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.james.UserEntityValidator;
+import org.apache.james.core.Domain;
+import org.apache.james.domainlist.api.mock.SimpleDomainList;
+import org.apache.james.events.EventBus;
+import org.apache.james.events.InVMEventBus;
+import org.apache.james.events.MemoryEventDeadLetters;
+import org.apache.james.events.RetryBackoffConfiguration;
+import org.apache.james.events.delivery.InVmEventDelivery;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.apache.james.rrt.api.RecipientRewriteTableConfiguration;
+import org.apache.james.rrt.lib.EventBusMappingsChangeNotifier;
+import org.apache.james.rrt.lib.Mapping;
+import org.apache.james.rrt.lib.MappingSource;
+import org.apache.james.rrt.lib.Mappings;
+import org.apache.james.user.api.UsersRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+
+class MemoryRecipientRewriteTableResolutionCacheTest {
+    private static final Domain DOMAIN = Domain.LOCALHOST;
+    private static final MappingSource SOURCE = MappingSource.fromUser("alice", DOMAIN);
+    private static final MappingSource GROUP_MEMBER = MappingSource.fromUser("bob", DOMAIN);
+
+    private MemoryRecipientRewriteTable recipientRewriteTable;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        recipientRewriteTable = createRecipientRewriteTable();
+    }
+
+    private MemoryRecipientRewriteTable createRecipientRewriteTable() throws Exception {
+        return configure(new MemoryRecipientRewriteTable());
+    }
+
+    private MemoryRecipientRewriteTable configure(MemoryRecipientRewriteTable table) throws Exception {
+        SimpleDomainList domainList = new SimpleDomainList();
+        domainList.addDomain(DOMAIN);
+        table.setUsersRepository(mock(UsersRepository.class));
+        table.setUserEntityValidator(UserEntityValidator.NOOP);
+        table.setDomainList(domainList);
+        table.setConfiguration(new RecipientRewriteTableConfiguration(true, 10, true, 100, Duration.ofHours(1)));
+        return table;
+    }
+
+    @Test
+    void resolutionShouldBeServedFromCache() throws Exception {
+        recipientRewriteTable.addMapping(SOURCE, Mapping.address("bob@localhost"));
+        recipientRewriteTable.getResolvedMappings("alice", DOMAIN);
+
+        recipientRewriteTable.storeMapping(SOURCE, Mapping.address("cedric@localhost"));
+
+        assertThat(recipientRewriteTable.getResolvedMappings("alice", DOMAIN))
+            .containsOnly(Mapping.address("bob@localhost"));
+    }
+
+    @Test
+    void addMappingShouldInvalidateResolutionsOfTheWholeChain() throws Exception {
+        recipientRewriteTable.addMapping(SOURCE, Mapping.address("bob@localhost"));
+        recipientRewriteTable.getResolvedMappings("alice", DOMAIN);
+
+        recipientRewriteTable.addMapping(GROUP_MEMBER, Mapping.address("cedric@localhost"));
+
+        assertThat(recipientRewriteTable.getResolvedMappings("alice", DOMAIN))
+            .containsOnly(Mapping.address("cedric@localhost"));
+    }
+
+    @Test
+    void removeMappingShouldInvalidateResolutions() throws Exception {
+        recipientRewriteTable.addMapping(SOURCE, Mapping.address("bob@localhost"));
+        recipientRewriteTable.getResolvedMappings("alice", DOMAIN);
+
+        recipientRewriteTable.removeMapping(SOURCE, Mapping.address("bob@localhost"));
+
+        assertThat(recipientRewriteTable.getResolvedMappings("alice", DOMAIN)).isEmpty();
+    }
+
+    @Test
+    void resolutionsShouldBeCachedPerMappingTypes() throws Exception {
+        recipientRewriteTable.addMapping(SOURCE, Mapping.alias("bob@localhost"));
+        recipientRewriteTable.getResolvedMappings("alice", DOMAIN, EnumSet.of(Mapping.Type.Group));
+
+        assertThat(recipientRewriteTable.getResolvedMappings("alice", DOMAIN))
+            .containsOnly(Mapping.alias("bob@localhost"));
+    }
+
+    @Test
+    void resolutionRacingWithAChangeShouldNotBeServedFromCache() throws Exception {
+        AtomicBoolean changeDone = new AtomicBoolean();
+        MemoryRecipientRewriteTable racingTable = configure(new MemoryRecipientRewriteTable() {
+            @Override
+            protected Mappings mapAddress(String user, Domain domain) {
+                Mappings mappings = super.mapAddress(user, domain);
+                if (changeDone.compareAndSet(false, true)) {
+                    addMapping(SOURCE, Mapping.address("cedric@localhost"));
+                }
+                return mappings;
+            }
+        });
+        racingTable.storeMapping(SOURCE, Mapping.address("bob@localhost"));
+
+        racingTable.getResolvedMappings("alice", DOMAIN);
+
+        assertThat(racingTable.getResolvedMappings("alice", DOMAIN))
+            .containsOnly(Mapping.address("bob@localhost"), Mapping.address("cedric@localhost"));
+    }
+
+    @Test
+    void changesShouldInvalidateOtherInstancesThroughTheEventBus() throws Exception {
+        EventBus eventBus = new InVMEventBus(new InVmEventDelivery(new RecordingMetricFactory()), RetryBackoffConfiguration.DEFAULT, new MemoryEventDeadLetters());
+        MemoryRecipientRewriteTable otherNode = createRecipientRewriteTable();
+        EventBusMappingsChangeNotifier notifier = new EventBusMappingsChangeNotifier(eventBus);
+        Mono.from(notifier.listenForChanges(otherNode)).block();
+        recipientRewriteTable.setMappingsChangeNotifier(notifier);
+
+        otherNode.storeMapping(SOURCE, Mapping.address("bob@localhost"));
+        otherNode.getResolvedMappings("alice", DOMAIN);
+        otherNode.storeMapping(SOURCE, Mapping.address("cedric@localhost"));
+
+        recipientRewriteTable.addMapping(GROUP_MEMBER, Mapping.address("david@localhost"));
+
+        assertThat(otherNode.getResolvedMappings("alice", DOMAIN))
+            .containsOnly(Mapping.address("bob@localhost"), Mapping.address("cedric@localhost"));
+    }
+}
@@ -22,10 +22,21 @@ import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.Collection;
 
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
 /**
  * Provides abstraction for DNS resolutions. The interface is Mail specific. It
  * may be a good idea to make the interface more generic or expose commonly
  * needed DNS methods.
+ *
+ * <p>
+ * Each resolution is also exposed as a reactive variant. Implementations backed
+ * by an asynchronous resolver do not block the subscribing thread, which allows
+ * callers to run independent lookups (for instance MX, A and TXT) concurrently.
+ * The default implementations delegate to the blocking methods on a scheduler
+ * dedicated to blocking calls.
+ * </p>
  */
 public interface DNSService {
 
@@ -50,6 +61,16 @@ public interface DNSService {
      */
     Collection<String> findMXRecords(String hostname) throws TemporaryResolutionException;
 
+    /**
+     * Reactive variant of {@link #findMXRecords(String)}.
+     *
+     * Temporary problems are signaled as a {@link TemporaryResolutionException} error.
+     */
+    default Mono<Collection<String>> findMXRecordsReactive(String hostname) {
+        return Mono.fromCallable(() -> findMXRecords(hostname))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
     /**
      * Get a collection of DNS TXT Records
      * 
@@ -59,6 +80,14 @@ public interface DNSService {
      */
     Collection<String> findTXTRecords(String hostname);
 
+    /**
+     * Reactive variant of {@link #findTXTRecords(String)}.
+     */
+    default Mono<Collection<String>> findTXTRecordsReactive(String hostname) {
+        return Mono.fromCallable(() -> findTXTRecords(hostname))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
     /**
      * Resolve the given hostname to an array of InetAddress based on the DNS
      * Server. It should not take into account the hostnames defined in the
@@ -68,6 +97,16 @@ public interface DNSService {
      */
     Collection<InetAddress> getAllByName(String host) throws UnknownHostException;
 
+    /**
+     * Reactive variant of {@link #getAllByName(String)}.
+     *
+     * Unresolvable hosts are signaled as an {@link UnknownHostException} error.
+     */
+    default Mono<Collection<InetAddress>> getAllByNameReactive(String host) {
+        return Mono.fromCallable(() -> getAllByName(host))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
     /**
      * Resolve the given hostname to an InetAddress based on the DNS Server. It
      * should not take into account the hostnames defined in the local host
@@ -77,6 +116,16 @@ public interface DNSService {
      */
     InetAddress getByName(String host) throws UnknownHostException;
 
+    /**
+     * Reactive variant of {@link #getByName(String)}.
+     *
+     * Unresolvable hosts are signaled as an {@link UnknownHostException} error.
+     */
+    default Mono<InetAddress> getByNameReactive(String host) {
+        return Mono.fromCallable(() -> getByName(host))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
     /**
      * Resolve the local hostname of the machine and returns it. It relies on
      * the hostname defined in the local host table
@@ -94,4 +143,12 @@ public interface DNSService {
      */
     String getHostName(InetAddress addr);
 
+    /**
+     * Reactive variant of {@link #getHostName(InetAddress)}.
+     */
+    default Mono<String> getHostNameReactive(InetAddress addr) {
+        return Mono.fromCallable(() -> getHostName(addr))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
 }
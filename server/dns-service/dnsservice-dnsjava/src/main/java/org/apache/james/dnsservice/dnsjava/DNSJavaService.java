@@ -18,6 +18,7 @@
  ****************************************************************/
 package org.apache.james.dnsservice.dnsjava;
 
+import java.io.IOException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
@@ -27,6 +28,9 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
@@ -58,15 +62,48 @@ import org.xbill.DNS.ReverseMap;
 import org.xbill.DNS.TXTRecord;
 import org.xbill.DNS.TextParseException;
 import org.xbill.DNS.Type;
+import org.xbill.DNS.lookup.LookupFailedException;
+import org.xbill.DNS.lookup.LookupResult;
+import org.xbill.DNS.lookup.LookupSession;
+import org.xbill.DNS.lookup.ServerFailedException;
 
 import com.google.common.collect.ImmutableList;
 
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
 /**
  * Provides DNS client functionality to services running inside James
  */
 public class DNSJavaService implements DNSService, DNSServiceMBean, Configurable {
     private static final Logger LOGGER = LoggerFactory.getLogger(DNSJavaService.class);
 
+    private static class Query {
+        private final String name;
+        private final int type;
+
+        private Query(String name, int type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        @Override
+        public final boolean equals(Object o) {
+            if (o instanceof Query) {
+                Query that = (Query) o;
+
+                return Objects.equals(this.type, that.type)
+                    && Objects.equals(this.name, that.name);
+            }
+            return false;
+        }
+
+        @Override
+        public final int hashCode() {
+            return Objects.hash(name, type);
+        }
+    }
+
     private static final int CACHE_TTL_DISABLE = -1;
 
     /**
@@ -81,6 +118,18 @@ public class DNSJavaService implements DNSService, DNSServiceMBean, Configurable
      */
     protected Cache cache;
 
+    /**
+     * Asynchronous lookup session, sharing the resolver and the cache used by
+     * the blocking lookups.
+     */
+    protected LookupSession lookupSession;
+
+    /**
+     * Reactive lookups currently waiting for an answer. Concurrent identical
+     * queries share the same pending lookup, thus a single DNS packet.
+     */
+    private final ConcurrentHashMap<Query, Mono<List<Record>>> inFlightLookups = new ConcurrentHashMap<>();
+
     /**
      * Maximum number of RR to cache.
      */
@@ -234,6 +283,12 @@ public class DNSJavaService implements DNSService, DNSServiceMBean, Configurable
             LOGGER.info("Registered cache, resolver and search paths as DNSJava defaults");
         }
 
+        lookupSession = LookupSession.builder()
+            .resolver(resolver)
+            .cache(cache)
+            .searchPath(Arrays.asList(searchPaths))
+            .build();
+
         // Cache the local hostname and local address. This is needed because
         // the following issues:
         // JAMES-787
@@ -275,15 +330,18 @@ public class DNSJavaService implements DNSService, DNSServiceMBean, Configurable
      */
     private List<String> findMXRecordsRaw(String hostname) throws TemporaryResolutionException {
         Record[] answers = lookup(hostname, Type.MX, "MX");
-        List<String> servers = new ArrayList<>();
         if (answers == null) {
-            return servers;
+            return new ArrayList<>();
         }
+        return sortMXRecords(Arrays.asList(answers));
+    }
 
-        MXRecord[] mxAnswers = new MXRecord[answers.length];
+    private List<String> sortMXRecords(List<Record> answers) {
+        List<String> servers = new ArrayList<>();
+        MXRecord[] mxAnswers = new MXRecord[answers.size()];
 
-        for (int i = 0; i < answers.length; i++) {
-            mxAnswers[i] = (MXRecord) answers[i];
+        for (int i = 0; i < answers.size(); i++) {
+            mxAnswers[i] = (MXRecord) answers.get(i);
         }
         // just sort for now.. This will ensure that mx records with same prio
         // are in sequence
@@ -354,6 +412,28 @@ public class DNSJavaService implements DNSService, DNSServiceMBean, Configurable
         }
     }
 
+    @Override
+    public Mono<Collection<String>> findMXRecordsReactive(String hostname) {
+        return Mono.from(metricFactory.decoratePublisherWithTimerMetric("findMXRecords",
+            lookupReactive(hostname, Type.MX)
+                .map(this::sortMXRecords)
+                .flatMap(servers -> {
+                    if (servers.isEmpty()) {
+                        // If we found no results, we'll add the original domain name if
+                        // it's a valid DNS entry
+                        LOGGER.info("Couldn't resolve MX records for domain {}.", hostname);
+                        return getByNameReactive(hostname)
+                            .<List<String>>map(any -> ImmutableList.of(hostname))
+                            .onErrorResume(UnknownHostException.class, e -> {
+                                LOGGER.error("Couldn't resolve IP address for host {}.", hostname, e);
+                                return Mono.just(ImmutableList.of());
+                            });
+                    }
+                    return Mono.just(servers);
+                })
+                .map(Collections::unmodifiableCollection)));
+    }
+
     /**
      * Looks up DNS records of the specified type for the specified name.
      * <p/>
@@ -404,6 +484,52 @@ public class DNSJavaService implements DNSService, DNSServiceMBean, Configurable
         }
     }
 
+    /**
+     * Reactive counterpart of {@link #lookup(String, int, String)}, relying on the
+     * asynchronous resolver.
+     *
+     * Missing domains and records result in an empty list. Temporary problems are
+     * signaled as a {@link TemporaryResolutionException} error.
+     */
+    protected Mono<List<Record>> lookupReactive(String namestr, int type) {
+        Query query = new Query(namestr, type);
+        return Mono.defer(() -> inFlightLookups.computeIfAbsent(query, this::doLookupReactive));
+    }
+
+    private Mono<List<Record>> doLookupReactive(Query query) {
+        return Mono.fromCallable(() -> Name.fromString(query.name))
+            .flatMap(name -> Mono.fromCompletionStage(() -> lookupSession.lookupAsync(name, query.type)))
+            .map(result -> filterRecords(result, query.type))
+            .onErrorMap(this::isTemporaryFailure, e -> new TemporaryResolutionException("DNSService is temporary not reachable"))
+            .onErrorResume(TextParseException.class, e -> {
+                LOGGER.error("Couldn't parse name {}", query.name, e);
+                return Mono.just(ImmutableList.of());
+            })
+            // Mimics the blocking lookup: missing domains and records, as well as unrecoverable errors, are absent results
+            .onErrorResume(LookupFailedException.class, e -> Mono.just(ImmutableList.of()))
+            .doFinally(any -> inFlightLookups.remove(query))
+            .cache();
+    }
+
+    private List<Record> filterRecords(LookupResult result, int type) {
+        // Aliases followed while resolving are not part of the answer
+        return result.getRecords()
+            .stream()
+            .filter(record -> record.getType() == type)
+            .collect(ImmutableList.toImmutableList());
+    }
+
+    private boolean isTemporaryFailure(Throwable e) {
+        return e instanceof ServerFailedException
+            || e instanceof IOException
+            || e instanceof TimeoutException;
+    }
+
+    protected Mono<List<Record>> lookupReactiveNoException(String namestr, int type) {
+        return lookupReactive(namestr, type)
+            .onErrorResume(TemporaryResolutionException.class, e -> Mono.just(ImmutableList.of()));
+    }
+
 
 
     /*
@@ -458,6 +584,13 @@ public class DNSJavaService implements DNSService, DNSServiceMBean, Configurable
         }
     }
 
+    @Override
+    public Mono<InetAddress> getByNameReactive(String host) {
+        return Mono.from(metricFactory.decoratePublisherWithTimerMetric("getByName",
+            resolveAddresses(host)
+                .map(addresses -> addresses.iterator().next())));
+    }
+
     @Override
     public Collection<InetAddress> getAllByName(String host) throws UnknownHostException {
         TimeMetric timeMetric = metricFactory.timer("getAllByName");
@@ -488,6 +621,38 @@ public class DNSJavaService implements DNSService, DNSServiceMBean, Configurable
         }
     }
 
+    @Override
+    public Mono<Collection<InetAddress>> getAllByNameReactive(String host) {
+        return Mono.from(metricFactory.decoratePublisherWithTimerMetric("getAllByName",
+            resolveAddresses(host)));
+    }
+
+    private Mono<Collection<InetAddress>> resolveAddresses(String host) {
+        String name = allowIPLiteral(host);
+        // Check if its local
+        if (name.equalsIgnoreCase(localHostName) || name.equalsIgnoreCase(localCanonicalHostName) || name.equals(localAddress)) {
+            return Mono.<Collection<InetAddress>>fromCallable(() -> ImmutableList.of(getLocalHost()))
+                .subscribeOn(Schedulers.boundedElastic());
+        }
+        try {
+            return Mono.<Collection<InetAddress>>just(ImmutableList.of(org.xbill.DNS.Address.getByAddress(name)));
+        } catch (UnknownHostException e) {
+            return lookupReactiveNoException(name, Type.A)
+                .filter(records -> !records.isEmpty())
+                .switchIfEmpty(Mono.error(e))
+                .flatMap(records -> Mono.fromCallable(() -> toInetAddresses(name, records)));
+        }
+    }
+
+    private Collection<InetAddress> toInetAddresses(String name, List<Record> records) throws UnknownHostException {
+        ImmutableList.Builder<InetAddress> addresses = ImmutableList.builder();
+        for (Record record : records) {
+            ARecord a = (ARecord) record;
+            addresses.add(InetAddress.getByAddress(name, a.getAddress().getAddress()));
+        }
+        return addresses.build();
+    }
+
     @Override
     public Collection<String> findTXTRecords(String hostname) {
         TimeMetric timeMetric = metricFactory.timer("findTXTRecords");
@@ -508,6 +673,15 @@ public class DNSJavaService implements DNSService, DNSServiceMBean, Configurable
         }
     }
 
+    @Override
+    public Mono<Collection<String>> findTXTRecordsReactive(String hostname) {
+        return Mono.from(metricFactory.decoratePublisherWithTimerMetric("findTXTRecords",
+            lookupReactiveNoException(hostname, Type.TXT)
+                .map(records -> records.stream()
+                    .map(record -> ((TXTRecord) record).rdataToString())
+                    .collect(ImmutableList.toImmutableList()))));
+    }
+
     @Override
     public String getHostName(InetAddress addr) {
         TimeMetric timeMetric = metricFactory.timer("getHostName");
@@ -528,6 +702,17 @@ public class DNSJavaService implements DNSService, DNSServiceMBean, Configurable
         }
     }
 
+    @Override
+    public Mono<String> getHostNameReactive(InetAddress addr) {
+        Name name = ReverseMap.fromAddress(addr);
+        return Mono.from(metricFactory.decoratePublisherWithTimerMetric("getHostName",
+            lookupReactiveNoException(name.toString(), Type.PTR)
+                .map(records -> records.stream()
+                    .findFirst()
+                    .map(record -> ((PTRRecord) record).getTarget().toString())
+                    .orElse(addr.getHostAddress()))));
+    }
+
     @Override
     public InetAddress getLocalHost() throws UnknownHostException {
         return InetAddress.getLocalHost();
@@ -19,19 +19,27 @@
 package org.apache.james.dnsservice.dnsjava;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Fail.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.net.InetAddress;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+import org.apache.james.dnsservice.api.TemporaryResolutionException;
 import org.apache.james.metrics.tests.RecordingMetricFactory;
 import org.apache.james.server.core.configuration.FileConfigurationProvider;
 import org.junit.jupiter.api.AfterEach;
@@ -40,14 +48,24 @@ import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xbill.DNS.Cache;
+import org.xbill.DNS.Credibility;
 import org.xbill.DNS.DClass;
+import org.xbill.DNS.Flags;
 import org.xbill.DNS.Lookup;
+import org.xbill.DNS.MXRecord;
+import org.xbill.DNS.Message;
 import org.xbill.DNS.Name;
+import org.xbill.DNS.Record;
 import org.xbill.DNS.Resolver;
+import org.xbill.DNS.Section;
 import org.xbill.DNS.Zone;
+import org.xbill.DNS.lookup.LookupSession;
 
 import com.google.common.io.Resources;
 
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple3;
+
 class DNSJavaServiceTest {
     private static final Logger LOGGER = LoggerFactory.getLogger(DNSJavaServiceTest.class);
 
@@ -208,6 +226,76 @@ class DNSJavaServiceTest {
         assertThat(records.size()).isEqualTo(1);
         assertThat(records.contains("mx1.one-mx.bar.")).isTrue();
     }
+    @Test
+    void findMXRecordsReactiveShouldSortRecordsByPriority() throws Exception {
+        Resolver asyncResolver = mock(Resolver.class);
+        useLookupSession(asyncResolver, loadZone("three-mx.bar."));
+
+        List<String> records = new ArrayList<>(dnsServer.findMXRecordsReactive("three-mx.bar.").block());
+
+        assertThat(records).hasSize(3);
+        assertThat(records).contains("mx1.three-mx.bar.", "mx2.three-mx.bar.");
+        assertThat(records.get(2)).isEqualTo("mx3.three-mx.bar.");
+    }
+
+    @Test
+    void findMXRecordsReactiveShouldFallbackToTheHostWhenNoMX() throws Exception {
+        Resolver asyncResolver = mock(Resolver.class);
+        when(asyncResolver.sendAsync(any(Message.class), any(Executor.class)))
+            .thenAnswer(invocation -> CompletableFuture.completedFuture(answer(invocation.getArgument(0))));
+        useLookupSession(asyncResolver, loadZone("dnstest.com."));
+
+        assertThat(dnsServer.findMXRecordsReactive("nomx.dnstest.com.").block())
+            .containsExactly("nomx.dnstest.com.");
+    }
+
+    @Test
+    void independentReactiveLookupsShouldBeCombinable() throws Exception {
+        Resolver asyncResolver = mock(Resolver.class);
+        when(asyncResolver.sendAsync(any(Message.class), any(Executor.class)))
+            .thenAnswer(invocation -> CompletableFuture.completedFuture(answer(invocation.getArgument(0))));
+        useLookupSession(asyncResolver, loadZone("dnstest.com."));
+
+        Tuple3<Collection<String>, Collection<InetAddress>, Collection<String>> results = Mono.zip(
+                dnsServer.findMXRecordsReactive("dnstest.com."),
+                dnsServer.getAllByNameReactive("mail.dnstest.com."),
+                dnsServer.findTXTRecordsReactive("dnstest.com."))
+            .block();
+
+        assertThat(results.getT1()).containsExactly("dnstest.com.inbound.mxlogic.net.");
+        assertThat(results.getT2()).extracting(InetAddress::getHostAddress).containsExactly("216.183.119.114");
+        assertThat(results.getT3()).isEmpty();
+    }
+
+    @Test
+    void concurrentIdenticalReactiveLookupsShouldShareASingleQuery() throws Exception {
+        MXRecord mxRecord = new MXRecord(Name.fromString("shared.dnstest.com."), DClass.IN, 3600, 10, Name.fromString("mx.dnstest.com."));
+        CompletableFuture<Message> pendingAnswer = new CompletableFuture<>();
+        Resolver asyncResolver = mock(Resolver.class);
+        when(asyncResolver.sendAsync(any(Message.class), any(Executor.class)))
+            .thenAnswer(invocation -> pendingAnswer.thenApply(any -> answer(invocation.getArgument(0), mxRecord)));
+        useLookupSession(asyncResolver, loadZone("dnstest.com."));
+
+        CompletableFuture<Collection<String>> first = dnsServer.findMXRecordsReactive("shared.dnstest.com.").toFuture();
+        CompletableFuture<Collection<String>> second = dnsServer.findMXRecordsReactive("shared.dnstest.com.").toFuture();
+        pendingAnswer.complete(null);
+
+        assertThat(first.get()).containsExactly("mx.dnstest.com.");
+        assertThat(second.get()).containsExactly("mx.dnstest.com.");
+        verify(asyncResolver, times(1)).sendAsync(any(Message.class), any(Executor.class));
+    }
+
+    @Test
+    void findMXRecordsReactiveShouldFailOnTemporaryProblems() throws Exception {
+        Resolver asyncResolver = mock(Resolver.class);
+        when(asyncResolver.sendAsync(any(Message.class), any(Executor.class)))
+            .thenAnswer(invocation -> CompletableFuture.failedFuture(new IOException("Timed out")));
+        useLookupSession(asyncResolver, loadZone("dnstest.com."));
+
+        assertThatThrownBy(() -> dnsServer.findMXRecordsReactive("unreachable.dnstest.com.").block())
+            .hasCauseInstanceOf(TemporaryResolutionException.class);
+    }
+
     /*
      * public void testCNAMEasMXrecords() throws Exception { // Zone z =
      * loadZone("brandilyncollins.com."); dnsServer.setResolver(null);
@@ -224,6 +312,25 @@ class DNSJavaServiceTest {
         return new Zone(Name.fromString(zoneName), zoneResource.getFile());
     }
 
+    private void useLookupSession(Resolver asyncResolver, Zone zone) {
+        Cache cache = new Cache(DClass.IN);
+        zone.iterator().forEachRemaining(rrset -> cache.addRRset(rrset, Credibility.ZONE));
+        dnsServer.setLookupSession(LookupSession.builder()
+            .resolver(asyncResolver)
+            .cache(cache)
+            .build());
+    }
+
+    private static Message answer(Message query, Record... records) {
+        Message response = new Message(query.getHeader().getID());
+        response.getHeader().setFlag(Flags.QR);
+        response.addRecord(query.getQuestion(), Section.QUESTION);
+        for (Record record : records) {
+            response.addRecord(record, Section.ANSWER);
+        }
+        return response;
+    }
+
     private final class TestableDNSServer extends DNSJavaService {
 
         public TestableDNSServer() {
@@ -237,5 +344,9 @@ class DNSJavaServiceTest {
         public void setCache(Cache c) {
             cache = c;
         }
+
+        public void setLookupSession(LookupSession session) {
+            lookupSession = session;
+        }
     }
 }
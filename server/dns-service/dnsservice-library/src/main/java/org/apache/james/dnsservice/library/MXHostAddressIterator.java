@@ -35,9 +35,11 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 /**
  *
  *
@@ -56,37 +58,45 @@ public class MXHostAddressIterator implements Iterator<HostAddress> {
     public MXHostAddressIterator(Iterator<String> hosts, DNSService dns, boolean useSingleIP, boolean smtps) {
         checkNotNull(hosts, "Hosts is null");
         checkNotNull(dns, "Dns is null");
-        final List<HostAddress> hAddresses = Lists.newArrayList();
-
-        while (hosts.hasNext()) {
-            String nextHostname = hosts.next();
-
-            Map.Entry<String, Optional<String>> hostAndPort = extractHostAndPort(nextHostname);
-
-            try {
-                final Collection<InetAddress> addrs;
-                if (useSingleIP) {
-                    addrs = ImmutableList.of(dns.getByName(hostAndPort.getKey()));
-                } else {
-                    addrs = dns.getAllByName(hostAndPort.getKey());
-                }
-                for (InetAddress addr : addrs) {
-                    if (smtps) {
-                        hAddresses.add(new HostAddress(hostAndPort.getKey(),
-                            "smtps://" + addr.getHostAddress() + ":" + hostAndPort.getValue().orElse("465")));
-                    }
-                    hAddresses.add(new HostAddress(hostAndPort.getKey(),
-                        "smtp://" + addr.getHostAddress() + ":" + hostAndPort.getValue().orElse("25")));
-                }
-            } catch (UnknownHostException uhe) {
-                // this should never happen, since we just got
-                // this host from mxHosts, which should have
-                // already done this check.
-                String logBuffer = "Couldn't resolve IP address for discovered host " + hostAndPort.getKey() + ".";
-                LOGGER.error(logBuffer);
+
+        // Hosts are resolved concurrently, but their priority order is preserved
+        List<HostAddress> hAddresses = Flux.fromIterable(() -> hosts)
+            .map(MXHostAddressIterator::extractHostAndPort)
+            .flatMapSequential(hostAndPort -> resolve(dns, hostAndPort.getKey(), useSingleIP)
+                .flatMapIterable(addrs -> toHostAddresses(hostAndPort, addrs, smtps)))
+            .collectList()
+            .block();
+        addresses = hAddresses.iterator();
+    }
+
+    private static Mono<Collection<InetAddress>> resolve(DNSService dns, String hostname, boolean useSingleIP) {
+        Mono<Collection<InetAddress>> addrs;
+        if (useSingleIP) {
+            addrs = dns.getByNameReactive(hostname).map(ImmutableList::of);
+        } else {
+            addrs = dns.getAllByNameReactive(hostname);
+        }
+        return addrs.onErrorResume(UnknownHostException.class, uhe -> {
+            // this should never happen, since we just got
+            // this host from mxHosts, which should have
+            // already done this check.
+            String logBuffer = "Couldn't resolve IP address for discovered host " + hostname + ".";
+            LOGGER.error(logBuffer);
+            return Mono.empty();
+        });
+    }
+
+    private static List<HostAddress> toHostAddresses(Map.Entry<String, Optional<String>> hostAndPort, Collection<InetAddress> addrs, boolean smtps) {
+        ImmutableList.Builder<HostAddress> hAddresses = ImmutableList.builder();
+        for (InetAddress addr : addrs) {
+            if (smtps) {
+                hAddresses.add(new HostAddress(hostAndPort.getKey(),
+                    "smtps://" + addr.getHostAddress() + ":" + hostAndPort.getValue().orElse("465")));
             }
+            hAddresses.add(new HostAddress(hostAndPort.getKey(),
+                "smtp://" + addr.getHostAddress() + ":" + hostAndPort.getValue().orElse("25")));
         }
-        addresses = hAddresses.iterator();
+        return hAddresses.build();
     }
 
     private static ImmutableMap.Entry<String, Optional<String>> extractHostAndPort(String nextHostname) {
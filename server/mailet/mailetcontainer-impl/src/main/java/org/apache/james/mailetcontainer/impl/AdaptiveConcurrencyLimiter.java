@@ -0,0 +1,125 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailetcontainer.impl;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+/**
+ * Gradient based concurrency limit.
+ *
+ * Latencies are tracked as two exponentially weighted moving averages of their logarithm: a short window following the
+ * current processing time and a long window acting as the baseline. While the spooler is saturated, the limit is
+ * scaled by their ratio (bounded to [0.5, 1], and 1 as long as the short window stays within {@link #LATENCY_TOLERANCE}
+ * times the long one) and increased by its square root as a queueing allowance, then smoothed. A steady latency thus
+ * lets the limit climb to its maximum despite occasional slow mails, while a sustained slowdown reduces it.
+ *
+ * The limit is in addition reduced by {@link #BACKOFF_RATIO} upon failures, at most once per in-flight generation so
+ * that a single outage is not accounted once per mail.
+ */
+public class AdaptiveConcurrencyLimiter {
+    @VisibleForTesting
+    static final double BACKOFF_RATIO = 0.9;
+    @VisibleForTesting
+    static final double LATENCY_TOLERANCE = 2.0;
+    private static final double SHORT_WINDOW_SMOOTHING = 0.1;
+    private static final double LONG_WINDOW_SMOOTHING = 0.01;
+    // Lets the long window catch up quickly with latency drops, eg once a slow remote service recovered
+    private static final double LONG_WINDOW_DRIFT = Math.log(0.95);
+    private static final double LIMIT_SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final LongSupplier nanoTime;
+    private double limit;
+    private double shortLogLatency;
+    private double longLogLatency;
+    private boolean hasLatencySamples;
+    private long lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimiter(int minLimit, int maxLimit) {
+        this(minLimit, maxLimit, System::nanoTime);
+    }
+
+    @VisibleForTesting
+    AdaptiveConcurrencyLimiter(int minLimit, int maxLimit, LongSupplier nanoTime) {
+        Preconditions.checkArgument(minLimit > 0, "'minLimit' needs to be strictly positive");
+        Preconditions.checkArgument(maxLimit >= minLimit, "'maxLimit' needs to be greater than or equal to 'minLimit'");
+
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.nanoTime = nanoTime;
+        this.limit = minLimit;
+        this.lastDecreaseNanos = nanoTime.getAsLong();
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @param latency processing time of a mail
+     * @param success false if the processing of that mail failed
+     * @param inFlight count of mails being processed when this one completed, including it
+     */
+    public synchronized void onSample(Duration latency, boolean success, int inFlight) {
+        long latencyNanos = latency.toNanos();
+        long startNanos = nanoTime.getAsLong() - latencyNanos;
+
+        if (!success) {
+            // Mails started before the last decrease do not reflect it yet
+            if (startNanos >= lastDecreaseNanos) {
+                limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+                lastDecreaseNanos = nanoTime.getAsLong();
+            }
+            return;
+        }
+
+        updateLatencies(latencyNanos);
+        // The latency of an idle spooler tells nothing about the limit it can sustain
+        if (inFlight < getLimit()) {
+            return;
+        }
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0,
+            LATENCY_TOLERANCE * Math.exp(longLogLatency - shortLogLatency)));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - LIMIT_SMOOTHING) + newLimit * LIMIT_SMOOTHING));
+    }
+
+    private void updateLatencies(long latencyNanos) {
+        // Logarithms keep a few very slow mails from dominating the averages
+        double logLatency = Math.log(Math.max(1, latencyNanos));
+        if (!hasLatencySamples) {
+            shortLogLatency = logLatency;
+            longLogLatency = logLatency;
+            hasLatencySamples = true;
+            return;
+        }
+        shortLogLatency += (logLatency - shortLogLatency) * SHORT_WINDOW_SMOOTHING;
+        longLogLatency += (logLatency - longLogLatency) * LONG_WINDOW_SMOOTHING;
+        if (longLogLatency - shortLogLatency > Math.log(LATENCY_TOLERANCE)) {
+            longLogLatency += LONG_WINDOW_DRIFT;
+        }
+    }
+}
@@ -22,8 +22,10 @@ package org.apache.james.mailetcontainer.impl;
 import static reactor.core.scheduler.Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -48,10 +50,12 @@ import org.apache.james.metrics.api.TimeMetric;
 import org.apache.james.queue.api.MailQueue;
 import org.apache.james.queue.api.MailQueue.MailQueueItem;
 import org.apache.james.queue.api.MailQueueFactory;
+import org.apache.james.util.DurationParser;
 import org.apache.mailet.Attribute;
 import org.apache.mailet.AttributeName;
 import org.apache.mailet.AttributeValue;
 import org.apache.mailet.Mail;
+import org.reactivestreams.Subscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -59,10 +63,12 @@ import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 
+import reactor.core.publisher.BaseSubscriber;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
 
 /**
  * Manages the mail spool. This class is responsible for retrieving messages
@@ -81,6 +87,7 @@ public class JamesMailSpooler implements Disposable, Configurable, MailSpoolerMB
         private final MailQueue queue;
         private final Configuration configuration;
         private final Scheduler scheduler;
+        private final AdaptiveConcurrencyLimiter limiter;
 
         private Runner(MetricFactory metricFactory, GaugeRegistry gaugeRegistry, MailProcessor mailProcessor,
                        MailRepository errorRepository, MailQueue queue, Configuration configuration) {
@@ -89,6 +96,7 @@ public class JamesMailSpooler implements Disposable, Configurable, MailSpoolerMB
             this.errorRepository = errorRepository;
             this.queue = queue;
             this.configuration = configuration;
+            this.limiter = new AdaptiveConcurrencyLimiter(configuration.getMinConcurrencyLevel(), configuration.getConcurrencyLevel());
 
             scheduler = Schedulers.newBoundedElastic(configuration.getConcurrencyLevel() + 1, DEFAULT_BOUNDED_ELASTIC_QUEUESIZE,
                 "spooler");
@@ -97,33 +105,63 @@ public class JamesMailSpooler implements Disposable, Configurable, MailSpoolerMB
 
             gaugeRegistry.register(SPOOL_PROCESSING + ".inFlight",
                 processingActive::get);
+            gaugeRegistry.register(SPOOL_PROCESSING + ".concurrencyLimit",
+                limiter::getLimit);
         }
 
         private reactor.core.Disposable run(MailQueue queue) {
-            return Flux.from(queue.deQueue())
+            if (configuration.isAdaptive()) {
+                AdaptiveSubscriber subscriber = new AdaptiveSubscriber();
+                dequeue(queue)
+                    .subscribeOn(scheduler)
+                    .subscribe(subscriber);
+                return subscriber;
+            }
+            return dequeue(queue)
                 .flatMap(item -> handleOnQueueItem(item).subscribeOn(scheduler), configuration.getConcurrencyLevel())
                 .onErrorContinue((throwable, item) -> LOGGER.error("Exception processing mail while spooling {}", item, throwable))
                 .subscribeOn(scheduler)
                 .subscribe();
         }
 
+        private Flux<MailQueueItem> dequeue(MailQueue queue) {
+            // A dequeue error would otherwise stop the spooler until James is restarted
+            return dequeueOnce(queue)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, DEQUEUE_RETRY_BACKOFF)
+                    .maxBackoff(DEQUEUE_RETRY_MAX_BACKOFF)
+                    .transientErrors(true)
+                    .doBeforeRetry(signal -> LOGGER.error("Exception dequeuing mails while spooling, resubscribing", signal.failure())));
+        }
+
+        private Flux<MailQueueItem> dequeueOnce(MailQueue queue) {
+            if (configuration.isDequeueBatchEnabled()) {
+                return Flux.from(queue.deQueueBatch(configuration.getDequeueBatchSize(), configuration.getDequeueBatchDelay()))
+                    .flatMapIterable(Function.identity());
+            }
+            return Flux.from(queue.deQueue());
+        }
+
         private Mono<Void> handleOnQueueItem(MailQueueItem queueItem) {
             TimeMetric timeMetric = metricFactory.timer(SPOOL_PROCESSING);
             return Mono.fromCallable(processingActive::incrementAndGet)
                 .flatMap(ignore -> processMail(queueItem))
-                .doOnSuccess(any -> timeMetric.stopAndPublish())
+                .doOnNext(success -> limiter.onSample(timeMetric.stopAndPublish().elasped(), success, processingActive.get()))
+                .then()
                 .doOnTerminate(processingActive::decrementAndGet);
         }
 
-        private Mono<Void> processMail(MailQueueItem queueItem) {
+        private Mono<Boolean> processMail(MailQueueItem queueItem) {
             return Mono
                 .using(
                     queueItem::getMail,
-                    mail -> Mono.fromRunnable(() -> performProcessMail(queueItem, mail)),
+                    mail -> Mono.fromCallable(() -> performProcessMail(queueItem, mail)),
                     LifecycleUtil::dispose);
         }
 
-        private void performProcessMail(MailQueueItem queueItem, Mail mail) {
+        /**
+         * @return false if the processing of the mail failed
+         */
+        private boolean performProcessMail(MailQueueItem queueItem, Mail mail) {
             LOGGER.debug("==== Begin processing mail {} ====", mail.getName());
             ImmutableList<MailAddress> originalRecipients = ImmutableList.copyOf(mail.getRecipients());
             try {
@@ -133,8 +171,10 @@ public class JamesMailSpooler implements Disposable, Configurable, MailSpoolerMB
                     throw new InterruptedException("Thread has been interrupted");
                 }
                 queueItem.done(true);
+                return true;
             } catch (Exception e) {
                 handleError(queueItem, mail, originalRecipients, e);
+                return false;
             } finally {
                 LOGGER.debug("==== End processing mail {} ====", mail.getName());
             }
@@ -202,11 +242,58 @@ public class JamesMailSpooler implements Disposable, Configurable, MailSpoolerMB
         public int getCurrentSpoolCount() {
             return processingActive.get();
         }
+
+        /**
+         * Requests mails from the queue only while less than {@link AdaptiveConcurrencyLimiter#getLimit()} mails are
+         * being processed.
+         */
+        private class AdaptiveSubscriber extends BaseSubscriber<MailQueueItem> {
+            private final AtomicInteger outstanding = new AtomicInteger(0);
+
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                requestUpToLimit();
+            }
+
+            @Override
+            protected void hookOnNext(MailQueueItem item) {
+                handleOnQueueItem(item)
+                    .subscribeOn(scheduler)
+                    .doFinally(any -> {
+                        outstanding.decrementAndGet();
+                        requestUpToLimit();
+                    })
+                    .subscribe(any -> { }, throwable -> LOGGER.error("Exception processing mail while spooling {}", item, throwable));
+            }
+
+            @Override
+            protected void hookOnError(Throwable throwable) {
+                LOGGER.error("Exception dequeuing mails while spooling", throwable);
+            }
+
+            private void requestUpToLimit() {
+                while (!isDisposed()) {
+                    int current = outstanding.get();
+                    if (current >= limiter.getLimit()) {
+                        return;
+                    }
+                    if (outstanding.compareAndSet(current, current + 1)) {
+                        request(1);
+                    }
+                }
+            }
+        }
     }
 
     public static class Configuration {
         public static Configuration from(MailRepositoryStore mailRepositoryStore, HierarchicalConfiguration<ImmutableNode> config) {
             int concurrencyLevel = config.getInt("threads", 100);
+            boolean adaptive = config.getBoolean("adaptiveConcurrency", false);
+            int minConcurrencyLevel = config.getInt("minThreads", DEFAULT_MIN_CONCURRENCY_LEVEL);
+            int dequeueBatchSize = config.getInt("dequeueBatchSize", DEFAULT_DEQUEUE_BATCH_SIZE);
+            Duration dequeueBatchDelay = Optional.ofNullable(config.getString("dequeueBatchDelay", null))
+                .map(DurationParser::parse)
+                .orElse(DEFAULT_DEQUEUE_BATCH_DELAY);
             MailRepositoryUrl errorRepositoryURL = Optional.ofNullable(config.getString("errorRepository", null))
                 .map(MailRepositoryUrl::from)
                 .orElseGet(() -> MailRepositoryUrl.fromPathAndProtocol(
@@ -214,23 +301,84 @@ public class JamesMailSpooler implements Disposable, Configurable, MailSpoolerMB
                         .orElseThrow(() -> new IllegalStateException("Cannot retrieve mailRepository URL, you need to configure an `errorRepository` property for the spooler.0")),
                     ERROR_REPOSITORY_PATH));
 
-            return new Configuration(concurrencyLevel, errorRepositoryURL);
+            Configuration configuration = adaptive
+                ? adaptive(minConcurrencyLevel, concurrencyLevel, errorRepositoryURL)
+                : new Configuration(concurrencyLevel, errorRepositoryURL);
+            return configuration.withDequeueBatch(dequeueBatchSize, dequeueBatchDelay);
+        }
+
+        public static Configuration adaptive(int minConcurrencyLevel, int maxConcurrencyLevel, MailRepositoryUrl errorRepositoryURL) {
+            Preconditions.checkArgument(minConcurrencyLevel > 0, "'minThreads' needs to be strictly positive");
+            Preconditions.checkArgument(maxConcurrencyLevel >= minConcurrencyLevel, "'threads' needs to be greater than or equal to 'minThreads'");
+
+            return new Configuration(maxConcurrencyLevel, minConcurrencyLevel, true, errorRepositoryURL,
+                DEFAULT_DEQUEUE_BATCH_SIZE, DEFAULT_DEQUEUE_BATCH_DELAY);
         }
 
+        public static final int DEFAULT_MIN_CONCURRENCY_LEVEL = 1;
+        public static final int DEFAULT_DEQUEUE_BATCH_SIZE = 1;
+        public static final Duration DEFAULT_DEQUEUE_BATCH_DELAY = Duration.ofMillis(100);
+
         private final int concurrencyLevel;
+        private final int minConcurrencyLevel;
+        private final boolean adaptive;
         private final MailRepositoryUrl errorRepositoryURL;
+        private final int dequeueBatchSize;
+        private final Duration dequeueBatchDelay;
 
         public Configuration(int concurrencyLevel, MailRepositoryUrl errorRepositoryURL) {
+            this(concurrencyLevel, concurrencyLevel, false, errorRepositoryURL, DEFAULT_DEQUEUE_BATCH_SIZE, DEFAULT_DEQUEUE_BATCH_DELAY);
+        }
+
+        private Configuration(int concurrencyLevel, int minConcurrencyLevel, boolean adaptive, MailRepositoryUrl errorRepositoryURL,
+                              int dequeueBatchSize, Duration dequeueBatchDelay) {
             Preconditions.checkArgument(concurrencyLevel >= 0, "'threads' needs to be greater than or equal to zero");
-            
+            Preconditions.checkArgument(dequeueBatchSize > 0, "'dequeueBatchSize' needs to be strictly positive");
+            Preconditions.checkArgument(!dequeueBatchDelay.isNegative() && !dequeueBatchDelay.isZero(), "'dequeueBatchDelay' needs to be strictly positive");
+
             this.concurrencyLevel = concurrencyLevel;
+            this.minConcurrencyLevel = minConcurrencyLevel;
+            this.adaptive = adaptive;
             this.errorRepositoryURL = errorRepositoryURL;
+            this.dequeueBatchSize = dequeueBatchSize;
+            this.dequeueBatchDelay = dequeueBatchDelay;
+        }
+
+        /**
+         * Dequeue mails by batches of at most <code>dequeueBatchSize</code>, allowing the mail queue to group their
+         * acknowledgements.
+         */
+        public Configuration withDequeueBatch(int dequeueBatchSize, Duration dequeueBatchDelay) {
+            return new Configuration(concurrencyLevel, minConcurrencyLevel, adaptive, errorRepositoryURL, dequeueBatchSize, dequeueBatchDelay);
         }
 
+        /**
+         * @return the concurrency level, or its upper bound when concurrency is adaptive
+         */
         public int getConcurrencyLevel() {
             return concurrencyLevel;
         }
 
+        public int getMinConcurrencyLevel() {
+            return minConcurrencyLevel;
+        }
+
+        public boolean isAdaptive() {
+            return adaptive;
+        }
+
+        public boolean isDequeueBatchEnabled() {
+            return dequeueBatchSize > 1;
+        }
+
+        public int getDequeueBatchSize() {
+            return dequeueBatchSize;
+        }
+
+        public Duration getDequeueBatchDelay() {
+            return dequeueBatchDelay;
+        }
+
         public boolean isEnabled() {
             return concurrencyLevel > 0;
         }
@@ -243,6 +391,10 @@ public class JamesMailSpooler implements Disposable, Configurable, MailSpoolerMB
         public String toString() {
             return MoreObjects.toStringHelper(this)
                 .add("concurrencyLevel", concurrencyLevel)
+                .add("minConcurrencyLevel", minConcurrencyLevel)
+                .add("adaptive", adaptive)
+                .add("dequeueBatchSize", dequeueBatchSize)
+                .add("dequeueBatchDelay", dequeueBatchDelay)
                 .add("errorRepositoryURL", errorRepositoryURL)
                 .toString();
         }
@@ -254,6 +406,8 @@ public class JamesMailSpooler implements Disposable, Configurable, MailSpoolerMB
     public static final AttributeName MAIL_PROCESSING_ERROR_COUNT = AttributeName.of("mail-processing-error-count");
     public static final MailRepositoryPath ERROR_REPOSITORY_PATH = MailRepositoryPath.from("var/mail/error");
     public static final int MAXIMUM_FAILURE_COUNT = 5;
+    private static final Duration DEQUEUE_RETRY_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration DEQUEUE_RETRY_MAX_BACKOFF = Duration.ofMinutes(1);
 
     /**
      * concurrency level to use for dequeuing mails from spool, allows to throttle resources dedicated to that async
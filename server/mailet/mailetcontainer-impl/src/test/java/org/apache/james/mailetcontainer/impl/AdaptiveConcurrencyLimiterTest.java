@@ -0,0 +1,159 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailetcontainer.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+    private static final Duration LATENCY = Duration.ofMillis(10);
+    private static final Duration SLOW_LATENCY = LATENCY.multipliedBy(5);
+
+    private AtomicLong nanoTime;
+    private AdaptiveConcurrencyLimiter testee;
+
+    @BeforeEach
+    void setUp() {
+        nanoTime = new AtomicLong(0);
+        testee = new AdaptiveConcurrencyLimiter(2, 10, nanoTime::get);
+    }
+
+    private void completeSaturated(Duration latency, boolean success) {
+        nanoTime.addAndGet(latency.toNanos());
+        testee.onSample(latency, success, testee.getLimit());
+    }
+
+    @Test
+    void limitShouldStartAtMinimum() {
+        assertThat(testee.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void limitShouldIncreaseWhenSaturated() {
+        IntStream.range(0, 10).forEach(i -> completeSaturated(LATENCY, true));
+
+        assertThat(testee.getLimit()).isGreaterThan(2);
+    }
+
+    @Test
+    void limitShouldNotIncreaseWhenNotSaturated() {
+        IntStream.range(0, 10).forEach(i -> {
+            nanoTime.addAndGet(LATENCY.toNanos());
+            testee.onSample(LATENCY, true, 1);
+        });
+
+        assertThat(testee.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void limitShouldNotExceedMaximum() {
+        IntStream.range(0, 1000).forEach(i -> completeSaturated(LATENCY, true));
+
+        assertThat(testee.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void limitShouldDecreaseUponFailures() {
+        IntStream.range(0, 1000).forEach(i -> completeSaturated(LATENCY, true));
+
+        completeSaturated(LATENCY, false);
+
+        assertThat(testee.getLimit()).isEqualTo(9);
+    }
+
+    @Test
+    void limitShouldDecreaseWhenLatencyIncreases() {
+        IntStream.range(0, 1000).forEach(i -> completeSaturated(LATENCY, true));
+
+        IntStream.range(0, 30).forEach(i -> completeSaturated(SLOW_LATENCY, true));
+
+        assertThat(testee.getLimit()).isLessThan(10);
+    }
+
+    @Test
+    void singleSlowMailShouldNotDecreaseLimit() {
+        IntStream.range(0, 1000).forEach(i -> completeSaturated(LATENCY, true));
+
+        completeSaturated(LATENCY.multipliedBy(100), true);
+
+        assertThat(testee.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void limitShouldRecoverOnceSlowerLatencyIsSteady() {
+        IntStream.range(0, 1000).forEach(i -> completeSaturated(LATENCY, true));
+        IntStream.range(0, 30).forEach(i -> completeSaturated(SLOW_LATENCY, true));
+
+        IntStream.range(0, 1000).forEach(i -> completeSaturated(SLOW_LATENCY, true));
+
+        assertThat(testee.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void limitShouldConvergeToMaximumWithMixedLatencies() {
+        Random random = new Random(42);
+
+        // Mostly fast mails around 50ms, with one in ten taking seconds, eg because of a slow remote service
+        IntStream.range(0, 500).forEach(i -> {
+            if (random.nextInt(10) == 0) {
+                completeSaturated(Duration.ofMillis(1000 + random.nextInt(2000)), true);
+            } else {
+                completeSaturated(Duration.ofNanos((long) (Math.exp(Math.log(50_000_000) + random.nextGaussian()))), true);
+            }
+        });
+
+        assertThat(testee.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void limitShouldDecreaseOncePerGeneration() {
+        IntStream.range(0, 1000).forEach(i -> completeSaturated(LATENCY, true));
+
+        // Concurrent mails, started before the first decrease, completing at the same time
+        completeSaturated(LATENCY, false);
+        testee.onSample(LATENCY, false, 10);
+        testee.onSample(LATENCY, false, 10);
+
+        assertThat(testee.getLimit()).isEqualTo(9);
+    }
+
+    @Test
+    void limitShouldNotDecreaseBelowMinimum() {
+        IntStream.range(0, 100).forEach(i -> completeSaturated(LATENCY, false));
+
+        assertThat(testee.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void constructorShouldRejectInvalidBounds() {
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter(0, 10))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter(5, 4))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
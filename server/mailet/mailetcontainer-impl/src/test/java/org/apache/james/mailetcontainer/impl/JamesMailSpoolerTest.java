@@ -0,0 +1,175 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailetcontainer.impl;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.james.mailetcontainer.api.MailProcessor;
+import org.apache.james.mailrepository.api.MailRepository;
+import org.apache.james.mailrepository.api.MailRepositoryStore;
+import org.apache.james.mailrepository.api.MailRepositoryUrl;
+import org.apache.james.metrics.api.NoopGaugeRegistry;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.apache.james.queue.api.MailQueue;
+import org.apache.james.queue.api.MailQueue.MailQueueItem;
+import org.apache.james.queue.api.MailQueueFactory;
+import org.apache.mailet.base.test.FakeMail;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Flux;
+
+class JamesMailSpoolerTest {
+    private static final MailRepositoryUrl ERROR_REPOSITORY_URL = MailRepositoryUrl.from("memory://var/mail/error/");
+    private static final Duration TEN_SECONDS = Duration.ofSeconds(10);
+
+    private MailQueue queue;
+    private MailProcessor mailProcessor;
+    private JamesMailSpooler spooler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        queue = mock(MailQueue.class);
+        mailProcessor = mock(MailProcessor.class);
+        MailRepositoryStore mailRepositoryStore = mock(MailRepositoryStore.class);
+        when(mailRepositoryStore.select(ERROR_REPOSITORY_URL)).thenReturn(mock(MailRepository.class));
+        @SuppressWarnings("unchecked")
+        MailQueueFactory<MailQueue> queueFactory = mock(MailQueueFactory.class);
+        when(queueFactory.createQueue(eq(MailQueueFactory.SPOOL), any())).thenReturn(queue);
+
+        spooler = new JamesMailSpooler(new RecordingMetricFactory(), new NoopGaugeRegistry(), mailProcessor, mailRepositoryStore, queueFactory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        spooler.dispose();
+    }
+
+    private MailQueueItem queueItem(String name) throws Exception {
+        MailQueueItem item = mock(MailQueueItem.class);
+        when(item.getMail()).thenReturn(FakeMail.builder()
+            .name(name)
+            .recipient("bob@localhost")
+            .build());
+        return item;
+    }
+
+    @Test
+    void adaptiveSpoolerShouldProcessMails() throws Exception {
+        MailQueueItem item = queueItem("mail1");
+        when(queue.deQueue()).thenReturn(Flux.just(item).concatWith(Flux.never()));
+
+        spooler.configure(JamesMailSpooler.Configuration.adaptive(1, 10, ERROR_REPOSITORY_URL));
+        spooler.init();
+
+        Awaitility.await().atMost(TEN_SECONDS)
+            .untilAsserted(() -> verify(item).done(true));
+        verify(mailProcessor).service(item.getMail());
+    }
+
+    @Test
+    void adaptiveSpoolerShouldResubscribeAfterDequeueErrors() throws Exception {
+        MailQueueItem item = queueItem("mail1");
+        AtomicInteger subscriptions = new AtomicInteger(0);
+        when(queue.deQueue()).thenReturn(Flux.defer(() -> {
+            if (subscriptions.getAndIncrement() == 0) {
+                return Flux.error(new RuntimeException("Dequeue failure"));
+            }
+            return Flux.just(item).concatWith(Flux.never());
+        }));
+
+        spooler.configure(JamesMailSpooler.Configuration.adaptive(1, 10, ERROR_REPOSITORY_URL));
+        spooler.init();
+
+        Awaitility.await().atMost(TEN_SECONDS)
+            .untilAsserted(() -> verify(item).done(true));
+    }
+
+    @Test
+    void spoolerShouldResubscribeAfterDequeueErrors() throws Exception {
+        MailQueueItem item = queueItem("mail1");
+        AtomicInteger subscriptions = new AtomicInteger(0);
+        when(queue.deQueue()).thenReturn(Flux.defer(() -> {
+            if (subscriptions.getAndIncrement() == 0) {
+                return Flux.error(new RuntimeException("Dequeue failure"));
+            }
+            return Flux.just(item).concatWith(Flux.never());
+        }));
+
+        spooler.configure(new JamesMailSpooler.Configuration(10, ERROR_REPOSITORY_URL));
+        spooler.init();
+
+        Awaitility.await().atMost(TEN_SECONDS)
+            .untilAsserted(() -> verify(item).done(true));
+    }
+
+    @Test
+    void spoolerShouldProcessAllMailsOfDequeuedBatches() throws Exception {
+        MailQueueItem item1 = queueItem("mail1");
+        MailQueueItem item2 = queueItem("mail2");
+        when(queue.deQueueBatch(anyInt(), any())).thenReturn(Flux.<List<MailQueueItem>>just(ImmutableList.of(item1, item2)).concatWith(Flux.never()));
+
+        spooler.configure(new JamesMailSpooler.Configuration(10, ERROR_REPOSITORY_URL)
+            .withDequeueBatch(2, Duration.ofMillis(100)));
+        spooler.init();
+
+        Awaitility.await().atMost(TEN_SECONDS)
+            .untilAsserted(() -> {
+                verify(item1).done(true);
+                verify(item2).done(true);
+            });
+    }
+
+    @Test
+    void adaptiveSpoolerShouldResubscribeAfterBatchDequeueErrors() throws Exception {
+        MailQueueItem item1 = queueItem("mail1");
+        MailQueueItem item2 = queueItem("mail2");
+        AtomicInteger subscriptions = new AtomicInteger(0);
+        when(queue.deQueueBatch(anyInt(), any())).thenReturn(Flux.defer(() -> {
+            if (subscriptions.getAndIncrement() == 0) {
+                return Flux.error(new RuntimeException("Dequeue failure"));
+            }
+            return Flux.<List<MailQueueItem>>just(ImmutableList.of(item1, item2)).concatWith(Flux.never());
+        }));
+
+        spooler.configure(JamesMailSpooler.Configuration.adaptive(1, 10, ERROR_REPOSITORY_URL)
+            .withDequeueBatch(2, Duration.ofMillis(100)));
+        spooler.init();
+
+        Awaitility.await().atMost(TEN_SECONDS)
+            .untilAsserted(() -> {
+                verify(item1).done(true);
+                verify(item2).done(true);
+            });
+    }
+}
@@ -39,8 +39,7 @@ import org.apache.james.domainlist.api.DomainList;
 import org.apache.james.domainlist.api.DomainListException;
 import org.apache.james.lifecycle.api.LifecycleUtil;
 import org.apache.james.rrt.api.RecipientRewriteTable;
-import org.apache.james.rrt.api.RecipientRewriteTable.ErrorMappingException;
-import org.apache.james.rrt.api.RecipientRewriteTableException;
+import org.apache.james.rrt.api.RecipientRewriteTable.RecipientResolution;
 import org.apache.james.rrt.lib.Mapping;
 import org.apache.james.rrt.lib.Mappings;
 import org.apache.james.server.core.MailImpl;
@@ -60,6 +59,8 @@ import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
+import reactor.core.publisher.Flux;
+
 public class RecipientRewriteTableProcessor {
     private static final Logger LOGGER = LoggerFactory.getLogger(RecipientRewriteTableProcessor.class);
 
@@ -214,31 +215,31 @@ public class RecipientRewriteTableProcessor {
     }
 
     private List<Decision> executeRrtFor(Mail mail) {
-        Function<MailAddress, Decision> convertToMappingData = recipient -> {
-            Preconditions.checkNotNull(recipient);
+        mail.getRecipients().forEach(Preconditions::checkNotNull);
 
-            return executeRrtForRecipient(mail, recipient);
-        };
+        List<RecipientResolution> resolutions = Flux.from(virtualTableStore.getResolvedMappingsReactive(mail.getRecipients()))
+            .collectList()
+            .block();
 
-        return mail.getRecipients()
-            .stream()
-            .map(convertToMappingData)
+        return resolutions.stream()
+            .map(resolution -> toDecision(mail, resolution))
             .collect(ImmutableList.toImmutableList());
     }
 
-    private Decision executeRrtForRecipient(Mail mail, MailAddress recipient) {
-        try {
-            Mappings mappings = virtualTableStore.getResolvedMappings(recipient.getLocalPart(), recipient.getDomain());
-
-            if (mappings != null && !mappings.isEmpty()) {
-                List<MailAddress> newMailAddresses = handleMappings(mappings, mail, recipient);
-                return new Decision(recipient, RrtExecutionResult.success(newMailAddresses));
-            }
-            return new Decision(recipient, RrtExecutionResult.success(recipient));
-        } catch (ErrorMappingException | RecipientRewriteTableException e) {
-            LOGGER.warn("Could not rewrite recipient {}", recipient, e);
+    private Decision toDecision(Mail mail, RecipientResolution resolution) {
+        MailAddress recipient = resolution.getRecipient();
+        if (resolution.getError().isPresent()) {
+            LOGGER.warn("Could not rewrite recipient {}", recipient, resolution.getError().get());
             return new Decision(recipient, RrtExecutionResult.error(recipient));
         }
+
+        Optional<Mappings> mappings = resolution.getMappings()
+            .filter(resolvedMappings -> !resolvedMappings.isEmpty());
+        if (mappings.isPresent()) {
+            List<MailAddress> newMailAddresses = handleMappings(mappings.get(), mail, recipient);
+            return new Decision(recipient, RrtExecutionResult.success(newMailAddresses));
+        }
+        return new Decision(recipient, RrtExecutionResult.success(recipient));
     }
 
     @VisibleForTesting
@@ -79,6 +79,19 @@ import com.google.common.collect.HashMultimap;
  * Default is 0.
  * <li><b>timeout</b> (optional) - an Integer for the Socket I/O timeout in milliseconds. Default is 180000</li>
  * <li><b>connectionTimeout</b> (optional) - an Integer for the Socket connection timeout in milliseconds. Default is 60000</li>
+ * <li><b>maxPooledConnectionsPerHost</b> (optional) - an Integer for the number of idle SMTP connections kept open per remote
+ * server in order to be re-used by subsequent deliveries, saving TCP, TLS and EHLO round trips. Default is 0, meaning connections
+ * are closed after each delivery.</li>
+ * <li><b>maxConnectionsPerHost</b> (optional) - an Integer for the maximum number of SMTP connections, in use or pooled, opened
+ * to a remote server. Deliveries exceeding it wait for a connection to be released, at most for <code>connectionTimeout</code>.
+ * Default is 0, meaning unbounded.</li>
+ * <li><b>pooledConnectionIdleTimeout</b> (optional) - a duration after which idle pooled connections are closed. Unit defaults
+ * to seconds. Default is 30 seconds.</li>
+ * <li><b>deliveryBatchSize</b> (optional) - an Integer for the number of queued mails grouped together by destination servers
+ * (resolved MX records or gateway). Mails of a group are delivered sequentially over the same SMTP session. Default is 1, meaning
+ * no batching. Batching implies connection pooling, with at least one pooled connection per host.</li>
+ * <li><b>deliveryBatchWindow</b> (optional) - the maximum duration to wait for a batch to fill up. Unit defaults to milliseconds.
+ * Default is 100 milliseconds.</li>
  * <li><b>bounceProcessor</b> (optional) - a String containing the name of the mailet processor to pass messages that cannot
  * be delivered to for DSN bounce processing. Default is to send a traditional message containing the bounce details.</li>
  * <li><b>onSuccess</b> (optional) - if specified, this processor is called for each email successfully sent to remote third parties.</li>
@@ -24,7 +24,11 @@ import static org.apache.james.transport.mailets.remote.delivery.Bouncer.IS_DELI
 import java.io.Closeable;
 import java.time.Duration;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import org.apache.james.dnsservice.api.DNSService;
 import org.apache.james.lifecycle.api.LifecycleUtil;
@@ -34,6 +38,7 @@ import org.apache.james.metrics.api.TimeMetric;
 import org.apache.james.queue.api.MailPrioritySupport;
 import org.apache.james.queue.api.MailQueue;
 import org.apache.james.util.MDCBuilder;
+import org.apache.james.util.ReactorUtils;
 import org.apache.mailet.Attribute;
 import org.apache.mailet.AttributeValue;
 import org.apache.mailet.Mail;
@@ -65,6 +70,7 @@ public class DeliveryRunnable implements Disposable {
     private final MetricFactory metricFactory;
     private final Bouncer bouncer;
     private final MailDelivrer mailDelivrer;
+    private final SMTPTransportPool transportPool;
     private final Supplier<Date> dateSupplier;
     private final MailetContext mailetContext;
     private Disposable disposable;
@@ -72,15 +78,26 @@ public class DeliveryRunnable implements Disposable {
 
     public DeliveryRunnable(MailQueue queue, RemoteDeliveryConfiguration configuration, DNSService dnsServer, MetricFactory metricFactory,
                             MailetContext mailetContext, Bouncer bouncer) {
+        this(queue, configuration, dnsServer, metricFactory, mailetContext, bouncer, SMTPTransportPool.from(configuration, metricFactory));
+    }
+
+    private DeliveryRunnable(MailQueue queue, RemoteDeliveryConfiguration configuration, DNSService dnsServer, MetricFactory metricFactory,
+                             MailetContext mailetContext, Bouncer bouncer, SMTPTransportPool transportPool) {
         this(queue, configuration, metricFactory, bouncer,
-            new MailDelivrer(configuration, new MailDelivrerToHost(configuration, mailetContext), dnsServer, bouncer, mailetContext),
-            CURRENT_DATE_SUPPLIER, mailetContext);
+            new MailDelivrer(configuration, new MailDelivrerToHost(configuration, mailetContext, transportPool), dnsServer, bouncer, mailetContext),
+            transportPool, CURRENT_DATE_SUPPLIER, mailetContext);
     }
 
     @VisibleForTesting
     DeliveryRunnable(MailQueue queue, RemoteDeliveryConfiguration configuration, MetricFactory metricFactory, Bouncer bouncer,
                      MailDelivrer mailDelivrer, Supplier<Date> dateSupplier, MailetContext mailetContext) {
+        this(queue, configuration, metricFactory, bouncer, mailDelivrer, SMTPTransportPool.disabled(metricFactory), dateSupplier, mailetContext);
+    }
+
+    private DeliveryRunnable(MailQueue queue, RemoteDeliveryConfiguration configuration, MetricFactory metricFactory, Bouncer bouncer,
+                             MailDelivrer mailDelivrer, SMTPTransportPool transportPool, Supplier<Date> dateSupplier, MailetContext mailetContext) {
         this.queue = queue;
+        this.transportPool = transportPool;
         this.configuration = configuration;
         this.outgoingMailsMetric = metricFactory.generate(OUTGOING_MAILS);
         this.bouncer = bouncer;
@@ -92,21 +109,57 @@ public class DeliveryRunnable implements Disposable {
 
     public void start() {
         remoteDeliveryScheduler = Schedulers.newBoundedElastic(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE, Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "RemoteDelivery");
-        disposable = Flux.from(queue.deQueue())
-            .flatMap(queueItem -> runStep(queueItem).subscribeOn(remoteDeliveryScheduler), Queues.SMALL_BUFFER_SIZE)
+        disposable = deliveries(Flux.from(queue.deQueue()))
             .onErrorContinue(((throwable, nothing) -> LOGGER.error("Exception caught in RemoteDelivery", throwable)))
             .subscribeOn(remoteDeliveryScheduler)
             .subscribe();
     }
 
-    private Mono<Void> runStep(MailQueue.MailQueueItem queueItem) {
+    private Flux<Void> deliveries(Flux<MailQueue.MailQueueItem> queueItems) {
+        if (configuration.isDeliveryBatchingEnabled()) {
+            int batchSize = configuration.getDeliveryBatchSize();
+            return queueItems.transform(ReactorUtils.bufferTimeout(batchSize, configuration.getDeliveryBatchWindow(), 2 * batchSize))
+                .flatMap(batch -> Mono.fromCallable(() -> groupByDestination(batch)).subscribeOn(remoteDeliveryScheduler), Queues.SMALL_BUFFER_SIZE)
+                .flatMapIterable(Map::entrySet)
+                .flatMap(sameDestination -> runBatch(sameDestination.getKey(), sameDestination.getValue()).subscribeOn(remoteDeliveryScheduler), Queues.SMALL_BUFFER_SIZE);
+        }
+        return queueItems.flatMap(queueItem -> runStep(queueItem, this::attemptDelivery).subscribeOn(remoteDeliveryScheduler), Queues.SMALL_BUFFER_SIZE);
+    }
+
+    @VisibleForTesting
+    Map<Destination, List<MailQueue.MailQueueItem>> groupByDestination(List<MailQueue.MailQueueItem> batch) {
+        return batch.stream()
+            .collect(Collectors.groupingBy(queueItem -> mailDelivrer.resolveDestination(queueItem.getMail()),
+                LinkedHashMap::new, Collectors.toList()));
+    }
+
+    /**
+     * Mails sharing a destination are delivered one after the other, so that they are sent over the same pooled
+     * SMTP session.
+     */
+    private Mono<Void> runBatch(Destination destination, List<MailQueue.MailQueueItem> sameDestination) {
+        return Flux.fromIterable(sameDestination)
+            .concatMap(queueItem -> runStep(queueItem, mail -> attemptDelivery(mail, destination))
+                .onErrorResume(e -> {
+                    LOGGER.error("Exception caught in RemoteDelivery", e);
+                    return Mono.empty();
+                }))
+            .then();
+    }
+
+    @FunctionalInterface
+    private interface DeliveryAttempt {
+        void attempt(Mail mail) throws MailQueue.MailQueueException;
+    }
+
+    private Mono<Void> runStep(MailQueue.MailQueueItem queueItem, DeliveryAttempt deliveryAttempt) {
         TimeMetric timeMetric = metricFactory.timer(REMOTE_DELIVERY_TRIAL);
 
-        return processMail(queueItem)
+        return processMail(queueItem, deliveryAttempt)
             .doOnSuccess(any -> timeMetric.stopAndPublish());
     }
 
-    private Mono<Void> processMail(MailQueue.MailQueueItem queueItem) {
+    private Mono<Void> processMail(MailQueue.MailQueueItem queueItem, DeliveryAttempt deliveryAttempt) {
         return Mono.create(sink -> {
             Mail mail = queueItem.getMail();
 
@@ -117,7 +170,7 @@ public class DeliveryRunnable implements Disposable {
                         .addToContext("sender", mail.getMaybeSender().asString())
                         .build()) {
                 LOGGER.debug("will process mail {}", mail.getName());
-                attemptDelivery(mail);
+                deliveryAttempt.attempt(mail);
                 queueItem.done(true);
                 sink.success();
             } catch (Exception e) {
@@ -140,7 +193,15 @@ public class DeliveryRunnable implements Disposable {
 
     @VisibleForTesting
     void attemptDelivery(Mail mail) throws MailQueue.MailQueueException {
-        ExecutionResult executionResult = mailDelivrer.deliver(mail);
+        handleExecutionResult(mail, mailDelivrer.deliver(mail));
+    }
+
+    @VisibleForTesting
+    void attemptDelivery(Mail mail, Destination destination) throws MailQueue.MailQueueException {
+        handleExecutionResult(mail, mailDelivrer.deliver(mail, destination));
+    }
+
+    private void handleExecutionResult(Mail mail, ExecutionResult executionResult) throws MailQueue.MailQueueException {
         switch (executionResult.getExecutionState()) {
             case SUCCESS:
                 outgoingMailsMetric.increment();
@@ -203,5 +264,6 @@ public class DeliveryRunnable implements Disposable {
     public void dispose() {
         disposable.dispose();
         remoteDeliveryScheduler.dispose();
+        transportPool.dispose();
     }
 }
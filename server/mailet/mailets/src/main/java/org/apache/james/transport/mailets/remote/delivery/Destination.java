@@ -0,0 +1,97 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.transport.mailets.remote.delivery;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * The remote servers a mail is delivered to. Mails sharing the same destination servers share the same key, whatever
+ * their recipient domain is.
+ */
+public class Destination {
+
+    /**
+     * The servers could not be resolved: they will be looked up upon delivery.
+     */
+    public static Destination unresolved(String host) {
+        return new Destination(host, Optional.empty());
+    }
+
+    /**
+     * @param servers the servers mails for this host are delivered to, by decreasing priority.
+     */
+    public static Destination resolved(String host, List<String> servers) {
+        return new Destination(host, Optional.of(ImmutableList.copyOf(servers)));
+    }
+
+    private final String key;
+    private final Optional<List<String>> servers;
+
+    private Destination(String host, Optional<List<String>> servers) {
+        this.key = servers.filter(list -> !list.isEmpty())
+            .map(Destination::serversKey)
+            .orElse(host);
+        this.servers = servers;
+    }
+
+    private static String serversKey(List<String> servers) {
+        return String.join(",", servers.stream()
+            .map(server -> server.toLowerCase(Locale.US))
+            .sorted()
+            .distinct()
+            .collect(ImmutableList.toImmutableList()));
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Optional<List<String>> getServers() {
+        return servers;
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof Destination) {
+            Destination that = (Destination) o;
+            return Objects.equal(this.key, that.key);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hashCode(key);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("key", key)
+            .add("servers", servers)
+            .toString();
+    }
+}
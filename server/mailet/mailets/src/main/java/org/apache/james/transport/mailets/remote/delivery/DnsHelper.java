@@ -19,13 +19,17 @@
 
 package org.apache.james.transport.mailets.remote.delivery;
 
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 
 import org.apache.james.dnsservice.api.DNSService;
 import org.apache.james.dnsservice.api.TemporaryResolutionException;
 import org.apache.james.dnsservice.library.MXHostAddressIterator;
 import org.apache.mailet.HostAddress;
 
+import com.google.common.collect.ImmutableList;
+
 @SuppressWarnings("deprecation")
 public class DnsHelper {
 
@@ -39,10 +43,21 @@ public class DnsHelper {
     }
 
     public Iterator<HostAddress> retrieveHostAddressIterator(String host, boolean smtps) throws TemporaryResolutionException {
+        return retrieveHostAddressIterator(retrieveDestinationServers(host), smtps);
+    }
+
+    public Iterator<HostAddress> retrieveHostAddressIterator(Collection<String> destinationServers, boolean smtps) {
+        return new MXHostAddressIterator(destinationServers.iterator(), dnsServer, USE_SEVERAL_IP, smtps);
+    }
+
+    /**
+     * @return the servers mails for this host are delivered to, by decreasing priority.
+     */
+    public List<String> retrieveDestinationServers(String host) throws TemporaryResolutionException {
         if (configuration.getGatewayServer().isEmpty()) {
-            return new MXHostAddressIterator(dnsServer.findMXRecords(host).iterator(), dnsServer, USE_SEVERAL_IP, smtps);
+            return ImmutableList.copyOf(dnsServer.findMXRecords(host));
         } else {
-            return new MXHostAddressIterator(configuration.getGatewayServer().iterator(), dnsServer, USE_SEVERAL_IP, smtps);
+            return ImmutableList.copyOf(configuration.getGatewayServer());
         }
     }
 
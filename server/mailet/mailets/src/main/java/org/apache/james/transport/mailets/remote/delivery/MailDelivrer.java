@@ -83,8 +83,20 @@ public class MailDelivrer {
      * @return boolean Whether the delivery was successful and the message can be deleted
      */
     public ExecutionResult deliver(Mail mail) {
+        return deliver(mail, Optional.empty());
+    }
+
+    /**
+     * Delivers the mail to a destination previously resolved with {@link #resolveDestination(Mail)}, sparing another
+     * DNS lookup.
+     */
+    public ExecutionResult deliver(Mail mail, Destination destination) {
+        return deliver(mail, destination.getServers());
+    }
+
+    private ExecutionResult deliver(Mail mail, Optional<List<String>> resolvedServers) {
         try {
-            return tryDeliver(mail);
+            return tryDeliver(mail, resolvedServers);
         } catch (SendFailedException sfe) {
             return handleSenderFailedException(mail, sfe);
         } catch (MessagingException ex) {
@@ -98,7 +110,24 @@ public class MailDelivrer {
         }
     }
 
-    private ExecutionResult tryDeliver(Mail mail) throws MessagingException {
+    /**
+     * Identifies the remote servers this mail will be delivered to, allowing to group mails sharing the same
+     * destination in the same SMTP session. Falls back to the recipient domain upon DNS failures.
+     */
+    public Destination resolveDestination(Mail mail) {
+        if (mail.getRecipients().isEmpty()) {
+            return Destination.unresolved("");
+        }
+        Domain host = retrieveTargetHostname(mail);
+        try {
+            return Destination.resolved(host.asString(), dnsHelper.retrieveDestinationServers(host.asString()));
+        } catch (Exception e) {
+            LOGGER.debug("Could not resolve destination servers for {}, grouping by domain", host.asString(), e);
+            return Destination.unresolved(host.asString());
+        }
+    }
+
+    private ExecutionResult tryDeliver(Mail mail, Optional<List<String>> resolvedServers) throws MessagingException {
         if (mail.getRecipients().isEmpty()) {
             LOGGER.info("No recipients specified... not sure how this could have happened.");
             return ExecutionResult.permanentFailure(new Exception("No recipients specified for " + mail.getName() + " sent by " + mail.getMaybeSender().asString()));
@@ -111,7 +140,7 @@ public class MailDelivrer {
         try {
             // Figure out which servers to try to send to. This collection
             // will hold all the possible target servers
-            Iterator<HostAddress> targetServers = dnsHelper.retrieveHostAddressIterator(host.asString(), configuration.isSSLEnable());
+            Iterator<HostAddress> targetServers = retrieveTargetServers(host, resolvedServers);
             if (!targetServers.hasNext()) {
                 return handleNoTargetServer(mail, host);
             }
@@ -122,6 +151,13 @@ public class MailDelivrer {
         }
     }
 
+    private Iterator<HostAddress> retrieveTargetServers(Domain host, Optional<List<String>> resolvedServers) throws TemporaryResolutionException {
+        if (resolvedServers.isPresent()) {
+            return dnsHelper.retrieveHostAddressIterator(resolvedServers.get(), configuration.isSSLEnable());
+        }
+        return dnsHelper.retrieveHostAddressIterator(host.asString(), configuration.isSSLEnable());
+    }
+
     private Domain retrieveTargetHostname(Mail mail) {
         Preconditions.checkArgument(!mail.getRecipients().isEmpty(), "Mail should have recipients to attempt delivery");
         MailAddress rcpt = Iterables.getFirst(mail.getRecipients(), null);
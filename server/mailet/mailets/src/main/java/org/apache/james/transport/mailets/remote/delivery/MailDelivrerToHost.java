@@ -62,9 +62,11 @@ public class MailDelivrerToHost {
     private final Converter7Bit converter7Bit;
     private final Session smtpSession;
     private final Session smtpsSession;
+    private final SMTPTransportPool transportPool;
 
-    public MailDelivrerToHost(RemoteDeliveryConfiguration remoteDeliveryConfiguration, MailetContext mailetContext) {
+    public MailDelivrerToHost(RemoteDeliveryConfiguration remoteDeliveryConfiguration, MailetContext mailetContext, SMTPTransportPool transportPool) {
         this.configuration = remoteDeliveryConfiguration;
+        this.transportPool = transportPool;
         this.converter7Bit = new Converter7Bit(mailetContext);
         if (configuration.isSSLEnable()) {
             this.smtpSession = Session.getInstance(configuration.createFinalJavaxProperties());
@@ -88,23 +90,50 @@ public class MailDelivrerToHost {
         // "mail.smtp.dsn.notify"     //default to nothing... appended as NOTIFY= after RCPT TO line.
 
         SMTPTransport transport = null;
+        boolean reusable = false;
         try {
-            transport = (SMTPTransport) session.getTransport(outgoingMailServer);
-            transport.setLocalHost(props.getProperty(inContext(session, "mail.smtp.localhost"), configuration.getHeloNameProvider().getHeloName()));
-            connect(outgoingMailServer, transport);
+            transport = transportPool.acquire(outgoingMailServer, () -> openTransport(session, props, outgoingMailServer));
             if (mail.dsnParameters().isPresent()) {
                 sendDSNAwareEmail(mail, transport, addr);
             } else {
                 transport.sendMessage(adaptToTransport(mail.getMessage(), transport), addr.toArray(InternetAddress[]::new));
             }
+            reusable = true;
             LOGGER.debug("Mail ({})  sent successfully to {} at {} from {} for {}", mail.getName(), outgoingMailServer.getHostName(),
                 outgoingMailServer.getHost(), props.get(inContext(session, "mail.smtp.from")), mail.getRecipients());
         } finally {
-            closeTransport(mail, outgoingMailServer, transport);
+            // Failed transactions might leave the SMTP session in an unknown state: only successful ones are re-used
+            if (transport != null && (!reusable || !transportPool.release(outgoingMailServer, transport))) {
+                try {
+                    closeTransport(mail, outgoingMailServer, transport);
+                } finally {
+                    transportPool.discard(outgoingMailServer);
+                }
+            }
         }
         return ExecutionResult.success();
     }
 
+    private SMTPTransport openTransport(Session session, Properties props, HostAddress outgoingMailServer) throws MessagingException {
+        SMTPTransport transport = (SMTPTransport) session.getTransport(outgoingMailServer);
+        transport.setLocalHost(props.getProperty(inContext(session, "mail.smtp.localhost"), configuration.getHeloNameProvider().getHeloName()));
+        try {
+            connect(outgoingMailServer, transport);
+        } catch (MessagingException e) {
+            closeQuietly(transport);
+            throw e;
+        }
+        return transport;
+    }
+
+    private void closeQuietly(SMTPTransport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            LOGGER.debug("Could not close SMTP transport", e);
+        }
+    }
+
     private Session selectSession(HostAddress host) {
         if (host.getProtocol().equalsIgnoreCase("smtps")) {
             return smtpsSession;
@@ -20,6 +20,7 @@
 package org.apache.james.transport.mailets.remote.delivery;
 
 import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -28,11 +29,13 @@ import java.util.Properties;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.james.domainlist.api.DomainList;
 import org.apache.james.queue.api.MailQueueName;
+import org.apache.james.util.DurationParser;
 import org.apache.mailet.MailetConfig;
 import org.apache.mailet.base.MailetUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Preconditions;
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
@@ -63,12 +66,22 @@ public class RemoteDeliveryConfiguration {
     public static final String DELAY_TIME = "delayTime";
     public static final String DEBUG = "debug";
     public static final String ON_SUCCESS = "onSuccess";
+    public static final String MAX_POOLED_CONNECTIONS_PER_HOST = "maxPooledConnectionsPerHost";
+    public static final String MAX_CONNECTIONS_PER_HOST = "maxConnectionsPerHost";
+    public static final String POOLED_CONNECTION_IDLE_TIMEOUT = "pooledConnectionIdleTimeout";
+    public static final String DELIVERY_BATCH_SIZE = "deliveryBatchSize";
+    public static final String DELIVERY_BATCH_WINDOW = "deliveryBatchWindow";
     public static final int DEFAULT_SMTP_TIMEOUT = 180000;
     public static final MailQueueName DEFAULT_OUTGOING_QUEUE_NAME = MailQueueName.of("outgoing");
     public static final int DEFAULT_CONNECTION_TIMEOUT = 60000;
     public static final int DEFAULT_DNS_RETRY_PROBLEM = 0;
     public static final int DEFAULT_MAX_RETRY = 5;
     public static final String ADDRESS_PORT_SEPARATOR = ":";
+    public static final int DEFAULT_MAX_POOLED_CONNECTIONS_PER_HOST = 0;
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 0;
+    public static final Duration DEFAULT_POOLED_CONNECTION_IDLE_TIMEOUT = Duration.ofSeconds(30);
+    public static final int DEFAULT_DELIVERY_BATCH_SIZE = 1;
+    public static final Duration DEFAULT_DELIVERY_BATCH_WINDOW = Duration.ofMillis(100);
 
     private final boolean isDebug;
     private final boolean usePriority;
@@ -90,6 +103,11 @@ public class RemoteDeliveryConfiguration {
     private final String authPass;
     private final Properties javaxAdditionalProperties;
     private final Optional<String> onSuccess;
+    private final int maxPooledConnectionsPerHost;
+    private final int maxConnectionsPerHost;
+    private final Duration pooledConnectionIdleTimeout;
+    private final int deliveryBatchSize;
+    private final Duration deliveryBatchWindow;
 
     public RemoteDeliveryConfiguration(MailetConfig mailetConfig, DomainList domainList) {
         isDebug = MailetUtil.getInitParameter(mailetConfig, DEBUG).orElse(false);
@@ -124,6 +142,30 @@ public class RemoteDeliveryConfiguration {
         isBindUsed = bindAddress != null;
         javaxAdditionalProperties = computeJavaxProperties(mailetConfig);
         onSuccess = Optional.ofNullable(mailetConfig.getInitParameter(ON_SUCCESS));
+        maxPooledConnectionsPerHost = computeConnectionCount(mailetConfig, MAX_POOLED_CONNECTIONS_PER_HOST, DEFAULT_MAX_POOLED_CONNECTIONS_PER_HOST);
+        maxConnectionsPerHost = computeConnectionCount(mailetConfig, MAX_CONNECTIONS_PER_HOST, DEFAULT_MAX_CONNECTIONS_PER_HOST);
+        pooledConnectionIdleTimeout = Optional.ofNullable(mailetConfig.getInitParameter(POOLED_CONNECTION_IDLE_TIMEOUT))
+            .map(value -> DurationParser.parse(value, ChronoUnit.SECONDS))
+            .orElse(DEFAULT_POOLED_CONNECTION_IDLE_TIMEOUT);
+        Preconditions.checkArgument(!pooledConnectionIdleTimeout.isNegative() && !pooledConnectionIdleTimeout.isZero(),
+            "'%s' needs to be strictly positive", POOLED_CONNECTION_IDLE_TIMEOUT);
+        deliveryBatchSize = Optional.ofNullable(mailetConfig.getInitParameter(DELIVERY_BATCH_SIZE))
+            .map(Integer::parseInt)
+            .orElse(DEFAULT_DELIVERY_BATCH_SIZE);
+        Preconditions.checkArgument(deliveryBatchSize > 0, "'%s' needs to be strictly positive", DELIVERY_BATCH_SIZE);
+        deliveryBatchWindow = Optional.ofNullable(mailetConfig.getInitParameter(DELIVERY_BATCH_WINDOW))
+            .map(value -> DurationParser.parse(value, ChronoUnit.MILLIS))
+            .orElse(DEFAULT_DELIVERY_BATCH_WINDOW);
+        Preconditions.checkArgument(!deliveryBatchWindow.isNegative() && !deliveryBatchWindow.isZero(),
+            "'%s' needs to be strictly positive", DELIVERY_BATCH_WINDOW);
+    }
+
+    private int computeConnectionCount(MailetConfig mailetConfig, String parameterName, int defaultValue) {
+        int value = Optional.ofNullable(mailetConfig.getInitParameter(parameterName))
+            .map(Integer::parseInt)
+            .orElse(defaultValue);
+        Preconditions.checkArgument(value >= 0, "'%s' can not be negative", parameterName);
+        return value;
     }
 
     private Properties computeJavaxProperties(MailetConfig mailetConfig) {
@@ -325,4 +367,31 @@ public class RemoteDeliveryConfiguration {
     public Optional<String> getOnSuccess() {
         return onSuccess;
     }
+
+    public int getMaxPooledConnectionsPerHost() {
+        return maxPooledConnectionsPerHost;
+    }
+
+    /**
+     * @return the maximum count of connections, leased and pooled, opened to a remote host. 0 means unbounded.
+     */
+    public int getMaxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+
+    public Duration getPooledConnectionIdleTimeout() {
+        return pooledConnectionIdleTimeout;
+    }
+
+    public boolean isDeliveryBatchingEnabled() {
+        return deliveryBatchSize > 1;
+    }
+
+    public int getDeliveryBatchSize() {
+        return deliveryBatchSize;
+    }
+
+    public Duration getDeliveryBatchWindow() {
+        return deliveryBatchWindow;
+    }
 }
@@ -0,0 +1,310 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.transport.mailets.remote.delivery;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.mail.MessagingException;
+
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.mailet.HostAddress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.sun.mail.smtp.SMTPTransport;
+
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Keeps connected (and, when a gateway is used, authenticated) {@link SMTPTransport} for re-use across
+ * {@link DeliveryRunnable} workers, thus avoiding to pay TCP, TLS and EHLO again for each mail sent to the same MX.
+ *
+ * At most <code>maxIdlePerHost</code> idle transports are kept per remote host. Idle transports are closed once
+ * they exceeded <code>idleTimeout</code>. A pooled transport is checked with a NOOP before being handed over.
+ *
+ * When <code>maxConnectionsPerHost</code> is positive, at most that many transports, leased and idle, are opened per remote
+ * host. Acquiring a transport then waits at most <code>connectionWaitTimeout</code> for one to be released. Transports
+ * acquired from the pool and not retained by {@link #release(HostAddress, SMTPTransport)} need to be reported as closed
+ * using {@link #discard(HostAddress)}.
+ */
+@SuppressWarnings("deprecation")
+public class SMTPTransportPool implements Disposable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SMTPTransportPool.class);
+
+    public static final String POOL_HIT = "remoteDelivery.connectionPool.hit";
+    public static final String POOL_MISS = "remoteDelivery.connectionPool.miss";
+    public static final String POOL_IDLE = "remoteDelivery.connectionPool.idle";
+
+    @FunctionalInterface
+    public interface TransportFactory {
+        SMTPTransport connect() throws MessagingException;
+    }
+
+    private static class Key {
+        private final String hostName;
+        private final String url;
+
+        private Key(HostAddress hostAddress) {
+            this.hostName = hostAddress.getHostName();
+            this.url = hostAddress.toString();
+        }
+
+        @Override
+        public final boolean equals(Object o) {
+            if (o instanceof Key) {
+                Key that = (Key) o;
+
+                return Objects.equals(this.hostName, that.hostName)
+                    && Objects.equals(this.url, that.url);
+            }
+            return false;
+        }
+
+        @Override
+        public final int hashCode() {
+            return Objects.hash(hostName, url);
+        }
+    }
+
+    private static class Destination {
+        private final Deque<IdleTransport> idle = new ArrayDeque<>();
+        // leased and idle transports
+        private int openConnections = 0;
+    }
+
+    private static class IdleTransport {
+        private final SMTPTransport transport;
+        private final Instant idleSince;
+
+        private IdleTransport(SMTPTransport transport, Instant idleSince) {
+            this.transport = transport;
+            this.idleSince = idleSince;
+        }
+    }
+
+    public static SMTPTransportPool disabled(MetricFactory metricFactory) {
+        return new SMTPTransportPool(0, 0, Duration.ZERO, Duration.ZERO, metricFactory, Clock.systemUTC());
+    }
+
+    public static SMTPTransportPool from(RemoteDeliveryConfiguration configuration, MetricFactory metricFactory) {
+        // Batched deliveries rely on the pool to share a SMTP session between mails of a same batch
+        int minimumPoolSize = configuration.isDeliveryBatchingEnabled() ? 1 : 0;
+        return new SMTPTransportPool(Math.max(configuration.getMaxPooledConnectionsPerHost(), minimumPoolSize),
+            configuration.getMaxConnectionsPerHost(), configuration.getPooledConnectionIdleTimeout(),
+            Duration.ofMillis(configuration.getConnectionTimeout()), metricFactory, Clock.systemUTC());
+    }
+
+    private final int maxIdlePerHost;
+    private final int maxConnectionsPerHost;
+    private final Duration idleTimeout;
+    private final Duration connectionWaitTimeout;
+    private final Clock clock;
+    private final Metric hitMetric;
+    private final Metric missMetric;
+    private final Metric idleMetric;
+    private final ConcurrentHashMap<Key, Destination> destinations;
+    private final Optional<Scheduler> evictionScheduler;
+
+    @VisibleForTesting
+    SMTPTransportPool(int maxIdlePerHost, int maxConnectionsPerHost, Duration idleTimeout, Duration connectionWaitTimeout,
+                      MetricFactory metricFactory, Clock clock) {
+        this.maxIdlePerHost = maxIdlePerHost;
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        this.idleTimeout = idleTimeout;
+        this.connectionWaitTimeout = connectionWaitTimeout;
+        this.clock = clock;
+        this.hitMetric = metricFactory.generate(POOL_HIT);
+        this.missMetric = metricFactory.generate(POOL_MISS);
+        this.idleMetric = metricFactory.generate(POOL_IDLE);
+        this.destinations = new ConcurrentHashMap<>();
+        this.evictionScheduler = Optional.of(maxIdlePerHost)
+            .filter(max -> max > 0)
+            .map(any -> Schedulers.newSingle("RemoteDelivery-connection-eviction"));
+        evictionScheduler.ifPresent(scheduler -> scheduler.schedulePeriodically(this::evictIdle,
+            idleTimeout.toMillis(), idleTimeout.toMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    public boolean isEnabled() {
+        return maxIdlePerHost > 0;
+    }
+
+    private boolean isBounded() {
+        return maxConnectionsPerHost > 0;
+    }
+
+    public SMTPTransport acquire(HostAddress outgoingMailServer, TransportFactory transportFactory) throws MessagingException {
+        if (!isEnabled() && !isBounded()) {
+            return transportFactory.connect();
+        }
+        Destination destination = destinations.computeIfAbsent(new Key(outgoingMailServer), any -> new Destination());
+        while (true) {
+            Optional<IdleTransport> idleTransport = pollIdleOrReserve(destination, outgoingMailServer);
+            if (idleTransport.isEmpty()) {
+                if (isEnabled()) {
+                    missMetric.increment();
+                }
+                return connect(destination, transportFactory);
+            }
+            // isConnected issues a NOOP, thus detecting connections closed by the remote server
+            SMTPTransport candidate = idleTransport.get().transport;
+            if (!isExpired(idleTransport.get()) && candidate.isConnected()) {
+                hitMetric.increment();
+                LOGGER.debug("Re-using pooled SMTP connection to {} at {}", outgoingMailServer.getHostName(), outgoingMailServer.getHost());
+                return candidate;
+            }
+            close(candidate);
+            releaseConnection(destination);
+        }
+    }
+
+    /**
+     * @return an idle transport, or empty once a new connection can be opened
+     */
+    private Optional<IdleTransport> pollIdleOrReserve(Destination destination, HostAddress outgoingMailServer) throws MessagingException {
+        long deadlineInNanos = System.nanoTime() + connectionWaitTimeout.toNanos();
+        synchronized (destination) {
+            while (true) {
+                IdleTransport idleTransport = destination.idle.poll();
+                if (idleTransport != null) {
+                    idleMetric.decrement();
+                    return Optional.of(idleTransport);
+                }
+                if (!isBounded() || destination.openConnections < maxConnectionsPerHost) {
+                    destination.openConnections++;
+                    return Optional.empty();
+                }
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineInNanos - System.nanoTime());
+                if (remainingMillis <= 0) {
+                    throw new MessagingException(String.format("Could not get one of the %d connections to %s at %s within %s",
+                        maxConnectionsPerHost, outgoingMailServer.getHostName(), outgoingMailServer.getHost(), connectionWaitTimeout));
+                }
+                try {
+                    destination.wait(remainingMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new MessagingException("Interrupted while waiting for a connection to " + outgoingMailServer.getHostName(), e);
+                }
+            }
+        }
+    }
+
+    private SMTPTransport connect(Destination destination, TransportFactory transportFactory) throws MessagingException {
+        try {
+            return transportFactory.connect();
+        } catch (MessagingException | RuntimeException e) {
+            releaseConnection(destination);
+            throw e;
+        }
+    }
+
+    private void releaseConnection(Destination destination) {
+        synchronized (destination) {
+            destination.openConnections--;
+            destination.notifyAll();
+        }
+    }
+
+    /**
+     * @return true if the transport was retained by the pool, false if the caller remains responsible for closing it.
+     */
+    public boolean release(HostAddress outgoingMailServer, SMTPTransport transport) {
+        if (!isEnabled()) {
+            return false;
+        }
+        Destination destination = destinations.computeIfAbsent(new Key(outgoingMailServer), any -> new Destination());
+        synchronized (destination) {
+            if (destination.idle.size() >= maxIdlePerHost) {
+                return false;
+            }
+            destination.idle.push(new IdleTransport(transport, clock.instant()));
+            idleMetric.increment();
+            destination.notifyAll();
+            return true;
+        }
+    }
+
+    /**
+     * Reports that a transport acquired from this pool, and not retained by it, was closed by the caller.
+     */
+    public void discard(HostAddress outgoingMailServer) {
+        Optional.ofNullable(destinations.get(new Key(outgoingMailServer)))
+            .ifPresent(this::releaseConnection);
+    }
+
+    private boolean isExpired(IdleTransport idleTransport) {
+        return idleTransport.idleSince.plus(idleTimeout).isBefore(clock.instant());
+    }
+
+    @VisibleForTesting
+    void evictIdle() {
+        destinations.values().forEach(destination -> {
+            synchronized (destination) {
+                Iterator<IdleTransport> iterator = destination.idle.iterator();
+                while (iterator.hasNext()) {
+                    IdleTransport candidate = iterator.next();
+                    if (isExpired(candidate)) {
+                        iterator.remove();
+                        idleMetric.decrement();
+                        close(candidate.transport);
+                        destination.openConnections--;
+                    }
+                }
+                destination.notifyAll();
+            }
+        });
+    }
+
+    private void close(SMTPTransport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            LOGGER.debug("Could not close pooled SMTP transport, probably the server has already closed the connection", e);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        evictionScheduler.ifPresent(Scheduler::dispose);
+        destinations.values().forEach(destination -> {
+            synchronized (destination) {
+                destination.idle.forEach(idleTransport -> {
+                    idleMetric.decrement();
+                    close(idleTransport.transport);
+                });
+                destination.openConnections -= destination.idle.size();
+                destination.idle.clear();
+                destination.notifyAll();
+            }
+        });
+    }
+}
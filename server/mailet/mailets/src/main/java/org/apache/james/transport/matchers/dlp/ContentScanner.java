@@ -0,0 +1,263 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.transport.matchers.dlp;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import javax.mail.BodyPart;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Multipart;
+import javax.mail.Part;
+import javax.mail.internet.ContentType;
+import javax.mail.internet.MimeMessage;
+import javax.mail.internet.MimeUtility;
+import javax.mail.internet.ParseException;
+
+import org.apache.james.dlp.api.DLPConfigurationItem;
+import org.apache.james.javax.MultipartUtil;
+import org.apache.mailet.Mail;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Compiled form of the content rules of a domain.
+ *
+ * Rules whose pattern is a plain literal are merged into a single Aho-Corasick automaton, the other ones are kept as
+ * regular expressions. The subject and every decoded text part of the message are read once, whatever the number of
+ * rules, and reading stops as soon as every rule matched. Text parts are only buffered when some regular expression
+ * rule is still unmatched, as {@link Pattern} can not run over a stream.
+ */
+class ContentScanner {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final Pattern REGEX_METACHARACTERS = Pattern.compile("[\\\\^$.|?*+()\\[\\]{}]");
+
+    static ContentScanner compile(ImmutableMap<DLPConfigurationItem.Id, Pattern> rules) {
+        ImmutableMap.Builder<DLPConfigurationItem.Id, String> literals = ImmutableMap.builder();
+        ImmutableMap.Builder<DLPConfigurationItem.Id, Pattern> regexes = ImmutableMap.builder();
+        rules.forEach((id, pattern) -> {
+            if (isLiteral(pattern)) {
+                literals.put(id, pattern.pattern());
+            } else {
+                regexes.put(id, pattern);
+            }
+        });
+        return new ContentScanner(literals.build(), regexes.build());
+    }
+
+    private static boolean isLiteral(Pattern pattern) {
+        if (pattern.pattern().isEmpty()) {
+            return false;
+        }
+        return pattern.flags() == Pattern.LITERAL
+            || (pattern.flags() == 0 && !REGEX_METACHARACTERS.matcher(pattern.pattern()).find());
+    }
+
+    private static class LiteralAutomaton {
+
+        static LiteralAutomaton of(List<String> literals) {
+            List<Map<Character, Integer>> transitions = new ArrayList<>();
+            List<BitSet> outputs = new ArrayList<>();
+            transitions.add(new HashMap<>());
+            outputs.add(new BitSet());
+
+            for (int index = 0; index < literals.size(); index++) {
+                int state = 0;
+                for (char c : literals.get(index).toCharArray()) {
+                    Integer next = transitions.get(state).get(c);
+                    if (next == null) {
+                        next = transitions.size();
+                        transitions.add(new HashMap<>());
+                        outputs.add(new BitSet());
+                        transitions.get(state).put(c, next);
+                    }
+                    state = next;
+                }
+                outputs.get(state).set(index);
+            }
+
+            int[] failures = new int[transitions.size()];
+            Queue<Integer> queue = new ArrayDeque<>(transitions.get(0).values());
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                for (Map.Entry<Character, Integer> transition : transitions.get(state).entrySet()) {
+                    int child = transition.getValue();
+                    queue.add(child);
+                    int fallback = failures[state];
+                    while (fallback != 0 && !transitions.get(fallback).containsKey(transition.getKey())) {
+                        fallback = failures[fallback];
+                    }
+                    failures[child] = transitions.get(fallback).getOrDefault(transition.getKey(), 0);
+                    outputs.get(child).or(outputs.get(failures[child]));
+                }
+            }
+
+            return new LiteralAutomaton(ImmutableList.copyOf(transitions), failures, ImmutableList.copyOf(outputs));
+        }
+
+        private final ImmutableList<Map<Character, Integer>> transitions;
+        private final int[] failures;
+        private final ImmutableList<BitSet> outputs;
+
+        private LiteralAutomaton(ImmutableList<Map<Character, Integer>> transitions, int[] failures, ImmutableList<BitSet> outputs) {
+            this.transitions = transitions;
+            this.failures = failures;
+            this.outputs = outputs;
+        }
+
+        int next(int state, char c) {
+            int current = state;
+            while (current != 0 && !transitions.get(current).containsKey(c)) {
+                current = failures[current];
+            }
+            return transitions.get(current).getOrDefault(c, 0);
+        }
+
+        void collect(int state, BitSet matches) {
+            matches.or(outputs.get(state));
+        }
+    }
+
+    private class Scan {
+        private final BitSet literalMatches = new BitSet(literalIds.size());
+        private final Set<DLPConfigurationItem.Id> regexMatches = new LinkedHashSet<>();
+
+        boolean isComplete() {
+            return literalMatches.cardinality() == literalIds.size()
+                && regexMatches.size() == regexes.size();
+        }
+
+        void scanText(Reader reader) throws IOException {
+            Optional<StringBuilder> text = Optional.of(new StringBuilder())
+                .filter(any -> regexMatches.size() < regexes.size());
+            char[] buffer = new char[BUFFER_SIZE];
+            int state = 0;
+            int read;
+            while (!isComplete() && (read = reader.read(buffer)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    state = automaton.next(state, buffer[i]);
+                    automaton.collect(state, literalMatches);
+                }
+                int length = read;
+                text.ifPresent(builder -> builder.append(buffer, 0, length));
+            }
+            text.ifPresent(this::scanRegexes);
+        }
+
+        private void scanRegexes(CharSequence text) {
+            regexes.forEach((id, pattern) -> {
+                if (!regexMatches.contains(id) && pattern.matcher(text).find()) {
+                    regexMatches.add(id);
+                }
+            });
+        }
+
+        ImmutableSet<DLPConfigurationItem.Id> matches() {
+            ImmutableSet.Builder<DLPConfigurationItem.Id> result = ImmutableSet.builder();
+            literalMatches.stream().mapToObj(literalIds::get).forEach(result::add);
+            return result.addAll(regexMatches).build();
+        }
+    }
+
+    private final ImmutableList<DLPConfigurationItem.Id> literalIds;
+    private final LiteralAutomaton automaton;
+    private final ImmutableMap<DLPConfigurationItem.Id, Pattern> regexes;
+
+    private ContentScanner(ImmutableMap<DLPConfigurationItem.Id, String> literals, ImmutableMap<DLPConfigurationItem.Id, Pattern> regexes) {
+        this.literalIds = literals.keySet().asList();
+        this.automaton = LiteralAutomaton.of(literals.values().asList());
+        this.regexes = regexes;
+    }
+
+    /**
+     * @return the ids of the content rules matching the subject or one of the text parts of the message
+     */
+    ImmutableSet<DLPConfigurationItem.Id> scan(Mail mail) throws MessagingException, IOException {
+        Scan scan = new Scan();
+        MimeMessage message = mail.getMessage();
+        if (message == null || scan.isComplete()) {
+            return scan.matches();
+        }
+
+        String subject = message.getSubject();
+        if (subject != null) {
+            scan.scanText(new StringReader(subject));
+        }
+        scanPart(message, scan);
+        return scan.matches();
+    }
+
+    private void scanPart(Part part, Scan scan) throws MessagingException, IOException {
+        if (scan.isComplete()) {
+            return;
+        }
+        if (part.isMimeType("text/*")) {
+            try (Reader reader = new InputStreamReader(part.getInputStream(), charset(part))) {
+                scan.scanText(reader);
+            }
+            return;
+        }
+        if (part.isMimeType("multipart/*")) {
+            Object content = part.getContent();
+            if (content instanceof Multipart) {
+                for (BodyPart bodyPart : MultipartUtil.retrieveBodyParts((Multipart) content)) {
+                    scanPart(bodyPart, scan);
+                }
+            }
+            return;
+        }
+        if (part.isMimeType("message/rfc822")) {
+            Object content = part.getContent();
+            if (content instanceof Message) {
+                scanPart((Message) content, scan);
+            }
+        }
+    }
+
+    private Charset charset(Part part) throws MessagingException {
+        try {
+            return Optional.ofNullable(new ContentType(part.getContentType()).getParameter("charset"))
+                .map(MimeUtility::javaCharset)
+                .map(Charset::forName)
+                .orElse(StandardCharsets.US_ASCII);
+        } catch (ParseException | IllegalArgumentException e) {
+            return StandardCharsets.US_ASCII;
+        }
+    }
+}
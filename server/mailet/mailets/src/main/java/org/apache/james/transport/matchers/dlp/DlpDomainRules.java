@@ -24,29 +24,29 @@ import static org.apache.james.javax.AddressHelper.asStringStream;
 import java.io.IOException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
-import javax.mail.BodyPart;
-import javax.mail.Message;
 import javax.mail.MessagingException;
-import javax.mail.Multipart;
 import javax.mail.internet.MimeMessage;
 
 import org.apache.james.core.MailAddress;
 import org.apache.james.dlp.api.DLPConfigurationItem;
 import org.apache.james.dlp.api.DLPConfigurationItem.Targets;
 import org.apache.james.javax.AddressHelper;
-import org.apache.james.javax.MultipartUtil;
 import org.apache.mailet.Mail;
 
 import com.github.fge.lambdas.Throwing;
 import com.github.fge.lambdas.predicates.ThrowingPredicate;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableSet;
 
 public class DlpDomainRules {
 
@@ -59,7 +59,7 @@ public class DlpDomainRules {
     }
 
     private static DlpDomainRules of(Rule rule) {
-        return new DlpDomainRules(ImmutableList.of(rule));
+        return new DlpDomainRules(ImmutableList.of(rule), ContentScanner.compile(ImmutableMap.of()));
     }
 
     public static DlpDomainRulesBuilder builder() {
@@ -70,61 +70,8 @@ public class DlpDomainRules {
 
         interface MatcherFunction extends ThrowingPredicate<Mail> { }
 
-        private static class ContentMatcher implements Rule.MatcherFunction {
-
-            private final Pattern pattern;
-
-            private ContentMatcher(Pattern pattern) {
-                this.pattern = pattern;
-            }
-
-            @Override
-            public boolean doTest(Mail mail) throws MessagingException, IOException {
-                return Stream
-                    .concat(getMessageSubjects(mail), getMessageBodies(mail.getMessage()))
-                    .anyMatch(pattern.asPredicate());
-            }
-
-            private Stream<String> getMessageSubjects(Mail mail) throws MessagingException {
-                MimeMessage message = mail.getMessage();
-                if (message != null) {
-                    String subject = message.getSubject();
-                    if (subject != null) {
-                        return Stream.of(subject);
-                    }
-                }
-                return Stream.of();
-            }
-
-            private Stream<String> getMessageBodies(Message message) throws MessagingException, IOException {
-                if (message != null) {
-                    return getMessageBodiesFromContent(message.getContent());
-                }
-                return Stream.of();
-            }
-
-            private Stream<String> getMessageBodiesFromContent(Object content) throws IOException, MessagingException {
-                if (content instanceof String) {
-                    return Stream.of((String) content);
-                }
-
-                return extractContentsComplexType(content)
-                    .flatMap(Throwing.function(this::getMessageBodiesFromContent).sneakyThrow());
-            }
-
-            private Stream<Object> extractContentsComplexType(Object content) throws IOException, MessagingException {
-                if (content instanceof Message) {
-                    Message message = (Message) content;
-                    return Stream.of(message.getContent());
-                }
-                if (content instanceof Multipart) {
-                    return MultipartUtil.retrieveBodyParts((Multipart) content)
-                        .stream()
-                        .map(Throwing.function(BodyPart::getContent).sneakyThrow());
-                }
-
-                return Stream.of();
-            }
+        static Rule content(DLPConfigurationItem.Id id) {
+            return new Rule(id, Optional.empty());
         }
 
         private static class RecipientsMatcher implements Rule.MatcherFunction {
@@ -190,9 +137,14 @@ public class DlpDomainRules {
         }
 
         private final DLPConfigurationItem.Id id;
-        private final MatcherFunction matcher;
+        // Empty for content rules, which are evaluated all at once by the ContentScanner of the domain
+        private final Optional<MatcherFunction> matcher;
 
         public Rule(DLPConfigurationItem.Id id, MatcherFunction matcher) {
+            this(id, Optional.of(matcher));
+        }
+
+        private Rule(DLPConfigurationItem.Id id, Optional<MatcherFunction> matcher) {
             this.id = id;
             this.matcher = matcher;
         }
@@ -201,8 +153,10 @@ public class DlpDomainRules {
             return id;
         }
 
-        public boolean match(Mail mail) {
-            return matcher.test(mail);
+        public boolean match(Mail mail, Supplier<ImmutableSet<DLPConfigurationItem.Id>> matchingContentRules) {
+            return matcher
+                .map(function -> function.test(mail))
+                .orElseGet(() -> matchingContentRules.get().contains(id));
         }
 
         @Override
@@ -225,9 +179,11 @@ public class DlpDomainRules {
     public static class DlpDomainRulesBuilder {
 
         private final ImmutableMultimap.Builder<Targets.Type, Rule> rules;
+        private final ImmutableMap.Builder<DLPConfigurationItem.Id, Pattern> contentPatterns;
 
         private DlpDomainRulesBuilder() {
             rules = ImmutableMultimap.builder();
+            contentPatterns = ImmutableMap.builder();
         }
 
         public DlpDomainRulesBuilder recipientRule(DLPConfigurationItem.Id id, Pattern pattern) {
@@ -244,6 +200,9 @@ public class DlpDomainRules {
 
         public DlpDomainRulesBuilder rule(Targets.Type type, DLPConfigurationItem.Id id, Pattern regexp) {
             rules.put(type, toRule(type, id, regexp));
+            if (type == Targets.Type.Content) {
+                contentPatterns.put(id, regexp);
+            }
             return this;
         }
 
@@ -252,7 +211,7 @@ public class DlpDomainRules {
                 case Sender:
                     return new Rule(id, new Rule.SenderMatcher(pattern));
                 case Content:
-                    return new Rule(id, new Rule.ContentMatcher(pattern));
+                    return Rule.content(id);
                 case Recipient:
                     return new Rule(id, new Rule.RecipientsMatcher(pattern));
                 default:
@@ -263,7 +222,7 @@ public class DlpDomainRules {
         public DlpDomainRules build() {
             ImmutableMultimap<Targets.Type, Rule> rules = this.rules.build();
             Preconditions.checkState(!containsDuplicateIds(rules), "Rules should not contain duplicated `id`");
-            return new DlpDomainRules(rules.values());
+            return new DlpDomainRules(rules.values(), ContentScanner.compile(contentPatterns.build()));
         }
 
         private boolean containsDuplicateIds(ImmutableMultimap<Targets.Type, Rule> rules) {
@@ -284,16 +243,32 @@ public class DlpDomainRules {
     }
 
     private final ImmutableCollection<Rule> rules;
+    private final ContentScanner contentScanner;
 
-    private DlpDomainRules(ImmutableCollection<Rule> rules) {
+    private DlpDomainRules(ImmutableCollection<Rule> rules, ContentScanner contentScanner) {
         this.rules = rules;
+        this.contentScanner = contentScanner;
     }
 
     public Optional<DLPConfigurationItem.Id> match(Mail mail) {
+        Supplier<ImmutableSet<DLPConfigurationItem.Id>> matchingContentRules = scanContent(mail);
         return rules.stream()
-            .filter(rule -> rule.match(mail))
+            .filter(rule -> rule.match(mail, matchingContentRules))
             .map(Rule::id)
             .findFirst();
     }
 
+    public ImmutableSet<DLPConfigurationItem.Id> matchingRules(Mail mail) {
+        Supplier<ImmutableSet<DLPConfigurationItem.Id>> matchingContentRules = scanContent(mail);
+        return rules.stream()
+            .filter(rule -> rule.match(mail, matchingContentRules))
+            .map(Rule::id)
+            .collect(ImmutableSet.toImmutableSet());
+    }
+
+    private Supplier<ImmutableSet<DLPConfigurationItem.Id>> scanContent(Mail mail) {
+        Supplier<ImmutableSet<DLPConfigurationItem.Id>> scan = Throwing.supplier(() -> contentScanner.scan(mail)).sneakyThrow();
+        return Suppliers.memoize(scan::get);
+    }
+
 }
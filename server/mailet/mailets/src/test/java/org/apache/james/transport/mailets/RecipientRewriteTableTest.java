@@ -21,6 +21,7 @@ package org.apache.james.transport.mailets;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
 
 import javax.mail.internet.MimeMessage;
 
@@ -33,6 +34,7 @@ import org.apache.mailet.base.test.FakeMailContext;
 import org.apache.mailet.base.test.FakeMailetConfig;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
 
 class RecipientRewriteTableTest {
     private RecipientRewriteTable mailet;
@@ -43,7 +45,8 @@ class RecipientRewriteTableTest {
     @BeforeEach
     void setUp() throws Exception {
         DomainList domainList = mock(DomainList.class);
-        org.apache.james.rrt.api.RecipientRewriteTable virtualTableStore = mock(org.apache.james.rrt.api.RecipientRewriteTable.class);
+        org.apache.james.rrt.api.RecipientRewriteTable virtualTableStore = mock(org.apache.james.rrt.api.RecipientRewriteTable.class,
+            withSettings().defaultAnswer(Answers.CALLS_REAL_METHODS));
         
         mailet = new RecipientRewriteTable(virtualTableStore, domainList);
 
@@ -23,6 +23,7 @@ import static org.apache.james.transport.mailets.remote.delivery.Bouncer.IS_DELI
 import static org.apache.james.transport.mailets.remote.delivery.DeliveryRunnable.OUTGOING_MAILS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
@@ -46,6 +47,8 @@ import org.apache.mailet.base.test.FakeMailetConfig;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.google.common.collect.ImmutableList;
+
 public class DeliveryRunnableTest {
 
     public static final Date FIXED_DATE = new Date(1159599194961L);
@@ -72,6 +75,42 @@ public class DeliveryRunnableTest {
         testee = new DeliveryRunnable(mailQueue, configuration, metricFactory, bouncer, mailDelivrer, FIXED_DATE_SUPPLIER, mock(MailetContext.class));
     }
 
+    @Test
+    void groupByDestinationShouldGroupMailsSharingDestinationServers() throws Exception {
+        FakeMail mail1 = FakeMail.builder().name("mail1").recipient("a@domain1.com").build();
+        FakeMail mail2 = FakeMail.builder().name("mail2").recipient("b@domain2.com").build();
+        FakeMail mail3 = FakeMail.builder().name("mail3").recipient("c@domain1.com").build();
+        Destination destination1 = Destination.resolved("domain1.com", ImmutableList.of("mx.domain1.com"));
+        Destination destination2 = Destination.resolved("domain2.com", ImmutableList.of("mx.domain2.com"));
+        when(mailDelivrer.resolveDestination(mail1)).thenReturn(destination1);
+        when(mailDelivrer.resolveDestination(mail2)).thenReturn(destination2);
+        when(mailDelivrer.resolveDestination(mail3)).thenReturn(destination1);
+        MailQueue.MailQueueItem item1 = queueItem(mail1);
+        MailQueue.MailQueueItem item2 = queueItem(mail2);
+        MailQueue.MailQueueItem item3 = queueItem(mail3);
+
+        assertThat(testee.groupByDestination(ImmutableList.of(item1, item2, item3)))
+            .containsExactly(entry(destination1, ImmutableList.of(item1, item3)), entry(destination2, ImmutableList.of(item2)));
+    }
+
+    @Test
+    void attemptDeliveryShouldDeliverToTheResolvedDestination() throws Exception {
+        FakeMail fakeMail = FakeMail.defaultFakeMail();
+        Destination destination = Destination.resolved("domain1.com", ImmutableList.of("mx.domain1.com"));
+        when(mailDelivrer.deliver(fakeMail, destination)).thenReturn(ExecutionResult.success());
+
+        testee.attemptDelivery(fakeMail, destination);
+
+        verify(mailDelivrer).deliver(fakeMail, destination);
+        verifyNoMoreInteractions(mailDelivrer);
+    }
+
+    private MailQueue.MailQueueItem queueItem(Mail mail) {
+        MailQueue.MailQueueItem queueItem = mock(MailQueue.MailQueueItem.class);
+        when(queueItem.getMail()).thenReturn(mail);
+        return queueItem;
+    }
+
     @Test
     void deliverySuccessShouldIncrementMetric() throws Exception {
         FakeMail fakeMail = FakeMail.defaultFakeMail();
@@ -78,6 +78,48 @@ class MailDelivrerTest {
         testee = new MailDelivrer(configuration, mailDelivrerToHost, dnsHelper, bouncer, mock(MailetContext.class));
     }
 
+    @Test
+    void resolveDestinationShouldJoinDestinationServers() throws Exception {
+        Mail mail = FakeMail.builder().name("name").recipients(MailAddressFixture.ANY_AT_JAMES).build();
+        when(dnsHelper.retrieveDestinationServers(MailAddressFixture.JAMES_APACHE_ORG))
+            .thenReturn(ImmutableList.of(MX2_HOSTNAME, MX1_HOSTNAME));
+
+        assertThat(testee.resolveDestination(mail).getKey()).isEqualTo(MX1_HOSTNAME + "," + MX2_HOSTNAME);
+    }
+
+    @Test
+    void resolveDestinationShouldKeepServersPriority() throws Exception {
+        Mail mail = FakeMail.builder().name("name").recipients(MailAddressFixture.ANY_AT_JAMES).build();
+        when(dnsHelper.retrieveDestinationServers(MailAddressFixture.JAMES_APACHE_ORG))
+            .thenReturn(ImmutableList.of(MX2_HOSTNAME, MX1_HOSTNAME));
+
+        assertThat(testee.resolveDestination(mail).getServers()).contains(ImmutableList.of(MX2_HOSTNAME, MX1_HOSTNAME));
+    }
+
+    @Test
+    void deliverShouldNotResolveAgainTheResolvedDestination() throws Exception {
+        Mail mail = FakeMail.builder().name("name").recipients(MailAddressFixture.ANY_AT_JAMES).build();
+        when(dnsHelper.retrieveHostAddressIterator(ImmutableList.of(MX1_HOSTNAME), false))
+            .thenReturn(ImmutableList.of(HOST_ADDRESS_1).iterator());
+        when(mailDelivrerToHost.tryDeliveryToHost(any(Mail.class), any(Collection.class), eq(HOST_ADDRESS_1)))
+            .thenReturn(ExecutionResult.success());
+
+        ExecutionResult executionResult = testee.deliver(mail, Destination.resolved(MailAddressFixture.JAMES_APACHE_ORG, ImmutableList.of(MX1_HOSTNAME)));
+
+        assertThat(executionResult).isEqualTo(ExecutionResult.success());
+        verify(dnsHelper).retrieveHostAddressIterator(ImmutableList.of(MX1_HOSTNAME), false);
+        verifyNoMoreInteractions(dnsHelper);
+    }
+
+    @Test
+    void resolveDestinationShouldFallbackToDomainUponDnsFailure() throws Exception {
+        Mail mail = FakeMail.builder().name("name").recipients(MailAddressFixture.ANY_AT_JAMES).build();
+        when(dnsHelper.retrieveDestinationServers(MailAddressFixture.JAMES_APACHE_ORG))
+            .thenThrow(new TemporaryResolutionException());
+
+        assertThat(testee.resolveDestination(mail)).isEqualTo(Destination.unresolved(MailAddressFixture.JAMES_APACHE_ORG));
+    }
+
     @Test
     void handleSenderFailedExceptionShouldReturnTemporaryFailureByDefault() throws Exception {
         Mail mail = FakeMail.builder().name("name").recipients(MailAddressFixture.ANY_AT_JAMES, MailAddressFixture.OTHER_AT_JAMES).build();
@@ -870,4 +870,114 @@ class RemoteDeliveryConfigurationTest {
                 MapEntry.entry("mail.debug", "false"),
                 MapEntry.entry("mail.smtps.starttls.enable", "false"));
     }
+
+    @Test
+    void getMaxPooledConnectionsPerHostShouldDisablePoolingByDefault() {
+        FakeMailetConfig mailetConfig = FakeMailetConfig.builder()
+            .build();
+
+        assertThat(new RemoteDeliveryConfiguration(mailetConfig, mock(DomainList.class)).getMaxPooledConnectionsPerHost())
+            .isEqualTo(0);
+    }
+
+    @Test
+    void getMaxPooledConnectionsPerHostShouldReturnProvidedValue() {
+        FakeMailetConfig mailetConfig = FakeMailetConfig.builder()
+            .setProperty(RemoteDeliveryConfiguration.MAX_POOLED_CONNECTIONS_PER_HOST, "4")
+            .build();
+
+        assertThat(new RemoteDeliveryConfiguration(mailetConfig, mock(DomainList.class)).getMaxPooledConnectionsPerHost())
+            .isEqualTo(4);
+    }
+
+    @Test
+    void constructorShouldThrowOnNegativeMaxPooledConnectionsPerHost() {
+        FakeMailetConfig mailetConfig = FakeMailetConfig.builder()
+            .setProperty(RemoteDeliveryConfiguration.MAX_POOLED_CONNECTIONS_PER_HOST, "-1")
+            .build();
+
+        assertThatThrownBy(() -> new RemoteDeliveryConfiguration(mailetConfig, mock(DomainList.class)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void getMaxConnectionsPerHostShouldBeUnboundedByDefault() {
+        FakeMailetConfig mailetConfig = FakeMailetConfig.builder()
+            .build();
+
+        assertThat(new RemoteDeliveryConfiguration(mailetConfig, mock(DomainList.class)).getMaxConnectionsPerHost())
+            .isEqualTo(0);
+    }
+
+    @Test
+    void getMaxConnectionsPerHostShouldReturnProvidedValue() {
+        FakeMailetConfig mailetConfig = FakeMailetConfig.builder()
+            .setProperty(RemoteDeliveryConfiguration.MAX_CONNECTIONS_PER_HOST, "8")
+            .build();
+
+        assertThat(new RemoteDeliveryConfiguration(mailetConfig, mock(DomainList.class)).getMaxConnectionsPerHost())
+            .isEqualTo(8);
+    }
+
+    @Test
+    void constructorShouldThrowOnNegativeMaxConnectionsPerHost() {
+        FakeMailetConfig mailetConfig = FakeMailetConfig.builder()
+            .setProperty(RemoteDeliveryConfiguration.MAX_CONNECTIONS_PER_HOST, "-1")
+            .build();
+
+        assertThatThrownBy(() -> new RemoteDeliveryConfiguration(mailetConfig, mock(DomainList.class)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void getPooledConnectionIdleTimeoutShouldReturnDefault() {
+        FakeMailetConfig mailetConfig = FakeMailetConfig.builder()
+            .build();
+
+        assertThat(new RemoteDeliveryConfiguration(mailetConfig, mock(DomainList.class)).getPooledConnectionIdleTimeout())
+            .isEqualTo(RemoteDeliveryConfiguration.DEFAULT_POOLED_CONNECTION_IDLE_TIMEOUT);
+    }
+
+    @Test
+    void getPooledConnectionIdleTimeoutShouldReturnProvidedValue() {
+        FakeMailetConfig mailetConfig = FakeMailetConfig.builder()
+            .setProperty(RemoteDeliveryConfiguration.POOLED_CONNECTION_IDLE_TIMEOUT, "2 minutes")
+            .build();
+
+        assertThat(new RemoteDeliveryConfiguration(mailetConfig, mock(DomainList.class)).getPooledConnectionIdleTimeout())
+            .isEqualTo(Duration.ofMinutes(2));
+    }
+
+    @Test
+    void deliveryBatchingShouldBeDisabledByDefault() {
+        FakeMailetConfig mailetConfig = FakeMailetConfig.builder()
+            .build();
+
+        assertThat(new RemoteDeliveryConfiguration(mailetConfig, mock(DomainList.class)).isDeliveryBatchingEnabled())
+            .isFalse();
+    }
+
+    @Test
+    void deliveryBatchingShouldBeEnabledWhenBatchSizeGreaterThanOne() {
+        FakeMailetConfig mailetConfig = FakeMailetConfig.builder()
+            .setProperty(RemoteDeliveryConfiguration.DELIVERY_BATCH_SIZE, "32")
+            .setProperty(RemoteDeliveryConfiguration.DELIVERY_BATCH_WINDOW, "250")
+            .build();
+
+        RemoteDeliveryConfiguration configuration = new RemoteDeliveryConfiguration(mailetConfig, mock(DomainList.class));
+
+        assertThat(configuration.isDeliveryBatchingEnabled()).isTrue();
+        assertThat(configuration.getDeliveryBatchSize()).isEqualTo(32);
+        assertThat(configuration.getDeliveryBatchWindow()).isEqualTo(Duration.ofMillis(250));
+    }
+
+    @Test
+    void constructorShouldThrowOnZeroDeliveryBatchSize() {
+        FakeMailetConfig mailetConfig = FakeMailetConfig.builder()
+            .setProperty(RemoteDeliveryConfiguration.DELIVERY_BATCH_SIZE, "0")
+            .build();
+
+        assertThatThrownBy(() -> new RemoteDeliveryConfiguration(mailetConfig, mock(DomainList.class)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
 }
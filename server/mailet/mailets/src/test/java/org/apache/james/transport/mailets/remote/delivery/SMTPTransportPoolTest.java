@@ -0,0 +1,224 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.transport.mailets.remote.delivery;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import javax.mail.MessagingException;
+
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.apache.james.utils.UpdatableTickingClock;
+import org.apache.mailet.HostAddress;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.mail.smtp.SMTPTransport;
+
+import reactor.core.publisher.Mono;
+
+@SuppressWarnings("deprecation")
+class SMTPTransportPoolTest {
+    private static final Instant NOW = Instant.parse("2021-06-01T10:00:00Z");
+    private static final Duration IDLE_TIMEOUT = Duration.ofMinutes(1);
+    private static final Duration CONNECTION_WAIT_TIMEOUT = Duration.ofMillis(200);
+    private static final HostAddress HOST_1 = new HostAddress("mx1.domain.com", "smtp://192.168.0.1:25");
+    private static final HostAddress HOST_2 = new HostAddress("mx2.domain.com", "smtp://192.168.0.2:25");
+
+    private RecordingMetricFactory metricFactory;
+    private UpdatableTickingClock clock;
+    private SMTPTransportPool testee;
+
+    @BeforeEach
+    void setUp() {
+        metricFactory = new RecordingMetricFactory();
+        clock = new UpdatableTickingClock(NOW);
+        testee = new SMTPTransportPool(2, 0, IDLE_TIMEOUT, CONNECTION_WAIT_TIMEOUT, metricFactory, clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        testee.dispose();
+    }
+
+    private SMTPTransport connectedTransport() {
+        SMTPTransport transport = mock(SMTPTransport.class);
+        when(transport.isConnected()).thenReturn(true);
+        return transport;
+    }
+
+    @Test
+    void acquireShouldConnectWhenPoolIsEmpty() throws Exception {
+        SMTPTransport transport = connectedTransport();
+
+        assertThat(testee.acquire(HOST_1, () -> transport)).isSameAs(transport);
+        assertThat(metricFactory.countFor(SMTPTransportPool.POOL_MISS)).isEqualTo(1);
+    }
+
+    @Test
+    void acquireShouldReuseReleasedTransport() throws Exception {
+        SMTPTransport transport = testee.acquire(HOST_1, this::connectedTransport);
+        testee.release(HOST_1, transport);
+
+        assertThat(testee.acquire(HOST_1, this::connectedTransport)).isSameAs(transport);
+        assertThat(metricFactory.countFor(SMTPTransportPool.POOL_HIT)).isEqualTo(1);
+        assertThat(metricFactory.countFor(SMTPTransportPool.POOL_IDLE)).isEqualTo(0);
+    }
+
+    @Test
+    void acquireShouldNotReuseTransportOfAnotherHost() throws Exception {
+        SMTPTransport transport = testee.acquire(HOST_1, this::connectedTransport);
+        testee.release(HOST_1, transport);
+
+        assertThat(testee.acquire(HOST_2, this::connectedTransport)).isNotSameAs(transport);
+    }
+
+    @Test
+    void acquireShouldDiscardDisconnectedTransport() throws Exception {
+        SMTPTransport transport = mock(SMTPTransport.class);
+        when(transport.isConnected()).thenReturn(false);
+        testee.acquire(HOST_1, () -> transport);
+        testee.release(HOST_1, transport);
+
+        SMTPTransport newTransport = connectedTransport();
+        assertThat(testee.acquire(HOST_1, () -> newTransport)).isSameAs(newTransport);
+        verify(transport).close();
+    }
+
+    @Test
+    void acquireShouldDiscardExpiredTransport() throws Exception {
+        SMTPTransport transport = testee.acquire(HOST_1, this::connectedTransport);
+        testee.release(HOST_1, transport);
+        clock.setInstant(NOW.plus(IDLE_TIMEOUT).plusSeconds(1));
+
+        SMTPTransport newTransport = connectedTransport();
+        assertThat(testee.acquire(HOST_1, () -> newTransport)).isSameAs(newTransport);
+        verify(transport).close();
+    }
+
+    @Test
+    void releaseShouldNotRetainMoreThanMaxIdlePerHost() throws Exception {
+        SMTPTransport transport1 = testee.acquire(HOST_1, this::connectedTransport);
+        SMTPTransport transport2 = testee.acquire(HOST_1, this::connectedTransport);
+        SMTPTransport transport3 = testee.acquire(HOST_1, this::connectedTransport);
+
+        assertThat(testee.release(HOST_1, transport1)).isTrue();
+        assertThat(testee.release(HOST_1, transport2)).isTrue();
+        assertThat(testee.release(HOST_1, transport3)).isFalse();
+        assertThat(metricFactory.countFor(SMTPTransportPool.POOL_IDLE)).isEqualTo(2);
+    }
+
+    @Test
+    void evictIdleShouldCloseExpiredTransports() throws Exception {
+        SMTPTransport transport = testee.acquire(HOST_1, this::connectedTransport);
+        testee.release(HOST_1, transport);
+        clock.setInstant(NOW.plus(IDLE_TIMEOUT).plusSeconds(1));
+
+        testee.evictIdle();
+
+        verify(transport).close();
+        assertThat(metricFactory.countFor(SMTPTransportPool.POOL_IDLE)).isEqualTo(0);
+    }
+
+    @Test
+    void acquireShouldFailWhenMaxConnectionsPerHostIsReached() throws Exception {
+        SMTPTransportPool bounded = new SMTPTransportPool(2, 2, IDLE_TIMEOUT, CONNECTION_WAIT_TIMEOUT, metricFactory, clock);
+        bounded.acquire(HOST_1, this::connectedTransport);
+        bounded.acquire(HOST_1, this::connectedTransport);
+
+        assertThatThrownBy(() -> bounded.acquire(HOST_1, this::connectedTransport))
+            .isInstanceOf(MessagingException.class);
+        bounded.dispose();
+    }
+
+    @Test
+    void idleTransportsShouldCountInMaxConnectionsPerHost() throws Exception {
+        SMTPTransportPool bounded = new SMTPTransportPool(2, 2, IDLE_TIMEOUT, CONNECTION_WAIT_TIMEOUT, metricFactory, clock);
+        SMTPTransport idle = bounded.acquire(HOST_1, this::connectedTransport);
+        bounded.acquire(HOST_1, this::connectedTransport);
+        bounded.release(HOST_1, idle);
+
+        assertThat(bounded.acquire(HOST_1, this::connectedTransport)).isSameAs(idle);
+        assertThatThrownBy(() -> bounded.acquire(HOST_1, this::connectedTransport))
+            .isInstanceOf(MessagingException.class);
+        bounded.dispose();
+    }
+
+    @Test
+    void maxConnectionsPerHostShouldNotApplyAcrossHosts() throws Exception {
+        SMTPTransportPool bounded = new SMTPTransportPool(2, 1, IDLE_TIMEOUT, CONNECTION_WAIT_TIMEOUT, metricFactory, clock);
+        bounded.acquire(HOST_1, this::connectedTransport);
+
+        assertThat(bounded.acquire(HOST_2, this::connectedTransport)).isNotNull();
+        bounded.dispose();
+    }
+
+    @Test
+    void discardShouldAllowOpeningNewConnections() throws Exception {
+        SMTPTransportPool bounded = new SMTPTransportPool(0, 1, IDLE_TIMEOUT, CONNECTION_WAIT_TIMEOUT, metricFactory, clock);
+        SMTPTransport transport = bounded.acquire(HOST_1, this::connectedTransport);
+        assertThat(bounded.release(HOST_1, transport)).isFalse();
+
+        bounded.discard(HOST_1);
+
+        assertThat(bounded.acquire(HOST_1, this::connectedTransport)).isNotNull();
+        bounded.dispose();
+    }
+
+    @Test
+    void failedConnectionsShouldNotCountInMaxConnectionsPerHost() throws Exception {
+        SMTPTransportPool bounded = new SMTPTransportPool(2, 1, IDLE_TIMEOUT, CONNECTION_WAIT_TIMEOUT, metricFactory, clock);
+        assertThatThrownBy(() -> bounded.acquire(HOST_1, () -> {
+            throw new MessagingException("connection refused");
+        })).isInstanceOf(MessagingException.class);
+
+        assertThat(bounded.acquire(HOST_1, this::connectedTransport)).isNotNull();
+        bounded.dispose();
+    }
+
+    @Test
+    void acquireShouldWaitForReleasedTransports() throws Exception {
+        SMTPTransportPool bounded = new SMTPTransportPool(2, 1, IDLE_TIMEOUT, Duration.ofSeconds(5), metricFactory, clock);
+        SMTPTransport transport = bounded.acquire(HOST_1, this::connectedTransport);
+
+        Mono.delay(Duration.ofMillis(100))
+            .doOnNext(any -> bounded.release(HOST_1, transport))
+            .subscribe();
+
+        assertThat(bounded.acquire(HOST_1, this::connectedTransport)).isSameAs(transport);
+        bounded.dispose();
+    }
+
+    @Test
+    void disabledPoolShouldNotRetainTransports() throws Exception {
+        SMTPTransportPool disabled = SMTPTransportPool.disabled(metricFactory);
+        SMTPTransport transport = connectedTransport();
+
+        assertThat(disabled.release(HOST_1, transport)).isFalse();
+        assertThat(disabled.acquire(HOST_1, this::connectedTransport)).isNotSameAs(transport);
+    }
+}
@@ -19,12 +19,20 @@
 
 package org.apache.james.transport.matchers.dlp;
 
+import static org.apache.mailet.base.MailAddressFixture.OTHER_AT_JAMES;
+import static org.apache.mailet.base.MailAddressFixture.RECIPIENT1;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.util.regex.Pattern;
 
+import javax.mail.MessagingException;
+
+import org.apache.james.core.builder.MimeMessageBuilder;
 import org.apache.james.dlp.api.DLPConfigurationItem.Id;
+import org.apache.mailet.Mail;
+import org.apache.mailet.base.test.FakeMail;
 import org.junit.jupiter.api.Test;
 
 class DlpDomainRulesTest {
@@ -57,4 +65,108 @@ class DlpDomainRulesTest {
             .doesNotThrowAnyException();
     }
 
+    @Test
+    void matchingRulesShouldReturnAllMatchingContentRules() throws Exception {
+        DlpDomainRules rules = DlpDomainRules.builder()
+            .contentRule(Id.of("literal"), Pattern.compile("horse"))
+            .contentRule(Id.of("regex"), Pattern.compile("p[o]ny"))
+            .contentRule(Id.of("no match"), Pattern.compile("donkey"))
+            .build();
+
+        assertThat(rules.matchingRules(mailWithText("It's actually a horse, not a pony")))
+            .containsOnly(Id.of("literal"), Id.of("regex"));
+    }
+
+    @Test
+    void matchingRulesShouldReportOverlappingLiterals() throws Exception {
+        DlpDomainRules rules = DlpDomainRules.builder()
+            .contentRule(Id.of("she"), Pattern.compile("she"))
+            .contentRule(Id.of("he"), Pattern.compile("he"))
+            .contentRule(Id.of("hers"), Pattern.compile("hers"))
+            .contentRule(Id.of("his"), Pattern.compile("his"))
+            .build();
+
+        assertThat(rules.matchingRules(mailWithText("ushers")))
+            .containsOnly(Id.of("she"), Id.of("he"), Id.of("hers"));
+    }
+
+    @Test
+    void matchingRulesShouldTreatLiteralFlagAsLiteral() throws Exception {
+        DlpDomainRules rules = DlpDomainRules.builder()
+            .contentRule(Id.of("literal"), Pattern.compile("a.b", Pattern.LITERAL))
+            .build();
+
+        assertThat(rules.matchingRules(mailWithText("axb"))).isEmpty();
+        assertThat(rules.matchingRules(mailWithText("a.b"))).containsOnly(Id.of("literal"));
+    }
+
+    @Test
+    void matchingRulesShouldNotMatchLiteralsAcrossParts() throws Exception {
+        DlpDomainRules rules = DlpDomainRules.builder()
+            .contentRule(Id.of("literal"), Pattern.compile("horse"))
+            .build();
+
+        Mail mail = FakeMail.builder()
+            .name("name")
+            .sender(OTHER_AT_JAMES)
+            .recipient(RECIPIENT1)
+            .mimeMessage(MimeMessageBuilder.mimeMessageBuilder()
+                .setSubject("ho")
+                .setMultipartWithBodyParts(
+                    MimeMessageBuilder.bodyPartBuilder()
+                        .data("rs"),
+                    MimeMessageBuilder.bodyPartBuilder()
+                        .data("e")))
+            .build();
+
+        assertThat(rules.matchingRules(mail)).isEmpty();
+    }
+
+    @Test
+    void matchingRulesShouldScanEveryPart() throws Exception {
+        DlpDomainRules rules = DlpDomainRules.builder()
+            .contentRule(Id.of("subject"), Pattern.compile("pony"))
+            .contentRule(Id.of("first part"), Pattern.compile("donk.y"))
+            .contentRule(Id.of("second part"), Pattern.compile("horse"))
+            .build();
+
+        Mail mail = FakeMail.builder()
+            .name("name")
+            .sender(OTHER_AT_JAMES)
+            .recipient(RECIPIENT1)
+            .mimeMessage(MimeMessageBuilder.mimeMessageBuilder()
+                .setSubject("I just bought a pony")
+                .setMultipartWithBodyParts(
+                    MimeMessageBuilder.bodyPartBuilder()
+                        .data("It's actually a donkey, not a pony"),
+                    MimeMessageBuilder.bodyPartBuilder()
+                        .data("What??? No it's a horse!!!")))
+            .build();
+
+        assertThat(rules.matchingRules(mail))
+            .containsOnly(Id.of("subject"), Id.of("first part"), Id.of("second part"));
+    }
+
+    @Test
+    void matchShouldReturnFirstMatchingRuleInRuleOrder() throws Exception {
+        DlpDomainRules rules = DlpDomainRules.builder()
+            .contentRule(Id.of("no match"), Pattern.compile("donkey"))
+            .contentRule(Id.of("regex"), Pattern.compile("p.ny"))
+            .contentRule(Id.of("literal"), Pattern.compile("horse"))
+            .build();
+
+        assertThat(rules.match(mailWithText("It's actually a horse, not a pony")))
+            .contains(Id.of("regex"));
+    }
+
+    private Mail mailWithText(String text) throws MessagingException {
+        return FakeMail.builder()
+            .name("name")
+            .sender(OTHER_AT_JAMES)
+            .recipient(RECIPIENT1)
+            .mimeMessage(MimeMessageBuilder.mimeMessageBuilder()
+                .setText(text))
+            .build();
+    }
+
 }
\ No newline at end of file
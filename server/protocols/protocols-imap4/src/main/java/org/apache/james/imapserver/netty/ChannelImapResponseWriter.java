@@ -23,10 +23,14 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.channels.FileChannel;
+import java.util.Optional;
 
 import org.apache.james.imap.encode.ImapResponseWriter;
 import org.apache.james.imap.message.Literal;
 
+import com.google.common.annotations.VisibleForTesting;
+
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelPipeline;
@@ -39,31 +43,69 @@ import io.netty.handler.stream.ChunkedStream;
 /**
  * {@link ImapResponseWriter} implementation which writes the data to a
  * {@link Channel}
+ *
+ * When coalescing, the response lines are composed into a pooled {@link ByteBuf} and the channel is only flushed once
+ * {@link #FLUSH_THRESHOLD} bytes are pending, or when {@link #stopCoalescing()} is called upon command completion. This
+ * avoids a system call (and a TLS record) per response line.
  */
 public class ChannelImapResponseWriter implements ImapResponseWriter {
+    // Matches Netty default high write buffer water mark
+    @VisibleForTesting
+    static final int FLUSH_THRESHOLD = 64 * 1024;
+    private static final int INITIAL_BUFFER_SIZE = 2048;
 
     private final Channel channel;
     private final boolean zeroCopy;
+    private final Optional<ImapMetrics> imapMetrics;
+    private boolean coalescing;
+    private ByteBuf pending;
+    private long unflushedBytes;
 
     public ChannelImapResponseWriter(Channel channel) {
         this(channel, true);
     }
 
     public ChannelImapResponseWriter(Channel channel, boolean zeroCopy) {
+        this(channel, zeroCopy, Optional.empty(), false);
+    }
+
+    /**
+     * Builds a coalescing writer, recording written bytes and flushes into the supplied {@link ImapMetrics}.
+     */
+    public ChannelImapResponseWriter(Channel channel, ImapMetrics imapMetrics) {
+        this(channel, true, Optional.of(imapMetrics), true);
+    }
+
+    private ChannelImapResponseWriter(Channel channel, boolean zeroCopy, Optional<ImapMetrics> imapMetrics, boolean coalescing) {
         this.channel = channel;
         this.zeroCopy = zeroCopy;
+        this.imapMetrics = imapMetrics;
+        this.coalescing = coalescing;
     }
 
     @Override
-    public void write(byte[] buffer) throws IOException {
+    public synchronized void write(byte[] buffer) throws IOException {
         if (channel.isActive()) {
-            channel.writeAndFlush(Unpooled.wrappedBuffer(buffer));
+            if (!coalescing) {
+                channel.write(Unpooled.wrappedBuffer(buffer));
+                written(buffer.length);
+                return;
+            }
+            if (pending == null) {
+                pending = channel.alloc().buffer(Math.max(INITIAL_BUFFER_SIZE, buffer.length));
+            }
+            pending.writeBytes(buffer);
+            written(buffer.length);
         }
     }
 
     @Override
-    public void write(Literal literal) throws IOException {
+    public synchronized void write(Literal literal) throws IOException {
         if (channel.isActive()) {
+            // Computed upfront as the content is read by the event loop once written
+            long size = literal.size();
+            // Preserves ordering with the lines previously composed
+            writePending();
             InputStream in = literal.getInputStream();
             if (in instanceof FileInputStream) {
                 FileChannel fc = ((FileInputStream) in).getChannel();
@@ -72,16 +114,67 @@ public class ChannelImapResponseWriter implements ImapResponseWriter {
                 // See JAMES-1305 and JAMES-1306
                 ChannelPipeline cp = channel.pipeline();
                 if (zeroCopy && cp.get(SslHandler.class) == null && cp.get(ZlibEncoder.class) == null) {
-                    channel.writeAndFlush(new DefaultFileRegion(fc, fc.position(), literal.size()));
+                    channel.write(new DefaultFileRegion(fc, fc.position(), literal.size()));
                 } else {
-                    channel.writeAndFlush(new ChunkedNioFile(fc, 8192));
+                    channel.write(new ChunkedNioFile(fc, 8192));
                 }
             } else {
-                channel.writeAndFlush(new ChunkedStream(literal.getInputStream()));
+                channel.write(new ChunkedStream(literal.getInputStream()));
+            }
+            written(size);
+        }
+    }
+
+    private void written(long size) {
+        unflushedBytes += size;
+        imapMetrics.ifPresent(metrics -> metrics.getResponseBytesMetric().add((int) Math.min(size, Integer.MAX_VALUE)));
+        if (!coalescing || unflushedBytes >= FLUSH_THRESHOLD) {
+            flush();
+        }
+    }
+
+    private void writePending() {
+        if (pending != null) {
+            ByteBuf toWrite = pending;
+            pending = null;
+            if (channel.isActive()) {
+                channel.write(toWrite);
+            } else {
+                toWrite.release();
             }
         }
     }
-    
-    
 
+    /**
+     * Writes and flushes the pending data.
+     */
+    public synchronized void flush() {
+        writePending();
+        if (unflushedBytes > 0) {
+            unflushedBytes = 0;
+            channel.flush();
+            imapMetrics.ifPresent(metrics -> metrics.getResponseFlushesMetric().increment());
+        }
+    }
+
+    /**
+     * Flushes the pending data, or releases it when the channel was closed meanwhile. Subsequent writes, for instance
+     * unsolicited responses while IDLEing, are flushed right away.
+     */
+    public synchronized void stopCoalescing() {
+        coalescing = false;
+        if (channel.isActive()) {
+            flush();
+        } else {
+            discardPending();
+        }
+    }
+
+    private void discardPending() {
+        if (pending != null) {
+            pending.release();
+            pending = null;
+        }
+        unflushedBytes = 0;
+    }
 }
@@ -146,6 +146,8 @@ public class ImapChannelUpstreamHandler extends ChannelInboundHandlerAdapter imp
 
     private final Metric imapCommandsMetric;
 
+    private final ImapMetrics imapMetrics;
+
     private final boolean ignoreIDLEUponProcessing;
 
     public ImapChannelUpstreamHandler(String hello, ImapProcessor processor, ImapEncoder encoder, boolean compress,
@@ -159,6 +161,7 @@ public class ImapChannelUpstreamHandler extends ChannelInboundHandlerAdapter imp
         this.authenticationConfiguration = authenticationConfiguration;
         this.imapConnectionsMetric = imapMetrics.getConnectionsMetric();
         this.imapCommandsMetric = imapMetrics.getCommandsMetric();
+        this.imapMetrics = imapMetrics;
         this.ignoreIDLEUponProcessing = ignoreIDLEUponProcessing;
         this.heartbeatHandler = new ImapHeartbeatHandler(heartbeatIntervalSeconds, heartbeatIntervalSeconds, heartbeatIntervalSeconds);
     }
@@ -276,12 +279,18 @@ public class ImapChannelUpstreamHandler extends ChannelInboundHandlerAdapter imp
     public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
         imapCommandsMetric.increment();
         ImapSession session = ctx.channel().attr(IMAP_SESSION_ATTRIBUTE_KEY).get();
-        ImapResponseComposer response = new ImapResponseComposerImpl(new ChannelImapResponseWriter(ctx.channel()));
+        ChannelImapResponseWriter writer = new ChannelImapResponseWriter(ctx.channel(), imapMetrics);
+        ImapResponseComposer response = new ImapResponseComposerImpl(writer);
         ImapMessage message = (ImapMessage) msg;
 
         beforeIDLEUponProcessing(ctx);
         ResponseEncoder responseEncoder = new ResponseEncoder(encoder, response);
-        processor.processReactive(message, responseEncoder, session)
+        // Responses are flushed once per command, or when a large amount of data is pending. The eager cleanup flushes
+        // them before the completion is propagated (STARTTLS, LOGOUT), and releases the pending buffer upon cancellation
+        Mono.using(() -> writer,
+                any -> processor.processReactive(message, responseEncoder, session),
+                ChannelImapResponseWriter::stopCoalescing,
+                true)
             .doOnSuccess(type -> {
                 if (session.getState() == ImapSessionState.LOGOUT) {
                     // Make sure we close the channel after all the buffers were flushed out
@@ -25,13 +25,19 @@ import org.apache.james.metrics.api.MetricFactory;
 public class ImapMetrics {
     private static final String IMAP_COMMANDS = "imapCommands";
     private static final String IMAP_CONNECTIONS = "imapConnections";
+    private static final String IMAP_RESPONSE_BYTES = "imapResponseBytes";
+    private static final String IMAP_RESPONSE_FLUSHES = "imapResponseFlushes";
 
     private final Metric commandsMetric;
     private final Metric connectionsMetric;
+    private final Metric responseBytesMetric;
+    private final Metric responseFlushesMetric;
 
     public ImapMetrics(MetricFactory metricFactory) {
         commandsMetric = metricFactory.generate(IMAP_COMMANDS);
         connectionsMetric = metricFactory.generate(IMAP_CONNECTIONS);
+        responseBytesMetric = metricFactory.generate(IMAP_RESPONSE_BYTES);
+        responseFlushesMetric = metricFactory.generate(IMAP_RESPONSE_FLUSHES);
     }
 
     public Metric getCommandsMetric() {
@@ -41,4 +47,19 @@ public class ImapMetrics {
     public Metric getConnectionsMetric() {
         return connectionsMetric;
     }
+
+    /**
+     * Bytes written to IMAP clients. Divided by the commands count, gives the average response size of a command.
+     */
+    public Metric getResponseBytesMetric() {
+        return responseBytesMetric;
+    }
+
+    /**
+     * Flushes of the IMAP channels. Divided by the commands count, gives the average flushes (and thus write system calls
+     * and TLS records) of a command.
+     */
+    public Metric getResponseFlushesMetric() {
+        return responseFlushesMetric;
+    }
 }
@@ -0,0 +1,157 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.imapserver.netty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.AbstractByteBufAllocator;
+import io.netty.buffer.UnpooledHeapByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+class ChannelImapResponseWriterTest {
+    private static final String RESPONSE_BYTES_METRIC = "imapResponseBytes";
+    private static final String RESPONSE_FLUSHES_METRIC = "imapResponseFlushes";
+
+    private EmbeddedChannel channel;
+    private RecordingMetricFactory metricFactory;
+    private ChannelImapResponseWriter testee;
+
+    @BeforeEach
+    void setUp() {
+        channel = new EmbeddedChannel();
+        metricFactory = new RecordingMetricFactory();
+        testee = new ChannelImapResponseWriter(channel, new ImapMetrics(metricFactory));
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    private String readOutbound() {
+        ByteBuf byteBuf = channel.readOutbound();
+        try {
+            return byteBuf.toString(StandardCharsets.US_ASCII);
+        } finally {
+            byteBuf.release();
+        }
+    }
+
+    @Test
+    void writesShouldNotBeFlushedWhileCoalescing() throws Exception {
+        testee.write("* 1 FETCH (FLAGS ())\r\n".getBytes(StandardCharsets.US_ASCII));
+        testee.write("* 2 FETCH (FLAGS ())\r\n".getBytes(StandardCharsets.US_ASCII));
+
+        assertThat(channel.outboundMessages()).isEmpty();
+        assertThat(metricFactory.countFor(RESPONSE_FLUSHES_METRIC)).isZero();
+    }
+
+    @Test
+    void stopCoalescingShouldFlushPendingWritesAsASingleBuffer() throws Exception {
+        testee.write("* 1 FETCH (FLAGS ())\r\n".getBytes(StandardCharsets.US_ASCII));
+        testee.write("* 2 FETCH (FLAGS ())\r\n".getBytes(StandardCharsets.US_ASCII));
+        testee.write("A1 OK FETCH completed.\r\n".getBytes(StandardCharsets.US_ASCII));
+
+        testee.stopCoalescing();
+
+        assertThat(channel.outboundMessages()).hasSize(1);
+        assertThat(readOutbound()).isEqualTo("* 1 FETCH (FLAGS ())\r\n* 2 FETCH (FLAGS ())\r\nA1 OK FETCH completed.\r\n");
+        assertThat(metricFactory.countFor(RESPONSE_FLUSHES_METRIC)).isEqualTo(1);
+        assertThat(metricFactory.countFor(RESPONSE_BYTES_METRIC)).isEqualTo(68);
+    }
+
+    @Test
+    void writesShouldBeFlushedRightAwayOnceCoalescingIsStopped() throws Exception {
+        testee.stopCoalescing();
+
+        testee.write("* 3 EXISTS\r\n".getBytes(StandardCharsets.US_ASCII));
+
+        assertThat(readOutbound()).isEqualTo("* 3 EXISTS\r\n");
+        assertThat(metricFactory.countFor(RESPONSE_FLUSHES_METRIC)).isEqualTo(1);
+    }
+
+    @Test
+    void writesShouldBeFlushedWhenExceedingTheThreshold() throws Exception {
+        byte[] line = new byte[ChannelImapResponseWriter.FLUSH_THRESHOLD / 2];
+
+        testee.write(line);
+        testee.write(line);
+
+        assertThat(channel.outboundMessages()).hasSize(1);
+        assertThat(metricFactory.countFor(RESPONSE_FLUSHES_METRIC)).isEqualTo(1);
+    }
+
+    @Test
+    void stopCoalescingShouldNotFlushWhenNothingWasWritten() {
+        testee.stopCoalescing();
+
+        assertThat(channel.outboundMessages()).isEmpty();
+        assertThat(metricFactory.countFor(RESPONSE_FLUSHES_METRIC)).isZero();
+    }
+
+    @Test
+    void stopCoalescingShouldReleasePendingBufferWhenChannelIsInactive() throws Exception {
+        List<ByteBuf> allocatedBuffers = new ArrayList<>();
+        channel.config().setAllocator(new AbstractByteBufAllocator(false) {
+            @Override
+            protected ByteBuf newHeapBuffer(int initialCapacity, int maxCapacity) {
+                ByteBuf buffer = new UnpooledHeapByteBuf(this, initialCapacity, maxCapacity);
+                allocatedBuffers.add(buffer);
+                return buffer;
+            }
+
+            @Override
+            protected ByteBuf newDirectBuffer(int initialCapacity, int maxCapacity) {
+                return newHeapBuffer(initialCapacity, maxCapacity);
+            }
+
+            @Override
+            public boolean isDirectBufferPooled() {
+                return false;
+            }
+        });
+        testee.write("* 1 FETCH (FLAGS ())\r\n".getBytes(StandardCharsets.US_ASCII));
+        channel.close();
+
+        testee.stopCoalescing();
+
+        assertThat(allocatedBuffers).hasSize(1);
+        assertThat(allocatedBuffers.get(0).refCnt()).isZero();
+        assertThat(metricFactory.countFor(RESPONSE_FLUSHES_METRIC)).isZero();
+    }
+
+    @Test
+    void nonCoalescingWriterShouldFlushEachWrite() throws Exception {
+        ChannelImapResponseWriter nonCoalescing = new ChannelImapResponseWriter(channel);
+
+        nonCoalescing.write("* OK hello\r\n".getBytes(StandardCharsets.US_ASCII));
+
+        assertThat(readOutbound()).isEqualTo("* OK hello\r\n");
+    }
+}
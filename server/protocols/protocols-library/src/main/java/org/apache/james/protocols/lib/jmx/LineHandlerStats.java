@@ -58,7 +58,8 @@ public class LineHandlerStats extends StandardMBean implements HandlerStatsMBean
      */
     public void increment(Response response) {
         all.incrementAndGet();
-        if (response.isEndSession()) {
+        // null when the line handler awaits more input before responding
+        if (response != null && response.isEndSession()) {
             disconnect.incrementAndGet();
         }
     }
@@ -47,6 +47,7 @@ import org.apache.james.protocols.netty.AbstractChannelPipelineFactory;
 import org.apache.james.protocols.netty.AbstractSSLAwareChannelPipelineFactory;
 import org.apache.james.protocols.netty.ChannelHandlerFactory;
 import org.apache.james.protocols.netty.Encryption;
+import org.apache.james.protocols.netty.NettyTransport;
 import org.apache.james.util.concurrent.NamedThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -166,6 +167,16 @@ public abstract class AbstractConfigurableAsyncServer extends AbstractAsyncServe
         jmxName = config.getString("jmxName", getDefaultJMXName());
         int ioWorker = config.getInt("ioWorkerCount", DEFAULT_IO_WORKER_COUNT);
         setIoWorkerCount(ioWorker);
+        setBossWorkerCount(config.getInt("bossWorkerCount", DEFAULT_BOSS_WORKER_COUNT));
+
+        try {
+            NettyTransport transport = NettyTransport.parse(config.getString("transport", NettyTransport.NIO.name()));
+            setTransport(transport);
+            LOGGER.info("{} uses the {} transport", getServiceType(), transport);
+        } catch (IllegalArgumentException e) {
+            throw new ConfigurationException("Invalid transport in configuration of service " + getServiceType(), e);
+        }
+        setReusePort(config.getBoolean("reusePort", false));
 
         executorGroup = new DefaultEventExecutorGroup(config.getInt("maxExecutorCount", DEFAULT_MAX_EXECUTOR_COUNT),
             NamedThreadFactory.withName(jmxName));
@@ -0,0 +1,319 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.smtpserver;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Optional;
+
+import javax.inject.Inject;
+
+import org.apache.james.lifecycle.api.LifecycleUtil;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.TimeMetric;
+import org.apache.james.protocols.api.ProtocolSession;
+import org.apache.james.protocols.api.ProtocolSession.State;
+import org.apache.james.protocols.api.Request;
+import org.apache.james.protocols.api.Response;
+import org.apache.james.protocols.api.handler.CommandHandler;
+import org.apache.james.protocols.api.handler.ExtensibleHandler;
+import org.apache.james.protocols.api.handler.LineHandler;
+import org.apache.james.protocols.api.handler.WiringException;
+import org.apache.james.protocols.netty.ChunkAwareLineBasedFrameDecoder;
+import org.apache.james.protocols.smtp.SMTPResponse;
+import org.apache.james.protocols.smtp.SMTPRetCode;
+import org.apache.james.protocols.smtp.SMTPSession;
+import org.apache.james.protocols.smtp.core.ReceivedDataLineFilter;
+import org.apache.james.protocols.smtp.core.esmtp.EhloExtension;
+import org.apache.james.protocols.smtp.dsn.DSNStatus;
+import org.apache.james.server.core.MailImpl;
+import org.apache.james.server.core.MimeMessageInputStreamSource;
+import org.apache.james.util.MDCBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Longs;
+
+/**
+ * Handles the BDAT command, see RFC 3030 (CHUNKING).
+ *
+ * Chunks are written as received to the message content, without being split into lines nor dot-unstuffed. The
+ * Received headers are written in front of the first chunk, and the message hooks are run upon the last chunk, like for
+ * DATA. Other {@link org.apache.james.protocols.smtp.core.DataLineFilter} do not apply to BDAT.
+ */
+public class BdatCmdHandler implements CommandHandler<SMTPSession>, EhloExtension, ExtensibleHandler {
+    public static final ProtocolSession.AttachmentKey<Long> BDAT_RECEIVED_SIZE = ProtocolSession.AttachmentKey.of("BDAT_RECEIVED_SIZE", Long.class);
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BdatCmdHandler.class);
+    private static final String COMMAND_NAME = "BDAT";
+    private static final Collection<String> COMMANDS = ImmutableSet.of(COMMAND_NAME);
+    private static final List<String> FEATURES = ImmutableList.of("CHUNKING");
+    private static final String LAST = "LAST";
+    private static final int COPY_BUFFER_SIZE = 8192;
+    private static final Response INVALID_ARGUMENTS = new SMTPResponse(SMTPRetCode.SYNTAX_ERROR_ARGUMENTS, DSNStatus.getStatus(DSNStatus.PERMANENT, DSNStatus.DELIVERY_INVALID_ARG) + " Usage: BDAT <chunk-size> [LAST]").immutable();
+    private static final Response NO_RECIPIENT = new SMTPResponse(SMTPRetCode.BAD_SEQUENCE, DSNStatus.getStatus(DSNStatus.PERMANENT, DSNStatus.DELIVERY_OTHER) + " No recipients specified").immutable();
+    private static final Response NO_SENDER = new SMTPResponse(SMTPRetCode.BAD_SEQUENCE, DSNStatus.getStatus(DSNStatus.PERMANENT, DSNStatus.DELIVERY_OTHER) + " No sender specified").immutable();
+    private static final Response MESSAGE_TOO_BIG = new SMTPResponse(SMTPRetCode.QUOTA_EXCEEDED, DSNStatus.getStatus(DSNStatus.PERMANENT, DSNStatus.SYSTEM_MSG_TOO_BIG) + " Message size exceeds fixed maximum message size").immutable();
+    private static final Response MESSAGE_RECEIVED = new SMTPResponse(SMTPRetCode.MAIL_OK, DSNStatus.getStatus(DSNStatus.SUCCESS, DSNStatus.CONTENT_OTHER) + " Message received").immutable();
+    private static final Response PROCESSING_ERROR = new SMTPResponse(SMTPRetCode.LOCAL_ERROR, DSNStatus.getStatus(DSNStatus.TRANSIENT, DSNStatus.UNDEFINED_STATUS) + " Error processing message").immutable();
+
+    private static class Chunk {
+        static Optional<Chunk> parse(String argument) {
+            if (argument == null) {
+                return Optional.empty();
+            }
+            List<String> parts = Splitter.on(' ').omitEmptyStrings().trimResults().splitToList(argument);
+            if (parts.isEmpty() || parts.size() > 2) {
+                return Optional.empty();
+            }
+            boolean last = parts.size() == 2;
+            if (last && !parts.get(1).equalsIgnoreCase(LAST)) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(Longs.tryParse(parts.get(0)))
+                .filter(size -> size >= 0)
+                .map(size -> new Chunk(size, last));
+        }
+
+        private final long size;
+        private final boolean last;
+
+        private Chunk(long size, boolean last) {
+            this.size = size;
+            this.last = last;
+        }
+    }
+
+    /**
+     * Receives the bytes of a chunk, then answers the BDAT command.
+     */
+    private class ChunkLineHandler implements LineHandler<SMTPSession> {
+        private final Chunk chunk;
+        private Optional<Response> failure;
+        private long remainingBytes;
+        private byte[] copyBuffer;
+
+        private ChunkLineHandler(Chunk chunk, Optional<Response> failure) {
+            this.chunk = chunk;
+            this.failure = failure;
+            this.remainingBytes = chunk.size;
+        }
+
+        @Override
+        public Response onLine(SMTPSession session, ByteBuffer buffer) {
+            remainingBytes -= buffer.remaining();
+            if (!failure.isPresent()) {
+                try {
+                    write(session, buffer);
+                } catch (IOException e) {
+                    LOGGER.error("Unknown error occurred while processing BDAT.", e);
+                    failure = Optional.of(PROCESSING_ERROR);
+                }
+            }
+
+            if (remainingBytes > 0) {
+                return null;
+            }
+            session.popLineHandler();
+            return failure
+                .map(response -> abortTransaction(session, response))
+                .orElseGet(() -> onChunkReceived(session, chunk));
+        }
+
+        private void write(SMTPSession session, ByteBuffer buffer) throws IOException {
+            OutputStream out = messageSource(session).getWritableOutputStream();
+            if (buffer.hasArray()) {
+                out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                return;
+            }
+            if (copyBuffer == null) {
+                copyBuffer = new byte[(int) Math.min(COPY_BUFFER_SIZE, chunk.size)];
+            }
+            while (buffer.hasRemaining()) {
+                int length = Math.min(copyBuffer.length, buffer.remaining());
+                buffer.get(copyBuffer, 0, length);
+                out.write(copyBuffer, 0, length);
+            }
+        }
+    }
+
+    private final MetricFactory metricFactory;
+    private DataLineJamesMessageHookHandler messageHookHandler;
+    private List<ReceivedDataLineFilter> receivedHeadersFilters;
+
+    @Inject
+    public BdatCmdHandler(MetricFactory metricFactory) {
+        this.metricFactory = metricFactory;
+        this.receivedHeadersFilters = ImmutableList.of();
+    }
+
+    @Override
+    public Response onCommand(SMTPSession session, Request request) {
+        TimeMetric timeMetric = metricFactory.timer("SMTP-" + request.getCommand());
+        try (Closeable closeable =
+                 MDCBuilder.create()
+                     .addToContext(MDCBuilder.ACTION, request.getCommand())
+                     .build()) {
+            Optional<Chunk> maybeChunk = Chunk.parse(request.getArgument());
+            if (!maybeChunk.isPresent()) {
+                return INVALID_ARGUMENTS;
+            }
+            Chunk chunk = maybeChunk.get();
+            Optional<Response> failure = checkTransaction(session, chunk);
+
+            if (chunk.size == 0) {
+                return failure
+                    .map(response -> abortTransaction(session, response))
+                    .orElseGet(() -> onChunkReceived(session, chunk));
+            }
+            // The chunk is framed as is, see ChunkingLineBasedFrameDecoder. It needs to be read even if the transaction
+            // failed, so that it is not interpreted as commands.
+            session.setAttachment(ChunkAwareLineBasedFrameDecoder.ACCEPTED_CHUNK_SIZE, chunk.size, State.Connection);
+            session.pushLineHandler(new ChunkLineHandler(chunk, failure));
+            return null;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            timeMetric.stopAndPublish();
+        }
+    }
+
+    private Optional<Response> checkTransaction(SMTPSession session, Chunk chunk) {
+        if (!session.getAttachment(SMTPSession.SENDER, State.Transaction).isPresent()) {
+            return Optional.of(NO_SENDER);
+        }
+        if (!session.getAttachment(SMTPSession.RCPT_LIST, State.Transaction).isPresent()) {
+            return Optional.of(NO_RECIPIENT);
+        }
+        long maxMessageSize = session.getConfiguration().getMaxMessageSize();
+        if (maxMessageSize > 0 && receivedSize(session) + chunk.size > maxMessageSize) {
+            LOGGER.error("Rejected message from {} from {} exceeding system maximum message size of {}", session.getAttachment(SMTPSession.SENDER, State.Transaction), session.getRemoteAddress().getAddress().getHostAddress(), maxMessageSize);
+            return Optional.of(MESSAGE_TOO_BIG);
+        }
+        try {
+            messageSource(session);
+            return Optional.empty();
+        } catch (IOException e) {
+            LOGGER.warn("Error creating mimemessagesource for incoming BDAT", e);
+            return Optional.of(PROCESSING_ERROR);
+        }
+    }
+
+    private long receivedSize(SMTPSession session) {
+        return session.getAttachment(BDAT_RECEIVED_SIZE, State.Transaction).orElse(0L);
+    }
+
+    /**
+     * Retrieves the message content of the current transaction, creating it along with the Received headers upon the
+     * first chunk.
+     */
+    private MimeMessageInputStreamSource messageSource(SMTPSession session) throws IOException {
+        Optional<MimeMessageInputStreamSource> existing = session.getAttachment(SMTPConstants.DATA_MIMEMESSAGE_STREAMSOURCE, State.Transaction);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        MimeMessageInputStreamSource mmiss = MimeMessageInputStreamSource.create(MailImpl.getId());
+        session.setAttachment(SMTPConstants.DATA_MIMEMESSAGE_STREAMSOURCE, mmiss, State.Transaction);
+        session.setAttachment(BDAT_RECEIVED_SIZE, 0L, State.Transaction);
+        OutputStream out = mmiss.getWritableOutputStream();
+        try {
+            for (ReceivedDataLineFilter filter : receivedHeadersFilters) {
+                filter.transferHeaders(session, (lineSession, line) -> {
+                    try {
+                        out.write(line.array(), line.arrayOffset() + line.position(), line.remaining());
+                        return null;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return mmiss;
+    }
+
+    private Response onChunkReceived(SMTPSession session, Chunk chunk) {
+        long receivedSize = receivedSize(session) + chunk.size;
+        session.setAttachment(BDAT_RECEIVED_SIZE, receivedSize, State.Transaction);
+        if (!chunk.last) {
+            return new SMTPResponse(SMTPRetCode.MAIL_OK, DSNStatus.getStatus(DSNStatus.SUCCESS, DSNStatus.UNDEFINED_STATUS) + " " + chunk.size + " octets received");
+        }
+
+        try {
+            MimeMessageInputStreamSource mmiss = messageSource(session);
+            return Optional.ofNullable(messageHookHandler.onMessageReceived(session, mmiss))
+                .orElse(MESSAGE_RECEIVED);
+        } catch (IOException e) {
+            LOGGER.error("Unknown error occurred while processing BDAT.", e);
+            return abortTransaction(session, PROCESSING_ERROR);
+        }
+    }
+
+    /**
+     * Once a chunk is rejected, the client should not send the following ones, hence the transaction is aborted.
+     */
+    private Response abortTransaction(SMTPSession session, Response response) {
+        session.getAttachment(SMTPConstants.DATA_MIMEMESSAGE_STREAMSOURCE, State.Transaction)
+            .ifPresent(LifecycleUtil::dispose);
+        session.resetState();
+        return response;
+    }
+
+    @Override
+    public Collection<String> getImplCommands() {
+        return COMMANDS;
+    }
+
+    @Override
+    public List<String> getImplementedEsmtpFeatures(SMTPSession session) {
+        return FEATURES;
+    }
+
+    @Override
+    public List<Class<?>> getMarkerInterfaces() {
+        List<Class<?>> classes = new LinkedList<>();
+        classes.add(DataLineJamesMessageHookHandler.class);
+        classes.add(ReceivedDataLineFilter.class);
+        return classes;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void wireExtensions(Class<?> interfaceName, List<?> extension) throws WiringException {
+        if (DataLineJamesMessageHookHandler.class.equals(interfaceName)) {
+            if (extension.size() != 1) {
+                throw new WiringException("BDAT requires exactly one " + DataLineJamesMessageHookHandler.class.getSimpleName());
+            }
+            this.messageHookHandler = (DataLineJamesMessageHookHandler) extension.get(0);
+        } else if (ReceivedDataLineFilter.class.equals(interfaceName)) {
+            this.receivedHeadersFilters = (List<ReceivedDataLineFilter>) extension;
+        }
+    }
+}
@@ -57,6 +57,7 @@ public class CoreCmdHandlerLoader implements HandlersPackage {
             AuthCmdHandler.class,
             JamesDataCmdHandler.class,
             EhloCmdHandler.class,
+            BdatCmdHandler.class,
             ExpnCmdHandler.class,
             HeloCmdHandler.class,
             HelpCmdHandler.class,
@@ -84,40 +84,9 @@ public class DataLineJamesMessageHookHandler implements DataLineFilter, Extensib
             // 46 is "."
             // Stream terminated
             if (line.length == 3 && line[0] == 46) {
-                String mailName = MailImpl.getId();
-                try (Closeable closeable = SMTPMDCContextFactory.forSession(session).addToContext("mail", mailName).build()) {
-                    out.flush();
-                    out.close();
-
-                    List<MailAddress> recipientCollection = session.getAttachment(SMTPSession.RCPT_LIST, State.Transaction).orElse(ImmutableList.of());
-                    MaybeSender sender = session.getAttachment(SMTPSession.SENDER, State.Transaction).orElse(MaybeSender.nullSender());
-
-                    MailImpl mail = MailImpl.builder()
-                        .name(mailName)
-                        .sender(sender)
-                        .addRecipients(recipientCollection)
-                        .build();
-
-                    // store mail in the session so we can be sure it get disposed later
-                    session.setAttachment(SMTPConstants.MAIL, mail, State.Transaction);
-
-                    try {
-                        mail.setMessageContent(mmiss);
-
-                        Response response = processExtensions(session, mail);
-
-                        session.popLineHandler();
-                        return response;
-
-                    } catch (MessagingException e) {
-                        // TODO probably return a temporary problem
-                        LOGGER.info("Unexpected error handling DATA stream", e);
-                        return new SMTPResponse(SMTPRetCode.LOCAL_ERROR, "Unexpected error handling DATA stream.");
-                    } finally {
-                        LifecycleUtil.dispose(mmiss);
-                        LifecycleUtil.dispose(mail);
-                    }
-                }
+                Response response = onMessageReceived(session, mmiss);
+                session.popLineHandler();
+                return response;
 
                 // DotStuffing.
             } else if (line[0] == 46 && line[1] == 46) {
@@ -138,6 +107,45 @@ public class DataLineJamesMessageHookHandler implements DataLineFilter, Extensib
         return null;
     }
 
+    /**
+     * Builds the mail out of the content written to the {@link MimeMessageInputStreamSource}, then runs the message hooks.
+     *
+     * This is called once the message content had been fully received, be it with DATA or BDAT.
+     */
+    public Response onMessageReceived(SMTPSession session, MimeMessageInputStreamSource mmiss) throws IOException {
+        String mailName = MailImpl.getId();
+        try (Closeable closeable = SMTPMDCContextFactory.forSession(session).addToContext("mail", mailName).build()) {
+            OutputStream out = mmiss.getWritableOutputStream();
+            out.flush();
+            out.close();
+
+            List<MailAddress> recipientCollection = session.getAttachment(SMTPSession.RCPT_LIST, State.Transaction).orElse(ImmutableList.of());
+            MaybeSender sender = session.getAttachment(SMTPSession.SENDER, State.Transaction).orElse(MaybeSender.nullSender());
+
+            MailImpl mail = MailImpl.builder()
+                .name(mailName)
+                .sender(sender)
+                .addRecipients(recipientCollection)
+                .build();
+
+            // store mail in the session so we can be sure it get disposed later
+            session.setAttachment(SMTPConstants.MAIL, mail, State.Transaction);
+
+            try {
+                mail.setMessageContent(mmiss);
+
+                return processExtensions(session, mail);
+            } catch (MessagingException e) {
+                // TODO probably return a temporary problem
+                LOGGER.info("Unexpected error handling DATA stream", e);
+                return new SMTPResponse(SMTPRetCode.LOCAL_ERROR, "Unexpected error handling DATA stream.");
+            } finally {
+                LifecycleUtil.dispose(mmiss);
+                LifecycleUtil.dispose(mail);
+            }
+        }
+    }
+
     protected Response processExtensions(SMTPSession session, Mail mail) {
         if (mail != null && messageHandlers != null) {
             try {
@@ -22,10 +22,12 @@ import javax.inject.Inject;
 
 import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.protocols.api.ProtocolSession.State;
+import org.apache.james.protocols.api.Response;
 import org.apache.james.protocols.smtp.SMTPResponse;
 import org.apache.james.protocols.smtp.SMTPRetCode;
 import org.apache.james.protocols.smtp.SMTPSession;
 import org.apache.james.protocols.smtp.core.DataCmdHandler;
+import org.apache.james.protocols.smtp.dsn.DSNStatus;
 import org.apache.james.server.core.MailImpl;
 import org.apache.james.server.core.MimeMessageInputStreamSource;
 import org.slf4j.Logger;
@@ -36,6 +38,7 @@ import org.slf4j.LoggerFactory;
  */
 public class JamesDataCmdHandler extends DataCmdHandler {
     private static final Logger LOGGER = LoggerFactory.getLogger(JamesDataCmdHandler.class);
+    private static final Response MIXED_WITH_BDAT = new SMTPResponse(SMTPRetCode.BAD_SEQUENCE, DSNStatus.getStatus(DSNStatus.PERMANENT, DSNStatus.DELIVERY_OTHER) + " DATA can not be used after BDAT within a transaction").immutable();
 
     @Inject
     public JamesDataCmdHandler(MetricFactory metricFactory) {
@@ -64,4 +67,12 @@ public class JamesDataCmdHandler extends DataCmdHandler {
         return new SMTPResponse(SMTPRetCode.DATA_READY, "Ok Send data ending with <CRLF>.<CRLF>");
     }
 
+    @Override
+    protected Response doDATAFilter(SMTPSession session, String argument) {
+        if (session.getAttachment(BdatCmdHandler.BDAT_RECEIVED_SIZE, State.Transaction).isPresent()) {
+            return MIXED_WITH_BDAT;
+        }
+        return super.doDATAFilter(session, argument);
+    }
+
 }
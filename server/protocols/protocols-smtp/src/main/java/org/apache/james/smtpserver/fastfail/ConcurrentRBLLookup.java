@@ -0,0 +1,166 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.smtpserver.fastfail;
+
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.commons.configuration2.Configuration;
+import org.apache.commons.configuration2.ex.ConfigurationException;
+import org.apache.james.dnsservice.api.DNSService;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.util.DurationParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Checks names against DNS based lists (DNSBL, URIBL) by querying all the lists concurrently, with at most
+ * the configured count of lookups in flight.
+ *
+ * <p>
+ * Answers are cached across connections in a bounded cache, and kept at most for the configured TTL.
+ * Lookups not answered before the configured timeout are considered as not listed.
+ * </p>
+ *
+ * <p>
+ * Per list lookup latencies and timeouts are recorded as metrics.
+ * </p>
+ */
+public class ConcurrentRBLLookup {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrentRBLLookup.class);
+
+    public static final String CONCURRENT_LOOKUPS = "concurrentLookups";
+    public static final String DEFAULT_LOOKUP_TIMEOUT = "2s";
+    public static final String DEFAULT_CACHE_TTL = "10m";
+    public static final long DEFAULT_CACHE_SIZE = 10000;
+    public static final int DEFAULT_MAX_CONCURRENT_LOOKUPS = 16;
+
+    public static class Listing {
+        private final String name;
+        private final String zone;
+
+        Listing(String name, String zone) {
+            this.name = name;
+            this.zone = zone;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getZone() {
+            return zone;
+        }
+
+        public String getQuery() {
+            return query(name, zone);
+        }
+    }
+
+    /**
+     * @return true if the handler configuration requests concurrent lookups
+     */
+    public static boolean isEnabled(Configuration config) {
+        return config.getBoolean(CONCURRENT_LOOKUPS, false);
+    }
+
+    public static ConcurrentRBLLookup from(Configuration config, DNSService dnsService, MetricFactory metricFactory, String metricPrefix) throws ConfigurationException {
+        try {
+            Duration lookupTimeout = DurationParser.parse(config.getString("lookupTimeout", DEFAULT_LOOKUP_TIMEOUT), ChronoUnit.SECONDS);
+            Duration cacheTtl = DurationParser.parse(config.getString("cacheTtl", DEFAULT_CACHE_TTL), ChronoUnit.SECONDS);
+            long cacheSize = config.getLong("cacheSize", DEFAULT_CACHE_SIZE);
+            int maxConcurrentLookups = config.getInt("maxConcurrentLookups", DEFAULT_MAX_CONCURRENT_LOOKUPS);
+            return new ConcurrentRBLLookup(dnsService, metricFactory, metricPrefix, lookupTimeout, cacheSize, cacheTtl, maxConcurrentLookups);
+        } catch (IllegalArgumentException e) {
+            throw new ConfigurationException("Invalid concurrent lookup configuration", e);
+        }
+    }
+
+    private static String query(String name, String zone) {
+        return name + "." + zone;
+    }
+
+    private final DNSService dnsService;
+    private final MetricFactory metricFactory;
+    private final String metricPrefix;
+    private final Duration lookupTimeout;
+    private final Cache<String, Boolean> cache;
+    private final int maxConcurrentLookups;
+
+    public ConcurrentRBLLookup(DNSService dnsService, MetricFactory metricFactory, String metricPrefix, Duration lookupTimeout,
+                               long cacheSize, Duration cacheTtl, int maxConcurrentLookups) {
+        Preconditions.checkArgument(maxConcurrentLookups > 0, "'maxConcurrentLookups' should be strictly positive");
+        this.dnsService = dnsService;
+        this.metricFactory = metricFactory;
+        this.metricPrefix = metricPrefix;
+        this.lookupTimeout = lookupTimeout;
+        this.cache = CacheBuilder.newBuilder()
+            .maximumSize(cacheSize)
+            .expireAfterWrite(cacheTtl)
+            .build();
+        this.maxConcurrentLookups = maxConcurrentLookups;
+    }
+
+    /**
+     * Queries all the zones for all the names concurrently. Duplicated names and zones are queried only once.
+     *
+     * @return the first listing found, or empty if none of the names is listed
+     */
+    public Mono<Listing> firstListing(Collection<String> names, Collection<String> zones) {
+        ImmutableSet<String> distinctZones = ImmutableSet.copyOf(zones);
+        return Flux.fromIterable(ImmutableSet.copyOf(names))
+            .flatMap(name -> Flux.fromIterable(distinctZones)
+                .map(zone -> new Listing(name, zone)))
+            .flatMap(listing -> isListed(listing.getName(), listing.getZone())
+                .filter(listed -> listed)
+                .map(any -> listing), maxConcurrentLookups)
+            .next();
+    }
+
+    public Mono<Boolean> isListed(String name, String zone) {
+        String query = query(name, zone);
+        Boolean cached = cache.getIfPresent(query);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return Mono.from(metricFactory.decoratePublisherWithTimerMetric(metricPrefix + "-lookup-" + zone,
+                dnsService.getByNameReactive(query)
+                    .map(any -> true)
+                    .onErrorResume(UnknownHostException.class, e -> Mono.just(false))))
+            .doOnNext(listed -> cache.put(query, listed))
+            .timeout(lookupTimeout)
+            .onErrorResume(TimeoutException.class, e -> {
+                LOGGER.info("Lookup of {} timed out after {}", query, lookupTimeout);
+                metricFactory.generate(metricPrefix + "-timeout-" + zone).increment();
+                return Mono.just(false);
+            });
+    }
+}
@@ -22,6 +22,8 @@ import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 
 import javax.inject.Inject;
 
@@ -30,14 +32,27 @@ import org.apache.commons.configuration2.HierarchicalConfiguration;
 import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.commons.configuration2.tree.ImmutableNode;
 import org.apache.james.dnsservice.api.DNSService;
+import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.protocols.api.handler.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 
 public class DNSRBLHandler extends org.apache.james.protocols.smtp.core.fastfail.DNSRBLHandler implements ProtocolHandler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DNSRBLHandler.class);
+
     private final DNSService dns;
+    private final MetricFactory metricFactory;
+    private Optional<ConcurrentRBLLookup> concurrentLookup = Optional.empty();
 
     @Inject
-    public DNSRBLHandler(DNSService dns) {
+    public DNSRBLHandler(DNSService dns, MetricFactory metricFactory) {
         this.dns = dns;
+        this.metricFactory = metricFactory;
     }
 
     @Override
@@ -65,6 +80,40 @@ public class DNSRBLHandler extends org.apache.james.protocols.smtp.core.fastfail
         }
 
         setGetDetail(handlerConfiguration.getBoolean("getDetail", false));
+
+        if (ConcurrentRBLLookup.isEnabled(handlerConfiguration)) {
+            concurrentLookup = Optional.of(ConcurrentRBLLookup.from(handlerConfiguration, dns, metricFactory, "SMTP-DNSRBL"));
+        }
+    }
+
+    @Override
+    protected Optional<String> findBlacklist(String ipAddress, String reversedOctets) {
+        return concurrentLookup
+            .map(lookup -> findBlacklistConcurrently(lookup, ipAddress, reversedOctets))
+            .orElseGet(() -> super.findBlacklist(ipAddress, reversedOctets));
+    }
+
+    /**
+     * All lists are queried at once. Being whitelisted is conclusive as soon as it is known, while being
+     * blacklisted is only conclusive once all whitelists answered.
+     */
+    private Optional<String> findBlacklistConcurrently(ConcurrentRBLLookup lookup, String ipAddress, String reversedOctets) {
+        List<String> names = ImmutableList.of(reversedOctets.substring(0, reversedOctets.length() - 1));
+        Mono<ConcurrentRBLLookup.Listing> whitelisting = lookup.firstListing(names, getWhitelist()).cache();
+
+        Mono<Optional<String>> whitelisted = whitelisting
+            .doOnNext(listing -> LOGGER.info("Connection from {} whitelisted by {}", ipAddress, listing.getZone()))
+            .map(any -> Optional.empty());
+        Mono<Optional<String>> blacklisted = Mono.zip(
+                whitelisting.hasElement(),
+                lookup.firstListing(names, getBlacklist())
+                    .map(listing -> Optional.of(listing.getZone()))
+                    .defaultIfEmpty(Optional.empty()))
+            .filter(results -> !results.getT1())
+            .map(Tuple2::getT2);
+
+        return Mono.firstWithValue(whitelisted, blacklisted)
+            .block();
     }
 
     @Override
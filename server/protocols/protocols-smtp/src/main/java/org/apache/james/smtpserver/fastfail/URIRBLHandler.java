@@ -36,6 +36,7 @@ import javax.mail.internet.MimePart;
 import org.apache.commons.configuration2.Configuration;
 import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.james.dnsservice.api.DNSService;
+import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.protocols.api.ProtocolSession;
 import org.apache.james.protocols.api.ProtocolSession.State;
 import org.apache.james.protocols.api.handler.ProtocolHandler;
@@ -63,6 +64,10 @@ public class URIRBLHandler implements JamesMessageHook, ProtocolHandler {
 
     private DNSService dnsService;
 
+    private MetricFactory metricFactory;
+
+    private Optional<ConcurrentRBLLookup> concurrentLookup = Optional.empty();
+
     private Collection<String> uriRbl;
 
     private boolean getDetail = false;
@@ -87,6 +92,27 @@ public class URIRBLHandler implements JamesMessageHook, ProtocolHandler {
         this.dnsService = dnsService;
     }
 
+    /**
+     * Sets the metric factory.
+     *
+     * @param metricFactory
+     *            the metricFactory to set
+     */
+    @Inject
+    public final void setMetricFactory(MetricFactory metricFactory) {
+        this.metricFactory = metricFactory;
+    }
+
+    /**
+     * Enables querying all the domains against all the servers at once.
+     *
+     * @param concurrentLookup
+     *            The lookup used to query the servers
+     */
+    public void setConcurrentLookup(ConcurrentRBLLookup concurrentLookup) {
+        this.concurrentLookup = Optional.of(concurrentLookup);
+    }
+
     /**
      * Set the UriRBL Servers
      * 
@@ -196,6 +222,10 @@ public class URIRBLHandler implements JamesMessageHook, ProtocolHandler {
 
             HashSet<String> domains = scanMailForDomains(message, session);
 
+            if (concurrentLookup.isPresent()) {
+                return checkConcurrently(concurrentLookup.get(), session, domains);
+            }
+
             for (String domain : domains) {
                 Iterator<String> uRbl = uriRbl.iterator();
                 String target = domain;
@@ -226,6 +256,20 @@ public class URIRBLHandler implements JamesMessageHook, ProtocolHandler {
         return false;
     }
 
+    private boolean checkConcurrently(ConcurrentRBLLookup lookup, SMTPSession session, Collection<String> domains) {
+        Optional<ConcurrentRBLLookup.Listing> listing = lookup.firstListing(domains, uriRbl)
+            .blockOptional();
+
+        listing.ifPresent(found -> {
+            LOGGER.debug("Lookup {} found a listing", found.getQuery());
+
+            // store server name for later use
+            session.setAttachment(URBLSERVER, found.getZone(), State.Transaction);
+            session.setAttachment(LISTED_DOMAIN, found.getName(), State.Transaction);
+        });
+        return listing.isPresent();
+    }
+
     @Override
     public void init(Configuration config) throws ConfigurationException {
         String[] servers = config.getStringArray("uriRblServers.server");
@@ -241,5 +285,9 @@ public class URIRBLHandler implements JamesMessageHook, ProtocolHandler {
         }
 
         setGetDetail(config.getBoolean("getDetail", false));        
+
+        if (ConcurrentRBLLookup.isEnabled(config)) {
+            setConcurrentLookup(ConcurrentRBLLookup.from(config, dnsService, metricFactory, "SMTP-URIRBL"));
+        }
     }
 }
@@ -0,0 +1,52 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.smtpserver.netty;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.james.protocols.netty.AllButStartTlsLineBasedChannelHandler;
+import org.apache.james.smtpserver.BdatCmdHandler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelPipeline;
+
+/**
+ * Passes the chunk following a BDAT command as is, see {@link BdatCmdHandler}.
+ */
+public class ChunkingLineBasedFrameDecoder extends AllButStartTlsLineBasedChannelHandler {
+    private static final byte[] BDAT_PREFIX = "BDAT ".getBytes(StandardCharsets.US_ASCII);
+
+    public ChunkingLineBasedFrameDecoder(ChannelPipeline pipeline, int maxFrameLength, boolean stripDelimiter, String pattern) {
+        super(pipeline, maxFrameLength, stripDelimiter, pattern);
+    }
+
+    @Override
+    protected boolean mayAnnounceChunk(ByteBuf line) {
+        if (line.readableBytes() <= BDAT_PREFIX.length) {
+            return false;
+        }
+        for (int i = 0; i < BDAT_PREFIX.length; i++) {
+            if (Character.toUpperCase((char) line.getByte(line.readerIndex() + i)) != BDAT_PREFIX[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,146 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.smtpserver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.james.dnsservice.api.mock.MockDNSService;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.apache.james.smtpserver.fastfail.ConcurrentRBLLookup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Mono;
+
+class ConcurrentRBLLookupTest {
+    private static final String LISTING_ZONE = "bl.example.org.";
+    private static final String OTHER_ZONE = "other.example.org.";
+    private static final String SLOW_ZONE = "slow.example.org.";
+    private static final String DELAYED_ZONE = "delayed.example.org.";
+    private static final Duration TIMEOUT = Duration.ofMillis(500);
+    private static final int MAX_CONCURRENT_LOOKUPS = 2;
+
+    private AtomicInteger lookups;
+    private AtomicInteger inFlight;
+    private AtomicInteger maxInFlight;
+    private RecordingMetricFactory metricFactory;
+    private ConcurrentRBLLookup testee;
+
+    @BeforeEach
+    void setUp() {
+        lookups = new AtomicInteger();
+        inFlight = new AtomicInteger();
+        maxInFlight = new AtomicInteger();
+        metricFactory = new RecordingMetricFactory();
+        MockDNSService dnsService = new MockDNSService() {
+            @Override
+            public InetAddress getByName(String host) throws UnknownHostException {
+                lookups.incrementAndGet();
+                if (host.equals("2.0.0.127." + LISTING_ZONE)) {
+                    return InetAddress.getByName("127.0.0.2");
+                }
+                throw new UnknownHostException(host);
+            }
+
+            @Override
+            public Mono<InetAddress> getByNameReactive(String host) {
+                if (host.endsWith(SLOW_ZONE)) {
+                    return Mono.never();
+                }
+                if (host.endsWith(DELAYED_ZONE)) {
+                    return Mono.fromRunnable(() -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                        .then(Mono.delay(Duration.ofMillis(50)))
+                        .then(Mono.fromRunnable(inFlight::decrementAndGet))
+                        .then(Mono.error(new UnknownHostException(host)));
+                }
+                return super.getByNameReactive(host);
+            }
+        };
+        testee = new ConcurrentRBLLookup(dnsService, metricFactory, "SMTP-DNSRBL", TIMEOUT, 100, Duration.ofMinutes(1), MAX_CONCURRENT_LOOKUPS);
+    }
+
+    @Test
+    void firstListingShouldReturnTheListingZone() {
+        ConcurrentRBLLookup.Listing listing = testee.firstListing(ImmutableList.of("2.0.0.127"), ImmutableList.of(OTHER_ZONE, LISTING_ZONE))
+            .block();
+
+        assertThat(listing.getZone()).isEqualTo(LISTING_ZONE);
+        assertThat(listing.getName()).isEqualTo("2.0.0.127");
+    }
+
+    @Test
+    void firstListingShouldBeEmptyWhenNotListed() {
+        assertThat(testee.firstListing(ImmutableList.of("3.0.0.127"), ImmutableList.of(OTHER_ZONE, LISTING_ZONE)).blockOptional())
+            .isEmpty();
+    }
+
+    @Test
+    void firstListingShouldQueryDuplicatedNamesAndZonesOnce() {
+        testee.firstListing(ImmutableList.of("3.0.0.127", "3.0.0.127"), ImmutableList.of(OTHER_ZONE, OTHER_ZONE)).block();
+
+        assertThat(lookups.get()).isEqualTo(1);
+    }
+
+    @Test
+    void firstListingShouldBoundConcurrentLookups() {
+        testee.firstListing(ImmutableList.of("1.0.0.127", "2.0.0.127", "3.0.0.127", "4.0.0.127", "5.0.0.127"),
+                ImmutableList.of(DELAYED_ZONE))
+            .block();
+
+        assertThat(maxInFlight.get()).isEqualTo(MAX_CONCURRENT_LOOKUPS);
+    }
+
+    @Test
+    void answersShouldBeCachedAcrossLookups() {
+        testee.isListed("2.0.0.127", LISTING_ZONE).block();
+        testee.isListed("3.0.0.127", LISTING_ZONE).block();
+
+        assertThat(testee.isListed("2.0.0.127", LISTING_ZONE).block()).isTrue();
+        assertThat(testee.isListed("3.0.0.127", LISTING_ZONE).block()).isFalse();
+        assertThat(lookups.get()).isEqualTo(2);
+    }
+
+    @Test
+    void timedOutLookupsShouldBeConsideredAsNotListed() {
+        assertThat(testee.firstListing(ImmutableList.of("2.0.0.127"), ImmutableList.of(SLOW_ZONE)).blockOptional())
+            .isEmpty();
+        assertThat(metricFactory.countFor("SMTP-DNSRBL-timeout-" + SLOW_ZONE)).isEqualTo(1);
+    }
+
+    @Test
+    void timedOutLookupsShouldNotDelayConclusiveAnswers() {
+        assertThat(testee.firstListing(ImmutableList.of("2.0.0.127"), ImmutableList.of(SLOW_ZONE, LISTING_ZONE)).block(TIMEOUT.dividedBy(2)))
+            .isNotNull();
+    }
+
+    @Test
+    void lookupLatenciesShouldBeRecordedPerZone() {
+        testee.firstListing(ImmutableList.of("2.0.0.127"), ImmutableList.of(OTHER_ZONE, LISTING_ZONE)).block();
+
+        assertThat(metricFactory.executionTimesFor("SMTP-DNSRBL-lookup-" + LISTING_ZONE)).hasSize(1);
+    }
+}
@@ -418,7 +418,7 @@ public class SMTPServerTest {
 
         assertThat(capabilitieslist)
             .as("capabilities")
-            .hasSize(3);
+            .hasSize(4);
         assertThat(capabilitieslist.contains("PIPELINING"))
             .as("capabilities present PIPELINING")
             .isTrue();
@@ -428,6 +428,9 @@ public class SMTPServerTest {
         assertThat(capabilitieslist.contains("8BITMIME"))
             .as("capabilities present 8BITMIME")
             .isTrue();
+        assertThat(capabilitieslist.contains("CHUNKING"))
+            .as("capabilities present CHUNKING")
+            .isTrue();
 
         smtpProtocol.setSender("mail@localhost");
         smtpProtocol.addRecipient("mail@localhost");
@@ -506,6 +509,175 @@ public class SMTPServerTest {
         smtpProtocol.disconnect();
     }
 
+    /**
+     * Sends a BDAT command followed by its chunk. The chunk ends with the CRLF appended by the client.
+     */
+    private void sendChunk(SMTPClient smtpProtocol, String content, boolean last) throws IOException {
+        String chunk = content + "\r\n";
+        smtpProtocol.sendCommand("BDAT " + chunk.length() + (last ? " LAST" : "") + "\r\n" + content);
+    }
+
+    @Test
+    public void bdatShouldDeliverMessage() throws Exception {
+        init(smtpConfiguration);
+
+        SMTPClient smtpProtocol = newSMTPClient();
+        smtpProtocol.sendCommand("EHLO " + InetAddress.getLocalHost());
+        smtpProtocol.setSender("mail@localhost");
+        smtpProtocol.addRecipient("mail@localhost");
+        sendChunk(smtpProtocol, "Subject: test\r\n\r\nBody", true);
+
+        assertThat(smtpProtocol.getReplyCode()).isEqualTo(250);
+        smtpProtocol.quit();
+        smtpProtocol.disconnect();
+
+        assertThat(queue.getLastMail().getMessage().getSubject()).isEqualTo("test");
+        assertThat(queue.getLastMail().getMessage().getHeader("Received"))
+            .as("spooled mail has Received header")
+            .isNotNull();
+        assertThat(queue.getLastMail().getMessage().getContent()).isEqualTo("Body\r\n");
+    }
+
+    @Test
+    public void bdatShouldConcatenateChunks() throws Exception {
+        init(smtpConfiguration);
+
+        SMTPClient smtpProtocol = newSMTPClient();
+        smtpProtocol.sendCommand("EHLO " + InetAddress.getLocalHost());
+        smtpProtocol.setSender("mail@localhost");
+        smtpProtocol.addRecipient("mail@localhost");
+        sendChunk(smtpProtocol, "Subject: test", false);
+        assertThat(smtpProtocol.getReplyString()).isEqualTo("250 2.0.0 15 octets received\r\n");
+        sendChunk(smtpProtocol, "\r\nFirst line", false);
+        sendChunk(smtpProtocol, "Second line", true);
+
+        assertThat(smtpProtocol.getReplyCode()).isEqualTo(250);
+        smtpProtocol.quit();
+        smtpProtocol.disconnect();
+
+        assertThat(queue.getLastMail().getMessage().getContent()).isEqualTo("First line\r\nSecond line\r\n");
+    }
+
+    @Test
+    public void bdatShouldSupportChunksSpanningSeveralReads() throws Exception {
+        init(smtpConfiguration);
+        String body = "0123456789abcdefghijklmnopqrstuvwxyz\r\n".repeat(10000);
+
+        SMTPClient smtpProtocol = newSMTPClient();
+        smtpProtocol.sendCommand("EHLO " + InetAddress.getLocalHost());
+        smtpProtocol.setSender("mail@localhost");
+        smtpProtocol.addRecipient("mail@localhost");
+        sendChunk(smtpProtocol, "Subject: test\r\n\r\n" + body + "end", true);
+
+        assertThat(smtpProtocol.getReplyCode()).isEqualTo(250);
+        smtpProtocol.quit();
+        smtpProtocol.disconnect();
+
+        assertThat(queue.getLastMail().getMessage().getContent()).isEqualTo(body + "end\r\n");
+    }
+
+    @Test
+    public void bdatShouldNotUnstuffDots() throws Exception {
+        init(smtpConfiguration);
+
+        SMTPClient smtpProtocol = newSMTPClient();
+        smtpProtocol.sendCommand("EHLO " + InetAddress.getLocalHost());
+        smtpProtocol.setSender("mail@localhost");
+        smtpProtocol.addRecipient("mail@localhost");
+        sendChunk(smtpProtocol, "Subject: test\r\n\r\n..dots\r\n.", true);
+
+        assertThat(smtpProtocol.getReplyCode()).isEqualTo(250);
+        smtpProtocol.quit();
+        smtpProtocol.disconnect();
+
+        assertThat(queue.getLastMail().getMessage().getContent()).isEqualTo("..dots\r\n.\r\n");
+    }
+
+    @Test
+    public void bdatShouldRejectMessagesExceedingMessageSize() throws Exception {
+        init(smtpConfiguration);
+        smtpServer.setMaximalMessageSize(10);
+
+        SMTPClient smtpProtocol = newSMTPClient();
+        smtpProtocol.sendCommand("EHLO " + InetAddress.getLocalHost());
+        smtpProtocol.setSender("mail@localhost");
+        smtpProtocol.addRecipient("mail@localhost");
+        sendChunk(smtpProtocol, "Subject: test\r\n\r\nBody", true);
+
+        assertThat(smtpProtocol.getReplyCode()).isEqualTo(552);
+        smtpProtocol.quit();
+        smtpProtocol.disconnect();
+
+        assertThat(queue.getLastMail()).isNull();
+    }
+
+    @Test
+    public void bdatChunkShouldBeConsumedWhenRejected() throws Exception {
+        init(smtpConfiguration);
+
+        SMTPClient smtpProtocol = newSMTPClient();
+        smtpProtocol.sendCommand("EHLO " + InetAddress.getLocalHost());
+        smtpProtocol.setSender("mail@localhost");
+        sendChunk(smtpProtocol, "NOOP\r\nNOOP", true);
+
+        assertThat(smtpProtocol.getReplyCode()).isEqualTo(503);
+        assertThat(smtpProtocol.sendCommand("NOOP")).isEqualTo(250);
+        smtpProtocol.quit();
+        smtpProtocol.disconnect();
+    }
+
+    @Test
+    public void dataShouldBeRejectedAfterBdat() throws Exception {
+        init(smtpConfiguration);
+
+        SMTPClient smtpProtocol = newSMTPClient();
+        smtpProtocol.sendCommand("EHLO " + InetAddress.getLocalHost());
+        smtpProtocol.setSender("mail@localhost");
+        smtpProtocol.addRecipient("mail@localhost");
+        sendChunk(smtpProtocol, "Subject: test", false);
+
+        assertThat(smtpProtocol.sendCommand("DATA")).isEqualTo(503);
+        smtpProtocol.quit();
+        smtpProtocol.disconnect();
+    }
+
+    @Test
+    public void bdatShouldSupportPipelinedChunks() throws Exception {
+        init(smtpConfiguration);
+
+        SMTPClient smtpProtocol = newSMTPClient();
+        smtpProtocol.sendCommand("EHLO " + InetAddress.getLocalHost());
+        smtpProtocol.setSender("mail@localhost");
+        smtpProtocol.addRecipient("mail@localhost");
+        smtpProtocol.sendCommand("BDAT 15\r\nSubject: test\r\nBDAT 8 LAST\r\n\r\nBody");
+
+        assertThat(smtpProtocol.getReplyString()).isEqualTo("250 2.0.0 15 octets received\r\n");
+        assertThat(smtpProtocol.getReply()).isEqualTo(250);
+        smtpProtocol.quit();
+        smtpProtocol.disconnect();
+
+        assertThat(queue.getLastMail().getMessage().getContent()).isEqualTo("Body\r\n");
+    }
+
+    @Test
+    public void bdatLinesWithinDataShouldBePartOfTheMessage() throws Exception {
+        init(smtpConfiguration);
+
+        SMTPClient smtpProtocol = newSMTPClient();
+        smtpProtocol.sendCommand("EHLO " + InetAddress.getLocalHost());
+        smtpProtocol.setSender("mail@localhost");
+        smtpProtocol.addRecipient("mail@localhost");
+        assertThat(smtpProtocol.sendCommand("DATA")).isEqualTo(354);
+        smtpProtocol.sendCommand("Subject: test\r\n\r\nBDAT 1\r\n.");
+
+        assertThat(smtpProtocol.getReplyCode()).isEqualTo(250);
+        assertThat(smtpProtocol.sendCommand("NOOP")).isEqualTo(250);
+        smtpProtocol.quit();
+        smtpProtocol.disconnect();
+
+        assertThat(queue.getLastMail().getMessage().getContent()).isEqualTo("BDAT 1\r\n");
+    }
+
     @Test
     public void testStartTLSInEHLO() throws Exception {
         smtpConfiguration.setStartTLS();
@@ -530,10 +702,10 @@ public class SMTPServerTest {
 
         assertThat(capabilitieslist)
             .as("capabilities")
-            .hasSize(4);
+            .hasSize(5);
         assertThat(capabilitieslist)
-            .as("capabilities present PIPELINING ENHANCEDSTATUSCODES 8BITMIME STARTTLS")
-            .containsOnly("PIPELINING", "ENHANCEDSTATUSCODES", "8BITMIME", "STARTTLS");
+            .as("capabilities present PIPELINING ENHANCEDSTATUSCODES 8BITMIME CHUNKING STARTTLS")
+            .containsOnly("PIPELINING", "ENHANCEDSTATUSCODES", "8BITMIME", "CHUNKING", "STARTTLS");
 
         smtpProtocol.quit();
         smtpProtocol.disconnect();
@@ -1800,6 +1972,31 @@ public class SMTPServerTest {
             .isNull();
     }
 
+    @Test
+    public void testDNSRBLRejectWorksWithConcurrentLookups() throws Exception {
+        smtpConfiguration.setAuthorizedAddresses("192.168.0.1/32");
+        smtpConfiguration.useRBL(true);
+        smtpConfiguration.useConcurrentRBLLookups();
+        init(smtpConfiguration);
+
+        dnsServer.setLocalhostByName(InetAddress.getByName("127.0.0.1"));
+
+        SMTPClient smtpProtocol = new SMTPClient();
+        InetSocketAddress bindedAddress = new ProtocolServerUtils(smtpServer).retrieveBindedAddress();
+        smtpProtocol.connect(bindedAddress.getAddress().getHostAddress(), bindedAddress.getPort());
+
+        smtpProtocol.sendCommand("ehlo", InetAddress.getLocalHost().toString());
+
+        smtpProtocol.setSender(USER_LOCALHOST);
+
+        smtpProtocol.addRecipient("mail@sample.com");
+        assertThat(smtpProtocol.getReplyCode())
+            .as("reject")
+            .isEqualTo(554);
+
+        smtpProtocol.quit();
+    }
+
     @Test
     public void testAddressBracketsEnforcementDisabled() throws Exception {
         smtpConfiguration.setAddressBracketsEnforcement(false);
@@ -43,6 +43,7 @@ public class SMTPTestConfiguration extends BaseHierarchicalConfiguration {
     private boolean reverseEqualsEhlo = false;
     private int maxRcpt = 0;
     private boolean useRBL = false;
+    private boolean concurrentRBLLookups = false;
     private boolean addressBracketsEnforcement = true;
     private boolean startTLS = false;
 
@@ -100,6 +101,10 @@ public class SMTPTestConfiguration extends BaseHierarchicalConfiguration {
         this.useRBL = useRBL;
     }
 
+    public void useConcurrentRBLLookups() {
+        this.concurrentRBLLookups = true;
+    }
+
     public void setAddressBracketsEnforcement(boolean addressBracketsEnforcement) {
         this.addressBracketsEnforcement = addressBracketsEnforcement;
     }
@@ -143,6 +148,7 @@ public class SMTPTestConfiguration extends BaseHierarchicalConfiguration {
 
             addProperty("handlerchain.handler.[@class]", DNSRBLHandler.class.getName());
             addProperty("handlerchain.handler.rblservers.blacklist", "bl.spamcop.net.");
+            addProperty("handlerchain.handler.concurrentLookups", concurrentRBLLookups);
         }
         if (heloResolv || ehloResolv) {
             addProperty("handlerchain.handler.[@class]", ResolvableEhloHeloHandler.class.getName());
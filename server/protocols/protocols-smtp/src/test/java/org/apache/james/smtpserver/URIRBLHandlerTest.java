@@ -23,6 +23,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -38,16 +39,19 @@ import org.apache.james.core.MaybeSender;
 import org.apache.james.core.builder.MimeMessageBuilder;
 import org.apache.james.dnsservice.api.DNSService;
 import org.apache.james.dnsservice.api.mock.MockDNSService;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
 import org.apache.james.protocols.smtp.SMTPSession;
 import org.apache.james.protocols.smtp.hook.HookResult;
 import org.apache.james.protocols.smtp.hook.HookReturnCode;
 import org.apache.james.protocols.smtp.utils.BaseFakeSMTPSession;
+import org.apache.james.smtpserver.fastfail.ConcurrentRBLLookup;
 import org.apache.james.smtpserver.fastfail.URIRBLHandler;
 import org.apache.mailet.Mail;
 import org.apache.mailet.base.test.FakeMail;
 import org.junit.jupiter.api.Test;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 
 class URIRBLHandlerTest {
 
@@ -228,6 +232,42 @@ class URIRBLHandlerTest {
         assertThat(HookReturnCode.deny()).describedAs("Email was rejected").isEqualTo(response.getResult());
     }
 
+    @Test
+    void concurrentLookupsShouldNotBlockUnlistedDomains() throws Exception {
+        SMTPSession session = setupMockedSMTPSession(setupMockedMail(setupMockedMimeMessage(
+                "http://" + GOOD_DOMAIN + "/")));
+
+        URIRBLHandler handler = new URIRBLHandler();
+
+        handler.setDNSService(setupMockedDnsServer());
+        handler.setUriRblServer(ImmutableList.of(URISERVER));
+        handler.setConcurrentLookup(concurrentLookup());
+        HookResult response = handler.onMessage(session, mockedMail);
+
+        assertThat(response.getResult()).isEqualTo(HookReturnCode.declined());
+    }
+
+    @Test
+    void concurrentLookupsShouldBlockListedDomains() throws Exception {
+        SMTPSession session = setupMockedSMTPSession(setupMockedMail(setupMockedMimeMessageMP(
+                "http://" + GOOD_DOMAIN + "/" + " " + "http://" + BAD_DOMAIN1 + "/")));
+
+        URIRBLHandler handler = new URIRBLHandler();
+
+        handler.setDNSService(setupMockedDnsServer());
+        handler.setUriRblServer(ImmutableList.of(URISERVER));
+        handler.setConcurrentLookup(concurrentLookup());
+        HookResult response = handler.onMessage(session, mockedMail);
+
+        assertThat(response.getResult()).isEqualTo(HookReturnCode.deny());
+        assertThat(response.getSmtpDescription()).contains(BAD_DOMAIN1.substring(4));
+    }
+
+    private ConcurrentRBLLookup concurrentLookup() {
+        return new ConcurrentRBLLookup(setupMockedDnsServer(), new RecordingMetricFactory(), "SMTP-URIRBL",
+            Duration.ofSeconds(1), 100, Duration.ofMinutes(1), ConcurrentRBLLookup.DEFAULT_MAX_CONCURRENT_LOOKUPS);
+    }
+
     /*
      * public void testAddJunkScore() throws IOException, MessagingException {
      * 
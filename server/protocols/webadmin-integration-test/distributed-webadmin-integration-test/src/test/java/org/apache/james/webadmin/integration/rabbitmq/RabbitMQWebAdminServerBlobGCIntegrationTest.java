@@ -199,7 +199,7 @@ class RabbitMQWebAdminServerBlobGCIntegrationTest {
             .body("taskId", is(taskId))
             .body("type", is("BlobGCTask"))
             .body("additionalInformation.referenceSourceCount", is(0))
-            .body("additionalInformation.blobCount", is(3))
+            .body("additionalInformation.blobCount", is(0))
             .body("additionalInformation.gcedBlobCount", is(0))
             .body("additionalInformation.errorCount", is(0));
     }
@@ -96,6 +96,9 @@ public class BlobRoutes implements Routes {
 
         int expectedBlobCount = getExpectedBlobCount(request).orElse(EXPECTED_BLOB_COUNT_DEFAULT);
         double associatedProbability = getAssociatedProbability(request).orElse(ASSOCIATED_PROBABILITY_DEFAULT);
+        BlobGCTask.RunningOptions runningOptions = new BlobGCTask.RunningOptions(
+            getStrictlyPositiveInt(request, "deletionParallelism").orElse(BlobGCTask.RunningOptions.DEFAULT_DELETION_PARALLELISM),
+            getStrictlyPositiveInt(request, "deletionsPerSecond"));
 
         return BlobGCTask.builder()
             .blobStoreDAO(blobStoreDAO)
@@ -105,7 +108,22 @@ public class BlobRoutes implements Routes {
             .bucketName(bucketName)
             .clock(clock)
             .expectedBlobCount(expectedBlobCount)
-            .associatedProbability(associatedProbability);
+            .associatedProbability(associatedProbability)
+            .runningOptions(runningOptions);
+    }
+
+    private static Optional<Integer> getStrictlyPositiveInt(Request req, String parameterName) {
+        try {
+            return Optional.ofNullable(req.queryParams(parameterName))
+                .map(Integer::parseInt)
+                .map(value -> {
+                    Preconditions.checkArgument(value > 0,
+                        "'" + parameterName + "' must be strictly positive");
+                    return value;
+                });
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("'" + parameterName + "' must be numeric");
+        }
     }
 
     private static Optional<Integer> getExpectedBlobCount(Request req) {
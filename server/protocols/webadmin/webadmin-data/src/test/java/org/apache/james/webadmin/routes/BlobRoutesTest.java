@@ -279,6 +279,48 @@ class BlobRoutesTest {
         );
     }
 
+    @Test
+    void deleteUnReferencedShouldAcceptRunningOptionsParams() {
+        String taskId = given()
+            .queryParam("scope", "unreferenced")
+            .queryParam("deletionParallelism", 2)
+            .queryParam("deletionsPerSecond", 100)
+            .delete()
+            .jsonPath()
+            .get("taskId");
+
+        given()
+            .basePath(TasksRoutes.BASE)
+        .when()
+            .get(taskId + "/await")
+        .then()
+            .body("status", is("completed"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("runningOptionsParameters")
+    void deleteUnReferencedShouldReturnErrorWhenRunningOptionInvalid(String parameterName, Object value) {
+        given()
+            .queryParam("scope", "unreferenced")
+            .queryParam(parameterName, value)
+            .delete()
+        .then()
+            .statusCode(BAD_REQUEST_400)
+            .contentType(JSON)
+            .body("statusCode", is(BAD_REQUEST_400))
+            .body("type", is("InvalidArgument"))
+            .body("message", is("Invalid arguments supplied in the user request"))
+            .body("details", containsString(parameterName));
+    }
+
+    private static Stream<Arguments> runningOptionsParameters() {
+        return Stream.of("deletionParallelism", "deletionsPerSecond")
+            .flatMap(parameterName -> Stream.of(
+                Arguments.of(parameterName, -1),
+                Arguments.of(parameterName, 0),
+                Arguments.of(parameterName, "invalid")));
+    }
+
     @Test
     void gcTaskShouldRemoveOrphanBlob() {
         BlobId blobId = Mono.from(blobStore.save(DEFAULT_BUCKET, UUID.randomUUID().toString(), BlobStore.StoragePolicy.HIGH_PERFORMANCE)).block();
@@ -322,7 +364,7 @@ class BlobRoutesTest {
         .then()
             .body("status", is("completed"))
             .body("additionalInformation.referenceSourceCount", is(0))
-            .body("additionalInformation.blobCount", is(1))
+            .body("additionalInformation.blobCount", is(0))
             .body("additionalInformation.gcedBlobCount", is(0))
             .body("additionalInformation.errorCount", is(0));
 
@@ -334,6 +376,7 @@ class BlobRoutesTest {
     void gcTaskShouldNotRemoveReferencedBlob() {
         BlobId blobId = Mono.from(blobStore.save(DEFAULT_BUCKET, UUID.randomUUID().toString(), BlobStore.StoragePolicy.HIGH_PERFORMANCE)).block();
         when(blobReferenceSource.listReferencedBlobs()).thenReturn(Flux.just(blobId));
+        clock.setInstant(TIMESTAMP.plusMonths(2).toInstant());
 
         String taskId = given()
             .queryParam("scope", "unreferenced")
@@ -385,7 +428,7 @@ class BlobRoutesTest {
         .then()
             .body("status", is("completed"))
             .body("additionalInformation.referenceSourceCount", is(referencedBlobIds.size()))
-            .body("additionalInformation.blobCount", is(referencedBlobIds.size() + orphanBlobIds.size() + unExpiredBlobIds.size()))
+            .body("additionalInformation.blobCount", is(referencedBlobIds.size() + orphanBlobIds.size()))
             .body("additionalInformation.gcedBlobCount", Matchers.lessThanOrEqualTo(orphanBlobIds.size()))
             .body("additionalInformation.errorCount", is(0));
 
@@ -0,0 +1,114 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.webadmin.hdrhistogram;
+
+import static io.restassured.RestAssured.given;
+import static io.restassured.RestAssured.when;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.james.metrics.hdrhistogram.HdrHistogramExports;
+import org.apache.james.metrics.hdrhistogram.HdrHistogramMetricFactory;
+import org.apache.james.webadmin.WebAdminServer;
+import org.apache.james.webadmin.WebAdminUtils;
+import org.eclipse.jetty.http.HttpStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.restassured.RestAssured;
+
+class HdrHistogramMetricsRoutesTest {
+    WebAdminServer webAdminServer;
+    HdrHistogramMetricFactory metricFactory;
+
+    @BeforeEach
+    void setUp() {
+        metricFactory = new HdrHistogramMetricFactory();
+        webAdminServer = WebAdminUtils.createWebAdminServer(new HdrHistogramMetricsRoutes(new HdrHistogramExports(metricFactory)))
+            .start();
+
+        RestAssured.requestSpecification = WebAdminUtils.buildRequestSpecification(webAdminServer)
+            .build();
+        RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
+    }
+
+    @AfterEach
+    void tearDown() {
+        webAdminServer.destroy();
+    }
+
+    @Test
+    void getShouldReturnCounters() {
+        metricFactory.generate("easy").increment();
+        metricFactory.generate("hard").add(2);
+
+        String body = when()
+            .get(HdrHistogramMetricsRoutes.BASE)
+        .then()
+            .statusCode(HttpStatus.OK_200)
+            .extract()
+            .body()
+            .asString();
+
+        assertThat(body)
+            .contains("# TYPE hard gauge\n" +
+                "hard 2.0\n")
+            .contains("# TYPE easy gauge\n" +
+                "easy 1.0\n");
+    }
+
+    @Test
+    void getShouldReturnTimersAsSummaries() {
+        metricFactory.getTimer("timer").record(TimeUnit.MILLISECONDS.toNanos(10));
+
+        String body = when()
+            .get(HdrHistogramMetricsRoutes.BASE)
+        .then()
+            .statusCode(HttpStatus.OK_200)
+            .extract()
+            .body()
+            .asString();
+
+        assertThat(body)
+            .contains("# TYPE timer summary\n")
+            .contains("timer_count 1.0\n");
+    }
+
+    @Test
+    void getShouldFilterByName() {
+        metricFactory.generate("easy").increment();
+        metricFactory.generate("hard").add(2);
+
+        String body = given()
+            .queryParam("name[]", "easy")
+            .get(HdrHistogramMetricsRoutes.BASE)
+        .then()
+            .statusCode(HttpStatus.OK_200)
+            .extract()
+            .body()
+            .asString();
+
+        assertThat(body)
+            .contains("easy 1.0")
+            .doesNotContain("hard");
+    }
+}
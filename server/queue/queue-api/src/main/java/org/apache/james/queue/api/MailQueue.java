@@ -21,14 +21,18 @@ package org.apache.james.queue.api;
 
 import java.io.Closeable;
 import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import javax.mail.MessagingException;
 
+import org.apache.james.util.ReactorUtils;
 import org.apache.mailet.Mail;
 import org.reactivestreams.Publisher;
 import org.threeten.extra.Temporals;
 
+import reactor.core.publisher.Flux;
+
 /**
  * <p>
  * A Queue/Spool for Mails. How the Queue handles the ordering of the dequeuing
@@ -115,6 +119,18 @@ public interface MailQueue extends Closeable {
      */
     Publisher<MailQueueItem> deQueue();
 
+    /**
+     * Dequeue the next ready-to-process Mails of the queue by batches of at most <code>batchSize</code> Mails. A
+     * partial batch is emitted when no additional Mail gets ready within <code>maxBatchDelay</code>.
+     *
+     * Implementations may group the acknowledgements of the items dequeued this way: an item is then acknowledged to
+     * the underlying broker at most <code>maxBatchDelay</code> after {@link MailQueueItem#done(boolean)} was called.
+     */
+    default Publisher<List<MailQueueItem>> deQueueBatch(int batchSize, Duration maxBatchDelay) {
+        return Flux.from(deQueue())
+            .transform(ReactorUtils.bufferTimeout(batchSize, maxBatchDelay, 2 * batchSize));
+    }
+
     /**
      * Exception which will get thrown if any problems occur while working the
      * {@link MailQueue}
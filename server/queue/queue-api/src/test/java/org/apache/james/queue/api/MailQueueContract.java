@@ -479,6 +479,86 @@ public interface MailQueueContract {
         assertThat(item.block(Duration.ofMinutes(1)).getMail().getName()).isEqualTo("name");
     }
 
+    @Test
+    default void deQueueBatchShouldGroupReadyMails() throws Exception {
+        enQueue(defaultMail()
+            .name("name1")
+            .build());
+        enQueue(defaultMail()
+            .name("name2")
+            .build());
+        enQueue(defaultMail()
+            .name("name3")
+            .build());
+
+        Iterator<List<MailQueue.MailQueueItem>> batches = Flux.from(getMailQueue().deQueueBatch(2, Duration.ofSeconds(1)))
+            .subscribeOn(Schedulers.elastic())
+            .toIterable()
+            .iterator();
+        List<MailQueue.MailQueueItem> batch1 = batches.next();
+        batch1.forEach(Throwing.consumer(item -> item.done(true)));
+        List<MailQueue.MailQueueItem> batch2 = batches.next();
+        batch2.forEach(Throwing.consumer(item -> item.done(true)));
+
+        assertThat(Stream.concat(batch1.stream(), batch2.stream()).map(item -> item.getMail().getName()))
+            .containsExactlyInAnyOrder("name1", "name2", "name3");
+        assertThat(batch1).hasSize(2);
+    }
+
+    @Test
+    default void deQueueBatchShouldEmitPartialBatchesAfterDelay() throws Exception {
+        enQueue(defaultMail()
+            .name("name1")
+            .build());
+
+        List<MailQueue.MailQueueItem> batch = Flux.from(getMailQueue().deQueueBatch(10, Duration.ofMillis(500)))
+            .subscribeOn(Schedulers.elastic())
+            .blockFirst(Duration.ofMinutes(1));
+        batch.forEach(Throwing.consumer(item -> item.done(true)));
+
+        assertThat(batch)
+            .extracting(item -> item.getMail().getName())
+            .containsExactly("name1");
+    }
+
+    @Test
+    default void deQueueBatchShouldRedeliverNackedMails() throws Exception {
+        enQueue(defaultMail()
+            .name("name1")
+            .build());
+
+        Iterator<MailQueue.MailQueueItem> items = Flux.from(getMailQueue().deQueueBatch(10, Duration.ofMillis(500)))
+            .flatMapIterable(batch -> batch)
+            .subscribeOn(Schedulers.elastic())
+            .toIterable()
+            .iterator();
+        MailQueue.MailQueueItem item1 = items.next();
+        item1.done(false);
+        MailQueue.MailQueueItem item2 = items.next();
+        item2.done(true);
+
+        assertThat(item2.getMail().getName()).isEqualTo("name1");
+    }
+
+    @Test
+    default void deQueueBatchShouldNotRedeliverAcknowledgedMails() throws Exception {
+        enQueue(defaultMail()
+            .name("name1")
+            .build());
+
+        Iterator<MailQueue.MailQueueItem> items = Flux.from(getMailQueue().deQueueBatch(10, Duration.ofMillis(500)))
+            .flatMapIterable(batch -> batch)
+            .subscribeOn(Schedulers.elastic())
+            .toIterable()
+            .iterator();
+        items.next().done(true);
+        enQueue(defaultMail()
+            .name("name2")
+            .build());
+
+        assertThat(items.next().getMail().getName()).isEqualTo("name2");
+    }
+
     @Test
     default void concurrentEnqueueDequeueShouldNotFail() throws Exception {
         MailQueue testee = getMailQueue();
@@ -0,0 +1,748 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.file;
+
+import static org.apache.james.util.ReactorUtils.DEFAULT_CONCURRENCY;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import javax.mail.MessagingException;
+
+import org.apache.commons.lang3.NotImplementedException;
+import org.apache.james.core.MailAddress;
+import org.apache.james.lifecycle.api.Disposable;
+import org.apache.james.metrics.api.Gauge;
+import org.apache.james.metrics.api.GaugeRegistry;
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.TimeMetric;
+import org.apache.james.queue.api.MailPrioritySupport;
+import org.apache.james.queue.api.MailQueueItemDecoratorFactory;
+import org.apache.james.queue.api.MailQueueName;
+import org.apache.james.queue.api.ManageableMailQueue;
+import org.apache.mailet.AttributeUtils;
+import org.apache.mailet.Mail;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.fge.lambdas.Throwing;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * {@link ManageableMailQueue} persisting mails on the local file system.
+ *
+ * Mails are appended to a {@link SegmentLog} and referenced from a {@link MappedIndex} recording their priority and
+ * next delivery date. Enqueues are acknowledged once both are synced to disk, concurrent enqueues sharing a single
+ * fsync. Acknowledging a dequeued mail only releases its index slot: upon restart, mails being processed are thus
+ * delivered again.
+ *
+ * Segments without any queued mail are deleted. Sealed segments whose queued mails account for at most half of
+ * their size are compacted by copying these mails to the active segment.
+ *
+ * Mails that cannot be read are delivered again after {@link #READ_RETRY_DELAY}. Mails that are read but cannot be
+ * decoded are dropped from the queue once their raw record is saved in the <code>quarantine</code> directory.
+ */
+public class FileCacheableMailQueue implements ManageableMailQueue, MailPrioritySupport, Disposable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileCacheableMailQueue.class);
+
+    public static final long DEFAULT_MAX_SEGMENT_SIZE = 64L * 1024 * 1024;
+    private static final double COMPACTION_THRESHOLD = 0.5;
+    private static final Duration COMPACTION_INTERVAL = Duration.ofMinutes(1);
+    private static final Duration DEQUEUE_POLL_TIMEOUT = Duration.ofSeconds(1);
+    @VisibleForTesting
+    static final Duration READ_RETRY_DELAY = Duration.ofSeconds(10);
+    private static final String SEGMENTS_DIRECTORY = "segments";
+    private static final String INDEX_FILE = "index";
+    @VisibleForTesting
+    static final String QUARANTINE_DIRECTORY = "quarantine";
+
+    private static class Entry {
+        private final int slot;
+        private final long sequence;
+        private final int priority;
+        private long nextDeliveryMillis;
+        private SegmentLog.Location location;
+
+        private Entry(int slot, long sequence, int priority, long nextDeliveryMillis, SegmentLog.Location location) {
+            this.slot = slot;
+            this.sequence = sequence;
+            this.priority = priority;
+            this.nextDeliveryMillis = nextDeliveryMillis;
+            this.location = location;
+        }
+
+        private MappedIndex.Record asRecord() {
+            return new MappedIndex.Record(slot, sequence, priority, nextDeliveryMillis, location);
+        }
+    }
+
+    public static class FileMailQueueItem implements MailQueueItem {
+        private final Mail mail;
+        private final FileCacheableMailQueue queue;
+        private final Entry entry;
+
+        private FileMailQueueItem(Mail mail, FileCacheableMailQueue queue, Entry entry) {
+            this.mail = mail;
+            this.queue = queue;
+            this.entry = entry;
+        }
+
+        @Override
+        public Mail getMail() {
+            return mail;
+        }
+
+        @Override
+        public void done(boolean success) {
+            if (success) {
+                queue.acknowledge(entry);
+            } else {
+                queue.negativeAcknowledge(entry);
+            }
+        }
+    }
+
+    private static final Comparator<Entry> DEQUEUE_ORDER = Comparator.<Entry>comparingInt(entry -> entry.priority).reversed()
+        .thenComparingLong(entry -> entry.sequence);
+    private static final Comparator<Entry> DELIVERY_ORDER = Comparator.<Entry>comparingLong(entry -> entry.nextDeliveryMillis)
+        .thenComparing(DEQUEUE_ORDER);
+
+    private final MailQueueName name;
+    private final Path quarantineDirectory;
+    private final SegmentLog segments;
+    private final MappedIndex index;
+    private final MailQueueItemDecoratorFactory mailQueueItemDecoratorFactory;
+    private final MetricFactory metricFactory;
+    private final Metric enqueuedMailsMetric;
+    private final Metric dequeuedMailsMetric;
+    private final Clock clock;
+
+    private final ReentrantLock lock;
+    private final Condition readyCondition;
+    private final PriorityQueue<Entry> ready;
+    private final PriorityQueue<Entry> delayed;
+    private final Set<Entry> inFlight;
+    private final Map<Long, Set<Entry>> entriesBySegment;
+    private final Set<Long> compactingSegments;
+    private long nextSequence;
+
+    private final Object syncLock;
+    private final AtomicLong writeTicket;
+    private volatile long syncedTicket;
+
+    private final AtomicBoolean closed;
+    private final Scheduler compactionScheduler;
+    private final Flux<MailQueueItem> flux;
+
+    public FileCacheableMailQueue(MailQueueName name, Path directory, MailQueueItemDecoratorFactory mailQueueItemDecoratorFactory,
+                                  MetricFactory metricFactory, GaugeRegistry gaugeRegistry) throws IOException {
+        this(name, directory, DEFAULT_MAX_SEGMENT_SIZE, mailQueueItemDecoratorFactory, metricFactory, gaugeRegistry, Clock.systemUTC());
+    }
+
+    @VisibleForTesting
+    FileCacheableMailQueue(MailQueueName name, Path directory, long maxSegmentSize, MailQueueItemDecoratorFactory mailQueueItemDecoratorFactory,
+                           MetricFactory metricFactory, GaugeRegistry gaugeRegistry, Clock clock) throws IOException {
+        this.name = name;
+        this.quarantineDirectory = directory.resolve(QUARANTINE_DIRECTORY);
+        this.mailQueueItemDecoratorFactory = mailQueueItemDecoratorFactory;
+        this.metricFactory = metricFactory;
+        this.enqueuedMailsMetric = metricFactory.generate(ENQUEUED_METRIC_NAME_PREFIX + name.asString());
+        this.dequeuedMailsMetric = metricFactory.generate(DEQUEUED_METRIC_NAME_PREFIX + name.asString());
+        this.clock = clock;
+
+        this.lock = new ReentrantLock();
+        this.readyCondition = lock.newCondition();
+        this.ready = new PriorityQueue<>(DEQUEUE_ORDER);
+        this.delayed = new PriorityQueue<>(DELIVERY_ORDER);
+        this.inFlight = Collections.newSetFromMap(new IdentityHashMap<>());
+        this.entriesBySegment = new HashMap<>();
+        this.compactingSegments = new HashSet<>();
+        this.syncLock = new Object();
+        this.writeTicket = new AtomicLong();
+        this.closed = new AtomicBoolean(false);
+
+        this.segments = SegmentLog.open(directory.resolve(SEGMENTS_DIRECTORY), maxSegmentSize);
+        this.index = MappedIndex.open(directory.resolve(INDEX_FILE));
+        lock.lock();
+        try {
+            recover();
+        } finally {
+            lock.unlock();
+        }
+
+        gaugeRegistry.register(QUEUE_SIZE_METRIC_NAME_PREFIX + name.asString(), queueSizeGauge());
+
+        this.compactionScheduler = Schedulers.newSingle("file-mail-queue-compaction-" + name.asString());
+        compactionScheduler.schedulePeriodically(this::compactQuietly,
+            COMPACTION_INTERVAL.toMillis(), COMPACTION_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+
+        this.flux = Mono.fromCallable(this::take)
+            .repeat(() -> !closed.get())
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(this::readItem, DEFAULT_CONCURRENCY)
+            .map(item -> mailQueueItemDecoratorFactory.decorate(item, name));
+    }
+
+    private void recover() throws IOException {
+        long now = clock.millis();
+        for (MappedIndex.Record record : index.load()) {
+            if (segments.contains(record.getLocation())) {
+                Entry entry = new Entry(record.getSlot(), record.getSequence(), record.getPriority(),
+                    record.getNextDeliveryMillis(), record.getLocation());
+                track(entry);
+                schedule(entry, now);
+                nextSequence = Math.max(nextSequence, entry.sequence + 1);
+            } else {
+                // The segment was deleted after this mail was acknowledged, but before the index reached the disk
+                index.free(record.getSlot());
+            }
+        }
+        for (long segmentId : segments.sealedSegmentIds()) {
+            deleteSegmentIfUnused(segmentId);
+        }
+        LOGGER.info("Recovered {} mails in mail queue {}", ready.size() + delayed.size(), name.asString());
+    }
+
+    @Override
+    public MailQueueName getName() {
+        return name;
+    }
+
+    @Override
+    public void enQueue(Mail mail, Duration delay) throws MailQueueException {
+        TimeMetric timeMetric = metricFactory.timer(ENQUEUED_TIMER_METRIC_NAME_PREFIX + name.asString());
+        try {
+            byte[] record = MailCodec.encode(mail);
+            append(record, priority(mail), computeNextDeliveryMillis(delay));
+            enqueuedMailsMetric.increment();
+        } catch (IOException | MessagingException e) {
+            throw new MailQueueException("Unable to enqueue mail " + mail.getName(), e);
+        } finally {
+            timeMetric.stopAndPublish();
+        }
+    }
+
+    @Override
+    public void enQueue(Mail mail) throws MailQueueException {
+        enQueue(mail, Duration.ZERO);
+    }
+
+    @Override
+    public Publisher<Void> enqueueReactive(Mail mail) {
+        return Mono.fromRunnable(Throwing.runnable(() -> enQueue(mail)).sneakyThrow())
+            .subscribeOn(Schedulers.boundedElastic())
+            .then();
+    }
+
+    private void append(byte[] record, int priority, long nextDeliveryMillis) throws IOException {
+        Entry entry;
+        long ticket;
+        lock.lock();
+        try {
+            checkOpen();
+            SegmentLog.Location location = segments.append(record);
+            entry = new Entry(index.allocate(), nextSequence++, priority, nextDeliveryMillis, location);
+            index.write(entry.asRecord());
+            track(entry);
+            ticket = writeTicket.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            sync(ticket);
+        } catch (IOException e) {
+            lock.lock();
+            try {
+                release(entry);
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+
+        lock.lock();
+        try {
+            schedule(entry, clock.millis());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Group commit: a single fsync covers all the writes performed before it started.
+     */
+    private void sync(long ticket) throws IOException {
+        if (syncedTicket >= ticket) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (syncedTicket >= ticket) {
+                return;
+            }
+            long target = writeTicket.get();
+            segments.force();
+            index.force();
+            syncedTicket = target;
+        }
+    }
+
+    private int priority(Mail mail) {
+        int priority = AttributeUtils.getValueAndCastFromMail(mail, MAIL_PRIORITY, Integer.class)
+            .orElse(NORMAL_PRIORITY);
+        return Math.max(LOW_PRIORITY, Math.min(HIGH_PRIORITY, priority));
+    }
+
+    private long computeNextDeliveryMillis(Duration delay) {
+        long now = clock.millis();
+        if (delay.isNegative()) {
+            return now;
+        }
+        try {
+            return Math.addExact(now, delay.toMillis());
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    @Override
+    public Flux<MailQueueItem> deQueue() {
+        return flux;
+    }
+
+    /**
+     * @return the next ready entry, or null if none got ready within {@link #DEQUEUE_POLL_TIMEOUT}
+     */
+    private Entry take() throws InterruptedException {
+        lock.lock();
+        try {
+            long deadline = clock.millis() + DEQUEUE_POLL_TIMEOUT.toMillis();
+            while (!closed.get()) {
+                long now = clock.millis();
+                promoteDelayed(now);
+                Entry entry = ready.poll();
+                if (entry != null) {
+                    inFlight.add(entry);
+                    dequeuedMailsMetric.increment();
+                    return entry;
+                }
+                long waitMillis = Optional.ofNullable(delayed.peek())
+                    .map(next -> Math.min(deadline, next.nextDeliveryMillis))
+                    .orElse(deadline) - now;
+                if (now >= deadline) {
+                    return null;
+                }
+                readyCondition.await(Math.max(1, waitMillis), TimeUnit.MILLISECONDS);
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void promoteDelayed(long now) {
+        while (!delayed.isEmpty() && delayed.peek().nextDeliveryMillis <= now) {
+            ready.add(delayed.poll());
+        }
+    }
+
+    private Mono<MailQueueItem> readItem(Entry entry) {
+        return Mono.fromCallable(() -> readOrQuarantine(entry))
+            .flatMap(Mono::justOrEmpty)
+            .onErrorResume(e -> {
+                LOGGER.error("Unable to read mail at {} in mail queue {}, delivering it again in {}",
+                    entry.location, name.asString(), READ_RETRY_DELAY, e);
+                retryLater(entry);
+                return Mono.empty();
+            });
+    }
+
+    private Optional<MailQueueItem> readOrQuarantine(Entry entry) throws IOException {
+        ByteBuffer record = segments.read(entry.location);
+        try {
+            return Optional.of(new FileMailQueueItem(MailCodec.decode(record), this, entry));
+        } catch (MailCodec.DecodingException e) {
+            Path quarantined = quarantine(entry, record);
+            LOGGER.error("Unable to decode mail at {} in mail queue {}, its raw record was moved to {}",
+                entry.location, name.asString(), quarantined, e);
+            acknowledge(entry);
+            return Optional.empty();
+        }
+    }
+
+    private Path quarantine(Entry entry, ByteBuffer record) throws IOException {
+        Files.createDirectories(quarantineDirectory);
+        Path path = quarantineDirectory.resolve(clock.millis() + "-" + entry.sequence);
+        Files.write(path, record.array(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.DSYNC);
+        return path;
+    }
+
+    private void acknowledge(Entry entry) {
+        lock.lock();
+        try {
+            if (inFlight.remove(entry)) {
+                release(entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void negativeAcknowledge(Entry entry) {
+        lock.lock();
+        try {
+            if (inFlight.remove(entry)) {
+                schedule(entry, clock.millis());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void retryLater(Entry entry) {
+        lock.lock();
+        try {
+            if (inFlight.remove(entry)) {
+                long now = clock.millis();
+                entry.nextDeliveryMillis = Math.max(entry.nextDeliveryMillis, now + READ_RETRY_DELAY.toMillis());
+                index.updateNextDelivery(entry.slot, entry.nextDeliveryMillis);
+                schedule(entry, now);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void schedule(Entry entry, long now) {
+        if (entry.nextDeliveryMillis <= now) {
+            ready.add(entry);
+        } else {
+            delayed.add(entry);
+        }
+        readyCondition.signalAll();
+    }
+
+    private void track(Entry entry) {
+        entriesBySegment.computeIfAbsent(entry.location.getSegmentId(), any -> Collections.newSetFromMap(new IdentityHashMap<>()))
+            .add(entry);
+    }
+
+    private void untrack(Entry entry) {
+        long segmentId = entry.location.getSegmentId();
+        Set<Entry> entries = entriesBySegment.get(segmentId);
+        if (entries != null) {
+            entries.remove(entry);
+            if (entries.isEmpty()) {
+                entriesBySegment.remove(segmentId);
+            }
+        }
+    }
+
+    private void release(Entry entry) {
+        index.free(entry.slot);
+        untrack(entry);
+        try {
+            deleteSegmentIfUnused(entry.location.getSegmentId());
+        } catch (IOException e) {
+            LOGGER.warn("Could not delete unused segment {} of mail queue {}", entry.location.getSegmentId(), name.asString(), e);
+        }
+    }
+
+    private void deleteSegmentIfUnused(long segmentId) throws IOException {
+        if (segmentId != segments.getActiveSegmentId()
+                && !entriesBySegment.containsKey(segmentId)
+                && !compactingSegments.contains(segmentId)) {
+            segments.delete(segmentId);
+        }
+    }
+
+    @Override
+    public long getSize() {
+        lock.lock();
+        try {
+            return ready.size() + delayed.size() + inFlight.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long flush() {
+        lock.lock();
+        try {
+            long now = clock.millis();
+            int count = delayed.size();
+            delayed.forEach(entry -> {
+                entry.nextDeliveryMillis = now;
+                index.updateNextDelivery(entry.slot, now);
+                ready.add(entry);
+            });
+            delayed.clear();
+            readyCondition.signalAll();
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long clear() {
+        return removeMatching(any -> true);
+    }
+
+    @Override
+    public long remove(Type type, String value) {
+        return removeMatching(entry -> {
+            try {
+                return shouldRemove(MailCodec.readEnvelope(segments, entry.location), type, value);
+            } catch (IOException e) {
+                LOGGER.warn("Could not read mail at {} in mail queue {}", entry.location, name.asString(), e);
+                return false;
+            }
+        });
+    }
+
+    private boolean shouldRemove(Mail mail, Type type, String value) {
+        switch (type) {
+            case Name:
+                return mail.getName().equals(value);
+            case Recipient:
+                return mail.getRecipients().stream()
+                    .map(MailAddress::asString)
+                    .anyMatch(value::equals);
+            case Sender:
+                return mail.getMaybeSender()
+                    .asString()
+                    .equals(value);
+            default:
+                throw new NotImplementedException("Unknown type " + type);
+        }
+    }
+
+    private long removeMatching(Predicate<Entry> condition) {
+        lock.lock();
+        try {
+            ImmutableList<Entry> removed = Stream.concat(ready.stream(), delayed.stream())
+                .filter(condition)
+                .collect(ImmutableList.toImmutableList());
+            Set<Entry> removedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+            removedSet.addAll(removed);
+            ready.removeIf(removedSet::contains);
+            delayed.removeIf(removedSet::contains);
+            removed.forEach(this::release);
+            return removed.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public MailQueueIterator browse() {
+        ImmutableList<MappedIndex.Record> snapshot;
+        lock.lock();
+        try {
+            snapshot = Stream.concat(ready.stream(), delayed.stream())
+                .sorted(DEQUEUE_ORDER)
+                .map(Entry::asRecord)
+                .collect(ImmutableList.toImmutableList());
+        } finally {
+            lock.unlock();
+        }
+
+        Iterator<MailQueueItemView> underlying = snapshot.stream()
+            .flatMap(this::browseRecord)
+            .iterator();
+
+        return new MailQueueIterator() {
+            @Override
+            public void close() {
+
+            }
+
+            @Override
+            public boolean hasNext() {
+                return underlying.hasNext();
+            }
+
+            @Override
+            public MailQueueItemView next() {
+                return underlying.next();
+            }
+        };
+    }
+
+    private Stream<MailQueueItemView> browseRecord(MappedIndex.Record record) {
+        try {
+            Mail mail = MailCodec.decode(segments.read(record.getLocation()));
+            return Stream.of(new DefaultMailQueueItemView(mail,
+                Instant.ofEpochMilli(record.getNextDeliveryMillis()).atZone(ZoneOffset.UTC)));
+        } catch (IOException e) {
+            // The mail was likely dequeued or removed, and its segment deleted, while browsing
+            LOGGER.debug("Could not read mail at {} in mail queue {}", record.getLocation(), name.asString(), e);
+            return Stream.empty();
+        }
+    }
+
+    /**
+     * Deletes unused sealed segments, and rewrites the queued mails of sparse sealed segments into the active segment.
+     */
+    @VisibleForTesting
+    void compact() throws IOException {
+        for (long segmentId : segments.sealedSegmentIds()) {
+            ImmutableList<Entry> toMove = entriesToMove(segmentId);
+            if (toMove.isEmpty()) {
+                continue;
+            }
+            for (Entry entry : toMove) {
+                move(entry, segmentId);
+            }
+            sync(writeTicket.incrementAndGet());
+
+            lock.lock();
+            try {
+                compactingSegments.remove(segmentId);
+                deleteSegmentIfUnused(segmentId);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private ImmutableList<Entry> entriesToMove(long segmentId) throws IOException {
+        lock.lock();
+        try {
+            Set<Entry> entries = entriesBySegment.get(segmentId);
+            if (entries == null) {
+                deleteSegmentIfUnused(segmentId);
+                return ImmutableList.of();
+            }
+            long liveBytes = entries.stream().mapToLong(entry -> entry.location.getLength()).sum();
+            boolean sparse = liveBytes <= segments.size(segmentId) * COMPACTION_THRESHOLD;
+            // Mails being processed keep on referencing their original location
+            boolean processing = entries.stream().anyMatch(inFlight::contains);
+            if (!sparse || processing) {
+                return ImmutableList.of();
+            }
+            compactingSegments.add(segmentId);
+            return ImmutableList.copyOf(entries);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void move(Entry entry, long segmentId) throws IOException {
+        lock.lock();
+        try {
+            Set<Entry> entries = entriesBySegment.get(segmentId);
+            if (entries == null || !entries.contains(entry) || inFlight.contains(entry)) {
+                return;
+            }
+            SegmentLog.Location newLocation = segments.append(segments.read(entry.location).array());
+            untrack(entry);
+            entry.location = newLocation;
+            index.updateLocation(entry.slot, newLocation);
+            track(entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (Exception e) {
+            LOGGER.error("Error while compacting mail queue {}", name.asString(), e);
+        }
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed.get()) {
+            throw new IOException("Mail queue " + name.asString() + " is closed");
+        }
+    }
+
+    private Gauge<Long> queueSizeGauge() {
+        return this::getSize;
+    }
+
+    /**
+     * To allow re-use of the queue (it is cacheable), close() does nothing. Use {@link #dispose()} to release resources.
+     */
+    @Override
+    public void close() {
+
+    }
+
+    @Override
+    public void dispose() {
+        if (closed.getAndSet(true)) {
+            return;
+        }
+        compactionScheduler.dispose();
+        lock.lock();
+        try {
+            readyCondition.signalAll();
+            segments.close();
+            index.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "MailQueue:" + name.asString();
+    }
+}
@@ -0,0 +1,129 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.file;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.apache.james.filesystem.api.FileSystem;
+import org.apache.james.metrics.api.GaugeRegistry;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.queue.api.MailQueueFactory;
+import org.apache.james.queue.api.MailQueueItemDecoratorFactory;
+import org.apache.james.queue.api.MailQueueName;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * {@link MailQueueFactory} storing each {@link FileCacheableMailQueue} in its own directory below a base directory.
+ */
+public class FileMailQueueFactory implements MailQueueFactory<FileCacheableMailQueue> {
+    private static final String QUEUE_DIRECTORY = FileSystem.FILE_PROTOCOL_AND_VAR + "store/queue";
+    private static final Base64.Encoder NAME_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder NAME_DECODER = Base64.getUrlDecoder();
+
+    private final ConcurrentHashMap<MailQueueName, FileCacheableMailQueue> mailQueues;
+    private final Path baseDirectory;
+    private final MailQueueItemDecoratorFactory mailQueueItemDecoratorFactory;
+    private final MetricFactory metricFactory;
+    private final GaugeRegistry gaugeRegistry;
+
+    @Inject
+    public FileMailQueueFactory(FileSystem fileSystem, MailQueueItemDecoratorFactory mailQueueItemDecoratorFactory,
+                                MetricFactory metricFactory, GaugeRegistry gaugeRegistry) throws FileNotFoundException {
+        this(fileSystem.getFile(QUEUE_DIRECTORY).toPath(), mailQueueItemDecoratorFactory, metricFactory, gaugeRegistry);
+    }
+
+    public FileMailQueueFactory(Path baseDirectory, MailQueueItemDecoratorFactory mailQueueItemDecoratorFactory,
+                                MetricFactory metricFactory, GaugeRegistry gaugeRegistry) {
+        this.mailQueues = new ConcurrentHashMap<>();
+        this.baseDirectory = baseDirectory;
+        this.mailQueueItemDecoratorFactory = mailQueueItemDecoratorFactory;
+        this.metricFactory = metricFactory;
+        this.gaugeRegistry = gaugeRegistry;
+    }
+
+    @Override
+    public Set<MailQueueName> listCreatedMailQueues() {
+        return Stream.concat(mailQueues.keySet().stream(), storedMailQueues())
+            .collect(ImmutableSet.toImmutableSet());
+    }
+
+    private Stream<MailQueueName> storedMailQueues() {
+        if (!Files.isDirectory(baseDirectory)) {
+            return Stream.empty();
+        }
+        try (Stream<Path> directories = Files.list(baseDirectory)) {
+            return directories.filter(Files::isDirectory)
+                .map(this::decodeName)
+                .collect(ImmutableSet.toImmutableSet())
+                .stream();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Optional<FileCacheableMailQueue> getQueue(MailQueueName name, PrefetchCount count) {
+        if (mailQueues.containsKey(name) || Files.isDirectory(queueDirectory(name))) {
+            return Optional.of(createQueue(name, count));
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public FileCacheableMailQueue createQueue(MailQueueName name, PrefetchCount prefetchCount) {
+        return mailQueues.computeIfAbsent(name, this::openQueue);
+    }
+
+    private FileCacheableMailQueue openQueue(MailQueueName name) {
+        try {
+            return new FileCacheableMailQueue(name, queueDirectory(name), mailQueueItemDecoratorFactory, metricFactory, gaugeRegistry);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open mail queue " + name.asString(), e);
+        }
+    }
+
+    private Path queueDirectory(MailQueueName name) {
+        return baseDirectory.resolve(NAME_ENCODER.encodeToString(name.asString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private MailQueueName decodeName(Path path) {
+        return MailQueueName.of(new String(NAME_DECODER.decode(path.getFileName().toString()), StandardCharsets.UTF_8));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        mailQueues.values().forEach(FileCacheableMailQueue::dispose);
+        mailQueues.clear();
+    }
+}
@@ -0,0 +1,136 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.file;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import javax.mail.MessagingException;
+import javax.mail.util.SharedByteArrayInputStream;
+
+import org.apache.james.server.core.MailImpl;
+import org.apache.james.server.core.MimeMessageSource;
+import org.apache.mailet.Mail;
+
+/**
+ * Binary representation of a queued {@link Mail}.
+ *
+ * A record is made of the length of the serialized envelope, the Java serialized {@link MailImpl} (which excludes
+ * the message), followed by the raw MIME message. The envelope can thus be read without the message.
+ */
+class MailCodec {
+    private static final int HEADER_LENGTH_SIZE = Integer.BYTES;
+
+    /**
+     * The record could be read, but does not hold a valid mail.
+     */
+    static class DecodingException extends IOException {
+        DecodingException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    private static class BytesMimeMessageSource implements MimeMessageSource {
+        private final String sourceId;
+        private final SharedByteArrayInputStream content;
+        private final long size;
+
+        private BytesMimeMessageSource(byte[] bytes, int offset, int length) {
+            this.sourceId = UUID.randomUUID().toString();
+            this.content = new SharedByteArrayInputStream(bytes, offset, length);
+            this.size = length;
+        }
+
+        @Override
+        public String getSourceId() {
+            return sourceId;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return content.newStream(0, -1);
+        }
+
+        @Override
+        public long getMessageSize() {
+            return size;
+        }
+    }
+
+    static byte[] encode(Mail mail) throws IOException, MessagingException {
+        MailImpl envelope = MailImpl.duplicateWithoutMessage(mail).build();
+        envelope.setName(mail.getName());
+        envelope.setState(mail.getState());
+        ByteArrayOutputStream envelopeBytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(envelopeBytes)) {
+            objectOutputStream.writeObject(envelope);
+        }
+
+        long messageSize = Math.max(0, mail.getMessageSize());
+        ByteArrayOutputStream record = new ByteArrayOutputStream(Math.toIntExact(HEADER_LENGTH_SIZE + envelopeBytes.size() + messageSize));
+        try (DataOutputStream output = new DataOutputStream(record)) {
+            output.writeInt(envelopeBytes.size());
+            envelopeBytes.writeTo(output);
+            if (mail.getMessage() != null) {
+                mail.getMessage().writeTo(output);
+            }
+        }
+        return record.toByteArray();
+    }
+
+    static Mail decode(ByteBuffer record) throws DecodingException {
+        try {
+            byte[] bytes = record.array();
+            int envelopeLength = record.getInt(0);
+            MailImpl mail = decodeEnvelope(bytes, HEADER_LENGTH_SIZE, envelopeLength);
+            int messageOffset = HEADER_LENGTH_SIZE + envelopeLength;
+            if (bytes.length > messageOffset) {
+                mail.setMessageContent(new BytesMimeMessageSource(bytes, messageOffset, bytes.length - messageOffset));
+            }
+            return mail;
+        } catch (IOException | MessagingException | RuntimeException e) {
+            throw new DecodingException("Could not decode queued mail", e);
+        }
+    }
+
+    /**
+     * Reads the envelope of the mail stored at the given location, without reading its message.
+     */
+    static Mail readEnvelope(SegmentLog segments, SegmentLog.Location location) throws IOException {
+        int envelopeLength = segments.read(location.getSegmentId(), location.getOffset(), HEADER_LENGTH_SIZE).getInt(0);
+        ByteBuffer envelope = segments.read(location.getSegmentId(), location.getOffset() + HEADER_LENGTH_SIZE, envelopeLength);
+        return decodeEnvelope(envelope.array(), 0, envelopeLength);
+    }
+
+    private static MailImpl decodeEnvelope(byte[] bytes, int offset, int length) throws IOException {
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes, offset, length))) {
+            return (MailImpl) input.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Could not deserialize queued mail envelope", e);
+        }
+    }
+}
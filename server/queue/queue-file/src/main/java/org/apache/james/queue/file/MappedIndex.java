@@ -0,0 +1,202 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.file;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Memory mapped index of the mails of a {@link FileCacheableMailQueue}.
+ *
+ * The index is made of fixed size slots, one per queued mail, recording its ordering criteria (priority, enqueue
+ * sequence, next delivery) and the location of its record within the {@link SegmentLog}. Updating the delay of a mail,
+ * or releasing it, is thus a matter of writing a few bytes in place.
+ *
+ * This class is not thread safe, except for {@link #force()}: callers are expected to serialize other accesses.
+ */
+class MappedIndex implements Closeable {
+    static class Record {
+        private final int slot;
+        private final long sequence;
+        private final int priority;
+        private final long nextDeliveryMillis;
+        private final SegmentLog.Location location;
+
+        Record(int slot, long sequence, int priority, long nextDeliveryMillis, SegmentLog.Location location) {
+            this.slot = slot;
+            this.sequence = sequence;
+            this.priority = priority;
+            this.nextDeliveryMillis = nextDeliveryMillis;
+            this.location = location;
+        }
+
+        int getSlot() {
+            return slot;
+        }
+
+        long getSequence() {
+            return sequence;
+        }
+
+        int getPriority() {
+            return priority;
+        }
+
+        long getNextDeliveryMillis() {
+            return nextDeliveryMillis;
+        }
+
+        SegmentLog.Location getLocation() {
+            return location;
+        }
+    }
+
+    static final int SLOT_SIZE = 48;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final byte FREE = 0;
+    private static final byte QUEUED = 1;
+
+    private static final int STATE_OFFSET = 0;
+    private static final int PRIORITY_OFFSET = 4;
+    private static final int SEQUENCE_OFFSET = 8;
+    private static final int NEXT_DELIVERY_OFFSET = 16;
+    private static final int SEGMENT_OFFSET = 24;
+    private static final int RECORD_OFFSET = 32;
+    private static final int RECORD_LENGTH_OFFSET = 40;
+
+    static MappedIndex open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        int capacity = Math.max(INITIAL_CAPACITY, Math.toIntExact(channel.size() / SLOT_SIZE));
+        return new MappedIndex(channel, capacity);
+    }
+
+    private final FileChannel channel;
+    private volatile MappedByteBuffer buffer;
+    private int capacity;
+    private int[] freeSlots;
+    private int freeSlotCount;
+
+    private MappedIndex(FileChannel channel, int capacity) throws IOException {
+        this.channel = channel;
+        this.capacity = capacity;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * SLOT_SIZE);
+        this.freeSlots = new int[capacity];
+        this.freeSlotCount = 0;
+    }
+
+    /**
+     * Reads the queued records and registers the other slots as free. Must be called once, before any allocation.
+     */
+    ImmutableList<Record> load() {
+        ImmutableList.Builder<Record> records = ImmutableList.builder();
+        // Push free slots in reverse order so that lower slots get allocated first
+        for (int slot = capacity - 1; slot >= 0; slot--) {
+            if (buffer.get(position(slot, STATE_OFFSET)) == QUEUED) {
+                records.add(read(slot));
+            } else {
+                pushFreeSlot(slot);
+            }
+        }
+        return records.build().reverse();
+    }
+
+    private Record read(int slot) {
+        return new Record(slot,
+            buffer.getLong(position(slot, SEQUENCE_OFFSET)),
+            buffer.getInt(position(slot, PRIORITY_OFFSET)),
+            buffer.getLong(position(slot, NEXT_DELIVERY_OFFSET)),
+            new SegmentLog.Location(
+                buffer.getLong(position(slot, SEGMENT_OFFSET)),
+                buffer.getLong(position(slot, RECORD_OFFSET)),
+                buffer.getInt(position(slot, RECORD_LENGTH_OFFSET))));
+    }
+
+    int allocate() throws IOException {
+        if (freeSlotCount == 0) {
+            grow();
+        }
+        freeSlotCount--;
+        return freeSlots[freeSlotCount];
+    }
+
+    private void grow() throws IOException {
+        int newCapacity = Math.multiplyExact(capacity, 2);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) newCapacity * SLOT_SIZE);
+        for (int slot = newCapacity - 1; slot >= capacity; slot--) {
+            pushFreeSlot(slot);
+        }
+        capacity = newCapacity;
+    }
+
+    private void pushFreeSlot(int slot) {
+        if (freeSlotCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, Math.max(INITIAL_CAPACITY, freeSlots.length * 2));
+        }
+        freeSlots[freeSlotCount] = slot;
+        freeSlotCount++;
+    }
+
+    void write(Record record) {
+        int slot = record.getSlot();
+        buffer.putInt(position(slot, PRIORITY_OFFSET), record.getPriority());
+        buffer.putLong(position(slot, SEQUENCE_OFFSET), record.getSequence());
+        buffer.putLong(position(slot, NEXT_DELIVERY_OFFSET), record.getNextDeliveryMillis());
+        updateLocation(slot, record.getLocation());
+        // Written last so that a partially written slot is never considered as queued
+        buffer.put(position(slot, STATE_OFFSET), QUEUED);
+    }
+
+    void updateNextDelivery(int slot, long nextDeliveryMillis) {
+        buffer.putLong(position(slot, NEXT_DELIVERY_OFFSET), nextDeliveryMillis);
+    }
+
+    void updateLocation(int slot, SegmentLog.Location location) {
+        buffer.putLong(position(slot, SEGMENT_OFFSET), location.getSegmentId());
+        buffer.putLong(position(slot, RECORD_OFFSET), location.getOffset());
+        buffer.putInt(position(slot, RECORD_LENGTH_OFFSET), location.getLength());
+    }
+
+    void free(int slot) {
+        buffer.put(position(slot, STATE_OFFSET), FREE);
+        pushFreeSlot(slot);
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    private int position(int slot, int fieldOffset) {
+        return slot * SLOT_SIZE + fieldOffset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+}
@@ -0,0 +1,242 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.file;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Append-only segment files holding the serialized mails of a {@link FileCacheableMailQueue}.
+ *
+ * Records are only ever appended to the active segment, which is sealed once it exceeds the maximum segment size.
+ * Sealed segments are deleted as a whole once none of their records are referenced anymore.
+ *
+ * Appends, rollovers and deletions are expected to be serialized by the caller. Reads and {@link #force()} can be
+ * performed concurrently.
+ */
+class SegmentLog implements Closeable {
+    static class Location {
+        private final long segmentId;
+        private final long offset;
+        private final int length;
+
+        Location(long segmentId, long offset, int length) {
+            this.segmentId = segmentId;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        long getSegmentId() {
+            return segmentId;
+        }
+
+        long getOffset() {
+            return offset;
+        }
+
+        int getLength() {
+            return length;
+        }
+
+        @Override
+        public final boolean equals(Object o) {
+            if (o instanceof Location) {
+                Location that = (Location) o;
+
+                return Objects.equals(this.segmentId, that.segmentId)
+                    && Objects.equals(this.offset, that.offset)
+                    && Objects.equals(this.length, that.length);
+            }
+            return false;
+        }
+
+        @Override
+        public final int hashCode() {
+            return Objects.hash(segmentId, offset, length);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                .add("segmentId", segmentId)
+                .add("offset", offset)
+                .add("length", length)
+                .toString();
+        }
+    }
+
+    private static final Pattern SEGMENT_FILE_NAME = Pattern.compile("segment-(\\d+)\\.log");
+
+    static SegmentLog open(Path directory, long maxSegmentSize) throws IOException {
+        Files.createDirectories(directory);
+        ConcurrentMap<Long, FileChannel> sealedSegments = new ConcurrentHashMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.collect(ImmutableList.toImmutableList())) {
+                Optional<Long> segmentId = segmentId(file);
+                if (segmentId.isPresent()) {
+                    sealedSegments.put(segmentId.get(), FileChannel.open(file, StandardOpenOption.READ));
+                }
+            }
+        }
+        // Never append to a pre-existing segment as its tail might hold a partially written record
+        long activeSegmentId = sealedSegments.keySet().stream()
+            .mapToLong(Long::longValue)
+            .max()
+            .orElse(-1L) + 1;
+        return new SegmentLog(directory, maxSegmentSize, sealedSegments, activeSegmentId);
+    }
+
+    private static Optional<Long> segmentId(Path file) {
+        Matcher matcher = SEGMENT_FILE_NAME.matcher(file.getFileName().toString());
+        if (matcher.matches()) {
+            return Optional.of(Long.parseLong(matcher.group(1)));
+        }
+        return Optional.empty();
+    }
+
+    private final Path directory;
+    private final long maxSegmentSize;
+    private final ConcurrentMap<Long, FileChannel> segments;
+    private volatile long activeSegmentId;
+    private volatile FileChannel activeSegment;
+    private long activeSegmentSize;
+
+    private SegmentLog(Path directory, long maxSegmentSize, ConcurrentMap<Long, FileChannel> sealedSegments, long activeSegmentId) throws IOException {
+        this.directory = directory;
+        this.maxSegmentSize = maxSegmentSize;
+        this.segments = sealedSegments;
+        openActiveSegment(activeSegmentId);
+    }
+
+    private void openActiveSegment(long segmentId) throws IOException {
+        FileChannel channel = FileChannel.open(segmentFile(segmentId),
+            StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segments.put(segmentId, channel);
+        this.activeSegmentId = segmentId;
+        this.activeSegment = channel;
+        this.activeSegmentSize = 0;
+    }
+
+    private Path segmentFile(long segmentId) {
+        return directory.resolve("segment-" + segmentId + ".log");
+    }
+
+    Location append(byte[] record) throws IOException {
+        if (activeSegmentSize > 0 && activeSegmentSize + record.length > maxSegmentSize) {
+            rollOver();
+        }
+        long offset = activeSegmentSize;
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        while (buffer.hasRemaining()) {
+            activeSegment.write(buffer, offset + buffer.position());
+        }
+        activeSegmentSize += record.length;
+        return new Location(activeSegmentId, offset, record.length);
+    }
+
+    private void rollOver() throws IOException {
+        // Sealed segments are no longer covered by force(), hence need to be durable before switching
+        activeSegment.force(false);
+        openActiveSegment(activeSegmentId + 1);
+    }
+
+    ByteBuffer read(Location location) throws IOException {
+        return read(location.getSegmentId(), location.getOffset(), location.getLength());
+    }
+
+    ByteBuffer read(long segmentId, long offset, int length) throws IOException {
+        FileChannel channel = segments.get(segmentId);
+        if (channel == null) {
+            throw new IOException("Segment " + segmentId + " does not exist in " + directory);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, offset + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of segment " + segmentId + " in " + directory);
+            }
+        }
+        return buffer.flip();
+    }
+
+    boolean contains(Location location) throws IOException {
+        FileChannel channel = segments.get(location.getSegmentId());
+        return channel != null && location.getOffset() + location.getLength() <= channel.size();
+    }
+
+    long size(long segmentId) throws IOException {
+        if (segmentId == activeSegmentId) {
+            return activeSegmentSize;
+        }
+        FileChannel channel = segments.get(segmentId);
+        if (channel == null) {
+            return 0L;
+        }
+        return channel.size();
+    }
+
+    long getActiveSegmentId() {
+        return activeSegmentId;
+    }
+
+    ImmutableList<Long> sealedSegmentIds() {
+        long activeId = activeSegmentId;
+        return segments.keySet().stream()
+            .filter(segmentId -> segmentId != activeId)
+            .sorted()
+            .collect(ImmutableList.toImmutableList());
+    }
+
+    void delete(long segmentId) throws IOException {
+        FileChannel channel = segments.remove(segmentId);
+        if (channel != null) {
+            channel.close();
+            Files.deleteIfExists(segmentFile(segmentId));
+        }
+    }
+
+    void force() throws IOException {
+        activeSegment.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        activeSegment.force(false);
+        for (FileChannel channel : segments.values()) {
+            channel.close();
+        }
+        segments.clear();
+    }
+}
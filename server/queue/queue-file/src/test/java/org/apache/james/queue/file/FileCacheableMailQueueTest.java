@@ -0,0 +1,259 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.file;
+
+import static org.apache.james.queue.api.Mails.defaultMail;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.james.metrics.api.NoopGaugeRegistry;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.apache.james.queue.api.DelayedManageableMailQueueContract;
+import org.apache.james.queue.api.DelayedPriorityMailQueueContract;
+import org.apache.james.queue.api.MailQueue;
+import org.apache.james.queue.api.MailQueueMetricContract;
+import org.apache.james.queue.api.MailQueueMetricExtension;
+import org.apache.james.queue.api.MailQueueName;
+import org.apache.james.queue.api.ManageableMailQueue;
+import org.apache.james.queue.api.PriorityManageableMailQueueContract;
+import org.apache.james.queue.api.RawMailQueueItemDecoratorFactory;
+import org.apache.james.utils.UpdatableTickingClock;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.fge.lambdas.Throwing;
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+class FileCacheableMailQueueTest implements DelayedManageableMailQueueContract, DelayedPriorityMailQueueContract, PriorityManageableMailQueueContract,
+    MailQueueMetricContract {
+    private static final MailQueueName NAME = MailQueueName.of("spool");
+    private static final long SMALL_SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    FileCacheableMailQueue mailQueue;
+
+    @BeforeEach
+    void setUp(MailQueueMetricExtension.MailQueueMetricTestSystem metricTestSystem) throws Exception {
+        mailQueue = new FileCacheableMailQueue(NAME, directory, new RawMailQueueItemDecoratorFactory(),
+            metricTestSystem.getMetricFactory(), metricTestSystem.getSpyGaugeRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        mailQueue.dispose();
+    }
+
+    @Override
+    public MailQueue getMailQueue() {
+        return mailQueue;
+    }
+
+    @Override
+    public ManageableMailQueue getManageableMailQueue() {
+        return mailQueue;
+    }
+
+    private FileCacheableMailQueue reopen(long maxSegmentSize) throws IOException {
+        mailQueue.dispose();
+        mailQueue = new FileCacheableMailQueue(NAME, directory, maxSegmentSize, new RawMailQueueItemDecoratorFactory(),
+            new RecordingMetricFactory(), new NoopGaugeRegistry(), Clock.systemUTC());
+        return mailQueue;
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> segments = Files.list(directory.resolve("segments"))) {
+            return segments.count();
+        }
+    }
+
+    private Path singleSegment() throws IOException {
+        try (Stream<Path> segments = Files.list(directory.resolve("segments"))) {
+            return segments.collect(ImmutableList.toImmutableList()).get(0);
+        }
+    }
+
+    @Test
+    void enqueuedMailsShouldSurviveRestart() throws Exception {
+        mailQueue.enQueue(defaultMail().name("name1").build());
+        mailQueue.enQueue(defaultMail().name("name2").build());
+
+        FileCacheableMailQueue restarted = reopen(FileCacheableMailQueue.DEFAULT_MAX_SEGMENT_SIZE);
+
+        assertThat(Flux.from(restarted.deQueue()).take(2).map(item -> item.getMail().getName()).collectList().block())
+            .containsExactly("name1", "name2");
+    }
+
+    @Test
+    void unacknowledgedMailsShouldBeRedeliveredAfterRestart() throws Exception {
+        mailQueue.enQueue(defaultMail().name("name1").build());
+        Flux.from(mailQueue.deQueue()).blockFirst();
+
+        FileCacheableMailQueue restarted = reopen(FileCacheableMailQueue.DEFAULT_MAX_SEGMENT_SIZE);
+
+        assertThat(restarted.getSize()).isEqualTo(1);
+    }
+
+    @Test
+    void acknowledgedMailsShouldNotBeRedeliveredAfterRestart() throws Exception {
+        mailQueue.enQueue(defaultMail().name("name1").build());
+        Flux.from(mailQueue.deQueue()).blockFirst().done(true);
+
+        FileCacheableMailQueue restarted = reopen(FileCacheableMailQueue.DEFAULT_MAX_SEGMENT_SIZE);
+
+        assertThat(restarted.getSize()).isZero();
+    }
+
+    @Test
+    void delaysShouldSurviveRestart() throws Exception {
+        mailQueue.enQueue(defaultMail().name("name1").build(), 1, TimeUnit.DAYS);
+
+        FileCacheableMailQueue restarted = reopen(FileCacheableMailQueue.DEFAULT_MAX_SEGMENT_SIZE);
+
+        assertThat(restarted.browse())
+            .toIterable()
+            .extracting(view -> view.getNextDelivery().isPresent())
+            .containsExactly(true);
+        assertThat(Flux.from(restarted.deQueue()).take(Duration.ofSeconds(2)).collectList().block())
+            .isEmpty();
+    }
+
+    @Test
+    void mailsShouldBeRedeliveredWhenTheirSegmentCannotBeRead() throws Exception {
+        UpdatableTickingClock clock = new UpdatableTickingClock(Instant.parse("2026-01-01T00:00:00Z"));
+        RecordingMetricFactory metricFactory = new RecordingMetricFactory();
+        mailQueue.dispose();
+        mailQueue = new FileCacheableMailQueue(NAME, directory, FileCacheableMailQueue.DEFAULT_MAX_SEGMENT_SIZE,
+            new RawMailQueueItemDecoratorFactory(), metricFactory, new NoopGaugeRegistry(), clock);
+        mailQueue.enQueue(defaultMail().name("name1").build());
+        Path segment = singleSegment();
+        byte[] content = Files.readAllBytes(segment);
+        // Truncating the segment makes the read hit its end
+        Files.write(segment, new byte[0], StandardOpenOption.TRUNCATE_EXISTING);
+
+        ConcurrentLinkedQueue<String> dequeued = new ConcurrentLinkedQueue<>();
+        Disposable subscription = Flux.from(mailQueue.deQueue())
+            .subscribe(item -> dequeued.add(item.getMail().getName()));
+        try {
+            Awaitility.await().atMost(Duration.ofSeconds(10))
+                .until(() -> metricFactory.countFor(MailQueue.DEQUEUED_METRIC_NAME_PREFIX + NAME.asString()) == 1);
+            Files.write(segment, content, StandardOpenOption.TRUNCATE_EXISTING);
+            assertThat(dequeued).isEmpty();
+            assertThat(mailQueue.getSize()).isEqualTo(1);
+
+            clock.setInstant(clock.instant().plus(FileCacheableMailQueue.READ_RETRY_DELAY));
+
+            Awaitility.await().atMost(Duration.ofSeconds(10))
+                .untilAsserted(() -> assertThat(dequeued).containsExactly("name1"));
+        } finally {
+            subscription.dispose();
+        }
+    }
+
+    @Test
+    void mailsThatCannotBeDecodedShouldBeQuarantined() throws Exception {
+        mailQueue.enQueue(defaultMail().name("name1").build());
+        try (FileChannel channel = FileChannel.open(singleSegment(), StandardOpenOption.WRITE)) {
+            // Overwrites the header of the serialized envelope
+            channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 0}), Integer.BYTES);
+        }
+
+        Disposable subscription = Flux.from(mailQueue.deQueue()).subscribe();
+        try {
+            Awaitility.await().atMost(Duration.ofSeconds(10))
+                .untilAsserted(() -> assertThat(mailQueue.getSize()).isZero());
+        } finally {
+            subscription.dispose();
+        }
+        try (Stream<Path> quarantined = Files.list(directory.resolve(FileCacheableMailQueue.QUARANTINE_DIRECTORY))) {
+            assertThat(quarantined).hasSize(1);
+        }
+    }
+
+    @Test
+    void acknowledgingAllMailsOfASealedSegmentShouldDeleteIt() throws Exception {
+        FileCacheableMailQueue queue = reopen(SMALL_SEGMENT_SIZE);
+        queue.enQueue(defaultMail().name("name1").build());
+        queue.enQueue(defaultMail().name("name2").build());
+        queue.enQueue(defaultMail().name("name3").build());
+        long segmentsBefore = segmentCount();
+
+        Flux.from(queue.deQueue()).take(3).doOnNext(Throwing.consumer((MailQueue.MailQueueItem item) -> item.done(true)).sneakyThrow()).blockLast();
+
+        assertThat(segmentsBefore).isGreaterThan(1);
+        assertThat(segmentCount()).isEqualTo(1);
+    }
+
+    @Test
+    void compactShouldRewriteSparseSegments() throws Exception {
+        FileCacheableMailQueue queue = reopen(SMALL_SEGMENT_SIZE);
+        for (int i = 0; i < 10; i++) {
+            queue.enQueue(defaultMail().name("name" + i).build());
+        }
+        for (int i = 0; i < 10; i += 2) {
+            queue.remove(ManageableMailQueue.Type.Name, "name" + i);
+        }
+        long segmentsBefore = segmentCount();
+
+        queue.compact();
+
+        assertThat(segmentCount()).isLessThan(segmentsBefore);
+        assertThat(ImmutableList.copyOf(queue.browse()))
+            .extracting(view -> view.getMail().getName())
+            .containsExactly("name1", "name3", "name5", "name7", "name9");
+    }
+
+    @Test
+    void compactedMailsShouldSurviveRestart() throws Exception {
+        FileCacheableMailQueue queue = reopen(SMALL_SEGMENT_SIZE);
+        for (int i = 0; i < 10; i++) {
+            queue.enQueue(defaultMail().name("name" + i).build());
+        }
+        for (int i = 0; i < 10; i += 2) {
+            queue.remove(ManageableMailQueue.Type.Name, "name" + i);
+        }
+        queue.compact();
+
+        FileCacheableMailQueue restarted = reopen(SMALL_SEGMENT_SIZE);
+
+        assertThat(ImmutableList.copyOf(restarted.browse()))
+            .extracting(view -> view.getMail().getName())
+            .containsExactly("name1", "name3", "name5", "name7", "name9");
+    }
+}
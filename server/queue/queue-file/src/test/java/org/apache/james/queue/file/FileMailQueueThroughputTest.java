@@ -0,0 +1,115 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.file;
+
+import static org.apache.james.queue.api.Mails.defaultMail;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.ActiveMQPrefetchPolicy;
+import org.apache.activemq.broker.BrokerService;
+import org.apache.james.junit.categories.Unstable;
+import org.apache.james.metrics.api.NoopGaugeRegistry;
+import org.apache.james.metrics.tests.RecordingMetricFactory;
+import org.apache.james.queue.activemq.ActiveMQCacheableMailQueue;
+import org.apache.james.queue.api.MailQueue;
+import org.apache.james.queue.api.MailQueueName;
+import org.apache.james.queue.api.RawMailQueueItemDecoratorFactory;
+import org.apache.james.queue.jms.BrokerExtension;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.fge.lambdas.Throwing;
+import com.google.common.base.Stopwatch;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Compares enqueue then dequeue throughput of the file mail queue with the ActiveMQ one.
+ *
+ * Timings depend on the underlying hardware, hence this test only reports them and is not run by default.
+ */
+@Tag(Unstable.TAG)
+@ExtendWith(BrokerExtension.class)
+class FileMailQueueThroughputTest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileMailQueueThroughputTest.class);
+    private static final int MAIL_COUNT = 2000;
+    private static final int CONCURRENCY = 16;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void fileMailQueueThroughput() throws Exception {
+        FileCacheableMailQueue mailQueue = new FileCacheableMailQueue(MailQueueName.of("spool"), directory,
+            new RawMailQueueItemDecoratorFactory(), new RecordingMetricFactory(), new NoopGaugeRegistry());
+        try {
+            measure("file", mailQueue);
+        } finally {
+            mailQueue.dispose();
+        }
+    }
+
+    @Test
+    void activeMQMailQueueThroughput(BrokerService broker) throws Exception {
+        ActiveMQConnectionFactory connectionFactory = new ActiveMQConnectionFactory("vm://localhost?create=false");
+        ActiveMQPrefetchPolicy prefetchPolicy = new ActiveMQPrefetchPolicy();
+        prefetchPolicy.setQueuePrefetch(0);
+        connectionFactory.setPrefetchPolicy(prefetchPolicy);
+        ActiveMQCacheableMailQueue mailQueue = new ActiveMQCacheableMailQueue(connectionFactory, new RawMailQueueItemDecoratorFactory(),
+            BrokerExtension.generateRandomQueueName(broker), false, new RecordingMetricFactory(), new NoopGaugeRegistry());
+        try {
+            measure("activemq", mailQueue);
+        } finally {
+            mailQueue.dispose();
+        }
+    }
+
+    private void measure(String implementation, MailQueue mailQueue) {
+        Stopwatch enqueue = Stopwatch.createStarted();
+        Flux.range(0, MAIL_COUNT)
+            .flatMap(i -> mailQueue.enqueueReactive(Throwing.supplier(() -> defaultMail().name("name" + i).build()).get()), CONCURRENCY)
+            .blockLast();
+        Duration enqueueDuration = enqueue.elapsed();
+
+        Stopwatch dequeue = Stopwatch.createStarted();
+        Long dequeued = Flux.from(mailQueue.deQueue())
+            .take(MAIL_COUNT)
+            .doOnNext(Throwing.consumer((MailQueue.MailQueueItem item) -> item.done(true)).sneakyThrow())
+            .count()
+            .block();
+        Duration dequeueDuration = dequeue.elapsed();
+
+        LOGGER.info("{}: enqueued {} mails/s, dequeued {} mails/s", implementation,
+            throughput(enqueueDuration), throughput(dequeueDuration));
+        assertThat(dequeued).isEqualTo(MAIL_COUNT);
+    }
+
+    private long throughput(Duration duration) {
+        return MAIL_COUNT * 1000L / Math.max(1, duration.toMillis());
+    }
+}
@@ -68,6 +68,7 @@ import org.apache.james.queue.api.MailQueueName;
 import org.apache.james.queue.api.ManageableMailQueue;
 import org.apache.james.server.core.MailImpl;
 import org.apache.james.server.core.MimeMessageWrapper;
+import org.apache.james.util.ReactorUtils;
 import org.apache.mailet.Attribute;
 import org.apache.mailet.AttributeName;
 import org.apache.mailet.AttributeUtils;
@@ -87,6 +88,7 @@ import com.google.common.collect.Iterators;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * <p>
@@ -262,6 +264,18 @@ public class JMSCacheableMailQueue implements ManageableMailQueue, JMSSupport, M
         return Mono.empty();
     }
 
+    /**
+     * Each mail is dequeued within its own transaction, so that a slow mail does not delay the acknowledgement of the
+     * other ones of its batch.
+     */
+    @Override
+    public Flux<List<MailQueueItem>> deQueueBatch(int batchSize, Duration maxBatchDelay) {
+        return Mono.defer(this::deQueueOneItem)
+            .subscribeOn(Schedulers.boundedElastic())
+            .repeat()
+            .transform(ReactorUtils.bufferTimeout(batchSize, maxBatchDelay, 2 * batchSize));
+    }
+
     @Override
     public void enQueue(Mail mail, Duration delay) throws MailQueueException {
         TimeMetric timeMetric = metricFactory.timer(ENQUEUED_TIMER_METRIC_NAME_PREFIX + queueName.asString());
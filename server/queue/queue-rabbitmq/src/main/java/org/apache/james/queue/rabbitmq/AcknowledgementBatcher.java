@@ -0,0 +1,183 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.rabbitmq;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.rabbitmq.AcknowledgableDelivery;
+
+/**
+ * Groups the acknowledgements of the deliveries consumed from a single channel.
+ *
+ * Delivery tags are increasing on a channel, and a single ack with the <code>multiple</code> flag acknowledges all
+ * the deliveries up to its tag. Acknowledged deliveries are thus held, then released once <code>batchSize</code> of
+ * them are held or every <code>maxBatchDelay</code>: the acknowledged deliveries preceding any pending one are
+ * acknowledged at once, the others individually, so that a slow delivery does not hold back the following ones.
+ *
+ * The held deliveries are only accessed, and the channel only acknowledged, from a single dedicated thread: the
+ * processing threads and the flush timer never acknowledge deliveries of the channel concurrently.
+ */
+class AcknowledgementBatcher implements Dequeuer.Acknowledger, Disposable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AcknowledgementBatcher.class);
+
+    private static class Outstanding {
+        private final AcknowledgableDelivery delivery;
+        private boolean acknowledged;
+
+        private Outstanding(AcknowledgableDelivery delivery) {
+            this.delivery = delivery;
+            this.acknowledged = false;
+        }
+    }
+
+    private final int batchSize;
+    private final NavigableMap<Long, Outstanding> outstandings;
+    private final Scheduler scheduler;
+    private final Disposable timer;
+    private int acknowledgedCount;
+
+    AcknowledgementBatcher(int batchSize, Duration maxBatchDelay) {
+        this(batchSize, maxBatchDelay, Schedulers.newSingle("rabbitmq-acknowledgements"));
+    }
+
+    @VisibleForTesting
+    AcknowledgementBatcher(int batchSize, Duration maxBatchDelay, Scheduler scheduler) {
+        this.batchSize = batchSize;
+        this.outstandings = new TreeMap<>();
+        this.acknowledgedCount = 0;
+        this.scheduler = scheduler;
+        this.timer = Flux.interval(maxBatchDelay, scheduler)
+            .subscribe(any -> doFlush());
+    }
+
+    @Override
+    public void register(AcknowledgableDelivery delivery) {
+        scheduler.schedule(() -> outstandings.put(delivery.getEnvelope().getDeliveryTag(), new Outstanding(delivery)));
+    }
+
+    @Override
+    public void ack(AcknowledgableDelivery delivery) {
+        scheduler.schedule(() -> doAck(delivery));
+    }
+
+    @Override
+    public void nack(AcknowledgableDelivery delivery, boolean requeue) {
+        scheduler.schedule(() -> doNack(delivery, requeue));
+    }
+
+    void flush() {
+        scheduler.schedule(this::doFlush);
+    }
+
+    private void doAck(AcknowledgableDelivery delivery) {
+        Outstanding outstanding = outstandings.get(delivery.getEnvelope().getDeliveryTag());
+        if (outstanding == null) {
+            acknowledge(delivery);
+            return;
+        }
+        if (!outstanding.acknowledged) {
+            outstanding.acknowledged = true;
+            acknowledgedCount++;
+        }
+        if (acknowledgedCount >= batchSize) {
+            doFlush();
+        }
+    }
+
+    private void doNack(AcknowledgableDelivery delivery, boolean requeue) {
+        Outstanding outstanding = outstandings.remove(delivery.getEnvelope().getDeliveryTag());
+        if (outstanding != null && outstanding.acknowledged) {
+            acknowledgedCount--;
+        }
+        try {
+            delivery.nack(requeue);
+        } catch (Exception e) {
+            LOGGER.warn("Failed to reject a RabbitMQ delivery, it will be redelivered", e);
+        }
+    }
+
+    private void acknowledge(AcknowledgableDelivery delivery) {
+        try {
+            delivery.ack();
+        } catch (Exception e) {
+            LOGGER.warn("Failed to acknowledge a RabbitMQ delivery, it will be redelivered", e);
+        }
+    }
+
+    private void doFlush() {
+        try {
+            Iterator<Map.Entry<Long, Outstanding>> iterator = outstandings.entrySet().iterator();
+            AcknowledgableDelivery lastOfPrefix = null;
+            while (iterator.hasNext()) {
+                Outstanding outstanding = iterator.next().getValue();
+                if (!outstanding.acknowledged) {
+                    break;
+                }
+                lastOfPrefix = outstanding.delivery;
+                iterator.remove();
+                acknowledgedCount--;
+            }
+            if (lastOfPrefix != null) {
+                lastOfPrefix.ack(true);
+            }
+
+            ImmutableList<Outstanding> remaining = outstandings.values().stream()
+                .filter(outstanding -> outstanding.acknowledged)
+                .collect(ImmutableList.toImmutableList());
+            remaining.forEach(outstanding -> {
+                outstandings.remove(outstanding.delivery.getEnvelope().getDeliveryTag());
+                acknowledgedCount--;
+                outstanding.delivery.ack();
+            });
+        } catch (Exception e) {
+            LOGGER.warn("Failed to acknowledge RabbitMQ deliveries, they will be redelivered", e);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        timer.dispose();
+        if (!scheduler.isDisposed()) {
+            scheduler.schedule(() -> {
+                doFlush();
+                scheduler.dispose();
+            });
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return scheduler.isDisposed();
+    }
+}
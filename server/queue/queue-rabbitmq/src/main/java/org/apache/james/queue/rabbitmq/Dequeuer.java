@@ -21,6 +21,8 @@ package org.apache.james.queue.rabbitmq;
 
 import static org.apache.james.queue.api.MailQueue.DEQUEUED_METRIC_NAME_PREFIX;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.function.Consumer;
 
 import org.apache.james.backends.rabbitmq.ReceiverProvider;
@@ -32,6 +34,7 @@ import org.apache.james.queue.api.MailQueueFactory;
 import org.apache.james.queue.rabbitmq.view.api.DeleteCondition;
 import org.apache.james.queue.rabbitmq.view.api.MailQueueView;
 import org.apache.james.queue.rabbitmq.view.cassandra.CassandraMailQueueBrowser;
+import org.apache.james.util.ReactorUtils;
 import org.apache.mailet.Mail;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,6 +52,31 @@ class Dequeuer {
     private static final Logger LOGGER = LoggerFactory.getLogger(Dequeuer.class);
     private static final boolean REQUEUE = true;
 
+    interface Acknowledger {
+        Acknowledger IMMEDIATE = new Acknowledger() {
+            @Override
+            public void register(AcknowledgableDelivery delivery) {
+
+            }
+
+            @Override
+            public void ack(AcknowledgableDelivery delivery) {
+                delivery.ack();
+            }
+
+            @Override
+            public void nack(AcknowledgableDelivery delivery, boolean requeue) {
+                delivery.nack(requeue);
+            }
+        };
+
+        void register(AcknowledgableDelivery delivery);
+
+        void ack(AcknowledgableDelivery delivery);
+
+        void nack(AcknowledgableDelivery delivery, boolean requeue);
+    }
+
     private static class RabbitMQMailQueueItem implements MailQueue.MailQueueItem {
 
         private final Consumer<Boolean> ack;
@@ -98,11 +126,29 @@ class Dequeuer {
     }
 
     Flux<? extends MailQueue.MailQueueItem> deQueue() {
+        return deQueue(prefetchCount.asInt(), Acknowledger.IMMEDIATE);
+    }
+
+    /**
+     * Acknowledgements of the items dequeued this way are grouped by an {@link AcknowledgementBatcher}.
+     */
+    Flux<List<MailQueue.MailQueueItem>> deQueueBatch(int batchSize, Duration maxBatchDelay) {
+        // Held acknowledgements count toward the QoS: leave room for the next batch while they are pending
+        int qos = Math.max(prefetchCount.asInt(), 2 * batchSize);
+        return Flux.using(() -> new AcknowledgementBatcher(batchSize, maxBatchDelay),
+            batcher -> deQueue(qos, batcher)
+                .<MailQueue.MailQueueItem>map(item -> item)
+                .transform(ReactorUtils.bufferTimeout(batchSize, maxBatchDelay, qos)),
+            AcknowledgementBatcher::dispose);
+    }
+
+    private Flux<RabbitMQMailQueueItem> deQueue(int qos, Acknowledger acknowledger) {
         return Flux.using(receiverProvider::createReceiver,
-                receiver -> receiver.consumeManualAck(this.name.toWorkQueueName().asString(), new ConsumeOptions().qos(this.prefetchCount.asInt())),
+                receiver -> receiver.consumeManualAck(this.name.toWorkQueueName().asString(), new ConsumeOptions().qos(qos)),
                 Receiver::close)
             .filter(getResponse -> getResponse.getBody() != null)
-            .flatMapSequential(this::loadItem)
+            .doOnNext(acknowledger::register)
+            .flatMapSequential(delivery -> loadItem(delivery, acknowledger))
             .concatMap(this::filterIfDeleted);
     }
 
@@ -118,44 +164,44 @@ class Dequeuer {
             });
     }
 
-    private Mono<RabbitMQMailQueueItem> loadItem(AcknowledgableDelivery response) {
-        return loadMail(response)
-            .map(mailWithEnqueueId -> new RabbitMQMailQueueItem(ack(response, mailWithEnqueueId), mailWithEnqueueId));
+    private Mono<RabbitMQMailQueueItem> loadItem(AcknowledgableDelivery response, Acknowledger acknowledger) {
+        return loadMail(response, acknowledger)
+            .map(mailWithEnqueueId -> new RabbitMQMailQueueItem(ack(response, acknowledger, mailWithEnqueueId), mailWithEnqueueId));
     }
 
-    private ThrowingConsumer<Boolean> ack(AcknowledgableDelivery response, MailWithEnqueueId mailWithEnqueueId) {
+    private ThrowingConsumer<Boolean> ack(AcknowledgableDelivery response, Acknowledger acknowledger, MailWithEnqueueId mailWithEnqueueId) {
         return success -> {
             if (success) {
                 dequeueMetric.increment();
-                response.ack();
+                acknowledger.ack(response);
                 mailQueueView.delete(DeleteCondition.withEnqueueId(mailWithEnqueueId.getEnqueueId(), mailWithEnqueueId.getBlobIds()));
             } else {
-                response.nack(REQUEUE);
+                acknowledger.nack(response, REQUEUE);
             }
         };
     }
 
-    private Mono<MailWithEnqueueId> loadMail(AcknowledgableDelivery delivery) {
-        return toMailReference(delivery)
+    private Mono<MailWithEnqueueId> loadMail(AcknowledgableDelivery delivery, Acknowledger acknowledger) {
+        return toMailReference(delivery, acknowledger)
             .flatMap(reference -> mailLoader.load(reference)
                 .onErrorResume(ObjectNotFoundException.class, e -> {
                     LOGGER.error("Fail to load mail {} with enqueueId {} as underlying blobs do not exist. Discarding this message to prevent an infinite loop.", reference.getName(), reference.getEnqueueId(), e);
-                    delivery.nack(!REQUEUE);
+                    acknowledger.nack(delivery, !REQUEUE);
                     return Mono.empty();
                 })
                 .onErrorResume(e -> {
                     LOGGER.error("Fail to load mail {} with enqueueId {}", reference.getName(), reference.getEnqueueId(), e);
-                    delivery.nack(REQUEUE);
+                    acknowledger.nack(delivery, REQUEUE);
                     return Mono.empty();
                 }));
     }
 
-    private Mono<MailReferenceDTO> toMailReference(AcknowledgableDelivery delivery) {
+    private Mono<MailReferenceDTO> toMailReference(AcknowledgableDelivery delivery, Acknowledger acknowledger) {
         return Mono.fromCallable(delivery::getBody)
             .map(Throwing.function(mailReferenceSerializer::read).sneakyThrow())
             .onErrorResume(e -> {
                 LOGGER.error("Fail to deserialize MailReferenceDTO. Discarding this message to prevent an infinite loop.", e);
-                delivery.nack(!REQUEUE);
+                acknowledger.nack(delivery, !REQUEUE);
                 return Mono.empty();
             });
     }
@@ -23,6 +23,7 @@ import static org.apache.james.util.ReactorUtils.DEFAULT_CONCURRENCY;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 
 import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.queue.api.MailQueueItemDecoratorFactory;
@@ -37,6 +38,7 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Function;
 import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -103,6 +105,14 @@ public class RabbitMQMailQueue implements ManageableMailQueue {
             .map(item -> decoratorFactory.decorate(item, name.toModel()));
     }
 
+    @Override
+    public Flux<List<MailQueueItem>> deQueueBatch(int batchSize, Duration maxBatchDelay) {
+        return dequeuer.deQueueBatch(batchSize, maxBatchDelay)
+            .<List<MailQueueItem>>map(batch -> batch.stream()
+                .map(item -> decoratorFactory.decorate(item, name.toModel()))
+                .collect(ImmutableList.toImmutableList()));
+    }
+
     @Override
     public long getSize() {
         return mailQueueView.getSize();
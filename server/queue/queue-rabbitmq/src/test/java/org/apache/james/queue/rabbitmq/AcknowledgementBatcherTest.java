@@ -0,0 +1,159 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.queue.rabbitmq;
+
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.rabbitmq.client.Envelope;
+
+import reactor.rabbitmq.AcknowledgableDelivery;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+class AcknowledgementBatcherTest {
+    private static final boolean MULTIPLE = true;
+    private static final boolean REQUEUE = true;
+
+    private VirtualTimeScheduler scheduler;
+    private AcknowledgementBatcher testee;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = VirtualTimeScheduler.create();
+        testee = new AcknowledgementBatcher(3, Duration.ofHours(1), scheduler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        testee.dispose();
+    }
+
+    private AcknowledgableDelivery delivery(long tag) {
+        AcknowledgableDelivery delivery = mock(AcknowledgableDelivery.class);
+        when(delivery.getEnvelope()).thenReturn(new Envelope(tag, false, "exchange", "routingKey"));
+        testee.register(delivery);
+        return delivery;
+    }
+
+    @Test
+    void ackShouldBeHeldUntilBatchIsFull() {
+        AcknowledgableDelivery delivery1 = delivery(1);
+        AcknowledgableDelivery delivery2 = delivery(2);
+
+        testee.ack(delivery1);
+        testee.ack(delivery2);
+
+        verify(delivery1, never()).ack(anyBoolean());
+        verify(delivery2, never()).ack(anyBoolean());
+    }
+
+    @Test
+    void fullBatchShouldBeAcknowledgedAtOnce() {
+        AcknowledgableDelivery delivery1 = delivery(1);
+        AcknowledgableDelivery delivery2 = delivery(2);
+        AcknowledgableDelivery delivery3 = delivery(3);
+
+        testee.ack(delivery2);
+        testee.ack(delivery1);
+        testee.ack(delivery3);
+
+        verify(delivery3).ack(MULTIPLE);
+        verify(delivery1, never()).ack();
+        verify(delivery2, never()).ack();
+    }
+
+    @Test
+    void flushShouldAcknowledgeIndividuallyDeliveriesFollowingAPendingOne() {
+        AcknowledgableDelivery delivery1 = delivery(1);
+        AcknowledgableDelivery delivery2 = delivery(2);
+        AcknowledgableDelivery delivery3 = delivery(3);
+        AcknowledgableDelivery delivery4 = delivery(4);
+
+        testee.ack(delivery1);
+        testee.ack(delivery3);
+        testee.ack(delivery4);
+
+        verify(delivery1).ack(MULTIPLE);
+        verify(delivery2, never()).ack(anyBoolean());
+        verify(delivery2, never()).ack();
+        verify(delivery3).ack();
+        verify(delivery4).ack();
+    }
+
+    @Test
+    void nackShouldBeImmediate() {
+        AcknowledgableDelivery delivery1 = delivery(1);
+
+        testee.nack(delivery1, REQUEUE);
+
+        verify(delivery1).nack(REQUEUE);
+    }
+
+    @Test
+    void nackedDeliveriesShouldNotHoldBackFollowingOnes() {
+        AcknowledgableDelivery delivery1 = delivery(1);
+        AcknowledgableDelivery delivery2 = delivery(2);
+
+        testee.nack(delivery1, REQUEUE);
+        testee.ack(delivery2);
+        testee.flush();
+
+        verify(delivery2).ack(MULTIPLE);
+    }
+
+    @Test
+    void disposeShouldFlushHeldAcks() {
+        AcknowledgableDelivery delivery1 = delivery(1);
+        testee.ack(delivery1);
+
+        testee.dispose();
+
+        verify(delivery1).ack(MULTIPLE);
+    }
+
+    @Test
+    void heldAcksShouldBeFlushedAfterDelay() {
+        AcknowledgableDelivery delivery1 = delivery(1);
+        testee.ack(delivery1);
+
+        scheduler.advanceTimeBy(Duration.ofHours(1));
+
+        verify(delivery1).ack(MULTIPLE);
+    }
+
+    @Test
+    void heldAcksShouldNotBeFlushedBeforeDelay() {
+        AcknowledgableDelivery delivery1 = delivery(1);
+        testee.ack(delivery1);
+
+        scheduler.advanceTimeBy(Duration.ofMinutes(59));
+
+        verify(delivery1, never()).ack(anyBoolean());
+    }
+}